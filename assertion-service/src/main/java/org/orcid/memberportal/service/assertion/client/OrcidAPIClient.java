@@ -1,12 +1,15 @@
 package org.orcid.memberportal.service.assertion.client;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import javax.ws.rs.core.HttpHeaders;
@@ -17,6 +20,7 @@ import javax.xml.bind.Marshaller;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Consts;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ClientProtocolException;
@@ -27,6 +31,8 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -49,6 +55,7 @@ import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.adapter.AffiliationAdapter;
 import org.orcid.memberportal.service.assertion.web.rest.errors.ORCIDAPIException;
+import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryThrottledException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,11 +65,17 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.util.Base64;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Component
 public class OrcidAPIClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(OrcidAPIClient.class);
 
+    static final String REQUESTS_METRIC = "orcid.api.requests";
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
     private final Marshaller jaxbMarshaller;
 
     private CloseableHttpClient httpClient;
@@ -72,6 +85,12 @@ public class OrcidAPIClient {
     @Autowired
     private ApplicationProperties applicationProperties;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RegistryRateLimiter rateLimiter;
+
     public OrcidAPIClient() throws JAXBException {
         JAXBContext jaxbContext = JAXBContext.newInstance(Affiliation.class, Distinction.class, Employment.class, Education.class, InvitedPosition.class,
                 Membership.class, Qualification.class, Service.class, OrcidError.class, NotificationPermission.class);
@@ -92,7 +111,7 @@ public class OrcidAPIClient {
         params.add(new BasicNameValuePair("subject_token", idToken));
         httpPost.setEntity(new UrlEncodedFormEntity(params));
 
-        HttpResponse response = httpClient.execute(httpPost);
+        HttpResponse response = execute("exchange-token", httpPost);
         Integer statusCode = response.getStatusLine().getStatusCode();
 
         if (statusCode != Status.OK.getStatusCode()) {
@@ -118,8 +137,7 @@ public class OrcidAPIClient {
         StringEntity entity = getStringEntity(orcidAffiliation);
         httpPost.setEntity(entity);
 
-        try {
-            HttpResponse response = httpClient.execute(httpPost);
+        try (CloseableHttpResponse response = execute("create-affiliation", httpPost)) {
             if (response.getStatusLine().getStatusCode() != Status.CREATED.getStatusCode()) {
                 String responseString = EntityUtils.toString(response.getEntity());
                 LOG.error("Unable to create {} for {}. Status code: {}, error {}", affType, orcid, response.getStatusLine().getStatusCode(), responseString);
@@ -148,7 +166,7 @@ public class OrcidAPIClient {
 
         CloseableHttpResponse response = null;
         try {
-            response = httpClient.execute(httpPut);
+            response = execute("update-affiliation", httpPut);
             if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
                 String responseString = EntityUtils.toString(response.getEntity());
                 LOG.error("Unable to update {} with putcode {} for {}. Status code: {}, error {}", affType, assertion.getPutCode(), orcid,
@@ -169,7 +187,7 @@ public class OrcidAPIClient {
 
         CloseableHttpResponse response = null;
         try {
-            response = httpClient.execute(httpDelete);
+            response = execute("delete-affiliation", httpDelete);
             if (response.getStatusLine().getStatusCode() != Status.NO_CONTENT.getStatusCode()) {
                 String responseString = EntityUtils.toString(response.getEntity());
                 LOG.error("Unable to delete {} with putcode {} for {}. Status code: {}, error {}", affType, assertion.getPutCode(), orcid,
@@ -197,6 +215,8 @@ public class OrcidAPIClient {
         initInternalAccessToken();
         try {
             return function.get();
+        } catch (RegistryThrottledException e) {
+            throw e;
         } catch (Exception e) {
             LOG.info("Refreshing internal access token");
             createInternalAccessToken();
@@ -213,6 +233,8 @@ public class OrcidAPIClient {
     private void createInternalAccessToken() {
         try {
             internalAccessToken = getInternalAccessToken();
+        } catch (RegistryThrottledException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error("Failed to create internal access token", e);
             throw new RuntimeException(e);
@@ -226,7 +248,7 @@ public class OrcidAPIClient {
         StringEntity entity = getStringEntity(notificationPermission);
         httpPost.setEntity(entity);
 
-        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+        try (CloseableHttpResponse response = execute("create-notification", httpPost)) {
             if (response.getStatusLine().getStatusCode() != Status.CREATED.getStatusCode()) {
                 String responseString = EntityUtils.toString(response.getEntity());
                 LOG.error("Unable to create notification for {}. Status code: {}, error {}", orcidId, response.getStatusLine().getStatusCode(), responseString);
@@ -234,6 +256,8 @@ public class OrcidAPIClient {
             }
             String location = response.getFirstHeader("location").getValue();
             return location.substring(location.lastIndexOf('/') + 1);
+        } catch (RegistryThrottledException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error("Error posting notification permission", e);
             throw new RuntimeException(e);
@@ -244,7 +268,7 @@ public class OrcidAPIClient {
         HttpGet httpGet = new HttpGet(applicationProperties.getInternalRegistryApiEndpoint() + "orcid/" + Base64.encode(email) + "/email");
         setJsonHeaders(httpGet, internalAccessToken);
 
-        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
+        try (CloseableHttpResponse response = execute("find-orcid-id", httpGet)) {
             if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode() && response.getStatusLine().getStatusCode() != Status.NOT_FOUND.getStatusCode()) {
                 LOG.warn("Received non-200 / non-404 response trying to find orcid id for email {}", email);
                 String responseString = new String(response.getEntity().getContent().readAllBytes(), StandardCharsets.UTF_8);
@@ -259,6 +283,8 @@ public class OrcidAPIClient {
                     return orcidId;
                 }
             }
+        } catch (RegistryThrottledException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error("Error getting orcid id for {}", email, e);
             throw new RuntimeException(e);
@@ -276,7 +302,7 @@ public class OrcidAPIClient {
         params.add(new BasicNameValuePair("grant_type", "client_credentials"));
         httpPost.setEntity(new UrlEncodedFormEntity(params));
 
-        HttpResponse response = httpClient.execute(httpPost);
+        HttpResponse response = execute("internal-token", httpPost);
         Integer statusCode = response.getStatusLine().getStatusCode();
 
         if (statusCode != Status.OK.getStatusCode()) {
@@ -291,6 +317,92 @@ public class OrcidAPIClient {
         return json.get("access_token").toString();
     }
 
+    /**
+     * Executes the request at the pace set by the {@link RegistryRateLimiter}.
+     * Requests throttled with a 429 or 503 are retried once the registry's
+     * {@code Retry-After} has passed, and a {@link RegistryThrottledException}
+     * is thrown if they are still throttled after the last retry. Other server
+     * errors slow down later requests, but are returned to the caller.
+     */
+    private CloseableHttpResponse execute(String operation, HttpUriRequest request) throws IOException {
+        for (int attempt = 0;; attempt++) {
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting to call the registry");
+            }
+
+            CloseableHttpResponse response = send(operation, request);
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != TOO_MANY_REQUESTS && statusCode < Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+                rateLimiter.onSuccess();
+                return response;
+            }
+            if (statusCode != TOO_MANY_REQUESTS && statusCode != Status.SERVICE_UNAVAILABLE.getStatusCode()) {
+                rateLimiter.onThrottled(0);
+                return response;
+            }
+
+            rateLimiter.onThrottled(getRetryAfterInMs(response));
+            if (attempt >= rateLimiter.getMaxRetries()) {
+                String responseString = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : null;
+                response.close();
+                LOG.warn("Registry still throttling {} after {} retries", operation, attempt);
+                throw new RegistryThrottledException(statusCode, responseString);
+            }
+            EntityUtils.consumeQuietly(response.getEntity());
+            response.close();
+        }
+    }
+
+    private long getRetryAfterInMs(HttpResponse response) {
+        Header retryAfter = response.getFirstHeader("Retry-After");
+        if (retryAfter != null && retryAfter.getValue() != null) {
+            String value = retryAfter.getValue().trim();
+            if (StringUtils.isNumeric(value)) {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+            }
+            Date date = DateUtils.parseDate(value);
+            if (date != null) {
+                return Math.max(0, date.getTime() - System.currentTimeMillis());
+            }
+        }
+        return rateLimiter.getDefaultRetryAfterInMs();
+    }
+
+    /**
+     * Sends the request, timing it under {@value #REQUESTS_METRIC} tagged with
+     * the operation, the response status and its outcome.
+     */
+    private CloseableHttpResponse send(String operation, HttpUriRequest request) throws IOException {
+        String status = "IO_ERROR";
+        long start = System.nanoTime();
+        try {
+            CloseableHttpResponse response = httpClient.execute(request);
+            status = String.valueOf(response.getStatusLine().getStatusCode());
+            return response;
+        } finally {
+            meterRegistry.timer(REQUESTS_METRIC, "operation", operation, "status", status, "outcome", getOutcome(status)).record(System.nanoTime() - start,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String getOutcome(String status) {
+        switch (status.charAt(0)) {
+        case '2':
+            return "SUCCESS";
+        case '3':
+            return "REDIRECTION";
+        case '4':
+            return "CLIENT_ERROR";
+        case '5':
+            return "SERVER_ERROR";
+        default:
+            return "UNKNOWN";
+        }
+    }
+
     private void setXmlHeaders(HttpRequestBase request, String accessToken) {
         request.setHeader(HttpHeaders.ACCEPT, "application/xml");
         request.setHeader(HttpHeaders.CONTENT_TYPE, "application/xml");
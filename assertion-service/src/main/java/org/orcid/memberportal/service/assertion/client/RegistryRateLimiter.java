@@ -0,0 +1,108 @@
+package org.orcid.memberportal.service.assertion.client;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties.RegistryThrottling;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Paces all requests made to the registry, so that the sync and the
+ * notification sender slow down together when the registry pushes back.
+ *
+ * The allowed rate follows AIMD: it grows steadily while requests succeed and
+ * is cut back whenever the registry throttles or fails, and a
+ * {@code Retry-After} from the registry pauses all requests until it has
+ * passed.
+ */
+@Component
+public class RegistryRateLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RegistryRateLimiter.class);
+
+    static final String RATE_METRIC = "orcid.api.rate";
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double requestsPerSecond;
+
+    private long nextPermitNanos;
+
+    private long pausedUntilNanos;
+
+    @PostConstruct
+    public void init() {
+        requestsPerSecond = getSettings().getInitialRequestsPerSecond();
+        nextPermitNanos = System.nanoTime();
+        pausedUntilNanos = nextPermitNanos;
+        meterRegistry.gauge(RATE_METRIC, this, RegistryRateLimiter::getRequestsPerSecond);
+    }
+
+    /**
+     * Blocks until the next request can be made.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permit = Math.max(now, Math.max(nextPermitNanos, pausedUntilNanos));
+            nextPermitNanos = permit + (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+            waitNanos = permit - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * The registry handled a request, so allow one more request per second
+     * for every second's worth of these.
+     */
+    public synchronized void onSuccess() {
+        RegistryThrottling settings = getSettings();
+        requestsPerSecond = Math.min(settings.getMaxRequestsPerSecond(), requestsPerSecond + settings.getAdditiveIncrease() / requestsPerSecond);
+    }
+
+    /**
+     * The registry pushed back, so cut the rate and hold off all requests for
+     * {@code retryAfterInMs}.
+     */
+    public synchronized void onThrottled(long retryAfterInMs) {
+        RegistryThrottling settings = getSettings();
+        requestsPerSecond = Math.max(settings.getMinRequestsPerSecond(), requestsPerSecond * settings.getMultiplicativeDecrease());
+
+        long pause = Math.min(retryAfterInMs, settings.getMaxRetryAfterInMs());
+        if (pause > 0) {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pause));
+        }
+        LOG.warn("Registry is pushing back, slowing down to {} requests per second and pausing for {}ms", String.format("%.2f", requestsPerSecond), pause);
+    }
+
+    public long getDefaultRetryAfterInMs() {
+        return getSettings().getDefaultRetryAfterInMs();
+    }
+
+    public int getMaxRetries() {
+        return getSettings().getMaxRetries();
+    }
+
+    public synchronized double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    private RegistryThrottling getSettings() {
+        return applicationProperties.getRegistryThrottling();
+    }
+
+}
@@ -34,16 +34,22 @@ public class ApplicationProperties {
 
     private int storedFileLifespan;
 
+    private String storedFileStorage;
+
     private String memberAssertionStatsDirectory;
     
     private String syncAffiliationsDelay;
 
     private String generateMemberAssertionStatsCron;
+
+    private String reconcileMemberAssertionStatsCron;
     
     private String assertionsCsvUploadDirectory;
     
     private String processAssertionUploadsDelay;
     
+    private String processAssertionDeletesDelay;
+    
     private String csvReportsDirectory;
     
     private String removeStoredFilesDelay;
@@ -58,6 +64,16 @@ public class ApplicationProperties {
     
     private String resendNotificationsCron;
     
+    private String refreshBacklogMetricsDelay;
+    
+    private AssertionUploads assertionUploads = new AssertionUploads();
+    
+    private RegistrySync registrySync = new RegistrySync();
+    
+    private RegistryThrottling registryThrottling = new RegistryThrottling();
+    
+    private RegistryRetries registryRetries = new RegistryRetries();
+    
     public String getJwtSignatureUrl() {
         return jwtSignatureUrl;
     }
@@ -74,6 +90,38 @@ public class ApplicationProperties {
         this.landingPageUrl = landingPageUrl;
     }
 
+    public AssertionUploads getAssertionUploads() {
+        return assertionUploads;
+    }
+
+    public void setAssertionUploads(AssertionUploads assertionUploads) {
+        this.assertionUploads = assertionUploads;
+    }
+
+    public RegistrySync getRegistrySync() {
+        return registrySync;
+    }
+
+    public void setRegistrySync(RegistrySync registrySync) {
+        this.registrySync = registrySync;
+    }
+
+    public RegistryThrottling getRegistryThrottling() {
+        return registryThrottling;
+    }
+
+    public void setRegistryThrottling(RegistryThrottling registryThrottling) {
+        this.registryThrottling = registryThrottling;
+    }
+
+    public RegistryRetries getRegistryRetries() {
+        return registryRetries;
+    }
+
+    public void setRegistryRetries(RegistryRetries registryRetries) {
+        this.registryRetries = registryRetries;
+    }
+
     public TokenExchange getTokenExchange() {
         return tokenExchange;
     }
@@ -154,6 +202,18 @@ public class ApplicationProperties {
         this.storedFileLifespan = storedFileLifespan;
     }
 
+    /**
+     * Where new stored files are kept, local or gridfs. Files on local disk
+     * can only be read by the node that wrote them.
+     */
+    public String getStoredFileStorage() {
+        return storedFileStorage;
+    }
+
+    public void setStoredFileStorage(String storedFileStorage) {
+        this.storedFileStorage = storedFileStorage;
+    }
+
     public String getMemberAssertionStatsDirectory() {
         return memberAssertionStatsDirectory;
     }
@@ -178,6 +238,14 @@ public class ApplicationProperties {
         this.generateMemberAssertionStatsCron = generateMemberAssertionStatsCron;
     }
 
+    public String getReconcileMemberAssertionStatsCron() {
+        return reconcileMemberAssertionStatsCron;
+    }
+
+    public void setReconcileMemberAssertionStatsCron(String reconcileMemberAssertionStatsCron) {
+        this.reconcileMemberAssertionStatsCron = reconcileMemberAssertionStatsCron;
+    }
+
     public String getAssertionsCsvUploadDirectory() {
         return assertionsCsvUploadDirectory;
     }
@@ -194,6 +262,14 @@ public class ApplicationProperties {
         this.processAssertionUploadsDelay = processAssertionUploadsDelay;
     }
 
+    public String getProcessAssertionDeletesDelay() {
+        return processAssertionDeletesDelay;
+    }
+
+    public void setProcessAssertionDeletesDelay(String processAssertionDeletesDelay) {
+        this.processAssertionDeletesDelay = processAssertionDeletesDelay;
+    }
+
     public String getRemoveStoredFilesDelay() {
         return removeStoredFilesDelay;
     }
@@ -249,6 +325,14 @@ public class ApplicationProperties {
     public void setResendNotificationsCron(String resendNotificationsCron) {
         this.resendNotificationsCron = resendNotificationsCron;
     }
+    
+    public String getRefreshBacklogMetricsDelay() {
+        return refreshBacklogMetricsDelay;
+    }
+
+    public void setRefreshBacklogMetricsDelay(String refreshBacklogMetricsDelay) {
+        this.refreshBacklogMetricsDelay = refreshBacklogMetricsDelay;
+    }
 
 
 
@@ -310,5 +394,232 @@ public class ApplicationProperties {
 
     }
 
+    /**
+     * Settings for the assertion upload job queue. Each node processes rows in
+     * chunks of {@code chunkSize}, checkpointing and renewing its lease of
+     * {@code leaseInSeconds} after every chunk.
+     */
+    public static class AssertionUploads {
+        private int chunkSize = 100;
+        private int leaseInSeconds = 600;
+        private int maxAttempts = 3;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getLeaseInSeconds() {
+            return leaseInSeconds;
+        }
+
+        public void setLeaseInSeconds(int leaseInSeconds) {
+            this.leaseInSeconds = leaseInSeconds;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+    }
+
+    /**
+     * Settings for how the registry sync is started. In {@code polling} mode
+     * it runs every {@code syncAffiliationsDelay}. In {@code events} and
+     * {@code change-stream} mode it runs {@code coalesceDelayInMs} after
+     * assertions change, with a full sync polled for every
+     * {@code fullSyncIntervalInMs}. Each sync takes members in turn, syncing
+     * up to {@code assertionsPerMemberTurn} of a member's assertions before
+     * moving on to the next, and checks for members with new changes every
+     * {@code memberBacklogRefreshIntervalInMs}.
+     */
+    public static class RegistrySync {
+        private String trigger = "polling";
+        private long coalesceDelayInMs = 2000;
+        private long fullSyncIntervalInMs = 600000;
+        private int assertionsPerMemberTurn = 50;
+        private long memberBacklogRefreshIntervalInMs = 60000;
+
+        public String getTrigger() {
+            return trigger;
+        }
+
+        public void setTrigger(String trigger) {
+            this.trigger = trigger;
+        }
+
+        public long getCoalesceDelayInMs() {
+            return coalesceDelayInMs;
+        }
+
+        public void setCoalesceDelayInMs(long coalesceDelayInMs) {
+            this.coalesceDelayInMs = coalesceDelayInMs;
+        }
+
+        public long getFullSyncIntervalInMs() {
+            return fullSyncIntervalInMs;
+        }
+
+        public void setFullSyncIntervalInMs(long fullSyncIntervalInMs) {
+            this.fullSyncIntervalInMs = fullSyncIntervalInMs;
+        }
+
+        public int getAssertionsPerMemberTurn() {
+            return assertionsPerMemberTurn;
+        }
+
+        public void setAssertionsPerMemberTurn(int assertionsPerMemberTurn) {
+            this.assertionsPerMemberTurn = assertionsPerMemberTurn;
+        }
+
+        public long getMemberBacklogRefreshIntervalInMs() {
+            return memberBacklogRefreshIntervalInMs;
+        }
+
+        public void setMemberBacklogRefreshIntervalInMs(long memberBacklogRefreshIntervalInMs) {
+            this.memberBacklogRefreshIntervalInMs = memberBacklogRefreshIntervalInMs;
+        }
+    }
+
+    /**
+     * Settings for the rate of requests made to the registry. The rate starts
+     * at {@code initialRequestsPerSecond}, grows by {@code additiveIncrease}
+     * requests per second for every second of successful requests, and is
+     * multiplied by {@code multiplicativeDecrease} whenever the registry
+     * pushes back, staying between {@code minRequestsPerSecond} and
+     * {@code maxRequestsPerSecond}. Requests throttled with a 429 or 503 are
+     * retried up to {@code maxRetries} times after waiting for the
+     * {@code Retry-After} header, or {@code defaultRetryAfterInMs} if there is
+     * none, capped at {@code maxRetryAfterInMs}.
+     */
+    public static class RegistryThrottling {
+        private double initialRequestsPerSecond = 10;
+        private double minRequestsPerSecond = 1;
+        private double maxRequestsPerSecond = 40;
+        private double additiveIncrease = 1;
+        private double multiplicativeDecrease = 0.5;
+        private long defaultRetryAfterInMs = 1000;
+        private long maxRetryAfterInMs = 60000;
+        private int maxRetries = 3;
+
+        public double getInitialRequestsPerSecond() {
+            return initialRequestsPerSecond;
+        }
+
+        public void setInitialRequestsPerSecond(double initialRequestsPerSecond) {
+            this.initialRequestsPerSecond = initialRequestsPerSecond;
+        }
+
+        public double getMinRequestsPerSecond() {
+            return minRequestsPerSecond;
+        }
+
+        public void setMinRequestsPerSecond(double minRequestsPerSecond) {
+            this.minRequestsPerSecond = minRequestsPerSecond;
+        }
+
+        public double getMaxRequestsPerSecond() {
+            return maxRequestsPerSecond;
+        }
+
+        public void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+            this.maxRequestsPerSecond = maxRequestsPerSecond;
+        }
+
+        public double getAdditiveIncrease() {
+            return additiveIncrease;
+        }
+
+        public void setAdditiveIncrease(double additiveIncrease) {
+            this.additiveIncrease = additiveIncrease;
+        }
+
+        public double getMultiplicativeDecrease() {
+            return multiplicativeDecrease;
+        }
+
+        public void setMultiplicativeDecrease(double multiplicativeDecrease) {
+            this.multiplicativeDecrease = multiplicativeDecrease;
+        }
+
+        public long getDefaultRetryAfterInMs() {
+            return defaultRetryAfterInMs;
+        }
+
+        public void setDefaultRetryAfterInMs(long defaultRetryAfterInMs) {
+            this.defaultRetryAfterInMs = defaultRetryAfterInMs;
+        }
+
+        public long getMaxRetryAfterInMs() {
+            return maxRetryAfterInMs;
+        }
+
+        public void setMaxRetryAfterInMs(long maxRetryAfterInMs) {
+            this.maxRetryAfterInMs = maxRetryAfterInMs;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+    }
+
+    /**
+     * Settings for retrying assertions the registry sync failed on. The wait
+     * before the next attempt starts at {@code transientErrorBackoffInMs} for
+     * errors that may go away by themselves, eg timeouts and 5xx responses, or
+     * {@code permanentErrorBackoffInMs} for other 4xx responses, and doubles
+     * with every failed attempt up to {@code maxBackoffInMs}. After
+     * {@code maxAttempts} failed attempts the assertion is set to
+     * {@code SYNC_FAILED}, and is only retried once it is edited or uploaded
+     * again.
+     */
+    public static class RegistryRetries {
+        private int maxAttempts = 8;
+        private long transientErrorBackoffInMs = 300000;
+        private long permanentErrorBackoffInMs = 3600000;
+        private long maxBackoffInMs = 86400000;
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getTransientErrorBackoffInMs() {
+            return transientErrorBackoffInMs;
+        }
+
+        public void setTransientErrorBackoffInMs(long transientErrorBackoffInMs) {
+            this.transientErrorBackoffInMs = transientErrorBackoffInMs;
+        }
+
+        public long getPermanentErrorBackoffInMs() {
+            return permanentErrorBackoffInMs;
+        }
+
+        public void setPermanentErrorBackoffInMs(long permanentErrorBackoffInMs) {
+            this.permanentErrorBackoffInMs = permanentErrorBackoffInMs;
+        }
+
+        public long getMaxBackoffInMs() {
+            return maxBackoffInMs;
+        }
+
+        public void setMaxBackoffInMs(long maxBackoffInMs) {
+            this.maxBackoffInMs = maxBackoffInMs;
+        }
+    }
 
 }
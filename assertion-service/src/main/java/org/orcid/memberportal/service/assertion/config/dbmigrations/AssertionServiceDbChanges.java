@@ -113,4 +113,43 @@ public class AssertionServiceDbChanges {
         LOG.info("{} orcid ids removed from affiliations", numRemoved);
     }
 
+    @ChangeSet(order = "07", author = "George Nash", id = "07-addAssertionsUploadJobIndexes")
+    public void addAssertionsUploadJobIndexes(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps("assertions_upload_job").ensureIndex(new Index("stored_file_id", Direction.ASC).unique().named("stored_file_id_unique_idx"));
+        mongoTemplate.indexOps("assertions_upload_job")
+                .ensureIndex(new Index().on("status", Direction.ASC).on("lease_expiry", Direction.ASC).on("date_created", Direction.ASC).named("status_lease_expiry_idx"));
+        mongoTemplate.indexOps("assertions_upload_job").ensureIndex(new Index().on("owner_id", Direction.ASC).on("date_created", Direction.DESC).named("owner_id_date_created_idx"));
+    }
+
+    @ChangeSet(order = "08", author = "George Nash", id = "08-addAssertionSalesforceIdCreatedIndex")
+    public void addAssertionSalesforceIdCreatedIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps("assertion").ensureIndex(new Index().on("salesforce_id", Direction.ASC).on("created", Direction.ASC).named("salesforce_id_created_idx"));
+    }
+
+    @ChangeSet(order = "09", author = "George Nash", id = "09-addOrcidRecordTokensSalesforceIdIndex")
+    public void addOrcidRecordTokensSalesforceIdIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps("orcid_record").ensureIndex(new Index("tokens.salesforce_id", Direction.ASC).named("tokens_salesforce_id_idx"));
+    }
+
+    @ChangeSet(order = "10", author = "George Nash", id = "10-addAssertionSalesforceIdModifiedIndex")
+    public void addAssertionSalesforceIdModifiedIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps("assertion").ensureIndex(new Index().on("salesforce_id", Direction.ASC).on("modified", Direction.ASC).named("salesforce_id_modified_idx"));
+    }
+
+    @ChangeSet(order = "11", author = "George Nash", id = "11-addStoredFileRemovalDateIndex")
+    public void addStoredFileRemovalDateIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps("stored_file").ensureIndex(new Index("removal_date", Direction.ASC).named("removal_date_idx"));
+    }
+
+    @ChangeSet(order = "12", author = "George Nash", id = "12-addStoredFileRemovalDateIdIndex")
+    public void addStoredFileRemovalDateIdIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps("stored_file").ensureIndex(new Index().on("removal_date", Direction.ASC).on("_id", Direction.ASC).named("removal_date_id_idx"));
+        try {
+            mongoTemplate.indexOps("stored_file").dropIndex("removal_date_idx");
+        } catch (Exception e) {
+            // do nothing - superseded by removal_date_id_idx, and not there
+            // if changeset 11 never ran
+        }
+    }
+
 }
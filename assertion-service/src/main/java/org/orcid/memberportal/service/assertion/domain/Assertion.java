@@ -11,11 +11,15 @@ import org.apache.commons.lang3.StringUtils;
 import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "assertion")
+@CompoundIndex(name = "email_salesforce_id_idx", def = "{'email': 1, 'salesforce_id': 1}")
 public class Assertion implements Serializable {
     private static final long serialVersionUID = 1845971448687999429L;
 
@@ -101,6 +105,13 @@ public class Assertion implements Serializable {
     @Field("last_sync_attempt")
     private Instant lastSyncAttempt;
 
+    @Field("retry_count")
+    private int retryCount;
+
+    @Indexed
+    @Field("next_attempt_at")
+    private Instant nextAttemptAt;
+
     @Field("last_modified_by")
     private String lastModifiedBy;
 
@@ -111,6 +122,10 @@ public class Assertion implements Serializable {
     @Field("salesforce_id")
     private String salesforceId;
 
+    @JsonIgnore
+    @Field("salesforce_migration_id")
+    private String salesforceMigrationId;
+
     @Indexed
     @Field("added_to_orcid")
     private Instant addedToORCID;
@@ -147,6 +162,18 @@ public class Assertion implements Serializable {
     @Transient
     private String permissionLink;
 
+    /**
+     * The status and salesforce id as last read from or saved to the
+     * database, so that a save can tell whether they have changed.
+     */
+    @Transient
+    @JsonIgnore
+    private String persistedStatus;
+
+    @Transient
+    @JsonIgnore
+    private String persistedSalesforceId;
+
     public String getPermissionLink() {
         return permissionLink;
     }
@@ -339,6 +366,30 @@ public class Assertion implements Serializable {
         this.modified = modified;
     }
 
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getSalesforceMigrationId() {
+        return salesforceMigrationId;
+    }
+
+    public void setSalesforceMigrationId(String salesforceMigrationId) {
+        this.salesforceMigrationId = salesforceMigrationId;
+    }
+
     public String getLastModifiedBy() {
         return lastModifiedBy;
     }
@@ -428,6 +479,22 @@ public class Assertion implements Serializable {
     public void setPrettyStatus(String prettyStatus) {
         this.prettyStatus = prettyStatus;
     }
+
+    public String getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    public void setPersistedStatus(String persistedStatus) {
+        this.persistedStatus = persistedStatus;
+    }
+
+    public String getPersistedSalesforceId() {
+        return persistedSalesforceId;
+    }
+
+    public void setPersistedSalesforceId(String persistedSalesforceId) {
+        this.persistedSalesforceId = persistedSalesforceId;
+    }
     
     /**
      * Returns the date the notification was first sent to the orcid user associated with this affiliation
@@ -0,0 +1,140 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Queue entry for deleting all of a member's assertions. The assertions are
+ * marked as pending delete when the job is created, and removed in batches
+ * as their registry deletes are confirmed.
+ */
+@Document(collection = "assertions_delete_job")
+public class AssertionsDeleteJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String PENDING_STATUS = "pending";
+
+    public static final String IN_PROGRESS_STATUS = "in-progress";
+
+    public static final String COMPLETE_STATUS = "complete";
+
+    public static final int MAX_RECORDED_FAILURES = 1000;
+
+    @Id
+    private String id;
+
+    @Field("salesforce_id")
+    private String salesforceId;
+
+    @Field
+    private String status;
+
+    @Field("date_created")
+    private Instant dateCreated;
+
+    @Field("date_completed")
+    private Instant dateCompleted;
+
+    @Field("total_assertions")
+    private long totalAssertions;
+
+    @Field("num_deleted")
+    private long numDeleted;
+
+    @Field("registry_delete_failures")
+    private List<String> registryDeleteFailures = new ArrayList<>();
+
+    @Field("num_registry_delete_failures")
+    private long numRegistryDeleteFailures;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSalesforceId() {
+        return salesforceId;
+    }
+
+    public void setSalesforceId(String salesforceId) {
+        this.salesforceId = salesforceId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Instant dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+
+    public Instant getDateCompleted() {
+        return dateCompleted;
+    }
+
+    public void setDateCompleted(Instant dateCompleted) {
+        this.dateCompleted = dateCompleted;
+    }
+
+    public long getTotalAssertions() {
+        return totalAssertions;
+    }
+
+    public void setTotalAssertions(long totalAssertions) {
+        this.totalAssertions = totalAssertions;
+    }
+
+    public long getNumDeleted() {
+        return numDeleted;
+    }
+
+    public void setNumDeleted(long numDeleted) {
+        this.numDeleted = numDeleted;
+    }
+
+    public List<String> getRegistryDeleteFailures() {
+        return registryDeleteFailures;
+    }
+
+    public void setRegistryDeleteFailures(List<String> registryDeleteFailures) {
+        this.registryDeleteFailures = registryDeleteFailures;
+    }
+
+    public long getNumRegistryDeleteFailures() {
+        return numRegistryDeleteFailures;
+    }
+
+    public void setNumRegistryDeleteFailures(long numRegistryDeleteFailures) {
+        this.numRegistryDeleteFailures = numRegistryDeleteFailures;
+    }
+
+    /**
+     * Counts an assertion that couldn't be deleted from the registry, keeping
+     * the first {@value #MAX_RECORDED_FAILURES} ids.
+     */
+    public void addRegistryDeleteFailure(String assertionId) {
+        numRegistryDeleteFailures++;
+        if (registryDeleteFailures.size() < MAX_RECORDED_FAILURES) {
+            registryDeleteFailures.add(assertionId);
+        }
+    }
+
+}
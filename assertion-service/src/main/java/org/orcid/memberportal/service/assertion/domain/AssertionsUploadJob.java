@@ -0,0 +1,293 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.orcid.memberportal.service.assertion.upload.AssertionsUploadError;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Queue entry for processing an uploaded assertions csv file. A node claims
+ * the job by taking a lease on it, and checkpoints its progress after each
+ * chunk of rows, so that another node can take over from the last checkpoint
+ * if the lease expires.
+ */
+@Document(collection = "assertions_upload_job")
+public class AssertionsUploadJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String PENDING_STATUS = "pending";
+
+    public static final String IN_PROGRESS_STATUS = "in-progress";
+
+    public static final String COMPLETE_STATUS = "complete";
+
+    public static final String FAILED_STATUS = "failed";
+
+    /**
+     * Most failures kept on the job, beyond which they are only counted.
+     */
+    public static final int MAX_RECORDED_FAILURES = 1000;
+
+    @Id
+    private String id;
+
+    @Field("stored_file_id")
+    private String storedFileId;
+
+    @Field("original_filename")
+    private String originalFilename;
+
+    @Field("owner_id")
+    private String ownerId;
+
+    @Field
+    private String status;
+
+    @Field("date_created")
+    private Instant dateCreated;
+
+    @Field("date_completed")
+    private Instant dateCompleted;
+
+    @JsonIgnore
+    @Field("lease_owner")
+    private String leaseOwner;
+
+    @JsonIgnore
+    @Field("lease_expiry")
+    private Instant leaseExpiry;
+
+    @Field
+    private int attempts;
+
+    @Field("total_rows")
+    private int totalRows;
+
+    @Field("rows_processed")
+    private int rowsProcessed;
+
+    @Field("num_added")
+    private int numAdded;
+
+    @Field("num_updated")
+    private int numUpdated;
+
+    @Field("num_deleted")
+    private int numDeleted;
+
+    @Field("num_duplicates")
+    private int numDuplicates;
+
+    @Field("num_failed")
+    private int numFailed;
+
+    @Field("failures")
+    private List<AssertionsUploadError> failures = new ArrayList<>();
+
+    @Field("registry_delete_failures")
+    private List<String> registryDeleteFailures = new ArrayList<>();
+
+    @Field("num_registry_delete_failures")
+    private int numRegistryDeleteFailures;
+
+    @Field("processing_error")
+    private String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStoredFileId() {
+        return storedFileId;
+    }
+
+    public void setStoredFileId(String storedFileId) {
+        this.storedFileId = storedFileId;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Instant dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+
+    public Instant getDateCompleted() {
+        return dateCompleted;
+    }
+
+    public void setDateCompleted(Instant dateCompleted) {
+        this.dateCompleted = dateCompleted;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Instant getLeaseExpiry() {
+        return leaseExpiry;
+    }
+
+    public void setLeaseExpiry(Instant leaseExpiry) {
+        this.leaseExpiry = leaseExpiry;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public int getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(int rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public int getNumAdded() {
+        return numAdded;
+    }
+
+    public void setNumAdded(int numAdded) {
+        this.numAdded = numAdded;
+    }
+
+    public int getNumUpdated() {
+        return numUpdated;
+    }
+
+    public void setNumUpdated(int numUpdated) {
+        this.numUpdated = numUpdated;
+    }
+
+    public int getNumDeleted() {
+        return numDeleted;
+    }
+
+    public void setNumDeleted(int numDeleted) {
+        this.numDeleted = numDeleted;
+    }
+
+    public int getNumDuplicates() {
+        return numDuplicates;
+    }
+
+    public void setNumDuplicates(int numDuplicates) {
+        this.numDuplicates = numDuplicates;
+    }
+
+    public int getNumFailed() {
+        return numFailed;
+    }
+
+    public void setNumFailed(int numFailed) {
+        this.numFailed = numFailed;
+    }
+
+    public List<AssertionsUploadError> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<AssertionsUploadError> failures) {
+        this.failures = failures;
+    }
+
+    public List<String> getRegistryDeleteFailures() {
+        return registryDeleteFailures;
+    }
+
+    public void setRegistryDeleteFailures(List<String> registryDeleteFailures) {
+        this.registryDeleteFailures = registryDeleteFailures;
+    }
+
+    public int getNumRegistryDeleteFailures() {
+        return numRegistryDeleteFailures;
+    }
+
+    public void setNumRegistryDeleteFailures(int numRegistryDeleteFailures) {
+        this.numRegistryDeleteFailures = numRegistryDeleteFailures;
+    }
+
+    /**
+     * Counts a failed row, keeping the first {@value #MAX_RECORDED_FAILURES}.
+     */
+    public void addFailure(AssertionsUploadError failure) {
+        numFailed++;
+        if (failures.size() < MAX_RECORDED_FAILURES) {
+            failures.add(failure);
+        }
+    }
+
+    /**
+     * Counts an assertion that couldn't be deleted from the registry, keeping
+     * the first {@value #MAX_RECORDED_FAILURES} ids.
+     */
+    public void addRegistryDeleteFailure(String assertionId) {
+        numRegistryDeleteFailures++;
+        if (registryDeleteFailures.size() < MAX_RECORDED_FAILURES) {
+            registryDeleteFailures.add(assertionId);
+        }
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * The number of a member's assertions in each status, kept up to date as
+ * assertions are saved and deleted, so that a member's status breakdown is a
+ * single document read. Counts that drift, eg from concurrent changes to the
+ * same assertion, are corrected when the counts are reconciled against the
+ * assertions. The version goes up with every change to the counts, so that a
+ * recount only replaces counts that haven't changed since it started.
+ */
+@Document(collection = "member_assertion_stats")
+public class MemberAssertionStatusSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String salesforceId;
+
+    @Field("status_counts")
+    private Map<String, Long> statusCounts = new HashMap<>();
+
+    @Field("modified")
+    private Instant modified;
+
+    @Field("reconciled")
+    private Instant reconciled;
+
+    @Field("version")
+    private Long version;
+
+    public String getSalesforceId() {
+        return salesforceId;
+    }
+
+    public void setSalesforceId(String salesforceId) {
+        this.salesforceId = salesforceId;
+    }
+
+    public Map<String, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public void setStatusCounts(Map<String, Long> statusCounts) {
+        this.statusCounts = statusCounts;
+    }
+
+    public Instant getModified() {
+        return modified;
+    }
+
+    public void setModified(Instant modified) {
+        this.modified = modified;
+    }
+
+    public Instant getReconciled() {
+        return reconciled;
+    }
+
+    public void setReconciled(Instant reconciled) {
+        this.reconciled = reconciled;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+}
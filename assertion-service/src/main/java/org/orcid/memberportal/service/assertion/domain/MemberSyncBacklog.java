@@ -0,0 +1,49 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import java.time.Instant;
+
+/**
+ * A member's assertions waiting to be created or updated in the registry.
+ */
+public class MemberSyncBacklog {
+
+    private String salesforceId;
+
+    private long count;
+
+    private Instant oldestModified;
+
+    public MemberSyncBacklog(String salesforceId, long count, Instant oldestModified) {
+        this.salesforceId = salesforceId;
+        this.count = count;
+        this.oldestModified = oldestModified;
+    }
+
+    public MemberSyncBacklog() {
+    }
+
+    public String getSalesforceId() {
+        return salesforceId;
+    }
+
+    public void setSalesforceId(String salesforceId) {
+        this.salesforceId = salesforceId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Instant getOldestModified() {
+        return oldestModified;
+    }
+
+    public void setOldestModified(Instant oldestModified) {
+        this.oldestModified = oldestModified;
+    }
+
+}
@@ -1,14 +1,18 @@
 package org.orcid.memberportal.service.assertion.domain;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -16,6 +20,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Document(collection = "orcid_record")
+@CompoundIndex(name = "tokens_salesforce_id_idx", def = "{'tokens.salesforce_id': 1}")
 public class OrcidRecord {
 
     public static String KEY_TOKEN_ID = "token_id";
@@ -53,6 +58,19 @@ public class OrcidRecord {
     @Field("modified")
     private Instant modified;
 
+    /**
+     * Each member's token, built from {@link #tokens} when first needed and
+     * rebuilt if the list is replaced or added to or removed from.
+     */
+    @Transient
+    private Map<String, OrcidToken> tokensBySalesforceId;
+
+    @Transient
+    private List<OrcidToken> indexedTokens;
+
+    @Transient
+    private int indexedTokensSize;
+
     public String getId() {
         return id;
     }
@@ -126,57 +144,39 @@ public class OrcidRecord {
     }
     
     public boolean tokenExists(String salesforceId) {
-        if (tokens != null) {
-            for (OrcidToken token : tokens) {
-                if (StringUtils.equals(token.getSalesforceId(), salesforceId)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return getTokensBySalesforceId().containsKey(salesforceId);
     }
 
     public String getToken(String salesforceId, boolean includeRevoked) {
-        if (tokens != null) {
-            for (OrcidToken token : tokens) {
-                if (StringUtils.equals(token.getSalesforceId(), salesforceId)) {
-                    if (token.getRevokedDate() == null || includeRevoked) {
-                        return token.getTokenId();
-                    }
-                }
-            }
+        OrcidToken token = getTokensBySalesforceId().get(salesforceId);
+        if (token != null && (token.getRevokedDate() == null || includeRevoked)) {
+            return token.getTokenId();
         }
         return null;
     }
 
     public Instant getDeniedDate(String salesforceId) {
-        List<OrcidToken> tokens = this.getTokens();
-        if (tokens != null) {
-            for (OrcidToken token : tokens) {
-                if (StringUtils.equals(token.getSalesforceId(), salesforceId)) {
-                    if (token.getDeniedDate() == null) {
-                        return null;
-                    }
-                    return token.getDeniedDate();
-                }
-            }
-        }
-        return null;
+        OrcidToken token = getTokensBySalesforceId().get(salesforceId);
+        return token != null ? token.getDeniedDate() : null;
     }
 
     public Instant getRevokedDate(String salesforceId) {
-        List<OrcidToken> tokens = this.getTokens();
-        if (tokens != null) {
-            for (OrcidToken token : tokens) {
-                if (StringUtils.equals(token.getSalesforceId(), salesforceId)) {
-                    if (token.getRevokedDate() == null) {
-                        return null;
-                    }
-                    return token.getRevokedDate();
-                }
+        OrcidToken token = getTokensBySalesforceId().get(salesforceId);
+        return token != null ? token.getRevokedDate() : null;
+    }
+
+    private Map<String, OrcidToken> getTokensBySalesforceId() {
+        if (tokensBySalesforceId == null || indexedTokens != tokens || (tokens != null && indexedTokensSize != tokens.size())) {
+            Map<String, OrcidToken> index = new HashMap<>();
+            if (tokens != null) {
+                // keep the first of a member's tokens, as a scan of the list would
+                tokens.forEach(token -> index.putIfAbsent(token.getSalesforceId(), token));
             }
+            tokensBySalesforceId = index;
+            indexedTokens = tokens;
+            indexedTokensSize = tokens != null ? tokens.size() : 0;
         }
-        return null;
+        return tokensBySalesforceId;
     }
 
     @Override
@@ -18,6 +18,9 @@ public class OrcidToken {
     @Field("revoked_date")
     private Instant revokedDate;
 
+    @Field("salesforce_migration_id")
+    private String salesforceMigrationId;
+
     public OrcidToken(final String salesforceId, final String tokenId) {
         this.salesforceId = salesforceId;
         this.tokenId = tokenId;
@@ -47,4 +50,12 @@ public class OrcidToken {
         this.revokedDate = revokedDate;
     }
 
+    public String getSalesforceMigrationId() {
+        return salesforceMigrationId;
+    }
+
+    public void setSalesforceMigrationId(String salesforceMigrationId) {
+        this.salesforceMigrationId = salesforceMigrationId;
+    }
+
 }
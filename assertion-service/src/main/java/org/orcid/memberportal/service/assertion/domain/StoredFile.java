@@ -4,10 +4,12 @@ import java.io.Serializable;
 import java.time.Instant;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 @Document(collection = "stored_file")
+@CompoundIndex(name = "removal_date_id_idx", def = "{'removal_date': 1, '_id': 1}")
 public class StoredFile implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -41,6 +43,11 @@ public class StoredFile implements Serializable {
     @Field
     private String ownerId;
 
+    // the storage holding the content, files stored before there was a
+    // choice are local
+    @Field("storage")
+    private String storage;
+
     public String getId() {
         return id;
     }
@@ -89,6 +96,14 @@ public class StoredFile implements Serializable {
         this.ownerId = ownerId;
     }
 
+    public String getStorage() {
+        return storage;
+    }
+
+    public void setStorage(String storage) {
+        this.storage = storage;
+    }
+
     public Instant getDateProcessed() {
         return dateProcessed;
     }
@@ -15,7 +15,9 @@ public enum AssertionStatus {
     NOTIFICATION_REQUESTED("Notification requested"),
     NOTIFICATION_SENT("Notification sent"),
     NOTIFICATION_FAILED("Notification failed"),
-    PENDING_UPDATE("Pending update in ORCID");
+    PENDING_UPDATE("Pending update in ORCID"),
+    SYNC_FAILED("Failed to sync with ORCID"),
+    PENDING_DELETE("Pending delete");
     
 
     private final String value;
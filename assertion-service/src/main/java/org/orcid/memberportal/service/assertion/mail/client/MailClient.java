@@ -1,12 +1,16 @@
 package org.orcid.memberportal.service.assertion.mail.client;
 
-import java.io.File;
+import java.io.InputStream;
 
 import org.orcid.memberportal.service.assertion.mail.MailException;
 
 public interface MailClient {
 
-    void sendMailWithAttachment(String to, String subject, String html, File attachment) throws MailException;
+    /**
+     * Sends an email with an attachment streamed from the given input, which
+     * the caller closes.
+     */
+    void sendMailWithAttachment(String to, String subject, String html, InputStream attachment, String attachmentName) throws MailException;
 
     void sendMail(String to, String subject, String html) throws MailException;
 
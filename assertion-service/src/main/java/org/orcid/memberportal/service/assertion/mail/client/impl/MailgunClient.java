@@ -1,6 +1,5 @@
 package org.orcid.memberportal.service.assertion.mail.client.impl;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -10,7 +9,7 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.util.EntityUtils;
 import org.orcid.memberportal.service.assertion.mail.MailException;
@@ -56,7 +55,7 @@ public class MailgunClient implements MailClient {
     }
 
     @Override
-    public void sendMailWithAttachment(String to, String subject, String html, File file) throws MailException {
+    public void sendMailWithAttachment(String to, String subject, String html, InputStream attachment, String attachmentName) throws MailException {
         LOGGER.info("Preparing email {} for sending to {} from {}", subject, to, getFrom());
 
         MultipartEntityBuilder builder = MultipartEntityBuilder.create();
@@ -65,11 +64,11 @@ public class MailgunClient implements MailClient {
         builder.addTextBody("from", getFrom());
         builder.addPart("subject", new StringBody(subject, ContentType.create("text/plain", StandardCharsets.UTF_8)));
         builder.addPart("html", new StringBody(html, ContentType.create("text/html", StandardCharsets.UTF_8)));
-        builder.addPart("attachment", new FileBody(file));
+        builder.addPart("attachment", new InputStreamBody(attachment, ContentType.DEFAULT_BINARY, attachmentName));
 
         if (testMode) {
             builder.addTextBody("o:testmode", "yes");
-            LOGGER.info("Test mode email {} with attachment {} to {}", subject, file.getName(), to);
+            LOGGER.info("Test mode email {} with attachment {} to {}", subject, attachmentName, to);
             LOGGER.info(html);
         } else {
             LOGGER.info("Sending mail {} to {}", subject, to);
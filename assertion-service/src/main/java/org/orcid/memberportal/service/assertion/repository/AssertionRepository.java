@@ -1,7 +1,7 @@
 package org.orcid.memberportal.service.assertion.repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.springframework.data.domain.Page;
@@ -34,12 +34,21 @@ public interface AssertionRepository extends MongoRepository<Assertion, String>,
 
     List<Assertion> findBySalesforceId(String salesforceId);
 
+    List<Assertion> findBySalesforceIdAndStatus(String salesforceId, String status, Pageable pageable);
+
+    long deleteByIdIn(Collection<String> ids);
+
+    /**
+     * Finds a batch of assertions by id, loading only the fields needed to
+     * validate edits to them.
+     */
+    @Query(value = "{ _id: { $in: ?0 } }", fields = "{ email: 1, salesforce_id: 1, owner_id: 1 }")
+    List<Assertion> findOwnershipFieldsByIdIn(Collection<String> ids);
+
     List<Assertion> findByEmail(String email);
 
     List<Assertion> findByEmailAndSalesforceId(String email, String salesforceId);
 
-    Optional<Assertion> findOneByEmailIgnoreCase(String email);
-
     List<Assertion> findByStatus(String status);
 
     List<Assertion> findAllByEmail(String email);
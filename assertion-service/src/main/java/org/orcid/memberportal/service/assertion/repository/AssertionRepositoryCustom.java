@@ -1,11 +1,15 @@
 package org.orcid.memberportal.service.assertion.repository;
 
+import java.time.Instant;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusCount;
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
 
 public interface AssertionRepositoryCustom {
     
@@ -13,10 +17,78 @@ public interface AssertionRepositoryCustom {
 
     List<Assertion> findAllToCreateInOrcidRegistry(Pageable pageable);
 
+    /**
+     * A member's assertions to create in the registry, in created order,
+     * starting after the given assertion, or from the start if null, and
+     * only those modified at or after {@code modifiedSince} if not null.
+     */
+    List<Assertion> findAllToCreateInOrcidRegistry(String salesforceId, Assertion after, Instant modifiedSince, int limit);
+
+    /**
+     * A member's assertions to update in the registry, in created order,
+     * starting after the given assertion, or from the start if null, and
+     * only those modified at or after {@code modifiedSince} if not null. Only
+     * the fields needed to page through them are populated.
+     */
+    List<Assertion> findAllToUpdateInOrcidRegistry(String salesforceId, Assertion after, Instant modifiedSince, int limit);
+
+    /**
+     * The members with assertions to create in the registry, longest waiting
+     * first.
+     */
+    List<MemberSyncBacklog> getMemberBacklogsToCreateInOrcidRegistry();
+
+    /**
+     * The members with assertions to update in the registry, longest waiting
+     * first.
+     */
+    List<MemberSyncBacklog> getMemberBacklogsToUpdateInOrcidRegistry();
+
     List<MemberAssertionStatusCount> getMemberAssertionStatusCounts();
 
-    void updateStatusPendingToNotificationRequested(String salesforceId);
+    /**
+     * The number of the member's assertions in each status.
+     */
+    Map<String, Long> getStatusCounts(String salesforceId);
+
+    /**
+     * @return the number of assertions marked as notification requested
+     */
+    long updateStatusPendingToNotificationRequested(String salesforceId);
+
+    /**
+     * Marks all of a member's assertions as pending delete, in a single
+     * update.
+     * 
+     * @return the number of assertions marked
+     */
+    long updateStatusToPendingDelete(String salesforceId);
+
+    /**
+     * Moves a member's assertions to a new salesforce id in a single update,
+     * tagging them with the migration id.
+     * 
+     * @return the number of assertions moved
+     */
+    long updateSalesforceId(String from, String to, String migrationId);
+
+    /**
+     * Moves the assertions tagged with the migration id back to their old
+     * salesforce id, in a single update.
+     * 
+     * @return the number of assertions moved back
+     */
+    long rollbackSalesforceIdMigration(String from, String to, String migrationId);
 
     Iterator<String> findDistinctEmailsWithNotificationRequested(String salesforceId);
 
+    /**
+     * A member's assertions, oldest modified first, read from a cursor rather
+     * than loaded as a whole. Callers must close the iterator.
+     * 
+     * @param modifiedSince
+     *            if not null, only assertions modified at or after this time
+     */
+    CloseableIterator<Assertion> streamBySalesforceId(String salesforceId, Instant modifiedSince);
+
 }
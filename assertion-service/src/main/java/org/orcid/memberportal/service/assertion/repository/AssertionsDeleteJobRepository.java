@@ -0,0 +1,17 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.orcid.memberportal.service.assertion.domain.AssertionsDeleteJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AssertionsDeleteJobRepository extends MongoRepository<AssertionsDeleteJob, String> {
+
+    List<AssertionsDeleteJob> findByStatusInOrderByDateCreatedAsc(List<String> statuses);
+
+    Optional<AssertionsDeleteJob> findFirstBySalesforceIdAndStatusIn(String salesforceId, List<String> statuses);
+
+}
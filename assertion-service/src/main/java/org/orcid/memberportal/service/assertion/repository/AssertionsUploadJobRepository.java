@@ -0,0 +1,19 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import java.util.List;
+
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AssertionsUploadJobRepository extends MongoRepository<AssertionsUploadJob, String>, AssertionsUploadJobRepositoryCustom {
+
+    boolean existsByStoredFileId(String storedFileId);
+
+    long countByStatus(String status);
+
+    List<AssertionsUploadJob> findByOwnerIdOrderByDateCreatedDesc(String ownerId, Pageable pageable);
+
+}
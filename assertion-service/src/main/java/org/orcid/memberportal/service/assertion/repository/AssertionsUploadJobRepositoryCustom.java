@@ -0,0 +1,33 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import java.time.Instant;
+
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+
+public interface AssertionsUploadJobRepositoryCustom {
+
+    /**
+     * Atomically claims the oldest job that is either pending or whose lease
+     * has expired, giving the lease to the given worker.
+     * 
+     * @return the claimed job, or null if there are no jobs available
+     */
+    AssertionsUploadJob claimNextJob(String workerId, Instant now, Instant leaseExpiry);
+
+    /**
+     * Saves the progress of a job, provided the given worker still holds its
+     * lease.
+     * 
+     * @return false if the lease has been lost to another worker
+     */
+    boolean saveProgress(AssertionsUploadJob job, String workerId);
+
+    /**
+     * Extends the lease on a job, provided the given worker still holds it,
+     * without saving any progress.
+     * 
+     * @return false if the lease has been lost to another worker
+     */
+    boolean renewLease(String jobId, String workerId, Instant leaseExpiry);
+
+}
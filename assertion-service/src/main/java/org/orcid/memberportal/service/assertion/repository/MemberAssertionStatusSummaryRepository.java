@@ -0,0 +1,9 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MemberAssertionStatusSummaryRepository extends MongoRepository<MemberAssertionStatusSummary, String>, MemberAssertionStatusSummaryRepositoryCustom {
+}
@@ -0,0 +1,30 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import java.util.Map;
+
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+
+public interface MemberAssertionStatusSummaryRepositoryCustom {
+
+    /**
+     * Adds to a member's status counts in a single update, creating the
+     * member's summary if there isn't one yet. Negative increments take
+     * assertions away.
+     */
+    void incrementStatusCounts(String salesforceId, Map<String, Long> increments);
+
+    /**
+     * Replaces a member's counts with a recount, provided they are still the
+     * counts read before recounting, ie previous, which is null if the member
+     * had no summary. Returns false, leaving the counts alone, if they have
+     * changed since.
+     */
+    boolean saveIfUnchanged(MemberAssertionStatusSummary summary, MemberAssertionStatusSummary previous);
+
+    /**
+     * Deletes a member's summary, provided it hasn't changed since it was
+     * read. Returns false, leaving it alone, if it has.
+     */
+    boolean deleteIfUnchanged(MemberAssertionStatusSummary previous);
+
+}
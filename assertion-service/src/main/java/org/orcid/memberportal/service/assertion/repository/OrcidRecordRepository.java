@@ -11,13 +11,17 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface OrcidRecordRepository extends MongoRepository<OrcidRecord, String> {
+public interface OrcidRecordRepository extends MongoRepository<OrcidRecord, String>, OrcidRecordRepositoryCustom {
 
     Optional<OrcidRecord> findOneByEmail(String email);
 
-    @Query(value = "{tokens: {salesforce_id: ?0}}")
+    /**
+     * Records with a placeholder token for the member, ie the user hasn't yet
+     * granted or denied the member permission.
+     */
+    @Query(value = "{tokens: {$elemMatch: {salesforce_id: ?0, token_id: null, denied_date: null}}}")
     List<OrcidRecord> findAllToInvite(String salesforceId);
 
-    @Query("{tokens: {salesforce_id: ?0}}")
+    @Query("{tokens: {$elemMatch: {salesforce_id: ?0}}}")
     Page<OrcidRecord> findBySalesforceId(String salesforceId, Pageable pageable);
 }
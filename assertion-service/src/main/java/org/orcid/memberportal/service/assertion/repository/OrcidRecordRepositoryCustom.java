@@ -0,0 +1,21 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+public interface OrcidRecordRepositoryCustom {
+
+    /**
+     * Moves a member's tokens to a new salesforce id in a single update,
+     * tagging them with the migration id.
+     * 
+     * @return the number of orcid records updated
+     */
+    long updateTokensSalesforceId(String from, String to, String migrationId);
+
+    /**
+     * Moves the tokens tagged with the migration id back to their old
+     * salesforce id, in a single update.
+     * 
+     * @return the number of orcid records updated
+     */
+    long rollbackTokensSalesforceIdMigration(String from, String to, String migrationId);
+
+}
@@ -1,5 +1,6 @@
 package org.orcid.memberportal.service.assertion.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.orcid.memberportal.service.assertion.domain.StoredFile;
@@ -8,12 +9,11 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface StoredFileRepository extends MongoRepository<StoredFile, String> {
+public interface StoredFileRepository extends MongoRepository<StoredFile, String>, StoredFileRepositoryCustom {
     
     @Query("{fileType: ?0, dateProcessed: null}")
     List<StoredFile> findUnprocessedByType(String type);
     
-    @Query("{ dateProcessed: { $exists: true }}")
-    List<StoredFile> findProcessedFiles();
+    long deleteByIdIn(Collection<String> ids);
 
 }
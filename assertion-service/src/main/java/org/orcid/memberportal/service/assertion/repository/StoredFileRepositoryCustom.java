@@ -0,0 +1,17 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.orcid.memberportal.service.assertion.domain.StoredFile;
+
+public interface StoredFileRepositoryCustom {
+
+    /**
+     * Processed files due for removal before the given time, in removal date
+     * and id order from the removal_date_id index, starting after the given
+     * file, or from the beginning if it is null.
+     */
+    List<StoredFile> findProcessedFilesToRemove(StoredFile after, Instant before, int limit);
+
+}
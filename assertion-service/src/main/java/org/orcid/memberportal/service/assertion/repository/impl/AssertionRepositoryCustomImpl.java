@@ -1,14 +1,25 @@
 package org.orcid.memberportal.service.assertion.repository.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
 
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusCount;
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
 import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
 import org.orcid.memberportal.service.assertion.repository.AssertionRepositoryCustom;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
@@ -21,6 +32,7 @@ import org.springframework.data.mongodb.core.aggregation.SortOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Repository;
 
 import com.mongodb.client.DistinctIterable;
@@ -38,10 +50,44 @@ public class AssertionRepositoryCustomImpl implements AssertionRepositoryCustom
 
     @Override
     public List<Assertion> findAllToUpdateInOrcidRegistry(Pageable pageable) {
-        ProjectionOperation timeModifiedAfterSync = Aggregation.project("added_to_orcid", "updated_in_orcid", "modified", "created")
-                .andExpression("modified - added_to_orcid").as("timeModifiedAfterAddingToOrcid").andExpression("modified - updated_in_orcid")
-                .as("timeModifiedAfterUpdatingInOrcid");
+        // filter out anything backing off before projecting, so the filter can use the index
+        MatchOperation matchDueForSync = Aggregation.match(dueForSync());
+
+        // pagination aggregation operations
+        SortOperation sort = new SortOperation(pageable.getSort());
+        SkipOperation skip = new SkipOperation(pageable.getOffset());
+        LimitOperation limit = new LimitOperation(pageable.getPageSize());
+
+        Aggregation aggregation = Aggregation.newAggregation(matchDueForSync, timeModifiedAfterSync(), Aggregation.match(needsUpdatingInOrcid()), sort, skip,
+                limit);
+        AggregationResults<Assertion> results = mongoTemplate.aggregate(aggregation, "assertion", Assertion.class);
+
+        return results.getMappedResults();
+    }
+
+    @Override
+    public List<Assertion> findAllToUpdateInOrcidRegistry(String salesforceId, Assertion after, Instant modifiedSince, int limit) {
+        // sort before projecting, so the sort can use the index
+        MatchOperation matchMemberDueForSync = Aggregation.match(memberBacklogCriteria(salesforceId, dueForSync(), after, modifiedSince));
+        Aggregation aggregation = Aggregation.newAggregation(matchMemberDueForSync, Aggregation.sort(Direction.ASC, "created", "_id"), timeModifiedAfterSync(),
+                Aggregation.match(needsUpdatingInOrcid()), Aggregation.limit(limit));
+        AggregationResults<Assertion> results = mongoTemplate.aggregate(aggregation, "assertion", Assertion.class);
+        return results.getMappedResults();
+    }
 
+    @Override
+    public List<MemberSyncBacklog> getMemberBacklogsToUpdateInOrcidRegistry() {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(dueForSync()), timeModifiedAfterSync(), Aggregation.match(needsUpdatingInOrcid()),
+                groupBacklogBySalesforceId(), Aggregation.sort(Direction.ASC, "oldestModified"));
+        return getMemberSyncBacklogs(aggregation);
+    }
+
+    private ProjectionOperation timeModifiedAfterSync() {
+        return Aggregation.project("added_to_orcid", "updated_in_orcid", "modified", "created", "salesforce_id").andExpression("modified - added_to_orcid")
+                .as("timeModifiedAfterAddingToOrcid").andExpression("modified - updated_in_orcid").as("timeModifiedAfterUpdatingInOrcid");
+    }
+
+    private Criteria needsUpdatingInOrcid() {
         Criteria addedToOrcidSet = new Criteria();
         addedToOrcidSet.andOperator(Criteria.where("added_to_orcid").exists(true), Criteria.where("added_to_orcid").ne(null));
 
@@ -59,18 +105,7 @@ public class AssertionRepositoryCustomImpl implements AssertionRepositoryCustom
 
         Criteria needsUpdatingInOrcid = new Criteria();
         needsUpdatingInOrcid.orOperator(modifiedAfterUpdateInOrcid, modifiedAfterAddingToOrcidAndUpdateInOrcidNotSet);
-
-        MatchOperation matchUpdatedAfterSync = Aggregation.match(needsUpdatingInOrcid);
-
-        // pagination aggregation operations
-        SortOperation sort = new SortOperation(pageable.getSort());
-        SkipOperation skip = new SkipOperation(pageable.getOffset());
-        LimitOperation limit = new LimitOperation(pageable.getPageSize());
-
-        Aggregation aggregation = Aggregation.newAggregation(timeModifiedAfterSync, matchUpdatedAfterSync, sort, skip, limit);
-        AggregationResults<Assertion> results = mongoTemplate.aggregate(aggregation, "assertion", Assertion.class);
-
-        return results.getMappedResults();
+        return needsUpdatingInOrcid;
     }
 
     @Override
@@ -83,22 +118,148 @@ public class AssertionRepositoryCustomImpl implements AssertionRepositoryCustom
         return results.getMappedResults();
     }
 
+    @Override
+    public Map<String, Long> getStatusCounts(String salesforceId) {
+        MatchOperation matchMember = Aggregation.match(Criteria.where("salesforce_id").is(salesforceId));
+        return getStatusCounts(Aggregation.newAggregation(matchMember, Aggregation.group("status").count().as("statusCount")));
+    }
+
+    private Map<String, Long> getStatusCounts(Aggregation countByStatus) {
+        AggregationResults<Document> results = mongoTemplate.aggregate(countByStatus, "assertion", Document.class);
+        Map<String, Long> counts = new HashMap<>();
+        for (Document result : results.getMappedResults()) {
+            if (result.getString("_id") != null) {
+                counts.put(result.getString("_id"), ((Number) result.get("statusCount")).longValue());
+            }
+        }
+        return counts;
+    }
+
     @Override
     public List<Assertion> findAllToCreateInOrcidRegistry(Pageable pageable) {
-        Criteria criteria = new Criteria();
-        criteria.orOperator(Criteria.where("added_to_orcid").exists(false), Criteria.where("added_to_orcid").is(null));
-        Query query = new Query(criteria);
+        Query query = new Query(toCreateInOrcidRegistry());
         query.with(pageable);
         return mongoTemplate.find(query, Assertion.class);
     }
 
     @Override
-    public void updateStatusPendingToNotificationRequested(String salesforceId) {
+    public List<Assertion> findAllToCreateInOrcidRegistry(String salesforceId, Assertion after, Instant modifiedSince, int limit) {
+        Query query = new Query(memberBacklogCriteria(salesforceId, toCreateInOrcidRegistry(), after, modifiedSince));
+        query.with(new Sort(Direction.ASC, "created", "_id"));
+        query.limit(limit);
+        return mongoTemplate.find(query, Assertion.class);
+    }
+
+    @Override
+    public List<MemberSyncBacklog> getMemberBacklogsToCreateInOrcidRegistry() {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(toCreateInOrcidRegistry()), groupBacklogBySalesforceId(),
+                Aggregation.sort(Direction.ASC, "oldestModified"));
+        return getMemberSyncBacklogs(aggregation);
+    }
+
+    private Criteria toCreateInOrcidRegistry() {
+        Criteria notAddedToOrcid = new Criteria();
+        notAddedToOrcid.orOperator(Criteria.where("added_to_orcid").exists(false), Criteria.where("added_to_orcid").is(null));
+        Criteria criteria = new Criteria();
+        criteria.andOperator(notAddedToOrcid, dueForSync());
+        return criteria;
+    }
+
+    /**
+     * A member's share of the backlog, after the given assertion in
+     * (created, _id) order. Paging on the sort key rather than skipping means
+     * assertions left behind by a sync, eg because the registry throttled
+     * them, aren't fetched again in the same sync.
+     */
+    private Criteria memberBacklogCriteria(String salesforceId, Criteria backlog, Assertion after, Instant modifiedSince) {
+        Criteria member = Criteria.where("salesforce_id").is(salesforceId);
+        if (modifiedSince != null) {
+            member = member.and("modified").gte(modifiedSince);
+        }
+        Criteria criteria = new Criteria();
+        if (after == null) {
+            return criteria.andOperator(member, backlog);
+        }
+
+        Object afterId = ObjectId.isValid(after.getId()) ? new ObjectId(after.getId()) : after.getId();
+        Criteria createdLater = Criteria.where("created").gt(after.getCreated());
+        Criteria createdAtSameTime = new Criteria();
+        createdAtSameTime.andOperator(Criteria.where("created").is(after.getCreated()), Criteria.where("_id").gt(afterId));
+        Criteria afterLast = new Criteria();
+        if (after.getCreated() == null) {
+            // nulls sort first
+            afterLast.orOperator(Criteria.where("created").ne(null), createdAtSameTime);
+        } else {
+            afterLast.orOperator(createdLater, createdAtSameTime);
+        }
+        return criteria.andOperator(member, backlog, afterLast);
+    }
+
+    private GroupOperation groupBacklogBySalesforceId() {
+        return Aggregation.group("salesforce_id").count().as("count").min("modified").as("oldestModified");
+    }
+
+    private List<MemberSyncBacklog> getMemberSyncBacklogs(Aggregation aggregation) {
+        AggregationResults<Document> results = mongoTemplate.aggregate(aggregation, "assertion", Document.class);
+        List<MemberSyncBacklog> backlogs = new ArrayList<>();
+        for (Document result : results.getMappedResults()) {
+            Date oldestModified = result.getDate("oldestModified");
+            backlogs.add(new MemberSyncBacklog(result.getString("_id"), ((Number) result.get("count")).longValue(),
+                    oldestModified != null ? oldestModified.toInstant() : null));
+        }
+        return backlogs;
+    }
+
+    /**
+     * Assertions that aren't backing off after a failed sync, haven't failed
+     * too many times to be retried automatically, and aren't being deleted.
+     */
+    private Criteria dueForSync() {
+        Criteria nextAttemptDue = new Criteria();
+        nextAttemptDue.orOperator(Criteria.where("next_attempt_at").is(null), Criteria.where("next_attempt_at").lte(Instant.now()));
+        Criteria dueForSync = new Criteria();
+        dueForSync.andOperator(nextAttemptDue, Criteria.where("status").nin(AssertionStatus.SYNC_FAILED.name(), AssertionStatus.PENDING_DELETE.name()));
+        return dueForSync;
+    }
+
+    @Override
+    public long updateStatusPendingToNotificationRequested(String salesforceId) {
         Query query = new Query();
         query.addCriteria(Criteria.where("salesforceId").is(salesforceId).and("status").is(AssertionStatus.PENDING.name()));
         Update update = new Update();
         update.set("status", AssertionStatus.NOTIFICATION_REQUESTED.name());
-        mongoTemplate.updateMulti(query, update, Assertion.class, "assertion");
+        return mongoTemplate.updateMulti(query, update, Assertion.class, "assertion").getModifiedCount();
+    }
+
+    @Override
+    public long updateStatusToPendingDelete(String salesforceId) {
+        Query query = new Query();
+        query.addCriteria(Criteria.where("salesforceId").is(salesforceId));
+        Update update = new Update();
+        update.set("status", AssertionStatus.PENDING_DELETE.name());
+        return mongoTemplate.updateMulti(query, update, Assertion.class, "assertion").getModifiedCount();
+    }
+
+    @Override
+    public long updateSalesforceId(String from, String to, String migrationId) {
+        Query query = new Query();
+        query.addCriteria(Criteria.where("salesforceId").is(from));
+        Update update = new Update();
+        update.set("salesforceId", to);
+        update.set("salesforceMigrationId", migrationId);
+        update.set("modified", Instant.now());
+        return mongoTemplate.updateMulti(query, update, Assertion.class, "assertion").getModifiedCount();
+    }
+
+    @Override
+    public long rollbackSalesforceIdMigration(String from, String to, String migrationId) {
+        Query query = new Query();
+        query.addCriteria(Criteria.where("salesforceId").is(to).and("salesforceMigrationId").is(migrationId));
+        Update update = new Update();
+        update.set("salesforceId", from);
+        update.unset("salesforceMigrationId");
+        update.set("modified", Instant.now());
+        return mongoTemplate.updateMulti(query, update, Assertion.class, "assertion").getModifiedCount();
     }
 
     @Override
@@ -108,4 +269,17 @@ public class AssertionRepositoryCustomImpl implements AssertionRepositoryCustom
         return distinctIterable.iterator();
     }
 
+    @Override
+    public CloseableIterator<Assertion> streamBySalesforceId(String salesforceId, Instant modifiedSince) {
+        Criteria criteria = Criteria.where("salesforceId").is(salesforceId);
+        if (modifiedSince != null) {
+            criteria.and("modified").gte(modifiedSince);
+        }
+        Query query = new Query(criteria);
+        query.with(new Sort(Direction.ASC, "modified"));
+        // a slow client can leave the cursor idle for a while between batches
+        query.noCursorTimeout();
+        return mongoTemplate.stream(query, Assertion.class);
+    }
+
 }
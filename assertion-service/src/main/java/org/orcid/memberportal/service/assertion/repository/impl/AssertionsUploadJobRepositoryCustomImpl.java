@@ -0,0 +1,74 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import java.time.Instant;
+
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class AssertionsUploadJobRepositoryCustomImpl implements AssertionsUploadJobRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public AssertionsUploadJobRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public AssertionsUploadJob claimNextJob(String workerId, Instant now, Instant leaseExpiry) {
+        Criteria claimable = new Criteria();
+        claimable.orOperator(Criteria.where("status").is(AssertionsUploadJob.PENDING_STATUS),
+                Criteria.where("status").is(AssertionsUploadJob.IN_PROGRESS_STATUS).and("lease_expiry").lt(now));
+
+        Query query = new Query(claimable);
+        query.with(new Sort(Sort.Direction.ASC, "date_created"));
+
+        Update update = new Update();
+        update.set("status", AssertionsUploadJob.IN_PROGRESS_STATUS);
+        update.set("lease_owner", workerId);
+        update.set("lease_expiry", leaseExpiry);
+        update.inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), AssertionsUploadJob.class);
+    }
+
+    @Override
+    public boolean saveProgress(AssertionsUploadJob job, String workerId) {
+        Query query = new Query(Criteria.where("_id").is(job.getId()).and("lease_owner").is(workerId));
+
+        Update update = new Update();
+        update.set("status", job.getStatus());
+        update.set("lease_expiry", job.getLeaseExpiry());
+        update.set("date_completed", job.getDateCompleted());
+        update.set("total_rows", job.getTotalRows());
+        update.set("rows_processed", job.getRowsProcessed());
+        update.set("num_added", job.getNumAdded());
+        update.set("num_updated", job.getNumUpdated());
+        update.set("num_deleted", job.getNumDeleted());
+        update.set("num_duplicates", job.getNumDuplicates());
+        update.set("num_failed", job.getNumFailed());
+        update.set("failures", job.getFailures());
+        update.set("registry_delete_failures", job.getRegistryDeleteFailures());
+        update.set("num_registry_delete_failures", job.getNumRegistryDeleteFailures());
+        update.set("processing_error", job.getError());
+
+        return mongoTemplate.updateFirst(query, update, AssertionsUploadJob.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean renewLease(String jobId, String workerId, Instant leaseExpiry) {
+        Query query = new Query(Criteria.where("_id").is(jobId).and("lease_owner").is(workerId));
+        Update update = new Update().set("lease_expiry", leaseExpiry);
+        return mongoTemplate.updateFirst(query, update, AssertionsUploadJob.class).getMatchedCount() > 0;
+    }
+
+}
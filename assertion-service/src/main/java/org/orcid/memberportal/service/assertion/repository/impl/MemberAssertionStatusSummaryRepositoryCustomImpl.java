@@ -0,0 +1,65 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.repository.MemberAssertionStatusSummaryRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class MemberAssertionStatusSummaryRepositoryCustomImpl implements MemberAssertionStatusSummaryRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public MemberAssertionStatusSummaryRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void incrementStatusCounts(String salesforceId, Map<String, Long> increments) {
+        Update update = new Update();
+        increments.forEach((status, increment) -> update.inc("status_counts." + status, increment));
+        update.set("modified", Instant.now());
+        update.inc("version", 1);
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(salesforceId)), update, MemberAssertionStatusSummary.class);
+    }
+
+    @Override
+    public boolean saveIfUnchanged(MemberAssertionStatusSummary summary, MemberAssertionStatusSummary previous) {
+        if (previous == null) {
+            summary.setVersion(0L);
+            try {
+                mongoTemplate.insert(summary);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // counted since it was read
+                return false;
+            }
+        }
+        Update update = new Update();
+        update.set("status_counts", summary.getStatusCounts());
+        update.set("modified", summary.getModified());
+        update.set("reconciled", summary.getReconciled());
+        update.inc("version", 1);
+        return mongoTemplate.updateFirst(unchanged(previous), update, MemberAssertionStatusSummary.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean deleteIfUnchanged(MemberAssertionStatusSummary previous) {
+        return mongoTemplate.remove(unchanged(previous), MemberAssertionStatusSummary.class).getDeletedCount() > 0;
+    }
+
+    private Query unchanged(MemberAssertionStatusSummary previous) {
+        // summaries from before versioning have no version until next counted
+        return new Query(Criteria.where("_id").is(previous.getSalesforceId()).and("version").is(previous.getVersion()));
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.bson.conversions.Bson;
+import org.orcid.memberportal.service.assertion.repository.OrcidRecordRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+@Repository
+public class OrcidRecordRepositoryCustomImpl implements OrcidRecordRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public OrcidRecordRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long updateTokensSalesforceId(String from, String to, String migrationId) {
+        Bson filter = Filters.eq("tokens.salesforce_id", from);
+        Bson update = Updates.combine(Updates.set("tokens.$[token].salesforce_id", to), Updates.set("tokens.$[token].salesforce_migration_id", migrationId),
+                Updates.set("modified", Date.from(Instant.now())));
+        UpdateOptions options = new UpdateOptions().arrayFilters(Collections.singletonList(Filters.eq("token.salesforce_id", from)));
+        return mongoTemplate.getCollection("orcid_record").updateMany(filter, update, options).getModifiedCount();
+    }
+
+    @Override
+    public long rollbackTokensSalesforceIdMigration(String from, String to, String migrationId) {
+        Bson filter = Filters.elemMatch("tokens", Filters.and(Filters.eq("salesforce_id", to), Filters.eq("salesforce_migration_id", migrationId)));
+        Bson update = Updates.combine(Updates.set("tokens.$[token].salesforce_id", from), Updates.unset("tokens.$[token].salesforce_migration_id"),
+                Updates.set("modified", Date.from(Instant.now())));
+        UpdateOptions options = new UpdateOptions()
+                .arrayFilters(Arrays.asList(Filters.and(Filters.eq("token.salesforce_id", to), Filters.eq("token.salesforce_migration_id", migrationId))));
+        return mongoTemplate.getCollection("orcid_record").updateMany(filter, update, options).getModifiedCount();
+    }
+
+}
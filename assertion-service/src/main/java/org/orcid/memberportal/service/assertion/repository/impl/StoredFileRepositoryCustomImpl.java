@@ -0,0 +1,47 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.orcid.memberportal.service.assertion.domain.StoredFile;
+import org.orcid.memberportal.service.assertion.repository.StoredFileRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class StoredFileRepositoryCustomImpl implements StoredFileRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public StoredFileRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<StoredFile> findProcessedFilesToRemove(StoredFile after, Instant before, int limit) {
+        Criteria expired = Criteria.where("date_processed").exists(true).and("removal_date").lt(before);
+        Criteria criteria = expired;
+        if (after != null) {
+            // files can share a removal date, so carry on from the last id
+            // with the same date too
+            Object afterId = ObjectId.isValid(after.getId()) ? new ObjectId(after.getId()) : after.getId();
+            Criteria removedAtSameTime = new Criteria();
+            removedAtSameTime.andOperator(Criteria.where("removal_date").is(after.getRemovalDate()), Criteria.where("_id").gt(afterId));
+            Criteria afterLast = new Criteria();
+            afterLast.orOperator(Criteria.where("removal_date").gt(after.getRemovalDate()), removedAtSameTime);
+            criteria = new Criteria().andOperator(expired, afterLast);
+        }
+        Query query = new Query(criteria);
+        query.with(new Sort(Direction.ASC, "removal_date", "_id"));
+        query.limit(limit);
+        return mongoTemplate.find(query, StoredFile.class);
+    }
+
+}
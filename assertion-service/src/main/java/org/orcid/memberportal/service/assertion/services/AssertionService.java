@@ -1,19 +1,25 @@
 package org.orcid.memberportal.service.assertion.services;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.xml.bind.JAXBException;
 
@@ -22,11 +28,15 @@ import org.apache.http.client.ClientProtocolException;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.orcid.memberportal.service.assertion.client.OrcidAPIClient;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.csv.CsvWriter;
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.AssertionsDeleteJob;
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
 import org.orcid.memberportal.service.assertion.domain.CsvReport;
-import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusCount;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
 import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
 import org.orcid.memberportal.service.assertion.domain.OrcidToken;
 import org.orcid.memberportal.service.assertion.domain.StoredFile;
@@ -34,26 +44,38 @@ import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSe
 import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
 import org.orcid.memberportal.service.assertion.domain.normalization.AssertionNormalizer;
 import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
+import org.orcid.memberportal.service.assertion.repository.AssertionsDeleteJobRepository;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepository;
 import org.orcid.memberportal.service.assertion.stats.MemberAssertionStats;
+import org.orcid.memberportal.service.assertion.stats.MemberSyncBacklogMetrics;
+import org.orcid.memberportal.service.assertion.sync.AssertionsModifiedEvent;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUpload;
+import org.orcid.memberportal.service.assertion.upload.AssertionsUploadError;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUploadSummary;
 import org.orcid.memberportal.service.assertion.upload.impl.AssertionsCsvReader;
 import org.orcid.memberportal.service.assertion.web.rest.errors.BadRequestAlertException;
 import org.orcid.memberportal.service.assertion.web.rest.errors.ORCIDAPIException;
+import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryThrottledException;
 import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryDeleteFailureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Objects;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class AssertionService {
 
@@ -61,6 +83,16 @@ public class AssertionService {
 
     public static final int REGISTRY_SYNC_BATCH_SIZE = 500;
 
+    private static final int UPLOAD_JOBS_PAGE_SIZE = 10;
+
+    private static final List<String> ACTIVE_DELETE_JOB_STATUSES = Arrays.asList(AssertionsDeleteJob.PENDING_STATUS, AssertionsDeleteJob.IN_PROGRESS_STATUS);
+
+    static final String SYNC_PAGE_METRIC = "assertion.sync.page";
+
+    static final String SYNC_ASSERTIONS_METRIC = "assertion.sync.assertions";
+
+    static final String UPLOAD_CHUNK_METRIC = "assertion.upload.chunk";
+
     private final Sort SORT = new Sort(Sort.Direction.ASC, "email", "status", "created", "modified", "deletedFromORCID");
 
     @Autowired
@@ -93,6 +125,32 @@ public class AssertionService {
     @Autowired
     private CsvReportService csvReportService;
 
+    @Autowired
+    private AssertionsUploadJobRepository assertionsUploadJobRepository;
+
+    @Autowired
+    private AssertionsDeleteJobRepository assertionsDeleteJobRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MemberSyncBacklogMetrics memberSyncBacklogMetrics;
+
+    @Autowired
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String uploadWorkerId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID();
+
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withLocale(Locale.getDefault())
             .withZone(ZoneId.systemDefault());
 
@@ -100,6 +158,21 @@ public class AssertionService {
         return assertionRepository.existsById(id);
     }
 
+    /**
+     * Finds which of the given ids belong to existing assertions, in a single
+     * query. Only the id, email, salesforce id and owner of each assertion
+     * are loaded.
+     * 
+     * @return the existing assertions, by id
+     */
+    public Map<String, Assertion> findAssertionsForEditValidation(Collection<String> ids) {
+        Map<String, Assertion> assertions = new HashMap<>();
+        if (!ids.isEmpty()) {
+            assertionRepository.findOwnershipFieldsByIdIn(ids).forEach(a -> assertions.put(a.getId(), a));
+        }
+        return assertions;
+    }
+
     public Page<Assertion> findByOwnerId(Pageable pageable) {
         return assertionRepository.findByOwnerId(assertionsUserService.getLoggedInUserId(), pageable);
     }
@@ -112,6 +185,26 @@ public class AssertionService {
         return findBySalesforceId(assertionsUserService.getLoggedInUserSalesforceId(), pageable);
     }
 
+    /**
+     * Writes the current member's assertions to the given stream as newline
+     * delimited JSON, one assertion per line, oldest modified first. The
+     * assertions are read from a cursor, so a full export is a single pass
+     * whose memory use doesn't grow with the number of assertions.
+     * 
+     * @param modifiedSince
+     *            if not null, only assertions modified at or after this time
+     */
+    public void exportCurrentMemberAssertions(Instant modifiedSince, OutputStream out) throws IOException {
+        String salesforceId = assertionsUserService.getLoggedInUserSalesforceId();
+        try (CloseableIterator<Assertion> assertions = assertionRepository.streamBySalesforceId(salesforceId, modifiedSince)) {
+            while (assertions.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(assertions.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
     public Page<Assertion> findBySalesforceId(Pageable pageable, String filter) {
         String salesforceId = assertionsUserService.getLoggedInUserSalesforceId();
         Page<Assertion> assertions = assertionRepository
@@ -122,19 +215,51 @@ public class AssertionService {
         return assertions;
     }
 
-    public void deleteAllBySalesforceId(String salesforceId) {
-        List<Assertion> assertions = assertionRepository.findBySalesforceId(salesforceId, SORT);
-        assertions.forEach(a -> {
-            String assertionEmail = a.getEmail();
-            assertionRepository.deleteById(a.getId());
+    /**
+     * Queues the deletion of all of a member's assertions, marking them as
+     * pending delete. The assertions are deleted from the registry and removed
+     * by {@link #processAssertionDeletes()}.
+     * 
+     * @return the job, which can be polled for progress
+     */
+    public AssertionsDeleteJob deleteAllBySalesforceId(String salesforceId) {
+        long marked = assertionRepository.updateStatusToPendingDelete(salesforceId);
+        memberAssertionStatsService.recount(salesforceId);
+
+        Optional<AssertionsDeleteJob> existingJob = assertionsDeleteJobRepository.findFirstBySalesforceIdAndStatusIn(salesforceId, ACTIVE_DELETE_JOB_STATUSES);
+        if (existingJob.isPresent()) {
+            // only assertions created since the first request are newly marked
+            AssertionsDeleteJob job = existingJob.get();
+            job.setTotalAssertions(job.getTotalAssertions() + marked);
+            return assertionsDeleteJobRepository.save(job);
+        }
+
+        AssertionsDeleteJob job = new AssertionsDeleteJob();
+        job.setSalesforceId(salesforceId);
+        job.setStatus(AssertionsDeleteJob.PENDING_STATUS);
+        job.setDateCreated(Instant.now());
+        job.setTotalAssertions(marked);
+        return assertionsDeleteJobRepository.insert(job);
+    }
+
+    public Optional<AssertionsDeleteJob> getAssertionsDeleteJob(String id) {
+        return assertionsDeleteJobRepository.findById(id);
+    }
 
-            // Remove OrcidRecord if it has not already been removed
-            Optional<OrcidRecord> orcidRecordOptional = orcidRecordService.findOneByEmail(assertionEmail);
-            if (orcidRecordOptional.isPresent()) {
-                orcidRecordService.deleteOrcidRecordByEmail(assertionEmail);
+    /**
+     * Works through queued member deletes, oldest first. Assertions are
+     * deleted from the registry one at a time, through the same rate limiter
+     * as the registry sync, and removed in bulk a batch at a time. If the
+     * registry throttles a delete the run stops, and the job carries on from
+     * where it left off on the next run.
+     */
+    public void processAssertionDeletes() {
+        for (AssertionsDeleteJob job : assertionsDeleteJobRepository.findByStatusInOrderByDateCreatedAsc(ACTIVE_DELETE_JOB_STATUSES)) {
+            if (!processAssertionsDeleteJob(job)) {
+                LOG.info("Registry throttled deletes for {}, leaving the rest for the next run", job.getSalesforceId());
+                return;
             }
-        });
-        return;
+        }
     }
 
     public Assertion findById(String id) {
@@ -188,6 +313,7 @@ public class AssertionService {
         }
 
         assertion = assertionRepository.insert(assertion);
+        applicationEventPublisher.publishEvent(new AssertionsModifiedEvent(assertion.getSalesforceId()));
         setPrettyStatus(assertion);
         return assertion;
     }
@@ -200,12 +326,20 @@ public class AssertionService {
         if (!user.getSalesforceId().equals(existingAssertion.getSalesforceId())) {
             throw new BadRequestAlertException("Illegal assertion access", "affiliation", "affiliationOtherOrganization");
         }
+        if (AssertionStatus.PENDING_DELETE.name().equals(existingAssertion.getStatus())) {
+            // saving would take it out of its member's delete job
+            throw new BadRequestAlertException("Assertion is being deleted", "affiliation", "affiliationPendingDelete");
+        }
 
         copyFieldsToUpdate(assertion, existingAssertion);
         existingAssertion.setModified(Instant.now());
         existingAssertion.setLastModifiedBy(user.getEmail());
         existingAssertion.setStatus(getAssertionStatus(existingAssertion));
+        // edited assertions get a fresh set of sync attempts
+        existingAssertion.setRetryCount(0);
+        existingAssertion.setNextAttemptAt(null);
         assertion = assertionRepository.save(existingAssertion);
+        applicationEventPublisher.publishEvent(new AssertionsModifiedEvent(assertion.getSalesforceId()));
         setPrettyStatus(assertion);
         return assertion;
     }
@@ -216,7 +350,8 @@ public class AssertionService {
         if (tokenDeniedStatus != null) {
             return tokenDeniedStatus.name();
         } else if (AssertionStatus.ERROR_ADDING_TO_ORCID.name().equals(assertion.getStatus())
-                || AssertionStatus.ERROR_UPDATING_TO_ORCID.name().equals(assertion.getStatus())) {
+                || AssertionStatus.ERROR_UPDATING_TO_ORCID.name().equals(assertion.getStatus())
+                || AssertionStatus.SYNC_FAILED.name().equals(assertion.getStatus())) {
             return AssertionStatus.PENDING_RETRY.name();
         } else if (AssertionStatus.ERROR_DELETING_IN_ORCID.name().equals(assertion.getStatus())) {
             return AssertionStatus.ERROR_DELETING_IN_ORCID.name();
@@ -237,43 +372,56 @@ public class AssertionService {
     }
 
     public boolean updateAssertionsSalesforceId(String from, String to) {
-        return updateAssertionsSalesforceId(from, to, true);
+        return updateAssertionsSalesforceId(from, to, UUID.randomUUID().toString());
     }
 
-    private boolean updateAssertionsSalesforceId(String from, String to, boolean rollback) {
+    /**
+     * Moves a member's assertions and orcid record tokens to a new salesforce
+     * id, with one update for each. The migration id makes retrying the same
+     * migration safe, and lets it be rolled back without touching anything
+     * that already had either id.
+     */
+    public boolean updateAssertionsSalesforceId(String from, String to, String migrationId) {
         try {
-            Pageable pageable = getPageableForRegistrySync();
-            Page<Assertion> page = assertionRepository.findBySalesforceId(from, pageable);
-            while (!page.isEmpty()) {
-                page.forEach(a -> {
-                    a.setSalesforceId(to);
-                    a.setModified(Instant.now());
-                    assertionRepository.save(a);
-                });
-
-                // repeat until no more left in db with old sf id
-                page = assertionRepository.findBySalesforceId(from, pageable);
-            }
+            long assertions = assertionRepository.updateSalesforceId(from, to, migrationId);
+            memberAssertionStatsService.recount(from);
+            memberAssertionStatsService.recount(to);
+            long records = orcidRecordService.updateTokensSalesforceId(from, to, migrationId);
+            LOG.info("Moved {} assertions and {} orcid record tokens from salesforce id '{}' to '{}' in migration {}", assertions, records, from, to, migrationId);
         } catch (Exception e) {
             LOG.error("Error bulk updating assertions from salesforce '" + from + "' to salesforce '" + to + "'", e);
-            if (rollback) {
-                LOG.info("Attempting to RESET assertion salesforce ids from '{}' to '{}'", new Object[] { to, from });
-                boolean success = updateAssertionsSalesforceId(to, from, false);
-                if (success) {
-                    LOG.info("Succeeded in RESETTING assertion salesforce ids from '{}' to '{}'", new Object[] { to, from });
-                    return false;
-                } else {
-                    LOG.error("Failed to reset assertions from '{}' to '{}'", new Object[] { to, from });
-                    LOG.error(
-                            "Operation to update assertion salesforce ids from '{}' to '{}' has failed but there may be assertions with new sf id of '{}' in the database!",
-                            new Object[] { from, to, to });
-                    return false;
-                }
+            LOG.info("Attempting to RESET assertion salesforce ids from '{}' to '{}'", to, from);
+            if (rollbackAssertionsSalesforceId(from, to, migrationId)) {
+                LOG.info("Succeeded in RESETTING assertion salesforce ids from '{}' to '{}'", to, from);
+            } else {
+                LOG.error(
+                        "Operation to update assertion salesforce ids from '{}' to '{}' has failed but there may be assertions with new sf id of '{}' in the database!",
+                        from, to, to);
             }
+            return false;
         }
         return true;
     }
 
+    /**
+     * Moves the assertions and orcid record tokens moved by the given
+     * migration back to their old salesforce id.
+     */
+    public boolean rollbackAssertionsSalesforceId(String from, String to, String migrationId) {
+        try {
+            long assertions = assertionRepository.rollbackSalesforceIdMigration(from, to, migrationId);
+            memberAssertionStatsService.recount(from);
+            memberAssertionStatsService.recount(to);
+            long records = orcidRecordService.rollbackTokensSalesforceIdMigration(from, to, migrationId);
+            LOG.info("Moved {} assertions and {} orcid record tokens back from salesforce id '{}' to '{}' for migration {}", assertions, records, to, from,
+                    migrationId);
+            return true;
+        } catch (Exception e) {
+            LOG.error("Failed to reset assertions from '" + to + "' to '" + from + "' for migration " + migrationId, e);
+            return false;
+        }
+    }
+
     public void deleteById(String id, AssertionServiceUser user) throws RegistryDeleteFailureException {
         Assertion assertion = findById(id);
         String salesforceId = user.getSalesforceId();
@@ -281,28 +429,33 @@ public class AssertionService {
 
         if (!StringUtils.isEmpty(assertion.getPutCode())) {
             LOG.info("Deleting assertion {} in ORCID registry", id);
-            deleteAssertionFromOrcidRegistry(assertion);
+            deleteAssertionFromOrcidRegistry(assertion, true);
         }
 
         String email = assertion.getEmail();
         assertionRepository.deleteById(id);
+        memberAssertionStatsService.assertionsDeleted(assertion.getSalesforceId(), assertion.getStatus(), 1);
         if (assertionRepository.countByEmailAndSalesforceId(email, salesforceId) == 0) {
             orcidRecordService.deleteOrcidRecordTokenByEmailAndSalesforceId(email, salesforceId);
         }
     }
 
     public List<Assertion> findAssertionsByEmail(String email) {
-        return assertionRepository.findByEmail(email);
+        return assertionRepository.findByEmail(StringUtils.lowerCase(email, Locale.ENGLISH));
     }
 
     public boolean isDuplicate(Assertion assertion, String salesforceId) {
+        return findDuplicate(assertion, salesforceId).isPresent();
+    }
+
+    private Optional<Assertion> findDuplicate(Assertion assertion, String salesforceId) {
         List<Assertion> assertions = assertionRepository.findByEmailAndSalesforceId(assertion.getEmail(), salesforceId);
         for (Assertion a : assertions) {
             if (duplicates(a, assertion)) {
-                return true;
+                return Optional.of(a);
             }
         }
-        return false;
+        return Optional.empty();
     }
 
     private boolean duplicates(Assertion a, Assertion b) {
@@ -373,21 +526,8 @@ public class AssertionService {
     }
 
     public void postAssertionsToOrcid() throws JAXBException {
-        Pageable pageable = getPageableForRegistrySync();
-
         LOG.info("POSTing affiliations to orcid registry...");
-        List<Assertion> assertionsToAdd = assertionRepository.findAllToCreateInOrcidRegistry(pageable);
-        while (assertionsToAdd != null && !assertionsToAdd.isEmpty()) {
-            for (Assertion assertion : assertionsToAdd) {
-                try {
-                    postAssertionToOrcid(assertion);
-                } catch (Exception e) {
-                    LOG.error("Unexpected error POSTing assertion to registry", e);
-                }
-            }
-            pageable = pageable.next();
-            assertionsToAdd = assertionRepository.findAllToCreateInOrcidRegistry(pageable);
-        }
+        syncInMemberTurns("create");
         LOG.info("POSTing complete");
     }
 
@@ -407,37 +547,37 @@ public class AssertionService {
                 assertion.setPutCode(putCode);
                 assertion.setAddedToORCID(now);
                 assertion.setOrcidError(null);
+                assertion.setRetryCount(0);
+                assertion.setNextAttemptAt(null);
                 assertion.setStatus(AssertionStatus.IN_ORCID.name());
                 assertionRepository.save(assertion);
+                countSyncOutcome("create", "success");
+            } catch (RegistryThrottledException rte) {
+                // leave it as it was, to be picked up by a later sync
+                LOG.warn("Registry throttled POST of assertion {}", assertion.getId());
+                countSyncOutcome("create", "throttled");
             } catch (ORCIDAPIException oae) {
                 LOG.info("Recieved orcid api exception");
                 storeError(assertion, oae.getStatusCode(), oae.getError(), AssertionStatus.ERROR_ADDING_TO_ORCID);
+                countSyncOutcome("create", "registry-error");
             } catch (Exception e) {
                 LOG.error("Error posting assertion " + assertion.getId(), e);
                 storeError(assertion, 0, e.getMessage(), AssertionStatus.ERROR_ADDING_TO_ORCID);
+                countSyncOutcome("create", "error");
             }
         } else if (deniedStatus != null) {
+            assertion.setLastSyncAttempt(Instant.now());
             assertion.setStatus(deniedStatus.name());
             assertionRepository.save(assertion);
+            countSyncOutcome("create", "denied");
+        } else {
+            countSyncOutcome("create", "skipped");
         }
     }
 
     public void putAssertionsInOrcid() throws JAXBException {
         LOG.info("PUTting assertions in orcid");
-        Pageable pageable = getPageableForRegistrySync();
-        List<Assertion> assertionsToUpdate = assertionRepository.findAllToUpdateInOrcidRegistry(pageable);
-        while (assertionsToUpdate != null && !assertionsToUpdate.isEmpty()) {
-            for (Assertion assertion : assertionsToUpdate) {
-                Assertion refreshed = assertionRepository.findById(assertion.getId()).get();
-                try {
-                    putAssertionInOrcid(refreshed);
-                } catch (Exception e) {
-                    LOG.error("Unexpected error PUTting assertion in registry", e);
-                }
-            }
-            pageable = pageable.next();
-            assertionsToUpdate = assertionRepository.findAllToUpdateInOrcidRegistry(pageable);
-        }
+        syncInMemberTurns("update");
         LOG.info("PUTting complete");
     }
 
@@ -456,24 +596,130 @@ public class AssertionService {
                 putInOrcidRegistry(orcid, assertion, idToken);
                 assertion.setUpdatedInORCID(now);
                 assertion.setOrcidError(null);
+                assertion.setRetryCount(0);
+                assertion.setNextAttemptAt(null);
                 assertion.setStatus(AssertionStatus.IN_ORCID.name());
                 assertionRepository.save(assertion);
+                countSyncOutcome("update", "success");
+            } catch (RegistryThrottledException rte) {
+                LOG.warn("Registry throttled PUT of assertion {}", assertion.getId());
+                countSyncOutcome("update", "throttled");
             } catch (ORCIDAPIException oae) {
                 storeError(assertion, oae.getStatusCode(), oae.getError(), AssertionStatus.ERROR_UPDATING_TO_ORCID);
                 LOG.info("Recieved orcid api exception");
+                countSyncOutcome("update", "registry-error");
             } catch (Exception e) {
                 LOG.error("Error with assertion " + assertion.getId(), e);
                 storeError(assertion, 0, e.getMessage(), AssertionStatus.ERROR_UPDATING_TO_ORCID);
+                countSyncOutcome("update", "error");
             }
         } else if (deniedStatus != null) {
+            assertion.setLastSyncAttempt(Instant.now());
             assertion.setStatus(deniedStatus.name());
             assertionRepository.save(assertion);
+            countSyncOutcome("update", "denied");
+        } else {
+            countSyncOutcome("update", "skipped");
+        }
+    }
+
+    /**
+     * Works through the registry sync backlog round robin by member, giving
+     * each member a turn of up to {@code assertionsPerMemberTurn} assertions
+     * per round, so that a member with a large backlog can't hold up everyone
+     * else's changes. The members' backlogs are re-read every
+     * {@code memberBacklogRefreshIntervalInMs}, and once every member has
+     * had its last turn. Each member's turns carry on from where the last one
+     * stopped, and when they reach the end of the member's backlog go round
+     * again for the assertions modified since the previous pass started, so
+     * that changes made during a long sync get their turn in it too, without
+     * retrying what the sync had to leave behind.
+     */
+    private void syncInMemberTurns(String operation) {
+        int turnSize = applicationProperties.getRegistrySync().getAssertionsPerMemberTurn();
+        long refreshInterval = applicationProperties.getRegistrySync().getMemberBacklogRefreshIntervalInMs();
+        Instant syncStarted = Instant.now();
+        Map<String, Assertion> lastInTurn = new HashMap<>();
+        Map<String, Instant> passStarted = new HashMap<>();
+        Map<String, Instant> modifiedSince = new HashMap<>();
+
+        List<String> members = getMembersWithSyncBacklog(operation);
+        long lastRefresh = System.currentTimeMillis();
+        boolean syncedSinceRefresh = false;
+        while (!members.isEmpty()) {
+            List<String> nextRound = new ArrayList<>();
+            for (String salesforceId : members) {
+                List<Assertion> turn = findMemberSyncTurn(operation, salesforceId, lastInTurn.get(salesforceId), modifiedSince.get(salesforceId), turnSize);
+                if (turn.isEmpty() && lastInTurn.containsKey(salesforceId)) {
+                    lastInTurn.remove(salesforceId);
+                    modifiedSince.put(salesforceId, passStarted.getOrDefault(salesforceId, syncStarted));
+                    passStarted.put(salesforceId, Instant.now());
+                    turn = findMemberSyncTurn(operation, salesforceId, null, modifiedSince.get(salesforceId), turnSize);
+                }
+                if (turn.isEmpty()) {
+                    continue;
+                }
+
+                Timer.Sample page = Timer.start(meterRegistry);
+                for (Assertion assertion : turn) {
+                    syncAssertion(operation, assertion);
+                }
+                page.stop(meterRegistry.timer(SYNC_PAGE_METRIC, "operation", operation));
+
+                syncedSinceRefresh = true;
+                lastInTurn.put(salesforceId, turn.get(turn.size() - 1));
+                if (turn.size() == turnSize) {
+                    nextRound.add(salesforceId);
+                }
+            }
+
+            boolean refreshDue = nextRound.isEmpty() || System.currentTimeMillis() - lastRefresh >= refreshInterval;
+            if (refreshDue && syncedSinceRefresh) {
+                nextRound = getMembersWithSyncBacklog(operation);
+                lastRefresh = System.currentTimeMillis();
+                syncedSinceRefresh = false;
+            }
+            members = nextRound;
+        }
+    }
+
+    private List<String> getMembersWithSyncBacklog(String operation) {
+        List<MemberSyncBacklog> backlogs = "create".equals(operation) ? assertionRepository.getMemberBacklogsToCreateInOrcidRegistry()
+                : assertionRepository.getMemberBacklogsToUpdateInOrcidRegistry();
+        memberSyncBacklogMetrics.record(operation, backlogs);
+        return backlogs.stream().map(MemberSyncBacklog::getSalesforceId).collect(Collectors.toList());
+    }
+
+    private List<Assertion> findMemberSyncTurn(String operation, String salesforceId, Assertion after, Instant modifiedSince, int turnSize) {
+        return "create".equals(operation) ? assertionRepository.findAllToCreateInOrcidRegistry(salesforceId, after, modifiedSince, turnSize)
+                : assertionRepository.findAllToUpdateInOrcidRegistry(salesforceId, after, modifiedSince, turnSize);
+    }
+
+    private void syncAssertion(String operation, Assertion assertion) {
+        try {
+            if ("create".equals(operation)) {
+                postAssertionToOrcid(assertion);
+            } else {
+                putAssertionInOrcid(assertionRepository.findById(assertion.getId()).get());
+            }
+        } catch (Exception e) {
+            LOG.error("Unexpected error syncing assertion with registry", e);
+            countSyncOutcome(operation, "error");
         }
     }
 
-    private void deleteAssertionFromOrcidRegistry(Assertion assertion) throws RegistryDeleteFailureException {
+    private void countSyncOutcome(String operation, String outcome) {
+        meterRegistry.counter(SYNC_ASSERTIONS_METRIC, "operation", operation, "outcome", outcome).increment();
+    }
+
+    /**
+     * @param storeErrors
+     *            whether to save failures on the assertion, which isn't worth
+     *            doing for an assertion about to be removed regardless
+     */
+    private void deleteAssertionFromOrcidRegistry(Assertion assertion, boolean storeErrors) throws RegistryDeleteFailureException {
         Optional<OrcidRecord> record = orcidRecordService.findOneByEmail(assertion.getEmail());
-        if (!checkRegistryDeletePreconditions(record, assertion)) {
+        if (!checkRegistryDeletePreconditions(record, assertion, storeErrors)) {
             throw new RegistryDeleteFailureException();
         }
 
@@ -483,13 +729,20 @@ public class AssertionService {
             LOG.info("Exchanging id token for {}", record.get().getOrcid());
             String accessToken = orcidAPIClient.exchangeToken(record.get().getToken(assertion.getSalesforceId(), true));
             orcidAPIClient.deleteAffiliation(record.get().getOrcid(), accessToken, assertion);
+        } catch (RegistryThrottledException rte) {
+            LOG.warn("Registry throttled DELETE of assertion {}", assertion.getId());
+            throw new RegistryDeleteFailureException(true);
         } catch (ORCIDAPIException oae) {
             if (oae.getStatusCode() != 404) {
-                storeError(assertion, oae.getStatusCode(), oae.getError(), AssertionStatus.ERROR_DELETING_IN_ORCID);
+                if (storeErrors) {
+                    storeError(assertion, oae.getStatusCode(), oae.getError(), AssertionStatus.ERROR_DELETING_IN_ORCID);
+                }
                 throw new RegistryDeleteFailureException();
             }
         } catch (Exception e) {
-            storeError(assertion, 0, e.getMessage(), AssertionStatus.ERROR_DELETING_IN_ORCID);
+            if (storeErrors) {
+                storeError(assertion, 0, e.getMessage(), AssertionStatus.ERROR_DELETING_IN_ORCID);
+            }
             throw new RegistryDeleteFailureException();
         }
     }
@@ -505,12 +758,20 @@ public class AssertionService {
         csvReportService.storeCsvReportRequest(assertionsUserService.getLoggedInUserId(), filename, CsvReport.ASSERTIONS_REPORT_TYPE);
     }
 
+    public MemberAssertionStatusSummary getMemberAssertionStatusSummary() {
+        String salesforceId = assertionsUserService.getLoggedInUserSalesforceId();
+        return memberAssertionStatsService.getStatusSummary(salesforceId).orElseGet(() -> {
+            MemberAssertionStatusSummary summary = new MemberAssertionStatusSummary();
+            summary.setSalesforceId(salesforceId);
+            return summary;
+        });
+    }
+
     public void generateAndSendMemberAssertionStats() throws IOException {
-        List<MemberAssertionStatusCount> counts = assertionRepository.getMemberAssertionStatusCounts();
-        Map<String, MemberAssertionStats> stats = getMemberAssertionStats(counts);
+        Map<String, MemberAssertionStats> stats = getMemberAssertionStats(memberAssertionStatsService.getStatusSummaries());
         String reportCsv = getMemberAssertionStatsCsv(stats);
-        File writtenFile = storedFileService.storeMemberAssertionStatsFile(reportCsv);
-        mailService.sendMemberAssertionStatsMail(writtenFile);
+        StoredFile statsFile = storedFileService.storeMemberAssertionStatsFile(reportCsv);
+        mailService.sendMemberAssertionStatsMail(statsFile);
     }
 
     private String getMemberAssertionStatsCsv(Map<String, MemberAssertionStats> stats) throws IOException {
@@ -527,15 +788,20 @@ public class AssertionService {
         return new CsvWriter().writeCsv(headers, rows);
     }
 
-    private Map<String, MemberAssertionStats> getMemberAssertionStats(List<MemberAssertionStatusCount> counts) {
+    private Map<String, MemberAssertionStats> getMemberAssertionStats(List<MemberAssertionStatusSummary> summaries) {
         Map<String, MemberAssertionStats> stats = new HashMap<>();
-        for (MemberAssertionStatusCount count : counts) {
-            if (!stats.containsKey(count.getSalesforceId())) {
-                MemberAssertionStats memberStats = new MemberAssertionStats();
-                memberStats.setMemberName(memberService.getMemberName(count.getSalesforceId()));
-                stats.put(count.getSalesforceId(), memberStats);
+        for (MemberAssertionStatusSummary summary : summaries) {
+            MemberAssertionStats memberStats = new MemberAssertionStats();
+            summary.getStatusCounts().forEach((status, count) -> {
+                if (count > 0) {
+                    memberStats.setStatusCount(status, count.intValue());
+                }
+            });
+            // members left with no assertions
+            if (memberStats.getTotalAssertions() > 0) {
+                memberStats.setMemberName(memberService.getMemberName(summary.getSalesforceId()));
+                stats.put(summary.getSalesforceId(), memberStats);
             }
-            stats.get(count.getSalesforceId()).setStatusCount(count.getStatus(), count.getStatusCount());
         }
         return stats;
     }
@@ -589,7 +855,7 @@ public class AssertionService {
         orcidAPIClient.putAffiliation(orcid, accessToken, assertion);
     }
 
-    private boolean checkRegistryDeletePreconditions(Optional<OrcidRecord> record, Assertion assertion) {
+    private boolean checkRegistryDeletePreconditions(Optional<OrcidRecord> record, Assertion assertion, boolean storeErrors) {
         String error = null;
         if (!record.isPresent()) {
             LOG.error("OrcidRecord not available for email {}", assertion.getEmail());
@@ -604,9 +870,11 @@ public class AssertionService {
             error = "Token not available";
         }
         if (error != null) {
-            assertion.setOrcidError(error);
-            assertion.setStatus(AssertionStatus.ERROR_DELETING_IN_ORCID.name());
-            assertionRepository.save(assertion);
+            if (storeErrors) {
+                assertion.setOrcidError(error);
+                assertion.setStatus(AssertionStatus.ERROR_DELETING_IN_ORCID.name());
+                assertionRepository.save(assertion);
+            }
             return false;
         }
         return true;
@@ -619,6 +887,9 @@ public class AssertionService {
         obj.put("error", error);
         assertion.setOrcidError(obj.toString());
         assertion.setStatus(getErrorStatus(assertion, defaultErrorStatus).name());
+        if (!AssertionStatus.ERROR_DELETING_IN_ORCID.equals(defaultErrorStatus)) {
+            scheduleRetry(assertion, statusCode);
+        }
 
         if (StringUtils.equals(assertion.getStatus(), AssertionStatus.USER_REVOKED_ACCESS.name())) {
             LOG.info("Assertion status set to USER_REVOKED_ACCESS, updating id token accordingly");
@@ -627,6 +898,34 @@ public class AssertionService {
         assertionRepository.save(assertion);
     }
 
+    /**
+     * Backs off exponentially from each failed sync of an assertion, starting
+     * from a longer wait for errors that are unlikely to go away by
+     * themselves. Assertions still failing after the last attempt are set to
+     * SYNC_FAILED, whatever the error, eg a deleted ORCID record, and left
+     * alone by the sync until they are edited. The exception is revoked
+     * access, which stays as it is: its token has been revoked, so the sync
+     * no longer calls the registry for it, and the status tells the member a
+     * new permission link is needed.
+     */
+    private void scheduleRetry(Assertion assertion, int statusCode) {
+        ApplicationProperties.RegistryRetries retries = applicationProperties.getRegistryRetries();
+        int retryCount = assertion.getRetryCount() + 1;
+        assertion.setRetryCount(retryCount);
+
+        if (retryCount >= retries.getMaxAttempts() && !AssertionStatus.USER_REVOKED_ACCESS.name().equals(assertion.getStatus())) {
+            LOG.warn("Giving up syncing assertion {} with status {} after {} attempts", assertion.getId(), assertion.getStatus(), retryCount);
+            assertion.setStatus(AssertionStatus.SYNC_FAILED.name());
+            assertion.setNextAttemptAt(null);
+            return;
+        }
+
+        boolean transientError = statusCode == 0 || statusCode >= 500;
+        long backoff = transientError ? retries.getTransientErrorBackoffInMs() : retries.getPermanentErrorBackoffInMs();
+        backoff = Math.min(retries.getMaxBackoffInMs(), backoff * (1L << Math.min(retryCount - 1, 30)));
+        assertion.setNextAttemptAt(Instant.now().plusMillis(backoff));
+    }
+
     private AssertionStatus getErrorStatus(Assertion assertion, AssertionStatus defaultError) {
         JSONObject json = new JSONObject(assertion.getOrcidError());
         int statusCode = json.getInt("statusCode");
@@ -648,17 +947,13 @@ public class AssertionService {
     }
 
     public List<Assertion> findByEmail(String email) {
-        List<Assertion> assertions = assertionRepository.findByEmail(email);
+        List<Assertion> assertions = assertionRepository.findByEmail(StringUtils.lowerCase(email, Locale.ENGLISH));
         setPrettyStatus(assertions);
         return assertions;
     }
 
     public List<Assertion> findByEmailAndSalesForceId(String email, String salesForceId) {
-        return assertionRepository.findByEmailAndSalesforceId(email, salesForceId);
-    }
-
-    public Optional<Assertion> findOneByEmailIgnoreCase(String email) {
-        return assertionRepository.findOneByEmailIgnoreCase(email.toLowerCase());
+        return assertionRepository.findByEmailAndSalesforceId(StringUtils.lowerCase(email, Locale.ENGLISH), salesForceId);
     }
 
     public List<Assertion> getAssertionsBySalesforceId(String salesforceId) {
@@ -680,18 +975,112 @@ public class AssertionService {
         csvReportService.storeCsvReportRequest(assertionsUserService.getLoggedInUserId(), filename, CsvReport.ASSERTIONS_FOR_EDIT_TYPE);
     }
 
-    public void uploadAssertions(MultipartFile file) throws IOException {
+    public AssertionsUploadJob uploadAssertions(MultipartFile file) throws IOException {
         AssertionServiceUser user = assertionsUserService.getLoggedInUser();
-        storedFileService.storeAssertionsCsvFile(file.getInputStream(), file.getOriginalFilename(), user);
+        StoredFile storedFile = storedFileService.storeAssertionsCsvFile(file.getInputStream(), file.getOriginalFilename(), user);
+        return enqueueAssertionsUpload(storedFile);
+    }
+
+    public List<AssertionsUploadJob> getAssertionsUploadJobs() {
+        String userId = assertionsUserService.getLoggedInUserId();
+        return assertionsUploadJobRepository.findByOwnerIdOrderByDateCreatedDesc(userId, PageRequest.of(0, UPLOAD_JOBS_PAGE_SIZE));
     }
 
+    /**
+     * Processes queued assertion uploads. Every node runs this, claiming one
+     * job at a time with a lease, so that different uploads are processed in
+     * parallel.
+     */
     public void processAssertionUploads() {
+        // pick up uploads stored without a job, eg before the queue existed
         List<StoredFile> pendingUploads = storedFileService.getUnprocessedStoredFilesByType(StoredFileService.ASSERTIONS_CSV_FILE_TYPE);
-        pendingUploads.forEach(this::processAssertionsUploadFile);
+        pendingUploads.stream().filter(f -> !assertionsUploadJobRepository.existsByStoredFileId(f.getId())).forEach(this::enqueueAssertionsUpload);
+
+        AssertionsUploadJob job = claimNextAssertionsUploadJob();
+        while (job != null) {
+            try {
+                processAssertionsUploadJob(job);
+            } catch (Exception e) {
+                // the lease will expire and the job be resumed from its last
+                // checkpoint, until it runs out of attempts
+                LOG.error("Error processing upload job {}", job.getId(), e);
+            }
+            job = claimNextAssertionsUploadJob();
+        }
+    }
+
+    /**
+     * @return false if the registry throttled a delete before the job was
+     *         complete
+     */
+    private boolean processAssertionsDeleteJob(AssertionsDeleteJob job) {
+        job.setStatus(AssertionsDeleteJob.IN_PROGRESS_STATUS);
+        Pageable batch = PageRequest.of(0, REGISTRY_SYNC_BATCH_SIZE);
+        List<Assertion> assertions = assertionRepository.findBySalesforceIdAndStatus(job.getSalesforceId(), AssertionStatus.PENDING_DELETE.name(), batch);
+        while (!assertions.isEmpty()) {
+            List<String> deletedIds = new ArrayList<>();
+            Set<String> emails = new LinkedHashSet<>();
+            boolean throttled = false;
+            for (Assertion assertion : assertions) {
+                if (!deleteFromRegistryForRemoval(assertion, job)) {
+                    throttled = true;
+                    break;
+                }
+                deletedIds.add(assertion.getId());
+                emails.add(assertion.getEmail());
+            }
+
+            if (!deletedIds.isEmpty()) {
+                long deleted = assertionRepository.deleteByIdIn(deletedIds);
+                memberAssertionStatsService.assertionsDeleted(job.getSalesforceId(), AssertionStatus.PENDING_DELETE.name(), deleted);
+                emails.stream().filter(email -> assertionRepository.countByEmailAndSalesforceId(email, job.getSalesforceId()) == 0)
+                        .forEach(email -> orcidRecordService.deleteOrcidRecordTokenByEmailAndSalesforceId(email, job.getSalesforceId()));
+                job.setNumDeleted(job.getNumDeleted() + deletedIds.size());
+            }
+            assertionsDeleteJobRepository.save(job);
+
+            if (throttled) {
+                return false;
+            }
+            assertions = assertionRepository.findBySalesforceIdAndStatus(job.getSalesforceId(), AssertionStatus.PENDING_DELETE.name(), batch);
+        }
+
+        job.setStatus(AssertionsDeleteJob.COMPLETE_STATUS);
+        job.setDateCompleted(Instant.now());
+        assertionsDeleteJobRepository.save(job);
+        LOG.info("Deleted {} assertions for {}", job.getNumDeleted(), job.getSalesforceId());
+        return true;
+    }
+
+    /**
+     * Deletes an assertion of a member being deleted from the registry, if it
+     * was ever added there. The member's data is removed whatever the outcome,
+     * so failures other than throttling are only recorded on the job, and the
+     * assertion is left pending delete, as it is counted when removed.
+     * 
+     * @return false if the registry throttled the delete
+     */
+    private boolean deleteFromRegistryForRemoval(Assertion assertion, AssertionsDeleteJob job) {
+        if (StringUtils.isEmpty(assertion.getPutCode())) {
+            return true;
+        }
+        try {
+            deleteAssertionFromOrcidRegistry(assertion, false);
+        } catch (RegistryDeleteFailureException e) {
+            if (e.isThrottled()) {
+                return false;
+            }
+            job.addRegistryDeleteFailure(assertion.getId());
+        } catch (Exception e) {
+            LOG.error("Error deleting assertion " + assertion.getId() + " from registry", e);
+            job.addRegistryDeleteFailure(assertion.getId());
+        }
+        return true;
     }
 
     public void markPendingAssertionsAsNotificationRequested(String salesforceId) {
-        assertionRepository.updateStatusPendingToNotificationRequested(salesforceId);
+        long marked = assertionRepository.updateStatusPendingToNotificationRequested(salesforceId);
+        memberAssertionStatsService.assertionsStatusChanged(salesforceId, AssertionStatus.PENDING.name(), AssertionStatus.NOTIFICATION_REQUESTED.name(), marked);
     }
 
     public void updateOrcidIdsForEmailAndSalesforceId(String email, String salesforceId) {
@@ -702,86 +1091,216 @@ public class AssertionService {
             a.setOrcidId(orcid);
             assertionRepository.save(a);
         });
+        applicationEventPublisher.publishEvent(new AssertionsModifiedEvent(salesforceId));
+    }
+
+    private AssertionsUploadJob enqueueAssertionsUpload(StoredFile storedFile) {
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        job.setStoredFileId(storedFile.getId());
+        job.setOriginalFilename(storedFile.getOriginalFilename());
+        job.setOwnerId(storedFile.getOwnerId());
+        job.setStatus(AssertionsUploadJob.PENDING_STATUS);
+        job.setDateCreated(storedFile.getDateWritten());
+        try {
+            return assertionsUploadJobRepository.insert(job);
+        } catch (DuplicateKeyException e) {
+            LOG.debug("Upload job for stored file {} already created", storedFile.getId());
+            return null;
+        }
+    }
+
+    private AssertionsUploadJob claimNextAssertionsUploadJob() {
+        return assertionsUploadJobRepository.claimNextJob(uploadWorkerId, Instant.now(), getUploadLeaseExpiry());
     }
 
-    private void processAssertionsUploadFile(StoredFile uploadFile) {
-        File file = new File(uploadFile.getFileLocation());
+    private Instant getUploadLeaseExpiry() {
+        return Instant.now().plusSeconds(applicationProperties.getAssertionUploads().getLeaseInSeconds());
+    }
+
+    private void processAssertionsUploadJob(AssertionsUploadJob job) {
+        Optional<StoredFile> storedFile = storedFileService.getStoredFile(job.getStoredFileId());
+        if (!storedFile.isPresent()) {
+            LOG.warn("Stored file {} for upload job {} not found", job.getStoredFileId(), job.getId());
+            job.setError("Uploaded file not found");
+            finishAssertionsUploadJob(job, AssertionsUploadJob.FAILED_STATUS);
+            return;
+        }
+
+        StoredFile uploadFile = storedFile.get();
+        if (job.getAttempts() > applicationProperties.getAssertionUploads().getMaxAttempts()) {
+            LOG.warn("Giving up on upload job {} after {} attempts", job.getId(), job.getAttempts() - 1);
+            job.setError("Upload could not be processed after " + (job.getAttempts() - 1) + " attempts");
+            uploadFile.setError(job.getError());
+            finishAssertionsUploadJob(job, AssertionsUploadJob.FAILED_STATUS);
+            storedFileService.markAsProcessed(uploadFile);
+            return;
+        }
+
         AssertionServiceUser user = assertionsUserService.getUserById(uploadFile.getOwnerId());
 
+        AssertionsUpload upload = null;
         try {
-            AssertionsUpload upload = readUpload(file, user);
-            AssertionsUploadSummary summary = processUpload(upload, user);
-            summary.setFilename(uploadFile.getOriginalFilename());
-            summary.setDate(DATE_FORMAT.format(uploadFile.getDateWritten()));
-            mailService.sendAssertionsUploadSummaryMail(summary, user);
+            upload = readUpload(uploadFile, user);
         } catch (Exception e) {
             if (e.getCause() != null) {
                 uploadFile.setError(e.getCause().toString());
             } else {
                 uploadFile.setError(e.getClass() + ": " + e.getMessage());
             }
+            job.setError(uploadFile.getError());
+            finishAssertionsUploadJob(job, AssertionsUploadJob.FAILED_STATUS);
+            storedFileService.markAsProcessed(uploadFile);
+            return;
         }
 
-        storedFileService.markAsProcessed(uploadFile);
-    }
-
-    private AssertionsUploadSummary processUpload(AssertionsUpload upload, AssertionServiceUser user) {
         AssertionsUploadSummary summary = new AssertionsUploadSummary();
-
         if (upload.getErrors().size() > 0) {
             summary.setErrors(upload.getErrors());
-            return summary;
+        } else {
+            if (!processUploadRows(job, upload, user)) {
+                LOG.warn("Lease on upload job {} lost, leaving it to the new owner", job.getId());
+                return;
+            }
+            setUploadSummaryCounts(summary, job);
+        }
+
+        // only the node that completes the job sends the summary
+        if (finishAssertionsUploadJob(job, AssertionsUploadJob.COMPLETE_STATUS)) {
+            summary.setFilename(uploadFile.getOriginalFilename());
+            summary.setDate(DATE_FORMAT.format(uploadFile.getDateWritten()));
+            mailService.sendAssertionsUploadSummaryMail(summary, user);
+            storedFileService.markAsProcessed(uploadFile);
+        }
+    }
+
+    private boolean finishAssertionsUploadJob(AssertionsUploadJob job, String status) {
+        job.setStatus(status);
+        job.setDateCompleted(Instant.now());
+        return assertionsUploadJobRepository.saveProgress(job, uploadWorkerId);
+    }
+
+    /**
+     * Processes the rows of the upload from the job's last checkpoint, saving
+     * the job's progress after each chunk. As registry deletes can be slow,
+     * the lease is also renewed between rows once half of it has gone. Rows of
+     * a chunk that was in progress when a previous attempt stopped are
+     * processed again: updates are simply reapplied, rows deleting assertions
+     * already gone count as deleted, and new assertions already created by
+     * this upload count as added rather than as duplicates.
+     * 
+     * @return false if the lease on the job was lost to another node
+     */
+    private boolean processUploadRows(AssertionsUploadJob job, AssertionsUpload upload, AssertionServiceUser user) {
+        List<Assertion> assertions = upload.getAssertions();
+        int chunkSize = Math.max(1, applicationProperties.getAssertionUploads().getChunkSize());
+        job.setTotalRows(assertions.size());
+        int resumedChunkEnd = job.getAttempts() > 1 ? Math.min(job.getRowsProcessed() + chunkSize, assertions.size()) : 0;
+
+        while (job.getRowsProcessed() < assertions.size()) {
+            Timer.Sample chunk = Timer.start(meterRegistry);
+            int chunkEnd = Math.min(job.getRowsProcessed() + chunkSize, assertions.size());
+            for (int i = job.getRowsProcessed(); i < chunkEnd; i++) {
+                if (!renewUploadLeaseIfDue(job)) {
+                    chunk.stop(meterRegistry.timer(UPLOAD_CHUNK_METRIC, "outcome", "lease-lost"));
+                    return false;
+                }
+                processUploadRow(assertions.get(i), i + 1, job, user, i < resumedChunkEnd);
+            }
+            job.setRowsProcessed(chunkEnd);
+            job.setLeaseExpiry(getUploadLeaseExpiry());
+            boolean saved = assertionsUploadJobRepository.saveProgress(job, uploadWorkerId);
+            chunk.stop(meterRegistry.timer(UPLOAD_CHUNK_METRIC, "outcome", saved ? "success" : "lease-lost"));
+            if (!saved) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        int duplicates = 0;
-        int created = 0;
-        int updated = 0;
-        int deleted = 0;
+    /**
+     * @return false if the lease on the job was lost to another node
+     */
+    private boolean renewUploadLeaseIfDue(AssertionsUploadJob job) {
+        long halfLeaseInSeconds = applicationProperties.getAssertionUploads().getLeaseInSeconds() / 2;
+        if (job.getLeaseExpiry() != null && Instant.now().isBefore(job.getLeaseExpiry().minusSeconds(halfLeaseInSeconds))) {
+            return true;
+        }
 
-        List<String> registryDeleteFailures = new ArrayList<>();
+        Instant leaseExpiry = getUploadLeaseExpiry();
+        if (!assertionsUploadJobRepository.renewLease(job.getId(), uploadWorkerId, leaseExpiry)) {
+            return false;
+        }
+        job.setLeaseExpiry(leaseExpiry);
+        return true;
+    }
 
-        for (Assertion a : upload.getAssertions()) {
-            if (!isDuplicate(a, user.getSalesforceId())) {
-                if (a.getId() == null || a.getId().isEmpty()) {
-                    createAssertion(a, user);
-                    created++;
+    private void processUploadRow(Assertion a, int row, AssertionsUploadJob job, AssertionServiceUser user, boolean resumed) {
+        Optional<Assertion> duplicate = findDuplicate(a, user.getSalesforceId());
+        if (duplicate.isPresent()) {
+            if (resumed && createdByUpload(duplicate.get(), a, job, user)) {
+                job.setNumAdded(job.getNumAdded() + 1);
+            } else {
+                job.setNumDuplicates(job.getNumDuplicates() + 1);
+            }
+        } else if (a.getId() == null || a.getId().isEmpty()) {
+            createAssertion(a, user);
+            job.setNumAdded(job.getNumAdded() + 1);
+        } else {
+            Optional<Assertion> existingAssertion = assertionRepository.findById(a.getId());
+            if (!existingAssertion.isPresent()) {
+                if (assertionToDelete(a)) {
+                    // deleted by an earlier attempt, or since the upload was read
+                    job.setNumDeleted(job.getNumDeleted() + 1);
                 } else {
-                    Assertion existingAssertion = findById(a.getId());
-                    if (!user.getSalesforceId().equals(existingAssertion.getSalesforceId())) {
-                        throw new BadRequestAlertException("This affiliation doesn't belong to your organization", "affiliation", "affiliationOtherOrganization");
-                    }
-                    if (assertionToDelete(a)) {
-                        try {
-                            deleteById(a.getId(), user);
-                            deleted++;
-                        } catch (RegistryDeleteFailureException e) {
-                            registryDeleteFailures.add(a.getId());
-                        }
-                    } else {
-                        updateAssertion(a, user);
-                        updated++;
-                    }
+                    LOG.warn("Upload job {} row {} refers to affiliation {} which no longer exists", job.getId(), row, a.getId());
+                    job.addFailure(new AssertionsUploadError(row, "This affiliation no longer exists"));
+                }
+            } else if (!user.getSalesforceId().equals(existingAssertion.get().getSalesforceId())) {
+                LOG.warn("Upload job {} row {} refers to affiliation {} of another organization", job.getId(), row, a.getId());
+                job.addFailure(new AssertionsUploadError(row, "This affiliation doesn't belong to your organization"));
+            } else if (AssertionStatus.PENDING_DELETE.name().equals(existingAssertion.get().getStatus())) {
+                if (assertionToDelete(a)) {
+                    // removed by its member's delete job
+                    job.setNumDeleted(job.getNumDeleted() + 1);
+                } else {
+                    job.addFailure(new AssertionsUploadError(row, "This affiliation is being deleted"));
+                }
+            } else if (assertionToDelete(a)) {
+                try {
+                    deleteById(a.getId(), user);
+                    job.setNumDeleted(job.getNumDeleted() + 1);
+                } catch (RegistryDeleteFailureException e) {
+                    job.addRegistryDeleteFailure(a.getId());
                 }
             } else {
-                duplicates++;
+                updateAssertion(a, user);
+                job.setNumUpdated(job.getNumUpdated() + 1);
             }
         }
+    }
 
-        summary.setNumAdded(created);
-        summary.setNumUpdated(updated);
-        summary.setNumDuplicates(duplicates);
-        summary.setNumDeleted(deleted);
-        summary.setRegistryDeleteFailures(registryDeleteFailures);
+    /**
+     * Whether a new assertion's duplicate was created by an earlier attempt
+     * at the same upload, rather than being there before the upload.
+     */
+    private boolean createdByUpload(Assertion duplicate, Assertion a, AssertionsUploadJob job, AssertionServiceUser user) {
+        return (a.getId() == null || a.getId().isEmpty()) && StringUtils.equals(duplicate.getOwnerId(), user.getId()) && duplicate.getCreated() != null
+                && job.getDateCreated() != null && duplicate.getCreated().isAfter(job.getDateCreated());
+    }
 
-        return summary;
+    private void setUploadSummaryCounts(AssertionsUploadSummary summary, AssertionsUploadJob job) {
+        summary.setNumAdded(job.getNumAdded());
+        summary.setNumUpdated(job.getNumUpdated());
+        summary.setNumDuplicates(job.getNumDuplicates());
+        summary.setNumDeleted(job.getNumDeleted());
+        summary.setNumFailed(job.getNumFailed());
+        summary.setRegistryDeleteFailures(job.getRegistryDeleteFailures());
     }
 
-    private AssertionsUpload readUpload(File file, AssertionServiceUser user) {
-        InputStream inputStream = null;
+    private AssertionsUpload readUpload(StoredFile uploadFile, AssertionServiceUser user) {
         AssertionsUpload upload = null;
 
-        try {
-            inputStream = new FileInputStream(file);
+        try (InputStream inputStream = storedFileService.openStoredFile(uploadFile)) {
             upload = assertionsCsvReader.readAssertionsUpload(inputStream, user);
         } catch (IOException e) {
             LOG.warn("Error reading user upload", e);
@@ -806,8 +1325,4 @@ public class AssertionService {
         }
     }
 
-    private Pageable getPageableForRegistrySync() {
-        return PageRequest.of(0, REGISTRY_SYNC_BATCH_SIZE, new Sort(Direction.ASC, "created"));
-    }
-
 }
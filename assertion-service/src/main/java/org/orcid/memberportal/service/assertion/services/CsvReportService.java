@@ -1,6 +1,5 @@
 package org.orcid.memberportal.service.assertion.services;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -22,6 +21,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class CsvReportService {
 
@@ -33,6 +35,8 @@ public class CsvReportService {
 
     static final String CSV_REPORT_FILE_TYPE = "csv-report";
 
+    static final String GENERATION_METRIC = "assertion.report.generation";
+
     @Autowired
     private CsvReportRepository csvReportRepository;
 
@@ -56,6 +60,9 @@ public class CsvReportService {
     
     @Autowired
     private MessageSource messageSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     public void storeCsvReportRequest(String userId, String filename, String type) {
         Instant now = Instant.now();
@@ -72,9 +79,12 @@ public class CsvReportService {
         LOG.info("Processing pending CSV reports");
         List<CsvReport> reports = csvReportRepository.findAllUnprocessed();
         reports.forEach(r -> {
+            Timer.Sample generation = Timer.start(meterRegistry);
+            String outcome = "success";
             try {
                 processCsvReportRequest(r);
             } catch (IOException e) {
+                outcome = "failure";
                 LOG.warn("Failed to generate CSV report of type {} for user {}", r.getReportType(), r.getOwnerId(), e);
                 StringWriter sw = new StringWriter();
                 PrintWriter pw = new PrintWriter(sw);
@@ -83,6 +93,7 @@ public class CsvReportService {
                 r.setStatus(CsvReport.FAILURE_STATUS);
                 csvReportRepository.save(r);
             }
+            generation.stop(meterRegistry.timer(GENERATION_METRIC, "type", String.valueOf(r.getReportType()), "outcome", outcome));
         });
         LOG.info("CSV reports processed");
     }
@@ -117,8 +128,7 @@ public class CsvReportService {
         csvReportRepository.save(csvReport);
 
         LOG.info("Report generated. Sending report to {},,,", user.getEmail());
-        File reportFile = new File(storedFile.getFileLocation());
-        mailService.sendCsvReportMail(reportFile, user, subject, content);
+        mailService.sendCsvReportMail(storedFile, user, subject, content);
         LOG.info("Report sent to {}", user.getEmail());
         
         storedFileService.markAsProcessed(storedFile);
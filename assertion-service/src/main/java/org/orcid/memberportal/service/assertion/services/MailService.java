@@ -1,10 +1,12 @@
 package org.orcid.memberportal.service.assertion.services;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Locale;
 
 import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.StoredFile;
 import org.orcid.memberportal.service.assertion.mail.MailException;
 import org.orcid.memberportal.service.assertion.mail.client.impl.MailgunClient;
 import org.orcid.memberportal.service.assertion.services.locale.LocaleUtils;
@@ -35,6 +37,10 @@ public class MailService {
     @Autowired
     private SpringTemplateEngine templateEngine;
 
+    // attachments are read here rather than passed in, as sending is async
+    @Autowired
+    private StoredFileService storedFileService;
+
     private ApplicationProperties applicationProperties;
 
     private MailgunClient mailgunClient;
@@ -46,28 +52,29 @@ public class MailService {
         this.mailgunClient = mailgunClient;
     }
 
-    public void sendCsvReportMail(File report, AssertionServiceUser user, String subject, String text) {
+    public void sendCsvReportMail(StoredFile report, AssertionServiceUser user, String subject, String text) {
         LOGGER.debug("Sending csv report email to '{}'", user.getEmail());
         Locale locale = LocaleUtils.getLocale(user.getLangKey());
         Context context = new Context(locale);
         context.setVariable("text", text);
         context.setVariable("subject", subject);
         String content = templateEngine.process("mail/csvReport", context);
-        try {
-            mailgunClient.sendMailWithAttachment(user.getEmail(), subject, content, report);
-        } catch (MailException e) {
+        try (InputStream attachment = storedFileService.openStoredFile(report)) {
+            mailgunClient.sendMailWithAttachment(user.getEmail(), subject, content, attachment, storedFileService.getFilename(report));
+        } catch (MailException | IOException e) {
             LOGGER.error("Error sending csv report email to {}", user.getEmail(), e);
         }
     }
     
-    public void sendMemberAssertionStatsMail(File stats) {
+    public void sendMemberAssertionStatsMail(StoredFile stats) {
         LOGGER.debug("Sending member stats email to '{}'", applicationProperties.getMemberAssertionStatsRecipient());
         Context context = new Context(Locale.ENGLISH);
         String content = templateEngine.process("mail/memberAssertionStats", context);
         String subject = messageSource.getMessage("email.memberAssertionStats.title", null, Locale.ENGLISH);
-        try {
-            mailgunClient.sendMailWithAttachment(applicationProperties.getMemberAssertionStatsRecipient(), subject, content, stats);
-        } catch (MailException e) {
+        try (InputStream attachment = storedFileService.openStoredFile(stats)) {
+            mailgunClient.sendMailWithAttachment(applicationProperties.getMemberAssertionStatsRecipient(), subject, content, attachment,
+                    storedFileService.getFilename(stats));
+        } catch (MailException | IOException e) {
             LOGGER.error("Error sending member stats email", e);
         }
     }
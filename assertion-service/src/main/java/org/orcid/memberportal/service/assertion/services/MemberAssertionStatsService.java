@@ -0,0 +1,179 @@
+package org.orcid.memberportal.service.assertion.services;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusCount;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
+import org.orcid.memberportal.service.assertion.repository.MemberAssertionStatusSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps each member's {@link MemberAssertionStatusSummary} up to date. Saves
+ * of single assertions are counted as they happen, bulk changes to a member's
+ * assertions recount that member, and {@link #reconcile()} recounts everyone
+ * to correct any drift. Failing to count a change doesn't fail the change,
+ * as reconciliation catches up.
+ */
+@Service
+public class MemberAssertionStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MemberAssertionStatsService.class);
+
+    static final int MAX_RECOUNT_ATTEMPTS = 3;
+
+    @Autowired
+    private MemberAssertionStatusSummaryRepository memberAssertionStatusSummaryRepository;
+
+    @Autowired
+    private AssertionRepository assertionRepository;
+
+    public Optional<MemberAssertionStatusSummary> getStatusSummary(String salesforceId) {
+        return memberAssertionStatusSummaryRepository.findById(salesforceId);
+    }
+
+    public List<MemberAssertionStatusSummary> getStatusSummaries() {
+        return memberAssertionStatusSummaryRepository.findAll();
+    }
+
+    /**
+     * Counts a saved assertion, given the salesforce id and status it had
+     * before the save, which are null for a new assertion.
+     */
+    public void assertionSaved(String previousSalesforceId, String previousStatus, String salesforceId, String status) {
+        if (StringUtils.equals(previousSalesforceId, salesforceId) && StringUtils.equals(previousStatus, status)) {
+            return;
+        }
+        if (StringUtils.equals(previousSalesforceId, salesforceId)) {
+            assertionsStatusChanged(salesforceId, previousStatus, status, 1);
+        } else {
+            assertionsStatusChanged(previousSalesforceId, previousStatus, null, 1);
+            assertionsStatusChanged(salesforceId, null, status, 1);
+        }
+    }
+
+    public void assertionsDeleted(String salesforceId, String status, long count) {
+        assertionsStatusChanged(salesforceId, status, null, count);
+    }
+
+    /**
+     * Moves a number of a member's assertions from one status to another.
+     * Either status can be null, for assertions created or deleted.
+     */
+    public void assertionsStatusChanged(String salesforceId, String fromStatus, String toStatus, long count) {
+        if (count == 0) {
+            return;
+        }
+        Map<String, Long> increments = new HashMap<>();
+        addIncrement(increments, fromStatus, -count);
+        addIncrement(increments, toStatus, count);
+        incrementStatusCounts(salesforceId, increments);
+    }
+
+    /**
+     * Recounts a member's assertions, after changes made to many of them at
+     * once. Counts that change while recounting are recounted again, up to
+     * {@link #MAX_RECOUNT_ATTEMPTS} times.
+     */
+    public void recount(String salesforceId) {
+        if (salesforceId == null) {
+            return;
+        }
+        try {
+            for (int attempt = 1; attempt <= MAX_RECOUNT_ATTEMPTS; attempt++) {
+                MemberAssertionStatusSummary previous = memberAssertionStatusSummaryRepository.findById(salesforceId).orElse(null);
+                Map<String, Long> counts = assertionRepository.getStatusCounts(salesforceId);
+                if (memberAssertionStatusSummaryRepository.saveIfUnchanged(getSummary(salesforceId, counts, Instant.now()), previous)) {
+                    return;
+                }
+            }
+            LOG.warn("Assertion statuses for {} kept changing while recounting, leaving it to reconciliation", salesforceId);
+        } catch (Exception e) {
+            LOG.warn("Unable to recount assertion statuses for {}, leaving it to reconciliation", salesforceId, e);
+        }
+    }
+
+    /**
+     * Recounts every member's assertions, replacing the counts kept as
+     * assertions are saved and deleted. Counts are read before the recount
+     * and only replaced if they haven't changed since, so changes counted
+     * while reconciling aren't lost; members whose counts have changed are
+     * recounted individually.
+     */
+    public void reconcile() {
+        Map<String, MemberAssertionStatusSummary> existing = memberAssertionStatusSummaryRepository.findAll().stream()
+                .collect(Collectors.toMap(MemberAssertionStatusSummary::getSalesforceId, Function.identity()));
+
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (MemberAssertionStatusCount count : assertionRepository.getMemberAssertionStatusCounts()) {
+            if (count.getSalesforceId() != null && count.getStatus() != null) {
+                counts.computeIfAbsent(count.getSalesforceId(), s -> new HashMap<>()).put(count.getStatus(), count.getStatusCount().longValue());
+            }
+        }
+
+        Instant now = Instant.now();
+        long drifted = 0;
+        long changed = 0;
+        for (Map.Entry<String, Map<String, Long>> memberCounts : counts.entrySet()) {
+            MemberAssertionStatusSummary summary = existing.get(memberCounts.getKey());
+            if (summary == null || !Objects.equals(withoutZeroCounts(summary.getStatusCounts()), memberCounts.getValue())) {
+                drifted++;
+            }
+            if (!memberAssertionStatusSummaryRepository.saveIfUnchanged(getSummary(memberCounts.getKey(), memberCounts.getValue(), now), summary)) {
+                changed++;
+                recount(memberCounts.getKey());
+            }
+        }
+        long removed = 0;
+        for (MemberAssertionStatusSummary summary : existing.values()) {
+            if (!counts.containsKey(summary.getSalesforceId()) && memberAssertionStatusSummaryRepository.deleteIfUnchanged(summary)) {
+                removed++;
+            }
+        }
+        LOG.info("Reconciled assertion status counts for {} members, corrected {}, recounted {} that changed meanwhile and removed {}", counts.size(),
+                drifted, changed, removed);
+    }
+
+    private void incrementStatusCounts(String salesforceId, Map<String, Long> increments) {
+        if (salesforceId == null || increments.isEmpty()) {
+            return;
+        }
+        try {
+            memberAssertionStatusSummaryRepository.incrementStatusCounts(salesforceId, increments);
+        } catch (Exception e) {
+            // the assertions have changed regardless, reconciliation will catch up
+            LOG.warn("Unable to update assertion status counts for {}, leaving it to reconciliation", salesforceId, e);
+        }
+    }
+
+    private void addIncrement(Map<String, Long> increments, String status, long increment) {
+        if (status != null) {
+            increments.merge(status, increment, Long::sum);
+        }
+    }
+
+    private Map<String, Long> withoutZeroCounts(Map<String, Long> counts) {
+        return counts.entrySet().stream().filter(e -> e.getValue() != 0).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private MemberAssertionStatusSummary getSummary(String salesforceId, Map<String, Long> counts, Instant reconciled) {
+        MemberAssertionStatusSummary summary = new MemberAssertionStatusSummary();
+        summary.setSalesforceId(salesforceId);
+        summary.setStatusCounts(new HashMap<>(counts));
+        summary.setModified(reconciled);
+        summary.setReconciled(reconciled);
+        return summary;
+    }
+
+}
@@ -26,6 +26,7 @@ import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStat
 import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
 import org.orcid.memberportal.service.assertion.repository.SendNotificationsRequestRepository;
 import org.orcid.memberportal.service.assertion.services.locale.LocaleUtils;
+import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryThrottledException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +38,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class NotificationService {
 
@@ -44,6 +48,10 @@ public class NotificationService {
     
     private static final int BATCH_SIZE = 100;
 
+    static final String BATCH_METRIC = "assertion.notification.batch";
+
+    static final String NOTIFICATIONS_METRIC = "assertion.notifications";
+
     @Autowired
     private AssertionRepository assertionRepository;
 
@@ -71,6 +79,9 @@ public class NotificationService {
     @Autowired
     private ApplicationProperties applicationProperties;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public boolean requestInProgress(String salesforceId) {
         return findActiveRequestBySalesforceId(salesforceId) != null;
     }
@@ -90,8 +101,16 @@ public class NotificationService {
     public void sendPermissionLinkNotifications() {
         List<SendNotificationsRequest> requests = sendNotificationsRequestRepository.findActiveRequests();
         requests.forEach(r -> {
-            processRequest(r);
-            markRequestCompleted(r);
+            Timer.Sample batch = Timer.start(meterRegistry);
+            if (processRequest(r)) {
+                markRequestCompleted(r);
+            } else {
+                // throttled notifications are still requested, so the next run
+                // picks them up
+                LOG.info("SendNotificationsRequest from user {} (salesforce ID {}) throttled by registry, leaving active", r.getEmail(), r.getSalesforceId());
+                sendNotificationsRequestRepository.save(r);
+            }
+            batch.stop(meterRegistry.timer(BATCH_METRIC, "type", "request"));
         });
     }
 
@@ -102,14 +121,22 @@ public class NotificationService {
         sendNotificationsRequestRepository.save(request);
     }
 
-    private void processRequest(SendNotificationsRequest request) {
+    /**
+     * @return false if any notifications were throttled by the registry
+     */
+    private boolean processRequest(SendNotificationsRequest request) {
         Iterator<String> emailsWithNotificationsRequested = assertionRepository.findDistinctEmailsWithNotificationRequested(request.getSalesforceId());
         String orgName = memberService.getMemberName(request.getSalesforceId());
         String language = memberService.getMemberDefaultLanguage(request.getSalesforceId());
-        emailsWithNotificationsRequested.forEachRemaining(e -> findAssertionsAndAttemptSend(e, orgName, language, request));
+        boolean complete = true;
+        while (emailsWithNotificationsRequested.hasNext()) {
+            complete &= findAssertionsAndAttemptSend(emailsWithNotificationsRequested.next(), orgName, language, request);
+        }
+        return complete;
     }
     
     public void resendNotifications() {
+        Timer.Sample batch = Timer.start(meterRegistry);
         Pageable pageable = PageRequest.of(0, BATCH_SIZE, new Sort(Direction.ASC, "created"));
         Page<Assertion> assertions = assertionRepository.findNotificationResendCandidates(pageable);
         Map<String, String> usersAndSalesforceIds = new HashMap<>();
@@ -141,6 +168,7 @@ public class NotificationService {
         }
         
         resendNotifications(usersAndSalesforceIds);
+        batch.stop(meterRegistry.timer(BATCH_METRIC, "type", "resend"));
     }
     
     private void resendNotifications(Map<String, String> usersAndSalesforceIds) {
@@ -159,16 +187,25 @@ public class NotificationService {
         String language = memberService.getMemberDefaultLanguage(salesforceId);
         
         List<Assertion> allAssertionsForEmailAndMember = assertionRepository.findByEmailAndSalesforceId(email, salesforceId);
+        String type = "orcid-id-lookup";
         try {
             String orcidId = orcidApiClient.getOrcidIdForEmail(email);
             if (orcidId == null) {
                 LOG.info("No ORCID id found for {}. Sending email invitation instead.", email);
+                type = "invitation";
                 sendEmailInvitation(email, orgName, salesforceId, allAssertionsForEmailAndMember, language);
             } else {
                 LOG.info("ORCID id found for {}. Sending notification.", email);
+                type = "notification";
                 sendNotification(email, orgName, salesforceId, allAssertionsForEmailAndMember, orcidId, language);
             }
+            countNotification(type, "sent");
+        } catch (RegistryThrottledException e) {
+            // not yet resent, so due again on the next run
+            countNotification(type, "throttled");
+            LOG.warn("Registry throttled resending notification to {} on behalf of {}", email, salesforceId);
         } catch (Exception e) {
+            countNotification(type, "failed");
             LOG.warn("Error sending notification to {} on behalf of {}", email, salesforceId);
             LOG.warn("Could not send notification", e);
             allAssertionsForEmailAndMember.forEach(a -> {
@@ -178,21 +215,30 @@ public class NotificationService {
         }
     }
     
-    private void findAssertionsAndAttemptSend(String email, String orgName, String language, SendNotificationsRequest request) {
+    private boolean findAssertionsAndAttemptSend(String email, String orgName, String language, SendNotificationsRequest request) {
         List<Assertion> allAssertionsForEmailAndMember = assertionRepository.findByEmailAndSalesforceIdAndStatus(email, request.getSalesforceId(),
                 AssertionStatus.NOTIFICATION_REQUESTED.name());
+        String type = "orcid-id-lookup";
         try {
             String orcidId = orcidApiClient.getOrcidIdForEmail(email);
             if (orcidId == null) {
                 LOG.info("No ORCID id found for {}. Sending email invitation instead.", email);
+                type = "invitation";
                 sendEmailInvitation(email, orgName, request.getSalesforceId(), allAssertionsForEmailAndMember, language);
                 request.setEmailsSent(request.getEmailsSent() + 1);
             } else {
                 LOG.info("ORCID id found for {}. Sending notification.", email);
+                type = "notification";
                 sendNotification(email, orgName, request.getSalesforceId(), allAssertionsForEmailAndMember, orcidId, language);
                 request.setNotificationsSent(request.getNotificationsSent() + 1);
             }
+            countNotification(type, "sent");
+        } catch (RegistryThrottledException e) {
+            countNotification(type, "throttled");
+            LOG.warn("Registry throttled notification to {} on behalf of {}", email, request.getSalesforceId());
+            return false;
         } catch (Exception e) {
+            countNotification(type, "failed");
             LOG.warn("Error sending notification to {} on behalf of {}", email, request.getSalesforceId());
             LOG.warn("Could not send notification", e);
             allAssertionsForEmailAndMember.forEach(a -> {
@@ -200,6 +246,11 @@ public class NotificationService {
                 assertionRepository.save(a);
             });
         }
+        return true;
+    }
+
+    private void countNotification(String type, String outcome) {
+        meterRegistry.counter(NOTIFICATIONS_METRIC, "type", type, "outcome", outcome).increment();
     }
 
     private void sendNotification(String email, String orgName, String salesforceId, List<Assertion> allAssertionsForEmailAndMember, String orcidId, String language)
@@ -3,6 +3,7 @@ package org.orcid.memberportal.service.assertion.services;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,7 +38,9 @@ public class OrcidRecordService {
     private UserService assertionsUserService;
 
     public Optional<OrcidRecord> findOneByEmail(String email) {
-        return orcidRecordRepository.findOneByEmail(email);
+        // emails are stored lower case, so an exact match can use the unique
+        // email index
+        return orcidRecordRepository.findOneByEmail(StringUtils.lowerCase(email, Locale.ENGLISH));
     }
 
     public OrcidRecord createOrcidRecord(String email, Instant now, String salesForceId) {
@@ -72,7 +75,7 @@ public class OrcidRecordService {
     }
 
     public void storeIdToken(String emailInStatus, String idToken, String orcidIdInJWT, String salesforceId) {
-        OrcidRecord orcidRecord = orcidRecordRepository.findOneByEmail(emailInStatus)
+        OrcidRecord orcidRecord = findOneByEmail(emailInStatus)
                 .orElseThrow(() -> new IllegalArgumentException("Unable to find userInfo for email: " + emailInStatus));
 
         OrcidToken newToken = new OrcidToken(salesforceId, idToken);
@@ -86,7 +89,7 @@ public class OrcidRecordService {
     }
 
     public void storeUserDeniedAccess(String emailInStatus, String salesforceId) {
-        OrcidRecord orcidRecord = orcidRecordRepository.findOneByEmail(emailInStatus)
+        OrcidRecord orcidRecord = findOneByEmail(emailInStatus)
                 .orElseThrow(() -> new IllegalArgumentException("Unable to find userInfo for email: " + emailInStatus));
         List<OrcidToken> tokens = orcidRecord.getTokens();
         List<OrcidToken> updatedTokens = new ArrayList<OrcidToken>();
@@ -120,7 +123,7 @@ public class OrcidRecordService {
     
     public String generateLinkForEmailAndSalesforceId(String email, String salesforceId) {
         String landingPageUrl = applicationProperties.getLandingPageUrl();
-        Optional<OrcidRecord> record = orcidRecordRepository.findOneByEmail(email);
+        Optional<OrcidRecord> record = findOneByEmail(email);
         if (!record.isPresent()) {
             createOrcidRecord(email, Instant.now(), salesforceId);
         }
@@ -131,9 +134,17 @@ public class OrcidRecordService {
         return orcidRecordRepository.save(orcidRecord);
     }
 
+    public long updateTokensSalesforceId(String from, String to, String migrationId) {
+        return orcidRecordRepository.updateTokensSalesforceId(from, to, migrationId);
+    }
+
+    public long rollbackTokensSalesforceIdMigration(String from, String to, String migrationId) {
+        return orcidRecordRepository.rollbackTokensSalesforceIdMigration(from, to, migrationId);
+    }
+
     public void revokeIdToken(String email, String salesForceId) {
         LOG.info("Revoking id token for email {}, salesforce id {}", email, salesForceId);
-        OrcidRecord orcidRecord = orcidRecordRepository.findOneByEmail(email)
+        OrcidRecord orcidRecord = findOneByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Unable to find userInfo for email: " + email));
 
         Instant now = Instant.now();
@@ -1,19 +1,22 @@
 package org.orcid.memberportal.service.assertion.services;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
 import org.orcid.memberportal.service.assertion.domain.StoredFile;
 import org.orcid.memberportal.service.assertion.repository.StoredFileRepository;
+import org.orcid.memberportal.service.assertion.storage.StoredFileStorage;
+import org.orcid.memberportal.service.assertion.storage.impl.LocalFileStorage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,122 +33,130 @@ public class StoredFileService {
     
     static final String CSV_REPORT_FILE_TYPE = "csv-report";
 
+    static final int REMOVAL_BATCH_SIZE = 500;
+
+    private static final String CSV_EXTENSION = ".csv";
+
     @Autowired
     private StoredFileRepository storedFileRepository;
 
     @Autowired
     private ApplicationProperties applicationProperties;
 
-    public File storeMemberAssertionStatsFile(String content) throws IOException {
-        Instant now = Instant.now();
-        File outputFile = writeMemberAssertionStatsFile(content);
-        StoredFile storedFile = new StoredFile();
-        storedFile.setFileLocation(outputFile.getAbsolutePath());
-        storedFile.setDateWritten(now);
-        storedFile.setRemovalDate(now.plus(applicationProperties.getStoredFileLifespan(), ChronoUnit.DAYS));
+    @Autowired
+    private List<StoredFileStorage> storages;
+
+    public StoredFile storeMemberAssertionStatsFile(String content) throws IOException {
+        StoredFile storedFile = store(MEMBER_ASSERTION_STATS_FILE_TYPE, applicationProperties.getMemberAssertionStatsDirectory(), toInputStream(content));
         storedFile.setOwnerId(StoredFile.DEFAULT_SYSTEM_OWNER_ID);
-        storedFile.setFileType(MEMBER_ASSERTION_STATS_FILE_TYPE);
-        storedFile.setDateProcessed(now);
-        storedFileRepository.save(storedFile);
-        return outputFile;
+        storedFile.setDateProcessed(storedFile.getDateWritten());
+        return storedFileRepository.save(storedFile);
     }
 
-    public void storeAssertionsCsvFile(InputStream inputStream, String filename, AssertionServiceUser user) throws IOException {
-        File outputFile = writeCsvUploadFile(inputStream);
-        StoredFile storedFile = new StoredFile();
+    public StoredFile storeAssertionsCsvFile(InputStream inputStream, String filename, AssertionServiceUser user) throws IOException {
+        StoredFile storedFile = store(ASSERTIONS_CSV_FILE_TYPE, applicationProperties.getAssertionsCsvUploadDirectory(), inputStream);
         storedFile.setOriginalFilename(filename);
-        storedFile.setFileLocation(outputFile.getAbsolutePath());
-        storedFile.setDateWritten(Instant.now());
-        storedFile.setRemovalDate(storedFile.getDateWritten().plus(applicationProperties.getStoredFileLifespan(), ChronoUnit.DAYS));
         storedFile.setOwnerId(user.getId());
-        storedFile.setFileType(ASSERTIONS_CSV_FILE_TYPE);
-        storedFileRepository.save(storedFile);
+        return storedFileRepository.save(storedFile);
     }
     
     public StoredFile storeCsvReportFile(String report, String originalFilename, AssertionServiceUser user) throws IOException {
-        File outputFile = writeCsvReportFile(report);
-        StoredFile storedFile = new StoredFile();
+        StoredFile storedFile = store(CSV_REPORT_FILE_TYPE, applicationProperties.getCsvReportsDirectory(), toInputStream(report));
         storedFile.setOriginalFilename(originalFilename);
-        storedFile.setFileLocation(outputFile.getAbsolutePath());
-        storedFile.setDateWritten(Instant.now());
-        storedFile.setRemovalDate(storedFile.getDateWritten().plus(applicationProperties.getStoredFileLifespan(), ChronoUnit.DAYS));
         storedFile.setOwnerId(user.getId());
-        storedFile.setFileType(CSV_REPORT_FILE_TYPE);
         return storedFileRepository.save(storedFile);
     }
 
+    /**
+     * Opens the content of a stored file, from whichever storage it was
+     * written to. Callers must close the stream.
+     */
+    public InputStream openStoredFile(StoredFile storedFile) throws IOException {
+        return getStorage(storedFile).open(storedFile.getFileLocation());
+    }
+
+    /**
+     * A name for the stored file's content, eg for an email attachment.
+     */
+    public String getFilename(StoredFile storedFile) {
+        if (!StringUtils.isBlank(storedFile.getOriginalFilename())) {
+            return storedFile.getOriginalFilename();
+        }
+        return storedFile.getFileType() + CSV_EXTENSION;
+    }
+
     public List<StoredFile> getUnprocessedStoredFilesByType(String type) {
         return storedFileRepository.findUnprocessedByType(ASSERTIONS_CSV_FILE_TYPE);
     }
 
+    public Optional<StoredFile> getStoredFile(String id) {
+        return storedFileRepository.findById(id);
+    }
+
     public void markAsProcessed(StoredFile storedFile) {
         storedFile.setDateProcessed(Instant.now());
         storedFileRepository.save(storedFile);
     }
 
-    private File writeCsvReportFile(String content) throws IOException {
-        createDir(applicationProperties.getCsvReportsDirectory());
-        return writeStringToFile(content, CSV_REPORT_FILE_TYPE, ".csv", new File(applicationProperties.getCsvReportsDirectory()));
-    }
-    
-    private File writeMemberAssertionStatsFile(String content) throws IOException {
-        createDir(applicationProperties.getMemberAssertionStatsDirectory());
-        return writeStringToFile(content, MEMBER_ASSERTION_STATS_FILE_TYPE, ".csv", new File(applicationProperties.getMemberAssertionStatsDirectory()));
+    private StoredFile store(String fileType, String directory, InputStream content) throws IOException {
+        StoredFileStorage storage = getStorage(applicationProperties.getStoredFileStorage());
+        String location;
+        try {
+            location = storage.store(directory, fileType, CSV_EXTENSION, content);
+        } finally {
+            content.close();
+        }
+        StoredFile storedFile = new StoredFile();
+        storedFile.setFileLocation(location);
+        storedFile.setStorage(storage.getName());
+        storedFile.setFileType(fileType);
+        storedFile.setDateWritten(Instant.now());
+        storedFile.setRemovalDate(storedFile.getDateWritten().plus(applicationProperties.getStoredFileLifespan(), ChronoUnit.DAYS));
+        return storedFile;
     }
 
-    private File writeCsvUploadFile(InputStream inputStream) throws IOException {
-        createDir(applicationProperties.getAssertionsCsvUploadDirectory());
-        return writeInputStreamToFile(inputStream, ASSERTIONS_CSV_FILE_TYPE, ".csv", new File(applicationProperties.getAssertionsCsvUploadDirectory()));
+    private InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     }
-    
-    private File writeStringToFile(String content, String fileType, String extension, File parent) throws IOException {
-        File outputFile = File.createTempFile(fileType, extension, parent);
-        OutputStream outputStream = new FileOutputStream(outputFile);
-        IOUtils.write(content, outputStream, "UTF-8");
-        outputStream.close();
-        return outputFile;
-    }
-    
-    private File writeInputStreamToFile(InputStream inputStream, String fileType, String extension, File parent) throws IOException {
-        File outputFile = File.createTempFile(fileType, extension, parent);
-        OutputStream outputStream = new FileOutputStream(outputFile);
-        IOUtils.copy(inputStream, outputStream);
-        inputStream.close();
-        outputStream.close();
-        return outputFile;
+
+    private StoredFileStorage getStorage(StoredFile storedFile) {
+        return getStorage(storedFile.getStorage());
     }
 
-    private void createDir(String path) {
-        File dir = new File(path);
-        if (!dir.exists()) {
-            boolean created = dir.mkdir();
-            if (!created) {
-                throw new RuntimeException("Failed to create directory " + path);
-            }
-        }
+    private StoredFileStorage getStorage(String name) {
+        String storageName = StringUtils.isBlank(name) ? LocalFileStorage.NAME : name;
+        return storages.stream().filter(s -> s.getName().equals(storageName)).findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown stored file storage " + storageName));
     }
 
+    /**
+     * Removes processed files whose removal date has passed, along with their
+     * records. Only expired files are read, in removal date and id order from
+     * the removal_date_id index, so a run costs as much as the files that have
+     * expired rather than every file ever stored.
+     */
     public void removeStoredFiles() {
-        List<StoredFile> oldFiles = storedFileRepository.findProcessedFiles();
-        oldFiles.forEach(f -> {
-            if (Instant.now().isAfter(f.getRemovalDate())) {
-                removeStoredFile(f);
+        Instant now = Instant.now();
+        List<StoredFile> expired = storedFileRepository.findProcessedFilesToRemove(null, now, REMOVAL_BATCH_SIZE);
+        long removed = 0;
+        while (!expired.isEmpty()) {
+            List<String> removedIds = expired.stream().filter(this::removeFile).map(StoredFile::getId).collect(Collectors.toList());
+            if (!removedIds.isEmpty()) {
+                removed += storedFileRepository.deleteByIdIn(removedIds);
+            }
+            if (expired.size() < REMOVAL_BATCH_SIZE) {
+                break;
             }
-        });
+            // carry on after the batch so files that couldn't be removed
+            // aren't read again until the next run
+            expired = storedFileRepository.findProcessedFilesToRemove(expired.get(expired.size() - 1), now, REMOVAL_BATCH_SIZE);
+        }
+        LOG.info("Removed {} expired stored files", removed);
     }
 
-    private void removeStoredFile(StoredFile f) {
-        LOG.info("Removing file {} which is marked for deletion", f.getFileLocation());
-        File file = new File(f.getFileLocation());
-        boolean deleted = file.delete();
-        if (!deleted) {
-            LOG.error("Failed to delete file {}", file.getAbsolutePath());
-        } else {
-            LOG.info("File {} deleted", file.getAbsolutePath());
-            LOG.info("Removing corresponding StoredFile record");
-            storedFileRepository.delete(f);
-            LOG.info("Record deleted");
-        }
+    private boolean removeFile(StoredFile storedFile) {
+        LOG.info("Removing file {} which is marked for deletion", storedFile.getFileLocation());
+        return getStorage(storedFile).delete(storedFile.getFileLocation());
     }
 
 }
@@ -0,0 +1,67 @@
+package org.orcid.memberportal.service.assertion.stats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepository;
+import org.orcid.memberportal.service.assertion.services.MemberAssertionStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Gauges of the number of assertions in each status, and of upload jobs
+ * waiting or in progress. Counting is too expensive to do on every scrape, so
+ * the gauges report the counts as of the last {@link #refresh()}. Assertion
+ * counts are the sum of the members' status summaries, which every node can
+ * read cheaply, rather than a count of the assertions themselves.
+ */
+@Component
+public class AssertionBacklogMetrics {
+
+    static final String ASSERTIONS_METRIC = "assertion.backlog";
+
+    static final String UPLOAD_JOBS_METRIC = "assertion.upload.backlog";
+
+    private static final String[] UPLOAD_JOB_STATUSES = new String[] { AssertionsUploadJob.PENDING_STATUS, AssertionsUploadJob.IN_PROGRESS_STATUS };
+
+    @Autowired
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    @Autowired
+    private AssertionsUploadJobRepository assertionsUploadJobRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicLong> assertionCounts = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> uploadJobCounts = new ConcurrentHashMap<>();
+
+    public void refresh() {
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (MemberAssertionStatusSummary summary : memberAssertionStatsService.getStatusSummaries()) {
+            summary.getStatusCounts().forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+        }
+        Arrays.stream(AssertionStatus.values()).forEach(s -> statusCounts.putIfAbsent(s.name(), 0L));
+        assertionCounts.keySet().forEach(s -> statusCounts.putIfAbsent(s, 0L));
+        statusCounts.forEach((status, count) -> getGauge(assertionCounts, ASSERTIONS_METRIC, status).set(count));
+
+        for (String status : UPLOAD_JOB_STATUSES) {
+            getGauge(uploadJobCounts, UPLOAD_JOBS_METRIC, status).set(assertionsUploadJobRepository.countByStatus(status));
+        }
+    }
+
+    private AtomicLong getGauge(Map<String, AtomicLong> gauges, String name, String status) {
+        return gauges.computeIfAbsent(status, s -> meterRegistry.gauge(name, Tags.of("status", s), new AtomicLong()));
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.orcid.memberportal.service.assertion.stats;
+
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.services.MemberAssertionStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts assertion status changes in the members' status summaries whenever
+ * an assertion is inserted or saved, by remembering the status and salesforce
+ * id each assertion had when it was read.
+ */
+@Component
+public class AssertionStatusCountListener extends AbstractMongoEventListener<Assertion> {
+
+    @Autowired
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    @Override
+    public void onAfterConvert(AfterConvertEvent<Assertion> event) {
+        Assertion assertion = event.getSource();
+        assertion.setPersistedStatus(assertion.getStatus());
+        assertion.setPersistedSalesforceId(assertion.getSalesforceId());
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Assertion> event) {
+        Assertion assertion = event.getSource();
+        memberAssertionStatsService.assertionSaved(assertion.getPersistedSalesforceId(), assertion.getPersistedStatus(), assertion.getSalesforceId(),
+                assertion.getStatus());
+        assertion.setPersistedStatus(assertion.getStatus());
+        assertion.setPersistedSalesforceId(assertion.getSalesforceId());
+    }
+
+}
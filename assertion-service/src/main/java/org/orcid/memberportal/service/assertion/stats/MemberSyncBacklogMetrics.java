@@ -0,0 +1,70 @@
+package org.orcid.memberportal.service.assertion.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Gauges of each member's registry sync backlog: how many assertions are
+ * waiting to be created or updated in the registry, and how many seconds the
+ * oldest change among them has been waiting. The registry sync reports the
+ * backlogs whenever it reads them, so the gauges are as of the last sync.
+ */
+@Component
+public class MemberSyncBacklogMetrics {
+
+    static final String QUEUE_DEPTH_METRIC = "assertion.sync.member.backlog";
+
+    static final String WAIT_METRIC = "assertion.sync.member.wait";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Map<String, AtomicLong>> queueDepths = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, AtomicLong>> waitsInSeconds = new ConcurrentHashMap<>();
+
+    public void record(String operation, List<MemberSyncBacklog> backlogs) {
+        Instant now = Instant.now();
+        Set<String> waiting = new HashSet<>();
+        for (MemberSyncBacklog backlog : backlogs) {
+            if (backlog.getSalesforceId() == null) {
+                continue;
+            }
+            waiting.add(backlog.getSalesforceId());
+            getGauge(queueDepths, QUEUE_DEPTH_METRIC, operation, backlog.getSalesforceId()).set(backlog.getCount());
+            long waitInSeconds = backlog.getOldestModified() != null ? Math.max(0, Duration.between(backlog.getOldestModified(), now).getSeconds()) : 0;
+            getGauge(waitsInSeconds, WAIT_METRIC, operation, backlog.getSalesforceId()).set(waitInSeconds);
+        }
+
+        // members whose backlog has cleared since last time
+        clearGauges(queueDepths, operation, waiting);
+        clearGauges(waitsInSeconds, operation, waiting);
+    }
+
+    private AtomicLong getGauge(Map<String, Map<String, AtomicLong>> gauges, String name, String operation, String salesforceId) {
+        return gauges.computeIfAbsent(operation, o -> new ConcurrentHashMap<>()).computeIfAbsent(salesforceId,
+                s -> meterRegistry.gauge(name, Tags.of("operation", operation, "salesforce_id", s), new AtomicLong()));
+    }
+
+    private void clearGauges(Map<String, Map<String, AtomicLong>> gauges, String operation, Set<String> waiting) {
+        gauges.getOrDefault(operation, new ConcurrentHashMap<>()).forEach((salesforceId, gauge) -> {
+            if (!waiting.contains(salesforceId)) {
+                gauge.set(0);
+            }
+        });
+    }
+
+}
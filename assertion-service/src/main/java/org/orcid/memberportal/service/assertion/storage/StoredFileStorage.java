@@ -0,0 +1,36 @@
+package org.orcid.memberportal.service.assertion.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Somewhere to keep the content of stored files. Content is streamed in and
+ * out, and found again by the location returned when it was stored, which is
+ * recorded on the {@link org.orcid.memberportal.service.assertion.domain.StoredFile}
+ * along with the name of the storage.
+ */
+public interface StoredFileStorage {
+
+    /**
+     * The name stored files are marked with, to find the storage holding
+     * their content.
+     */
+    String getName();
+
+    /**
+     * Stores content under the given directory, with a generated name made
+     * from the prefix and extension.
+     * 
+     * @return the location to read or delete the content with
+     */
+    String store(String directory, String prefix, String extension, InputStream content) throws IOException;
+
+    InputStream open(String location) throws IOException;
+
+    /**
+     * @return false if the content is still there, true if it was deleted or
+     *         was already gone
+     */
+    boolean delete(String location);
+
+}
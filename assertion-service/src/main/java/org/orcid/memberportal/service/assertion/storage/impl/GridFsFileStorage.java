@@ -0,0 +1,67 @@
+package org.orcid.memberportal.service.assertion.storage.impl;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+import org.bson.types.ObjectId;
+import org.orcid.memberportal.service.assertion.storage.StoredFileStorage;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+
+/**
+ * Keeps content in GridFS, in the stored_files bucket of the service's
+ * database, so that any node can read what another stored. Content is
+ * written and read in chunks, never held whole. Locations are GridFS ids.
+ */
+@Component
+public class GridFsFileStorage implements StoredFileStorage {
+
+    public static final String NAME = "gridfs";
+
+    static final String BUCKET = "stored_files";
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public GridFsFileStorage(MongoDbFactory mongoDbFactory, MongoTemplate mongoTemplate) {
+        this.gridFsTemplate = new GridFsTemplate(mongoDbFactory, mongoTemplate.getConverter(), BUCKET);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String store(String directory, String prefix, String extension, InputStream content) throws IOException {
+        String filename = directory + "/" + prefix + UUID.randomUUID() + extension;
+        return gridFsTemplate.store(content, filename).toHexString();
+    }
+
+    @Override
+    public InputStream open(String location) throws IOException {
+        GridFSFile file = gridFsTemplate.findOne(byId(location));
+        if (file == null) {
+            throw new FileNotFoundException("No stored file content with id " + location);
+        }
+        return gridFsTemplate.getResource(file).getInputStream();
+    }
+
+    @Override
+    public boolean delete(String location) {
+        gridFsTemplate.delete(byId(location));
+        return true;
+    }
+
+    private Query byId(String location) {
+        return new Query(Criteria.where("_id").is(new ObjectId(location)));
+    }
+
+}
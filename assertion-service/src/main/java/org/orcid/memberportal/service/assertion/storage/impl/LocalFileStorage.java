@@ -0,0 +1,72 @@
+package org.orcid.memberportal.service.assertion.storage.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.orcid.memberportal.service.assertion.storage.StoredFileStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps content on the local filesystem, where only the node that stored it
+ * can read it. Locations are absolute paths.
+ */
+@Component
+public class LocalFileStorage implements StoredFileStorage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalFileStorage.class);
+
+    public static final String NAME = "local";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String store(String directory, String prefix, String extension, InputStream content) throws IOException {
+        File parent = new File(directory);
+        createDir(parent);
+        File outputFile = File.createTempFile(prefix, extension, parent);
+        try (OutputStream outputStream = new FileOutputStream(outputFile)) {
+            IOUtils.copy(content, outputStream);
+        }
+        return outputFile.getAbsolutePath();
+    }
+
+    @Override
+    public InputStream open(String location) throws IOException {
+        return new FileInputStream(location);
+    }
+
+    @Override
+    public boolean delete(String location) {
+        File file = new File(location);
+        if (!file.exists()) {
+            LOG.warn("File {} no longer exists", file.getAbsolutePath());
+            return true;
+        }
+        if (!file.delete()) {
+            LOG.error("Failed to delete file {}", file.getAbsolutePath());
+            return false;
+        }
+        LOG.info("File {} deleted", file.getAbsolutePath());
+        return true;
+    }
+
+    private void createDir(File dir) {
+        if (!dir.exists()) {
+            boolean created = dir.mkdir();
+            if (!created) {
+                throw new RuntimeException("Failed to create directory " + dir.getPath());
+            }
+        }
+    }
+
+}
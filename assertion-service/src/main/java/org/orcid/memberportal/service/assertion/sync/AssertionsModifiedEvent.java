@@ -0,0 +1,19 @@
+package org.orcid.memberportal.service.assertion.sync;
+
+/**
+ * Published when assertions are created or modified in a way that may need
+ * syncing with the registry.
+ */
+public class AssertionsModifiedEvent {
+
+    private final String salesforceId;
+
+    public AssertionsModifiedEvent(String salesforceId) {
+        this.salesforceId = salesforceId;
+    }
+
+    public String getSalesforceId() {
+        return salesforceId;
+    }
+
+}
@@ -0,0 +1,299 @@
+package org.orcid.memberportal.service.assertion.sync;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
+import org.orcid.memberportal.service.assertion.services.AssertionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Starts the registry sync as soon as assertions change, rather than waiting
+ * for the next poll. Changes made on this node are picked up from
+ * {@link AssertionsModifiedEvent}s, and in {@code change-stream} mode changes
+ * made anywhere are picked up from a Mongo change stream on the assertion
+ * collection. Bursts of changes are coalesced into a single sync.
+ *
+ * The change stream only matches changes made by users, not the sync's own
+ * writes, which would otherwise trigger another sync after every sync. An
+ * update counts as a user change if it sets any field other than the sync's
+ * bookkeeping fields, and a replacement if the assertion was modified after
+ * its last sync attempt.
+ *
+ * Triggered and polled syncs share the {@value #LOCK_NAME} lock, so only one
+ * node syncs at a time, and a triggered sync is dropped if a sync started
+ * anywhere since it was requested, as every node sees the same changes. Polling carries on as before in {@code polling} mode,
+ * and while the change stream is unavailable, eg when Mongo isn't a replica
+ * set.
+ */
+@Component
+public class RegistrySyncTrigger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RegistrySyncTrigger.class);
+
+    public static final String POLLING_TRIGGER = "polling";
+
+    public static final String EVENTS_TRIGGER = "events";
+
+    public static final String CHANGE_STREAM_TRIGGER = "change-stream";
+
+    static final String LOCK_NAME = "syncAffiliations";
+
+    static final String LOCK_COLLECTION = "shedLock";
+
+    /**
+     * Fields written by the registry sync, changes to which don't need
+     * syncing.
+     */
+    static final List<String> SYNC_FIELDS = Arrays.asList("put_code", "added_to_orcid", "updated_in_orcid", "last_sync_attempt", "retry_count",
+            "next_attempt_at", "orcid_error");
+
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(20);
+
+    private static final Duration POLL_LOCK_AT_LEAST_FOR = Duration.ofMinutes(2);
+
+    private static final long CHANGE_STREAM_RETRY_DELAY_MS = 30_000;
+
+    @Autowired
+    private AssertionService assertionService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LockProvider lockProvider;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    // when the oldest request not yet served by a sync was made, or 0
+    private final AtomicLong syncRequestedAt = new AtomicLong();
+
+    private final AtomicBoolean syncScheduled = new AtomicBoolean();
+
+    private volatile boolean changeStreamActive;
+
+    private volatile boolean running;
+
+    private volatile long lastSyncStarted;
+
+    private ScheduledExecutorService executor;
+
+    private Thread changeStreamThread;
+
+    @PostConstruct
+    public void start() {
+        String trigger = applicationProperties.getRegistrySync().getTrigger();
+        if (!EVENTS_TRIGGER.equals(trigger) && !CHANGE_STREAM_TRIGGER.equals(trigger)) {
+            return;
+        }
+
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "registry-sync-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (CHANGE_STREAM_TRIGGER.equals(trigger)) {
+            changeStreamThread = new Thread(this::watchAssertions, "registry-sync-change-stream");
+            changeStreamThread.setDaemon(true);
+            changeStreamThread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (changeStreamThread != null) {
+            changeStreamThread.interrupt();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void onAssertionsModified(AssertionsModifiedEvent event) {
+        requestSync();
+    }
+
+    /**
+     * Asks for a sync in {@code coalesceDelayInMs}. Requests made before that
+     * sync starts are served by it, and those made while it runs lead to one
+     * more sync once it is done.
+     */
+    public void requestSync() {
+        if (!running) {
+            return;
+        }
+        syncRequestedAt.compareAndSet(0, System.currentTimeMillis());
+        scheduleSync();
+    }
+
+    /**
+     * Called at every {@code syncAffiliationsDelay}.
+     */
+    public void poll() {
+        if (!isPollingRequired()) {
+            LOG.debug("Skipping registry sync poll, sync is triggered by assertion changes");
+            return;
+        }
+        LOG.info("Running cron to sync assertions with registry");
+        if (sync(POLL_LOCK_AT_LEAST_FOR)) {
+            LOG.info("Sync complete");
+        }
+    }
+
+    boolean isPollingRequired() {
+        String trigger = applicationProperties.getRegistrySync().getTrigger();
+        if (!running || (CHANGE_STREAM_TRIGGER.equals(trigger) && !changeStreamActive)) {
+            return true;
+        }
+        // catch anything the triggers missed, and retry failed syncs
+        return System.currentTimeMillis() - lastSyncStarted >= applicationProperties.getRegistrySync().getFullSyncIntervalInMs();
+    }
+
+    boolean isChangeStreamActive() {
+        return changeStreamActive;
+    }
+
+    private void scheduleSync() {
+        if (syncScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::runRequestedSync, applicationProperties.getRegistrySync().getCoalesceDelayInMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runRequestedSync() {
+        syncScheduled.set(false);
+        long requestedAt = syncRequestedAt.getAndSet(0);
+        if (requestedAt == 0) {
+            return;
+        }
+        if (getLastSyncStartedAnywhere() >= requestedAt) {
+            LOG.debug("Skipping triggered registry sync, a sync has started since it was requested");
+            return;
+        }
+        LOG.debug("Running triggered registry sync");
+        if (!sync(Duration.ZERO)) {
+            // another node is syncing, try again after it
+            syncRequestedAt.accumulateAndGet(requestedAt, (current, requested) -> current == 0 ? requested : Math.min(current, requested));
+            scheduleSync();
+        }
+    }
+
+    /**
+     * @return when the sync lock was last taken by any node, or 0 if unknown
+     */
+    private long getLastSyncStartedAnywhere() {
+        try {
+            Document lock = mongoTemplate.findById(LOCK_NAME, Document.class, LOCK_COLLECTION);
+            Date lockedAt = lock != null ? lock.getDate("lockedAt") : null;
+            return lockedAt != null ? lockedAt.getTime() : 0;
+        } catch (Exception e) {
+            LOG.warn("Unable to read sync lock, syncing anyway: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * @return false if another node holds the sync lock
+     */
+    private boolean sync(Duration lockAtLeastFor) {
+        Optional<SimpleLock> lock = lockProvider.lock(new LockConfiguration(Instant.now(), LOCK_NAME, LOCK_AT_MOST_FOR, lockAtLeastFor));
+        if (!lock.isPresent()) {
+            LOG.debug("Registry sync already running elsewhere");
+            return false;
+        }
+
+        try {
+            lastSyncStarted = System.currentTimeMillis();
+            assertionService.postAssertionsToOrcid();
+            assertionService.putAssertionsInOrcid();
+        } catch (Exception e) {
+            LOG.error("Error syncing assertions with registry", e);
+        } finally {
+            lock.get().unlock();
+        }
+        return true;
+    }
+
+    private void watchAssertions() {
+        List<Bson> pipeline = getUserChangesPipeline();
+        while (running) {
+            try (MongoCursor<ChangeStreamDocument<Document>> changes = mongoTemplate.getCollection("assertion").watch(pipeline).maxAwaitTime(1, TimeUnit.SECONDS)
+                    .iterator()) {
+                changeStreamActive = true;
+                LOG.info("Watching assertion changes to trigger registry sync");
+
+                // catch up on anything missed while the stream was down
+                requestSync();
+                while (running) {
+                    if (changes.tryNext() != null) {
+                        requestSync();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                LOG.warn("Assertion change stream unavailable, falling back to polling: {}", e.getMessage());
+                changeStreamActive = false;
+                try {
+                    Thread.sleep(CHANGE_STREAM_RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+        changeStreamActive = false;
+    }
+
+    /**
+     * Matches assertion inserts, replacements of assertions modified since
+     * their last sync attempt, and updates setting fields other than
+     * {@link #SYNC_FIELDS}.
+     */
+    static List<Bson> getUserChangesPipeline() {
+        Document syncedSinceModified = new Document("$gte", Arrays.asList("$fullDocument.last_sync_attempt", "$fullDocument.modified"));
+        Document updatedFields = new Document("$objectToArray", new Document("$ifNull", Arrays.asList("$updateDescription.updatedFields", new Document())));
+        Document userUpdatedFields = new Document("$filter", new Document("input", updatedFields).append("cond",
+                new Document("$not", Collections.singletonList(new Document("$in", Arrays.asList("$$this.k", SYNC_FIELDS))))));
+        Document removedFields = new Document("$ifNull", Arrays.asList("$updateDescription.removedFields", Collections.emptyList()));
+
+        return Collections.singletonList(Aggregates.match(Filters.or(Filters.eq("operationType", "insert"),
+                Filters.and(Filters.eq("operationType", "replace"), Filters.expr(new Document("$not", Collections.singletonList(syncedSinceModified)))),
+                Filters.and(Filters.eq("operationType", "update"), Filters.expr(new Document("$gt",
+                        Arrays.asList(new Document("$add", Arrays.asList(new Document("$size", userUpdatedFields), new Document("$size", removedFields))), 0)))))));
+    }
+
+}
@@ -2,12 +2,12 @@ package org.orcid.memberportal.service.assertion.sync;
 
 import java.io.IOException;
 
-import javax.xml.bind.JAXBException;
-
 import org.orcid.memberportal.service.assertion.services.AssertionService;
 import org.orcid.memberportal.service.assertion.services.CsvReportService;
+import org.orcid.memberportal.service.assertion.services.MemberAssertionStatsService;
 import org.orcid.memberportal.service.assertion.services.NotificationService;
 import org.orcid.memberportal.service.assertion.services.StoredFileService;
+import org.orcid.memberportal.service.assertion.stats.AssertionBacklogMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,13 +35,19 @@ public class ScheduledJobsManager {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private RegistrySyncTrigger registrySyncTrigger;
+
+    @Autowired
+    private AssertionBacklogMetrics assertionBacklogMetrics;
+
+    @Autowired
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    // the trigger takes the syncAffiliations lock, shared with triggered syncs
     @Scheduled(initialDelay = 90000, fixedDelayString = "${application.syncAffiliationsDelay}")
-    @SchedulerLock(name = "syncAffiliations", lockAtMostFor = "20m", lockAtLeastFor = "2m")
-    public void syncAffiliations() throws JAXBException {
-        LOG.info("Running cron to sync assertions with registry");
-        assertionsService.postAssertionsToOrcid();
-        assertionsService.putAssertionsInOrcid();
-        LOG.info("Sync complete");
+    public void syncAffiliations() {
+        registrySyncTrigger.poll();
     }
     
     @Scheduled(cron = "${application.generateMemberAssertionStatsCron}")
@@ -51,15 +57,31 @@ public class ScheduledJobsManager {
         assertionsService.generateAndSendMemberAssertionStats();
         LOG.info("Stats generation complete");
     }
+
+    @Scheduled(cron = "${application.reconcileMemberAssertionStatsCron}")
+    @SchedulerLock(name = "reconcileMemberAssertionStats", lockAtMostFor = "60m", lockAtLeastFor = "10m")
+    public void reconcileMemberAssertionStats() {
+        LOG.info("Running cron to reconcile member assertion stats");
+        memberAssertionStatsService.reconcile();
+        LOG.info("Member assertion stats reconciled");
+    }
     
+    // not locked - nodes claim individual uploads from the job queue
     @Scheduled(initialDelay = 90000, fixedDelayString = "${application.processAssertionUploadsDelay}")
-    @SchedulerLock(name = "processAssertionUploads", lockAtMostFor = "60m", lockAtLeastFor = "2m")
     public void processAssertionUploads() throws IOException  {
         LOG.info("Running cron to process assertion uploads");
         assertionsService.processAssertionUploads();
         LOG.info("Assertion uploads processed");
     }
     
+    @Scheduled(initialDelay = 90000, fixedDelayString = "${application.processAssertionDeletesDelay}")
+    @SchedulerLock(name = "processAssertionDeletes", lockAtMostFor = "60m", lockAtLeastFor = "1m")
+    public void processAssertionDeletes() {
+        LOG.info("Running cron to process assertion deletes");
+        assertionsService.processAssertionDeletes();
+        LOG.info("Assertion deletes processed");
+    }
+    
     @Scheduled(initialDelay = 90000, fixedDelayString = "${application.removeStoredFilesDelay}")
     @SchedulerLock(name = "removeStoredFiles", lockAtMostFor = "60m", lockAtLeastFor = "2m")
     public void removeStoredFiles() throws IOException  {
@@ -91,6 +113,12 @@ public class ScheduledJobsManager {
         notificationService.resendNotifications();
         LOG.info("Notifications resent");
     }
+
+    // not locked - every node exports the gauges
+    @Scheduled(initialDelay = 90000, fixedDelayString = "${application.refreshBacklogMetricsDelay}")
+    public void refreshBacklogMetrics() {
+        assertionBacklogMetrics.refresh();
+    }
     
     
 }
@@ -15,6 +15,8 @@ public class AssertionsUploadSummary implements Serializable {
     private int numDeleted;
 
     private int numDuplicates;
+
+    private int numFailed;
     
     private String filename;
     
@@ -32,6 +34,14 @@ public class AssertionsUploadSummary implements Serializable {
         this.numAdded = numAdded;
     }
 
+    public int getNumFailed() {
+        return numFailed;
+    }
+
+    public void setNumFailed(int numFailed) {
+        this.numFailed = numFailed;
+    }
+
     public int getNumUpdated() {
         return numUpdated;
     }
@@ -9,12 +9,13 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -35,7 +36,6 @@ import org.orcid.memberportal.service.assertion.domain.validation.org.impl.Ringg
 import org.orcid.memberportal.service.assertion.domain.validation.org.impl.RorOrgValidator;
 import org.orcid.memberportal.service.assertion.services.AssertionService;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUpload;
-import org.orcid.memberportal.service.assertion.upload.AssertionsUpload.AssertionsUploadDate;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUploadReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,10 +48,7 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
 
     private static final Logger LOG = LoggerFactory.getLogger(AssertionsCsvReader.class);
 
-    private final DateTimeFormatter[] formatters = {
-            new DateTimeFormatterBuilder().appendPattern("yyyy").parseDefaulting(ChronoField.MONTH_OF_YEAR, 1).parseDefaulting(ChronoField.DAY_OF_MONTH, 1).toFormatter(),
-            new DateTimeFormatterBuilder().appendPattern("yyyy-MM").parseDefaulting(ChronoField.DAY_OF_MONTH, 1).toFormatter(),
-            new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd").parseStrict().toFormatter() };
+    static final int ID_PREFETCH_CHUNK_SIZE = 1000;
 
     String[] urlValschemes = { "http", "https", "ftp" }; // DEFAULT schemes =
     // "http", "https",
@@ -83,31 +80,56 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
         try (final Reader reader = new InputStreamReader(new BOMInputStream(inputStream), StandardCharsets.UTF_8);
                 final CSVParser parser = new CSVParser(reader, CSVFormat.EXCEL.withHeader())) {
 
+            List<CSVRecord> chunk = new ArrayList<>(ID_PREFETCH_CHUNK_SIZE);
             for (CSVRecord record : parser) {
-                try {
-                    Assertion assertion = parseLine(record, upload, user);
-                    if (assertion.getEmail() != null && !upload.getUsers().contains(assertion.getEmail())) {
-                        upload.addUser(assertion.getEmail());
-                    }
-                    upload.addAssertion(assertion);
-                } catch (Exception e) {
-                    LOG.info("CSV upload error found for record number {}", record.getRecordNumber(), e);
-                    upload.addError(record.getRecordNumber(), getError("unexpected", e.getMessage(), user));
+                chunk.add(record);
+                if (chunk.size() == ID_PREFETCH_CHUNK_SIZE) {
+                    readChunk(chunk, upload, user);
+                    chunk.clear();
                 }
             }
+            readChunk(chunk, upload, user);
         }
         return upload;
     }
 
-    private Assertion parseLine(CSVRecord line, AssertionsUpload upload, AssertionServiceUser user) {
+    /**
+     * Parses a chunk of rows, looking up the existing assertions that the
+     * rows edit or delete with one query for the whole chunk.
+     */
+    private void readChunk(List<CSVRecord> chunk, AssertionsUpload upload, AssertionServiceUser user) {
+        Set<String> ids = new HashSet<>();
+        for (CSVRecord record : chunk) {
+            String id = getOptionalNullableValue(record, "id");
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        Map<String, Assertion> existingAssertions = ids.isEmpty() ? Collections.emptyMap() : assertionsService.findAssertionsForEditValidation(ids);
+
+        for (CSVRecord record : chunk) {
+            try {
+                Assertion assertion = parseLine(record, upload, user, existingAssertions);
+                if (assertion.getEmail() != null && !upload.getUsers().contains(assertion.getEmail())) {
+                    upload.addUser(assertion.getEmail());
+                }
+                upload.addAssertion(assertion);
+            } catch (Exception e) {
+                LOG.info("CSV upload error found for record number {}", record.getRecordNumber(), e);
+                upload.addError(record.getRecordNumber(), getError("unexpected", e.getMessage(), user));
+            }
+        }
+    }
+
+    private Assertion parseLine(CSVRecord line, AssertionsUpload upload, AssertionServiceUser user, Map<String, Assertion> existingAssertions) {
         Assertion a = new Assertion();
-        a = processId(line, a, upload, user);
+        a = processId(line, a, upload, user, existingAssertions);
 
         if (deletionLine(line)) {
             return a;
         }
 
-        a = processEmail(line, a, upload, user);
+        a = processEmail(line, a, upload, user, existingAssertions);
         a = processAffiliationSection(line, a, upload, user);
         a = processDepartmentName(line, a);
         a = processRoleTitle(line, a);
@@ -124,12 +146,54 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
     }
 
     private Assertion processDates(CSVRecord line, AssertionsUpload upload, Assertion a, AssertionServiceUser user) {
-        a = processStartDate(line, a, upload, user);
-        a = processEndDate(line, a, upload, user);
-        checkStartDateBeforeEndDate(line, a, upload, user);
+        // each date is parsed once, and the parsed values compared directly
+        String startDate = getOptionalNullableValue(line, "start-date");
+        int parsedStartDate = parseDate(startDate, line, upload, user);
+        if (AssertionsUploadDateParser.isValid(parsedStartDate)) {
+            a.setStartYear(startDate.substring(0, 4));
+            a.setStartMonth(getMonth(startDate));
+            a.setStartDay(getDay(startDate));
+        }
+
+        String endDate = getOptionalNullableValue(line, "end-date");
+        int parsedEndDate = parseDate(endDate, line, upload, user);
+        if (AssertionsUploadDateParser.isValid(parsedEndDate)) {
+            a.setEndYear(endDate.substring(0, 4));
+            a.setEndMonth(getMonth(endDate));
+            a.setEndDay(getDay(endDate));
+        }
+
+        if (AssertionsUploadDateParser.isValid(parsedStartDate) && AssertionsUploadDateParser.isValid(parsedEndDate) && parsedStartDate > parsedEndDate) {
+            upload.addError(line.getRecordNumber(), getError("startDateAfterEndDate", user));
+        }
         return a;
     }
 
+    /**
+     * @return the date as parsed by {@link AssertionsUploadDateParser}, or 0
+     *         if there is no date
+     */
+    private int parseDate(String date, CSVRecord line, AssertionsUpload upload, AssertionServiceUser user) {
+        if (date == null) {
+            return 0;
+        }
+        int parsed = AssertionsUploadDateParser.parse(date);
+        if (parsed == AssertionsUploadDateParser.INVALID_FORMAT) {
+            upload.addError(line.getRecordNumber(), getError("invalidDateFormat", user));
+        } else if (parsed == AssertionsUploadDateParser.INVALID_DATE) {
+            upload.addError(line.getRecordNumber(), getError("invalidDate", user));
+        }
+        return parsed;
+    }
+
+    private String getMonth(String date) {
+        return date.length() > 4 ? date.substring(5, 7) : null;
+    }
+
+    private String getDay(String date) {
+        return date.length() > 7 ? date.substring(8, 10) : null;
+    }
+
     private Assertion processUrl(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user) {
         String url = getOptionalNullableValue(line, "url");
         if (url != null && !StringUtils.isBlank(url)) {
@@ -227,52 +291,6 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
         return a;
     }
 
-    private Assertion processEndDate(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user) {
-        AssertionsUpload.AssertionsUploadDate endDate = getDate(line, upload, "end-date", user);
-        if (endDate != null) {
-            a.setEndDay(endDate.getDay());
-            a.setEndMonth(endDate.getMonth());
-            a.setEndYear(endDate.getYear());
-        }
-        return a;
-    }
-
-    private Assertion processStartDate(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user) {
-        AssertionsUpload.AssertionsUploadDate startDate = getDate(line, upload, "start-date", user);
-        if (startDate != null) {
-            a.setStartDay(startDate.getDay());
-            a.setStartMonth(startDate.getMonth());
-            a.setStartYear(startDate.getYear());
-        }
-        return a;
-    }
-
-    private AssertionsUpload.AssertionsUploadDate getDate(CSVRecord line, AssertionsUpload upload, String elementName, AssertionServiceUser user) {
-        String year = null;
-        String month = null;
-        String day = null;
-
-        // Dates follows the format yyyy-MM-dd
-        String date = getOptionalNullableValue(line, elementName);
-        if (date != null && !StringUtils.isBlank(date)) {
-            String[] dateParts = date.split("-|/|\\s");
-            String yearToValidate = dateParts[0];
-            String dayToValidate = dateParts.length > 2 ? dateParts[2] : "0";
-            if (validDate(date, yearToValidate, dayToValidate, line, upload, user)) {
-                year = dateParts[0];
-                if (dateParts.length > 1) {
-                    month = dateParts[1];
-                }
-
-                if (dateParts.length > 2) {
-                    day = dateParts[2];
-                }
-                return new AssertionsUpload.AssertionsUploadDate(year, month, day);
-            }
-        }
-        return null;
-    }
-
     private Assertion processRoleTitle(CSVRecord line, Assertion a) {
         a.setRoleTitle(getOptionalNullableValue(line, "role-title"));
         return a;
@@ -300,10 +318,10 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
         return a;
     }
 
-    private Assertion processId(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user) {
+    private Assertion processId(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user, Map<String, Assertion> existingAssertions) {
         String id = getOptionalNullableValue(line, "id");
         if (id != null) {
-            if (!assertionsService.assertionExists(id)) {
+            if (!existingAssertions.containsKey(id)) {
                 upload.addError(line.getRecordNumber(), getError("idDoesNotExist", user));
                 return a;
             } else {
@@ -313,7 +331,7 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
         return a;
     }
 
-    private Assertion processEmail(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user) {
+    private Assertion processEmail(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user, Map<String, Assertion> existingAssertions) {
         String id = getOptionalNullableValue(line, "id");
         String email = getOptionalNullableValue(line, "email");
         if (email == null) {
@@ -323,8 +341,8 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
             upload.addError(line.getRecordNumber(), getError("invalidEmail", user));
         } else {
             // attempt to change email?
-            if (id != null && assertionsService.assertionExists(id)) {
-                Assertion existingAssertion = assertionsService.findById(id);
+            Assertion existingAssertion = id != null ? existingAssertions.get(id) : null;
+            if (existingAssertion != null) {
                 if (!email.equals(existingAssertion.getEmail())) {
                     upload.addError(line.getRecordNumber(), getError("emailCannotBeChanged", user));
                 }
@@ -389,57 +407,6 @@ public class AssertionsCsvReader implements AssertionsUploadReader {
         return encoded.toASCIIString();
     }
 
-    protected boolean validDate(String date, String year, String day, CSVRecord line, AssertionsUpload upload, AssertionServiceUser user) {
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                LocalDate localDate = LocalDate.parse(date, formatter);
-                if (isEmpty(year) || localDate.getYear() == Integer.parseInt(year)) {
-                    if (Integer.parseInt(day) > 0) {
-                        if (Integer.parseInt(day) == localDate.getDayOfMonth()) {
-                            return true;
-                        } else {
-                            upload.addError(line.getRecordNumber(), getError("invalidDate", user));
-                            return false;
-                        }
-                    } else {
-                        return true;
-                    }
-                }
-            } catch (DateTimeParseException e) {
-            }
-        }
-        upload.addError(line.getRecordNumber(), getError("invalidDateFormat", user));
-        return false;
-    }
-
-    private void checkStartDateBeforeEndDate(CSVRecord line, Assertion a, AssertionsUpload upload, AssertionServiceUser user) {
-        AssertionsUploadDate startDate = getDate(line, upload, "start-date", user);
-        AssertionsUploadDate endDate = getDate(line, upload, "end-date", user);
-
-        if (startDate != null && endDate != null) {
-            String startDateString = startDate.toString();
-            String endDateString = endDate.toString();
-            LocalDate localStartDate = null;
-            LocalDate localEndDate = null;
-
-            // initialise dates, which could be of different formats
-            for (DateTimeFormatter formatter : formatters) {
-                try {
-                    localStartDate = LocalDate.parse(startDateString, formatter);
-                } catch (DateTimeParseException e) {
-                }
-                try {
-                    localEndDate = LocalDate.parse(endDateString, formatter);
-                } catch (DateTimeParseException e) {
-                }
-            }
-
-            if (localStartDate.isAfter(localEndDate)) {
-                upload.addError(line.getRecordNumber(), getError("startDateAfterEndDate", user));
-            }
-        }
-    }
-
     public static boolean isEmpty(String string) {
         if (string == null || string.trim().isEmpty())
             return true;
@@ -0,0 +1,84 @@
+package org.orcid.memberportal.service.assertion.upload.impl;
+
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Parses the 'yyyy', 'yyyy-MM' and 'yyyy-MM-dd' dates accepted in assertion
+ * uploads in a single pass over the string, without allocating or throwing.
+ * Uploads are often full of partial dates, which would otherwise fail one
+ * formatter after another before matching.
+ * <p>
+ * A parsed date is returned as an int of the form yyyyMMdd, with a missing
+ * month or day taken as 01, so that parsed dates can be compared directly.
+ */
+final class AssertionsUploadDateParser {
+
+    /**
+     * The date isn't in one of the accepted formats.
+     */
+    static final int INVALID_FORMAT = -1;
+
+    /**
+     * The date is in an accepted format, but the day doesn't exist in its
+     * month, eg 2021-02-30.
+     */
+    static final int INVALID_DATE = -2;
+
+    private AssertionsUploadDateParser() {
+    }
+
+    /**
+     * @return the date as yyyyMMdd, or {@link #INVALID_FORMAT} or
+     *         {@link #INVALID_DATE}
+     */
+    static int parse(String date) {
+        int length = date.length();
+        if (length != 4 && length != 7 && length != 10) {
+            return INVALID_FORMAT;
+        }
+
+        int year = digits(date, 0, 4);
+        if (year < 1) {
+            return INVALID_FORMAT;
+        }
+
+        int month = 1;
+        if (length > 4) {
+            month = date.charAt(4) == '-' ? digits(date, 5, 7) : -1;
+            if (month < 1 || month > 12) {
+                return INVALID_FORMAT;
+            }
+        }
+
+        int day = 1;
+        if (length > 7) {
+            day = date.charAt(7) == '-' ? digits(date, 8, 10) : -1;
+            if (day < 1 || day > 31) {
+                return INVALID_FORMAT;
+            }
+            if (day > Month.of(month).length(Year.isLeap(year))) {
+                return INVALID_DATE;
+            }
+        }
+
+        return year * 10000 + month * 100 + day;
+    }
+
+    static boolean isValid(int parsed) {
+        return parsed > 0;
+    }
+
+    private static int digits(String date, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+}
@@ -6,9 +6,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.ParseException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.xml.bind.JAXBException;
 
@@ -20,6 +22,9 @@ import org.json.JSONObject;
 import org.orcid.memberportal.service.assertion.config.Constants;
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.AssertionsDeleteJob;
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
 import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
 import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
 import org.orcid.memberportal.service.assertion.domain.utils.AssertionUtils;
@@ -76,6 +81,8 @@ public class AssertionResource {
 
     private final String GRID_SOURCE_ID = "GRID";
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -131,6 +138,19 @@ public class AssertionResource {
         return ResponseEntity.ok().headers(headers).body(affiliations.getContent());
     }
 
+    /**
+     * Streams the member's assertions as newline delimited JSON, for
+     * integrators mirroring their data. Pass the time of the last export as
+     * modified_since to fetch only what has changed since.
+     */
+    @GetMapping(value = "/assertions/export", produces = NDJSON_CONTENT_TYPE)
+    public void exportAssertions(@RequestParam(name = "modified_since", required = false) Instant modifiedSince, HttpServletResponse response)
+            throws IOException {
+        LOG.debug("REST request to export assertions modified since {} from user {}", modifiedSince, SecurityUtils.getCurrentUserLogin().get());
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        assertionService.exportCurrentMemberAssertions(modifiedSince, response.getOutputStream());
+    }
+
     @GetMapping("/assertions/{email}")
     public ResponseEntity<List<Assertion>> getAssertionsByEmail(@PathVariable String email) throws BadRequestAlertException, JSONException {
         LOG.debug("REST request to fetch assertions for email {}", email);
@@ -200,6 +220,18 @@ public class AssertionResource {
         }
     }
 
+    @GetMapping("/assertion/upload/progress")
+    public ResponseEntity<List<AssertionsUploadJob>> getUploadProgress() {
+        LOG.debug("REST request to fetch progress of user csv uploads");
+        return ResponseEntity.ok().body(assertionService.getAssertionsUploadJobs());
+    }
+
+    @GetMapping("/assertion/stats")
+    public ResponseEntity<MemberAssertionStatusSummary> getAssertionStatusSummary() {
+        LOG.debug("REST request to fetch assertion status counts of member");
+        return ResponseEntity.ok().body(assertionService.getMemberAssertionStatusSummary());
+    }
+
     @DeleteMapping("/assertion/{id}")
     public ResponseEntity<AssertionDeletion> deleteAssertion(@PathVariable String id) throws BadRequestAlertException {
         try {
@@ -257,11 +289,20 @@ public class AssertionResource {
     }
 
     @DeleteMapping("/assertion/delete/{salesforceId}")
-    public ResponseEntity<String> deleteAssertionsForSalesforceId(@PathVariable String salesforceId) throws JAXBException {
-        assertionService.deleteAllBySalesforceId(salesforceId);
-        JSONObject responseData = new JSONObject();
-        responseData.put("deleted", true);
-        return ResponseEntity.ok().body(responseData.toString());
+    public ResponseEntity<AssertionsDeleteJob> deleteAssertionsForSalesforceId(@PathVariable String salesforceId) throws URISyntaxException {
+        AssertionsDeleteJob job = assertionService.deleteAllBySalesforceId(salesforceId);
+        LOG.info("Queued delete job {} for assertions of {}", job.getId(), salesforceId);
+        return ResponseEntity.accepted().location(new URI("/api/assertion/delete/job/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/assertion/delete/job/{id}")
+    public ResponseEntity<AssertionsDeleteJob> getAssertionsDeleteJob(@PathVariable String id) {
+        Optional<AssertionsDeleteJob> job = assertionService.getAssertionsDeleteJob(id);
+        if (job.isPresent()) {
+            return ResponseEntity.ok().body(job.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PostMapping("/id-token")
@@ -444,14 +485,45 @@ public class AssertionResource {
      *            the salesforceId to the find the assertions to update.
      * @param newSalesforceId
      *            the new salesforceId to update.
+     * @param migrationId
+     *            the id of the migration, which makes retries safe and lets
+     *            the migration be rolled back.
      *
      * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
      */
     @PutMapping("/assertion/update/{salesforceId}/{newSalesforceId}")
     @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Void> updateSalesforceId(@PathVariable String salesforceId, @PathVariable String newSalesforceId) {
+    public ResponseEntity<Void> updateSalesforceId(@PathVariable String salesforceId, @PathVariable String newSalesforceId,
+            @RequestParam(required = false) String migrationId) {
         LOG.debug("REST request to update Assertions by salesforce : {}", salesforceId);
-        boolean success = assertionService.updateAssertionsSalesforceId(salesforceId, newSalesforceId);
+        boolean success = migrationId != null ? assertionService.updateAssertionsSalesforceId(salesforceId, newSalesforceId, migrationId)
+                : assertionService.updateAssertionsSalesforceId(salesforceId, newSalesforceId);
+        if (success) {
+            return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, "assertion", salesforceId)).build();
+        } else {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * {@code PUT /assertion/update/:salesforceId/:newSalesforceId/rollback} :
+     * Moves the assertions moved by a salesforce id migration back to their
+     * old salesforceId.
+     *
+     * @param salesforceId
+     *            the salesforceId the assertions were moved from.
+     * @param newSalesforceId
+     *            the salesforceId the assertions were moved to.
+     * @param migrationId
+     *            the id of the migration to roll back.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
+     */
+    @PutMapping("/assertion/update/{salesforceId}/{newSalesforceId}/rollback")
+    @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rollbackSalesforceId(@PathVariable String salesforceId, @PathVariable String newSalesforceId, @RequestParam String migrationId) {
+        LOG.debug("REST request to roll back salesforce id migration {} of Assertions from salesforce : {}", migrationId, salesforceId);
+        boolean success = assertionService.rollbackAssertionsSalesforceId(salesforceId, newSalesforceId, migrationId);
         if (success) {
             return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, "assertion", salesforceId)).build();
         } else {
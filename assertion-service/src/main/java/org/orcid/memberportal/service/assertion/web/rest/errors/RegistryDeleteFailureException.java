@@ -4,8 +4,24 @@ public class RegistryDeleteFailureException extends Exception {
 
     private static final long serialVersionUID = 1L;
     
+    private final boolean throttled;
+
     public RegistryDeleteFailureException() {
+        this(false);
+    }
+
+    /**
+     * @param throttled
+     *            true if the delete failed because the registry is
+     *            throttling requests, so can be retried later
+     */
+    public RegistryDeleteFailureException(boolean throttled) {
         super();
+        this.throttled = throttled;
+    }
+
+    public boolean isThrottled() {
+        return throttled;
     }
 
 }
@@ -0,0 +1,16 @@
+package org.orcid.memberportal.service.assertion.web.rest.errors;
+
+/**
+ * Thrown when the registry is still throttling requests once all retries
+ * are used up. This is transient, so callers should leave the work to be
+ * picked up again later rather than recording it as an error.
+ */
+public class RegistryThrottledException extends ORCIDAPIException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RegistryThrottledException(Integer statusCode, String error) {
+        super(statusCode, error);
+    }
+
+}
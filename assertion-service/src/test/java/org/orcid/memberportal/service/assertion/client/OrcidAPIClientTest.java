@@ -24,6 +24,7 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicStatusLine;
 import org.apache.http.params.HttpParams;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -32,6 +33,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.orcid.jaxb.model.v3.release.error.OrcidError;
@@ -50,6 +52,13 @@ import org.orcid.jaxb.model.v3.release.record.Qualification;
 import org.orcid.jaxb.model.v3.release.record.Service;
 import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.config.ApplicationProperties.TokenExchange;
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
+import org.orcid.memberportal.service.assertion.web.rest.errors.ORCIDAPIException;
+import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryThrottledException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class OrcidAPIClientTest {
 
@@ -59,6 +68,12 @@ public class OrcidAPIClientTest {
     @Mock
     private CloseableHttpClient httpClient;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private RegistryRateLimiter rateLimiter;
+
     @InjectMocks
     private OrcidAPIClient client;
 
@@ -296,6 +311,13 @@ public class OrcidAPIClientTest {
 
         request = requestCaptor.getAllValues().get(3);
         assertThat(request.getURI().toString()).endsWith("/email");
+
+        assertThat(meterRegistry.timer(OrcidAPIClient.REQUESTS_METRIC, "operation", "internal-token", "status", "200", "outcome", "SUCCESS").count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.timer(OrcidAPIClient.REQUESTS_METRIC, "operation", "find-orcid-id", "status", "IO_ERROR", "outcome", "UNKNOWN").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.timer(OrcidAPIClient.REQUESTS_METRIC, "operation", "find-orcid-id", "status", "200", "outcome", "SUCCESS").count())
+                .isEqualTo(1);
     }
 
     
@@ -328,6 +350,81 @@ public class OrcidAPIClientTest {
         assertThat(orcidId).isNull();
     }
 
+    @Test
+    void testPostAffiliation_retriedAfterRetryAfter() throws Exception {
+        Mockito.when(applicationProperties.getOrcidAPIEndpoint()).thenReturn("orcid/v3/");
+        Mockito.when(rateLimiter.getMaxRetries()).thenReturn(1);
+        CloseableHttpResponse throttled = getThrottledResponse(429, "2");
+        Mockito.when(httpClient.execute(Mockito.any(HttpUriRequest.class))).thenReturn(throttled).thenAnswer(new Answer<CloseableHttpResponse>() {
+            @Override
+            public CloseableHttpResponse answer(InvocationOnMock invocation) throws Throwable {
+                OrcidCloseableHttpResponse response = new OrcidCloseableHttpResponse();
+                response.setStatusLine(new BasicStatusLine(new ProtocolVersion("HTTP", 2, 0), 201, "CREATED"));
+                return response;
+            }
+        });
+
+        String putCode = client.postAffiliation("orcid", "access-token", getAssertion());
+
+        assertThat(putCode).isEqualTo("put-code");
+        Mockito.verify(httpClient, Mockito.times(2)).execute(Mockito.any(HttpUriRequest.class));
+        Mockito.verify(rateLimiter, Mockito.times(2)).acquire();
+        Mockito.verify(rateLimiter).onThrottled(Mockito.eq(2000L));
+        Mockito.verify(rateLimiter).onSuccess();
+        Mockito.verify(throttled).close();
+    }
+
+    @Test
+    void testPostAffiliation_stillThrottled() throws Exception {
+        Mockito.when(applicationProperties.getOrcidAPIEndpoint()).thenReturn("orcid/v3/");
+        Mockito.when(rateLimiter.getMaxRetries()).thenReturn(1);
+        Mockito.when(rateLimiter.getDefaultRetryAfterInMs()).thenReturn(1000L);
+        CloseableHttpResponse throttled = getThrottledResponse(503, null);
+        Mockito.when(httpClient.execute(Mockito.any(HttpUriRequest.class))).thenReturn(throttled);
+
+        Assertions.assertThrows(RegistryThrottledException.class, () -> client.postAffiliation("orcid", "access-token", getAssertion()));
+
+        Mockito.verify(httpClient, Mockito.times(2)).execute(Mockito.any(HttpUriRequest.class));
+        Mockito.verify(rateLimiter, Mockito.times(2)).onThrottled(Mockito.eq(1000L));
+        Mockito.verify(rateLimiter, Mockito.never()).onSuccess();
+    }
+
+    @Test
+    void testPostAffiliation_serverErrorSlowsDownWithoutRetry() throws Exception {
+        Mockito.when(applicationProperties.getOrcidAPIEndpoint()).thenReturn("orcid/v3/");
+        Mockito.when(rateLimiter.getMaxRetries()).thenReturn(3);
+        CloseableHttpResponse serverError = getThrottledResponse(500, null);
+        Mockito.when(httpClient.execute(Mockito.any(HttpUriRequest.class))).thenReturn(serverError);
+
+        ORCIDAPIException e = Assertions.assertThrows(ORCIDAPIException.class, () -> client.postAffiliation("orcid", "access-token", getAssertion()));
+
+        assertThat(e).isNotInstanceOf(RegistryThrottledException.class);
+        assertThat(e.getStatusCode()).isEqualTo(500);
+        Mockito.verify(httpClient, Mockito.times(1)).execute(Mockito.any(HttpUriRequest.class));
+        Mockito.verify(rateLimiter).onThrottled(Mockito.eq(0L));
+    }
+
+    private CloseableHttpResponse getThrottledResponse(int statusCode, String retryAfter) throws IOException {
+        CloseableHttpResponse response = Mockito.mock(CloseableHttpResponse.class);
+        Mockito.when(response.getStatusLine()).thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), statusCode, "Throttled"));
+        Mockito.when(response.getEntity()).thenReturn(new StringEntity("{\"error\":\"throttled\"}"));
+        if (retryAfter != null) {
+            Mockito.when(response.getFirstHeader("Retry-After")).thenReturn(new BasicHeader("Retry-After", retryAfter));
+        }
+        return response;
+    }
+
+    private Assertion getAssertion() {
+        Assertion assertion = new Assertion();
+        assertion.setAffiliationSection(AffiliationSection.EMPLOYMENT);
+        assertion.setOrgName("org");
+        assertion.setOrgCity("city");
+        assertion.setOrgCountry("US");
+        assertion.setDisambiguatedOrgId("id");
+        assertion.setDisambiguationSource("RINGGOLD");
+        return assertion;
+    }
+
     private NotificationPermission getNotificationPermission() {
         NotificationPermission notification = new NotificationPermission();
         notification.setNotificationSubject("subject");
@@ -0,0 +1,108 @@
+package org.orcid.memberportal.service.assertion.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties.RegistryThrottling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RegistryRateLimiterTest {
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RegistryRateLimiter rateLimiter;
+
+    private RegistryThrottling settings;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        settings = new RegistryThrottling();
+        settings.setInitialRequestsPerSecond(10);
+        settings.setMinRequestsPerSecond(1);
+        settings.setMaxRequestsPerSecond(12);
+        settings.setAdditiveIncrease(1);
+        settings.setMultiplicativeDecrease(0.5);
+        settings.setMaxRetryAfterInMs(300);
+        Mockito.when(applicationProperties.getRegistryThrottling()).thenReturn(settings);
+        rateLimiter.init();
+    }
+
+    @Test
+    void testRateIncreasesAdditively() {
+        // one second's worth of successful requests adds one request per
+        // second
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.onSuccess();
+        }
+        assertThat(rateLimiter.getRequestsPerSecond()).isCloseTo(11, within(0.1));
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.onSuccess();
+        }
+        assertThat(rateLimiter.getRequestsPerSecond()).isEqualTo(12);
+        assertThat(meterRegistry.get(RegistryRateLimiter.RATE_METRIC).gauge().value()).isEqualTo(12);
+    }
+
+    @Test
+    void testRateDecreasesMultiplicatively() {
+        rateLimiter.onThrottled(0);
+        assertThat(rateLimiter.getRequestsPerSecond()).isEqualTo(5);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.onThrottled(0);
+        }
+        assertThat(rateLimiter.getRequestsPerSecond()).isEqualTo(1);
+    }
+
+    @Test
+    void testAcquirePacesRequests() throws InterruptedException {
+        settings.setInitialRequestsPerSecond(100);
+        rateLimiter.init();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            rateLimiter.acquire();
+        }
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    void testAcquireWaitsForRetryAfter() throws InterruptedException {
+        settings.setInitialRequestsPerSecond(1000);
+        settings.setMultiplicativeDecrease(1);
+        rateLimiter.init();
+
+        long start = System.nanoTime();
+        rateLimiter.onThrottled(200);
+        rateLimiter.acquire();
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(190);
+    }
+
+    @Test
+    void testRetryAfterIsCapped() throws InterruptedException {
+        settings.setInitialRequestsPerSecond(1000);
+        rateLimiter.init();
+
+        long start = System.nanoTime();
+        rateLimiter.onThrottled(3_600_000);
+        rateLimiter.acquire();
+        assertThat((System.nanoTime() - start) / 1_000_000).isBetween(290L, 2000L);
+    }
+
+}
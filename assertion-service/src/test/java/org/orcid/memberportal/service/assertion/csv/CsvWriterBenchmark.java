@@ -0,0 +1,77 @@
+package org.orcid.memberportal.service.assertion.csv;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link CsvWriter#writeCsv} for reports the size of a large
+ * member's affiliations report, with values that need quoting mixed in.
+ * <p>
+ * Run from the assertion-service directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.assertion.csv.CsvWriterBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-CsvWriterBenchmark.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvWriterBenchmark {
+
+    private static final int COLUMNS = 20;
+
+    @Param({ "100", "10000" })
+    private int rows;
+
+    private String[] headers;
+
+    private List<List<String>> data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        headers = new String[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            headers[i] = "column-" + i;
+        }
+
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<String> row = new ArrayList<>(COLUMNS);
+            for (int j = 0; j < COLUMNS; j++) {
+                row.add(j % 5 == 0 ? "value " + i + ", \"quoted\"" : "value-" + i + "-" + j);
+            }
+            data.add(row);
+        }
+    }
+
+    @Benchmark
+    public String writeCsv() throws IOException {
+        return new CsvWriter().writeCsv(headers, data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CsvWriterBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + CsvWriterBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+}
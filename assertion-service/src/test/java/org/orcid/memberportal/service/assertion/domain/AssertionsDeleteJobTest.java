@@ -0,0 +1,21 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class AssertionsDeleteJobTest {
+
+    @Test
+    void testRegistryDeleteFailuresCapped() {
+        AssertionsDeleteJob job = new AssertionsDeleteJob();
+        for (int i = 0; i < AssertionsDeleteJob.MAX_RECORDED_FAILURES + 10; i++) {
+            job.addRegistryDeleteFailure("assertion-" + i);
+        }
+
+        assertEquals(AssertionsDeleteJob.MAX_RECORDED_FAILURES + 10, job.getNumRegistryDeleteFailures());
+        assertEquals(AssertionsDeleteJob.MAX_RECORDED_FAILURES, job.getRegistryDeleteFailures().size());
+        assertEquals("assertion-0", job.getRegistryDeleteFailures().get(0));
+    }
+
+}
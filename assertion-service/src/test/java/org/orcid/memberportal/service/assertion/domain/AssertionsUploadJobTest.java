@@ -0,0 +1,25 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.upload.AssertionsUploadError;
+
+class AssertionsUploadJobTest {
+
+    @Test
+    void testFailuresCapped() {
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        for (int i = 0; i < AssertionsUploadJob.MAX_RECORDED_FAILURES + 10; i++) {
+            job.addFailure(new AssertionsUploadError(i + 1, "error"));
+            job.addRegistryDeleteFailure("assertion-" + i);
+        }
+
+        assertEquals(AssertionsUploadJob.MAX_RECORDED_FAILURES + 10, job.getNumFailed());
+        assertEquals(AssertionsUploadJob.MAX_RECORDED_FAILURES, job.getFailures().size());
+        assertEquals(AssertionsUploadJob.MAX_RECORDED_FAILURES + 10, job.getNumRegistryDeleteFailures());
+        assertEquals(AssertionsUploadJob.MAX_RECORDED_FAILURES, job.getRegistryDeleteFailures().size());
+        assertEquals("assertion-0", job.getRegistryDeleteFailures().get(0));
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.orcid.memberportal.service.assertion.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class OrcidRecordTest {
+
+    @Test
+    void testTokenAccessWithMultipleTokens() {
+        Instant now = Instant.now();
+        OrcidToken granted = new OrcidToken("member-1", "token-1");
+        OrcidToken revoked = new OrcidToken("member-2", "token-2");
+        revoked.setRevokedDate(now);
+        OrcidToken denied = new OrcidToken("member-3", null);
+        denied.setDeniedDate(now);
+        OrcidToken duplicate = new OrcidToken("member-1", "duplicate-token");
+
+        OrcidRecord record = new OrcidRecord();
+        record.setTokens(new ArrayList<>(Arrays.asList(granted, revoked, denied, duplicate)));
+
+        assertTrue(record.tokenExists("member-1"));
+        assertFalse(record.tokenExists("member-4"));
+        assertEquals("token-1", record.getToken("member-1", false));
+        assertNull(record.getToken("member-2", false));
+        assertEquals("token-2", record.getToken("member-2", true));
+        assertNull(record.getToken("member-4", true));
+        assertEquals(now, record.getRevokedDate("member-2"));
+        assertNull(record.getRevokedDate("member-1"));
+        assertEquals(now, record.getDeniedDate("member-3"));
+        assertNull(record.getDeniedDate("member-1"));
+    }
+
+    @Test
+    void testTokenAccessAfterTokensChange() {
+        OrcidRecord record = new OrcidRecord();
+        assertFalse(record.tokenExists("member-1"));
+
+        record.setTokens(new ArrayList<>());
+        assertFalse(record.tokenExists("member-1"));
+
+        record.getTokens().add(new OrcidToken("member-1", "token-1"));
+        assertEquals("token-1", record.getToken("member-1", false));
+
+        record.setTokens(new ArrayList<>(Arrays.asList(new OrcidToken("member-2", "token-2"))));
+        assertFalse(record.tokenExists("member-1"));
+        assertEquals("token-2", record.getToken("member-2", false));
+
+        record.getTokens().get(0).setRevokedDate(Instant.now());
+        assertNull(record.getToken("member-2", false));
+    }
+
+}
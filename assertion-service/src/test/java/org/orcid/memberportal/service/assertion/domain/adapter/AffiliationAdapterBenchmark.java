@@ -0,0 +1,121 @@
+package org.orcid.memberportal.service.assertion.domain.adapter;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.jaxb.model.v3.release.error.OrcidError;
+import org.orcid.jaxb.model.v3.release.notification.permission.NotificationPermission;
+import org.orcid.jaxb.model.v3.release.record.Affiliation;
+import org.orcid.jaxb.model.v3.release.record.Distinction;
+import org.orcid.jaxb.model.v3.release.record.Education;
+import org.orcid.jaxb.model.v3.release.record.Employment;
+import org.orcid.jaxb.model.v3.release.record.InvitedPosition;
+import org.orcid.jaxb.model.v3.release.record.Membership;
+import org.orcid.jaxb.model.v3.release.record.Qualification;
+import org.orcid.jaxb.model.v3.release.record.Service;
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
+
+/**
+ * Measures turning an assertion into the xml body of a registry request, as
+ * {@code OrcidAPIClient} does for every affiliation it creates or updates:
+ * {@link AffiliationAdapter#toOrcidAffiliation} followed by marshalling with
+ * the client's JAXB context and settings.
+ * <p>
+ * Run from the assertion-service directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.assertion.domain.adapter.AffiliationAdapterBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-AffiliationAdapterBenchmark.json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AffiliationAdapterBenchmark {
+
+    @Param({ "EMPLOYMENT", "EDUCATION" })
+    private AffiliationSection affiliationSection;
+
+    private Marshaller marshaller;
+
+    private Assertion assertion;
+
+    private Affiliation affiliation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JAXBException {
+        JAXBContext jaxbContext = JAXBContext.newInstance(Affiliation.class, Distinction.class, Employment.class, Education.class, InvitedPosition.class,
+                Membership.class, Qualification.class, Service.class, OrcidError.class, NotificationPermission.class);
+        marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+
+        assertion = new Assertion();
+        assertion.setAffiliationSection(affiliationSection);
+        assertion.setPutCode("123456");
+        assertion.setDepartmentName("Department of Benchmarking");
+        assertion.setRoleTitle("Research Fellow");
+        assertion.setStartYear("2015");
+        assertion.setStartMonth("09");
+        assertion.setStartDay("01");
+        assertion.setEndYear("2020");
+        assertion.setEndMonth("08");
+        assertion.setOrgName("Benchmark University");
+        assertion.setOrgCity("Bethesda");
+        assertion.setOrgRegion("Maryland");
+        assertion.setOrgCountry("US");
+        assertion.setDisambiguatedOrgId("https://ror.org/03yrm5c26");
+        assertion.setDisambiguationSource("ROR");
+        assertion.setExternalId("ext-id-1");
+        assertion.setExternalIdType("grant_number");
+        assertion.setExternalIdUrl("https://example.org/grants/1");
+        assertion.setUrl("https://example.org/people/1");
+
+        affiliation = AffiliationAdapter.toOrcidAffiliation(assertion);
+    }
+
+    @Benchmark
+    public Affiliation toOrcidAffiliation() {
+        return AffiliationAdapter.toOrcidAffiliation(assertion);
+    }
+
+    @Benchmark
+    public String marshal() throws JAXBException {
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(affiliation, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String toOrcidAffiliationAndMarshal() throws JAXBException {
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(AffiliationAdapter.toOrcidAffiliation(assertion), writer);
+        return writer.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AffiliationAdapterBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + AffiliationAdapterBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.orcid.memberportal.service.assertion.domain.normalization.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.memberportal.service.assertion.config.Constants;
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.normalization.org.impl.GridNormalizer;
+import org.orcid.memberportal.service.assertion.domain.normalization.org.impl.RinggoldNormalizer;
+import org.orcid.memberportal.service.assertion.domain.normalization.org.impl.RorNormalizer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures {@link AssertionNormalizerImpl#normalize} for each disambiguation
+ * source, with the normalizers in the same order as the application context
+ * would give them.
+ * <p>
+ * Run from the assertion-service directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.assertion.domain.normalization.impl.AssertionNormalizerBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-AssertionNormalizerBenchmark.json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssertionNormalizerBenchmark {
+
+    @Param({ Constants.GRID_ORG_SOURCE, Constants.RINGGOLD_ORG_SOURCE, Constants.ROR_ORG_SOURCE })
+    private String disambiguationSource;
+
+    private AssertionNormalizerImpl normalizer;
+
+    private Assertion assertion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        normalizer = new AssertionNormalizerImpl();
+        ReflectionTestUtils.setField(normalizer, "orgNormalizers", Arrays.asList(new GridNormalizer(), new RinggoldNormalizer(), new RorNormalizer()));
+
+        assertion = new Assertion();
+        assertion.setDisambiguationSource(disambiguationSource);
+    }
+
+    @Benchmark
+    public Assertion normalize() {
+        // reset, so that ror ids get their base url added every time
+        assertion.setDisambiguatedOrgId("03yrm5c26");
+        return normalizer.normalize(assertion);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AssertionNormalizerBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + AssertionNormalizerBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+}
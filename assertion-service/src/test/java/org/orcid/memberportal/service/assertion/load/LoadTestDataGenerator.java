@@ -0,0 +1,102 @@
+package org.orcid.memberportal.service.assertion.load;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
+import org.orcid.memberportal.service.assertion.domain.OrcidToken;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Seeds {@code members} members with {@code assertionsPerMember} assertions
+ * each. Every assertion gets its own researcher, who has already granted the
+ * member permission, so that the whole data set is ready to be synced with the
+ * registry.
+ */
+public class LoadTestDataGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public LoadTestDataGenerator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void clear() {
+        mongoTemplate.dropCollection(Assertion.class);
+        mongoTemplate.dropCollection(OrcidRecord.class);
+    }
+
+    public void seed(int members, int assertionsPerMember) {
+        List<Assertion> assertions = new ArrayList<>(BATCH_SIZE);
+        List<OrcidRecord> records = new ArrayList<>(BATCH_SIZE);
+        Instant now = Instant.now();
+
+        for (int m = 0; m < members; m++) {
+            String salesforceId = getSalesforceId(m);
+            for (int a = 0; a < assertionsPerMember; a++) {
+                String email = "researcher-" + m + "-" + a + "@load.orcid.org";
+                assertions.add(getAssertion(salesforceId, email, a, now));
+                records.add(getOrcidRecord(salesforceId, email, now));
+
+                if (assertions.size() == BATCH_SIZE) {
+                    insert(assertions, records);
+                }
+            }
+        }
+        insert(assertions, records);
+    }
+
+    public static String getSalesforceId(int member) {
+        return "load-member-" + member;
+    }
+
+    private void insert(List<Assertion> assertions, List<OrcidRecord> records) {
+        if (!assertions.isEmpty()) {
+            mongoTemplate.insert(assertions, Assertion.class);
+            mongoTemplate.insert(records, OrcidRecord.class);
+            assertions.clear();
+            records.clear();
+        }
+    }
+
+    private Assertion getAssertion(String salesforceId, String email, int index, Instant now) {
+        Assertion assertion = new Assertion();
+        assertion.setSalesforceId(salesforceId);
+        assertion.setOwnerId(salesforceId + "@load.orcid.org");
+        assertion.setEmail(email);
+        assertion.setAffiliationSection(index % 2 == 0 ? AffiliationSection.EMPLOYMENT : AffiliationSection.EDUCATION);
+        assertion.setRoleTitle("Role " + index);
+        assertion.setDepartmentName("Department of Load Testing");
+        assertion.setStartYear("2020");
+        assertion.setStartMonth("01");
+        assertion.setOrgName("Load Test University");
+        assertion.setOrgCity("Bethesda");
+        assertion.setOrgRegion("MD");
+        assertion.setOrgCountry("US");
+        assertion.setDisambiguatedOrgId("385488");
+        assertion.setDisambiguationSource("RINGGOLD");
+        assertion.setStatus(AssertionStatus.PENDING.name());
+        assertion.setCreated(now);
+        assertion.setModified(now);
+        assertion.setLastModifiedBy(assertion.getOwnerId());
+        return assertion;
+    }
+
+    private OrcidRecord getOrcidRecord(String salesforceId, String email, Instant now) {
+        OrcidRecord record = new OrcidRecord();
+        record.setEmail(email);
+        record.setOrcid(StubOrcidRegistry.getOrcidId(email));
+        record.setTokens(new ArrayList<>(Collections.singletonList(new OrcidToken(salesforceId, "id-token-" + email))));
+        record.setCreated(now);
+        record.setModified(now);
+        return record;
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.orcid.memberportal.service.assertion.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Counts the commands sent to Mongo, by command name.
+ */
+public class MongoCommandCounter implements CommandListener {
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        counts.computeIfAbsent(event.getCommandName(), c -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+    }
+
+    public long getTotal() {
+        return counts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public Map<String, AtomicLong> getCounts() {
+        return counts;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+
+}
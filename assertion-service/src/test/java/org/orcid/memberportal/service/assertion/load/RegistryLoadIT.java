@@ -0,0 +1,270 @@
+package org.orcid.memberportal.service.assertion.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.client.MemberServiceClient;
+import org.orcid.memberportal.service.assertion.client.UserServiceClient;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.AssertionServiceMember;
+import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.SendNotificationsRequest;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
+import org.orcid.memberportal.service.assertion.services.AssertionService;
+import org.orcid.memberportal.service.assertion.services.MailService;
+import org.orcid.memberportal.service.assertion.services.MemberService;
+import org.orcid.memberportal.service.assertion.services.NotificationService;
+import org.orcid.memberportal.service.assertion.services.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.MongoClientOptions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * End to end load run of the registry sync and permission notifications
+ * against embedded Mongo and a {@link StubOrcidRegistry}. Reports
+ * affiliations per second, registry latency percentiles and Mongo commands
+ * per affiliation for each run.
+ *
+ * Only runs when asked for, eg
+ * {@code mvn verify -Dit.test=RegistryLoadIT -Dload.test=true -Dload.members=10 -Dload.assertionsPerMember=1000 -Dload.latencyInMs=20 -Dload.errorRate=0.01 -Dload.throttleRate=0.05}.
+ */
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+@SpringBootTest(classes = { AssertionServiceApp.class, RegistryLoadIT.MongoCommandCounterConfiguration.class }, properties = {
+        "management.metrics.distribution.percentiles.orcid.api.requests=0.5,0.99" })
+@DirtiesContext
+public class RegistryLoadIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RegistryLoadIT.class);
+
+    private static final String REQUESTS_METRIC = "orcid.api.requests";
+
+    private static final int MAX_SYNC_PASSES = 100;
+
+    private final int members = Integer.getInteger("load.members", 5);
+
+    private final int assertionsPerMember = Integer.getInteger("load.assertionsPerMember", 200);
+
+    private final long latencyInMs = Long.getLong("load.latencyInMs", 10);
+
+    private final double errorRate = Double.parseDouble(System.getProperty("load.errorRate", "0"));
+
+    private final double throttleRate = Double.parseDouble(System.getProperty("load.throttleRate", "0"));
+
+    @Autowired
+    private AssertionService assertionService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
+    @Mock
+    private MemberServiceClient memberServiceClient;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private MailService mailService;
+
+    private StubOrcidRegistry registry;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        registry = new StubOrcidRegistry(latencyInMs, errorRate);
+        registry.setThrottleRate(throttleRate);
+        registry.start();
+        applicationProperties.setOrcidAPIEndpoint(registry.getBaseUrl() + "/v3.0/");
+        applicationProperties.setInternalRegistryApiEndpoint(registry.getBaseUrl() + "/internal/");
+        applicationProperties.getTokenExchange().setEndpoint(registry.getBaseUrl() + "/oauth/token");
+
+        AssertionServiceMember member = new AssertionServiceMember();
+        member.setClientName("Load Test University");
+        Mockito.when(memberServiceClient.getMember(Mockito.anyString())).thenReturn(ResponseEntity.ok(member));
+        Mockito.when(userServiceClient.getUser(Mockito.anyString())).thenReturn(ResponseEntity.ok(new AssertionServiceUser()));
+        ReflectionTestUtils.setField(memberService, "memberServiceClient", memberServiceClient);
+        ReflectionTestUtils.setField(userService, "userServiceClient", userServiceClient);
+        ReflectionTestUtils.setField(notificationService, "mailService", mailService);
+
+        LoadTestDataGenerator generator = new LoadTestDataGenerator(mongoTemplate);
+        generator.clear();
+        mongoTemplate.dropCollection(SendNotificationsRequest.class);
+        generator.seed(members, assertionsPerMember);
+        LOG.info("Seeded {} members with {} assertions each", members, assertionsPerMember);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.stop();
+    }
+
+    @Test
+    public void testRegistryLoad() throws Exception {
+        int total = members * assertionsPerMember;
+
+        LoadRun create = run("create", () -> assertionService.postAssertionsToOrcid(), addedToOrcid());
+        assertThat(create.synced).isGreaterThan(0);
+
+        // modify everything so that it needs updating in the registry
+        mongoTemplate.updateMulti(new Query(), new Update().set("modified", Instant.now().plusSeconds(1)), Assertion.class);
+        LoadRun update = run("update", () -> assertionService.putAssertionsInOrcid(), updatedInOrcid());
+
+        mongoTemplate.updateMulti(new Query(), new Update().set("status", AssertionStatus.NOTIFICATION_REQUESTED.name()), Assertion.class);
+        for (int m = 0; m < members; m++) {
+            SendNotificationsRequest request = new SendNotificationsRequest();
+            request.setEmail("load-test@orcid.org");
+            request.setSalesforceId(LoadTestDataGenerator.getSalesforceId(m));
+            request.setDateRequested(Instant.now());
+            mongoTemplate.insert(request);
+        }
+        LoadRun notify = run("notification", () -> notificationService.sendPermissionLinkNotifications(),
+                new Query(Criteria.where("status").is(AssertionStatus.NOTIFICATION_SENT.name())));
+
+        LOG.info("Registry load report: {} members x {} assertions, {}ms registry latency, {} registry error rate, {} registry throttle rate", members,
+                assertionsPerMember, latencyInMs, errorRate, throttleRate);
+        for (LoadRun run : new LoadRun[] { create, update, notify }) {
+            LOG.info("{}: {} of {} synced in {} pass(es), {}ms, {} affiliations/s, {} mongo commands per affiliation {}", run.name, run.synced, total, run.passes,
+                    run.elapsedInMs, String.format("%.1f", run.synced * 1000.0 / Math.max(1, run.elapsedInMs)),
+                    String.format("%.1f", (double) run.mongoCommands / Math.max(1, run.synced)), run.mongoCommandsByName);
+        }
+        logRegistryLatencies();
+        LOG.info("Stub registry requests: {}", new TreeMap<>(registry.getRequestCounts()));
+    }
+
+    /**
+     * Runs the job until everything it should sync is synced, or a pass makes
+     * no progress, as a job that leaves work behind picks it up on its next
+     * scheduled run.
+     */
+    private LoadRun run(String name, SyncJob job, Query synced) throws Exception {
+        LoadRun run = new LoadRun(name);
+        mongoCommandCounter.reset();
+        long start = System.currentTimeMillis();
+
+        long previouslySynced = -1;
+        long count = mongoTemplate.count(synced, Assertion.class);
+        while (count > previouslySynced && count < members * assertionsPerMember && run.passes < MAX_SYNC_PASSES) {
+            job.run();
+            run.passes++;
+            previouslySynced = count;
+            count = mongoTemplate.count(synced, Assertion.class);
+        }
+
+        run.elapsedInMs = System.currentTimeMillis() - start;
+        run.synced = count;
+        // don't count the progress checks
+        run.mongoCommandsByName = new TreeMap<>();
+        mongoCommandCounter.getCounts().forEach((command, commandCount) -> run.mongoCommandsByName.put(command, commandCount.get()));
+        run.mongoCommandsByName.computeIfPresent("count", (command, commandCount) -> commandCount - (run.passes + 1));
+        run.mongoCommands = run.mongoCommandsByName.values().stream().mapToLong(Long::longValue).sum();
+        return run;
+    }
+
+    private Query addedToOrcid() {
+        return new Query(Criteria.where("added_to_orcid").ne(null));
+    }
+
+    private Query updatedInOrcid() {
+        return new Query(Criteria.where("updated_in_orcid").ne(null));
+    }
+
+    private void logRegistryLatencies() {
+        for (Timer timer : meterRegistry.find(REQUESTS_METRIC).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<Double, String> percentiles = new TreeMap<>();
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                percentiles.put(percentile.percentile(), String.format("%.1fms", percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            LOG.info("{} {}: {} requests, p50/p99 {}", timer.getId().getTag("operation"), timer.getId().getTag("status"), snapshot.count(), percentiles);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SyncJob {
+        void run() throws Exception;
+    }
+
+    private static class LoadRun {
+
+        private final String name;
+
+        private int passes;
+
+        private long elapsedInMs;
+
+        private long synced;
+
+        private long mongoCommands;
+
+        private Map<String, Long> mongoCommandsByName;
+
+        private LoadRun(String name) {
+            this.name = name;
+        }
+
+    }
+
+    @TestConfiguration
+    static class MongoCommandCounterConfiguration {
+
+        @Bean
+        public MongoCommandCounter mongoCommandCounter() {
+            return new MongoCommandCounter();
+        }
+
+        @Bean
+        public MongoClientOptions mongoClientOptions(MongoCommandCounter mongoCommandCounter) {
+            return MongoClientOptions.builder().addCommandListener(mongoCommandCounter).build();
+        }
+
+    }
+
+}
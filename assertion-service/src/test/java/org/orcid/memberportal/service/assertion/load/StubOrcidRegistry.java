@@ -0,0 +1,214 @@
+package org.orcid.memberportal.service.assertion.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In process stand in for the ORCID registry, implementing just enough of the
+ * token exchange, member api and internal api for {@code OrcidAPIClient}:
+ * <ul>
+ * <li>{@code POST .../oauth/token} for the id token exchange and the internal
+ * access token</li>
+ * <li>{@code POST /v3.0/{orcid}/{section}} to create an affiliation</li>
+ * <li>{@code PUT} and {@code DELETE /v3.0/{orcid}/{section}/{putCode}}</li>
+ * <li>{@code POST /v3.0/{orcid}/notification-permission}</li>
+ * <li>{@code GET /internal/orcid/{base64 email}/email}</li>
+ * </ul>
+ * Every request waits {@code latencyInMs} before responding, fails with a 500
+ * at {@code errorRate}, and is throttled with a 429 and a one second
+ * {@code Retry-After} at {@code throttleRate}. Request bodies aren't
+ * validated.
+ */
+public class StubOrcidRegistry {
+
+    private static final Pattern AFFILIATION = Pattern.compile("/v3\\.0/([^/]+)/([a-z-]+)(?:/(\\d+))?");
+
+    private static final Pattern EMAIL_LOOKUP = Pattern.compile("/internal/orcid/(.+)/email");
+
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong putCodes = new AtomicLong(1000);
+
+    private volatile long latencyInMs;
+
+    private volatile double errorRate;
+
+    private volatile double throttleRate;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    public StubOrcidRegistry(long latencyInMs, double errorRate) {
+        this.latencyInMs = latencyInMs;
+        this.errorRate = errorRate;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // latency is simulated by sleeping, so allow plenty of requests in flight
+        executor = Executors.newFixedThreadPool(64, runnable -> {
+            Thread thread = new Thread(runnable, "stub-orcid-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void setLatencyInMs(long latencyInMs) {
+        this.latencyInMs = latencyInMs;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    /**
+     * @return number of requests received for the operation, eg
+     *         {@code POST employment}, since the last {@link #resetCounts()}
+     */
+    public long getRequestCount(String operation) {
+        AtomicLong count = requestCounts.get(operation);
+        return count != null ? count.get() : 0;
+    }
+
+    public Map<String, AtomicLong> getRequestCounts() {
+        return requestCounts;
+    }
+
+    public void resetCounts() {
+        requestCounts.clear();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if (latencyInMs > 0) {
+                Thread.sleep(latencyInMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if ("POST".equals(method) && path.endsWith("/oauth/token")) {
+            count("POST token");
+            if (!fail(exchange)) {
+                String token = "{\"access_token\":\"stub-" + putCodes.incrementAndGet()
+                        + "\",\"token_type\":\"bearer\",\"expires_in\":3599,\"scope\":\"/activities/update\"}";
+                respond(exchange, 200, "application/json", token);
+            }
+            return;
+        }
+
+        Matcher emailLookup = EMAIL_LOOKUP.matcher(path);
+        if ("GET".equals(method) && emailLookup.matches()) {
+            count("GET email");
+            if (!fail(exchange)) {
+                String email = new String(Base64.getDecoder().decode(emailLookup.group(1)), StandardCharsets.UTF_8);
+                respond(exchange, 200, "application/json", "{\"orcid\":\"" + getOrcidId(email) + "\",\"email\":\"" + email + "\",\"status\":\"FOUND\"}");
+            }
+            return;
+        }
+
+        Matcher affiliation = AFFILIATION.matcher(path);
+        if (!affiliation.matches()) {
+            count(method + " unknown");
+            respond(exchange, 404, "application/json", "{\"error\":\"not found\"}");
+            return;
+        }
+
+        String section = affiliation.group(2);
+        count(method + " " + section);
+        if (fail(exchange)) {
+            return;
+        }
+        if ("POST".equals(method) && affiliation.group(3) == null) {
+            String putCode = Long.toString(putCodes.incrementAndGet());
+            exchange.getResponseHeaders().add("Location", getBaseUrl() + path + "/" + putCode);
+            respond(exchange, 201, null, null);
+        } else if ("PUT".equals(method) && affiliation.group(3) != null) {
+            respond(exchange, 200, "application/vnd.orcid+xml", "<affiliation/>");
+        } else if ("DELETE".equals(method) && affiliation.group(3) != null) {
+            respond(exchange, 204, null, null);
+        } else {
+            respond(exchange, 405, "application/json", "{\"error\":\"method not allowed\"}");
+        }
+    }
+
+    /**
+     * Orcid ids aren't checked by the stub, so any stable value will do.
+     */
+    public static String getOrcidId(String email) {
+        String digits = String.format("%016d", Math.abs((long) email.hashCode()));
+        return digits.substring(0, 4) + "-" + digits.substring(4, 8) + "-" + digits.substring(8, 12) + "-" + digits.substring(12, 16);
+    }
+
+    private void count(String operation) {
+        requestCounts.computeIfAbsent(operation, o -> new AtomicLong()).incrementAndGet();
+    }
+
+    private boolean fail(HttpExchange exchange) throws IOException {
+        if (throttleRate > 0 && ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            respond(exchange, 429, "application/json", "{\"error\":\"too many requests\"}");
+            return true;
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            respond(exchange, 500, "application/json", "{\"error\":\"stub registry error\"}");
+            return true;
+        }
+        return false;
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.orcid.memberportal.service.assertion.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
+import org.orcid.memberportal.service.assertion.domain.OrcidToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class OrcidRecordRepositoryIT {
+
+    @Autowired
+    private OrcidRecordRepository orcidRecordRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        orcidRecordRepository.deleteAll();
+
+        OrcidToken denied = new OrcidToken("member-1", null);
+        denied.setDeniedDate(Instant.now());
+        OrcidToken revoked = new OrcidToken("member-2", "revoked-token");
+        revoked.setRevokedDate(Instant.now());
+        OrcidToken migratedPlaceholder = new OrcidToken("member-1", null);
+        migratedPlaceholder.setSalesforceMigrationId("migration-id");
+
+        orcidRecordRepository.saveAll(Arrays.asList(getRecord("invited", new OrcidToken("member-2", "token"), new OrcidToken("member-1", null)),
+                getRecord("migrated", migratedPlaceholder), getRecord("granted", new OrcidToken("member-2", null), new OrcidToken("member-1", "token")),
+                getRecord("denied", denied, revoked), getRecord("other member", new OrcidToken("member-2", null))));
+    }
+
+    @Test
+    public void testFindAllToInvite() {
+        List<OrcidRecord> toInvite = orcidRecordRepository.findAllToInvite("member-1");
+        assertThat(toInvite).extracting(OrcidRecord::getEmail).containsExactlyInAnyOrder("invited@orcid.org", "migrated@orcid.org");
+
+        toInvite = orcidRecordRepository.findAllToInvite("member-2");
+        assertThat(toInvite).extracting(OrcidRecord::getEmail).containsExactlyInAnyOrder("granted@orcid.org", "other member@orcid.org");
+    }
+
+    @Test
+    public void testFindBySalesforceId() {
+        List<OrcidRecord> records = orcidRecordRepository.findBySalesforceId("member-1", PageRequest.of(0, 10)).getContent();
+        assertThat(records).extracting(OrcidRecord::getEmail).containsExactlyInAnyOrder("invited@orcid.org", "migrated@orcid.org", "granted@orcid.org",
+                "denied@orcid.org");
+    }
+
+    @Test
+    public void testTokenQueriesUseSalesforceIdIndex() {
+        assertThat(getWinningPlan("{tokens: {$elemMatch: {salesforce_id: 'member-1', token_id: null, denied_date: null}}}")).contains("IXSCAN")
+                .contains("tokens_salesforce_id_idx");
+        assertThat(getWinningPlan("{tokens: {$elemMatch: {salesforce_id: 'member-1'}}}")).contains("IXSCAN").contains("tokens_salesforce_id_idx");
+    }
+
+    private String getWinningPlan(String filter) {
+        Document explain = new Document("explain", new Document("find", "orcid_record").append("filter", Document.parse(filter)));
+        Document result = mongoTemplate.getDb().runCommand(explain);
+        return ((Document) ((Document) result.get("queryPlanner")).get("winningPlan")).toJson();
+    }
+
+    private OrcidRecord getRecord(String name, OrcidToken... tokens) {
+        OrcidRecord record = new OrcidRecord();
+        record.setEmail(name + "@orcid.org");
+        record.setTokens(new ArrayList<>(Arrays.asList(tokens)));
+        return record;
+    }
+
+}
@@ -1,16 +1,21 @@
 package org.orcid.memberportal.service.assertion.repository.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.orcid.memberportal.service.assertion.AssertionServiceApp;
 import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
 import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
 import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
 import org.orcid.memberportal.service.assertion.repository.AssertionRepositoryCustom;
 import org.orcid.memberportal.service.assertion.services.AssertionService;
@@ -21,6 +26,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.util.CloseableIterator;
 
 @SpringBootTest(classes = { AssertionServiceApp.class })
 public class AssertionRepositoryCustomImplIT {
@@ -66,6 +72,112 @@ public class AssertionRepositoryCustomImplIT {
         });
     }
 
+    @Test
+    public void testFindAllToSyncSkipsBackedOffAndFailedAssertions() {
+        Assertion backedOffCreate = getAssertionToCreateInOrcid(10);
+        backedOffCreate.setNextAttemptAt(Instant.now().plusSeconds(600));
+        Assertion failedCreate = getAssertionToCreateInOrcid(11);
+        failedCreate.setStatus(AssertionStatus.SYNC_FAILED.name());
+        Assertion dueCreate = getAssertionToCreateInOrcid(12);
+        dueCreate.setNextAttemptAt(Instant.now().minusSeconds(1));
+        Assertion backedOffUpdate = getAssertionToUpdateInOrcid(10);
+        backedOffUpdate.setNextAttemptAt(Instant.now().plusSeconds(600));
+        Assertion failedUpdate = getAssertionToUpdateInOrcid(11);
+        failedUpdate.setStatus(AssertionStatus.SYNC_FAILED.name());
+        assertionRepository.saveAll(Arrays.asList(backedOffCreate, failedCreate, dueCreate, backedOffUpdate, failedUpdate));
+
+        Pageable pageable = PageRequest.of(0, AssertionService.REGISTRY_SYNC_BATCH_SIZE, new Sort(Direction.ASC, "created"));
+        List<Assertion> toCreate = assertionRepositoryCustom.findAllToCreateInOrcidRegistry(pageable);
+        assertThat(toCreate.size()).isEqualTo(11);
+        assertThat(toCreate).extracting(Assertion::getId).contains("create 12").doesNotContain("create 10", "create 11");
+
+        List<Assertion> toUpdate = assertionRepositoryCustom.findAllToUpdateInOrcidRegistry(pageable);
+        assertThat(toUpdate.size()).isEqualTo(10);
+        assertThat(toUpdate).extracting(Assertion::getId).doesNotContain("update 10", "update 11");
+    }
+
+    @Test
+    public void testFindAllToSyncForMember() {
+        List<Assertion> assertions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Assertion toCreate = getAssertionToCreateInOrcid(i);
+            toCreate.setSalesforceId(i < 7 ? "member-1" : "member-2");
+            toCreate.setCreated(Instant.now().plusMillis(i));
+            assertions.add(toCreate);
+
+            Assertion toUpdate = getAssertionToUpdateInOrcid(i);
+            toUpdate.setSalesforceId("member-2");
+            assertions.add(toUpdate);
+        }
+        assertionRepository.saveAll(assertions);
+
+        assertThat(assertionRepositoryCustom.getMemberBacklogsToCreateInOrcidRegistry()).extracting(MemberSyncBacklog::getSalesforceId, MemberSyncBacklog::getCount)
+                .containsExactlyInAnyOrder(tuple("member-1", 7L), tuple("member-2", 3L));
+        assertThat(assertionRepositoryCustom.getMemberBacklogsToUpdateInOrcidRegistry()).extracting(MemberSyncBacklog::getSalesforceId, MemberSyncBacklog::getCount)
+                .containsExactly(tuple("member-2", 10L));
+
+        // each turn carries on from the last assertion of the one before
+        List<Assertion> firstTurn = assertionRepositoryCustom.findAllToCreateInOrcidRegistry("member-1", null, null, 4);
+        assertThat(firstTurn).extracting(Assertion::getId).containsExactly("create 0", "create 1", "create 2", "create 3");
+        List<Assertion> secondTurn = assertionRepositoryCustom.findAllToCreateInOrcidRegistry("member-1", firstTurn.get(3), null, 4);
+        assertThat(secondTurn).extracting(Assertion::getId).containsExactly("create 4", "create 5", "create 6");
+
+        List<Assertion> firstUpdateTurn = assertionRepositoryCustom.findAllToUpdateInOrcidRegistry("member-2", null, null, 6);
+        assertThat(firstUpdateTurn).hasSize(6);
+        List<Assertion> secondUpdateTurn = assertionRepositoryCustom.findAllToUpdateInOrcidRegistry("member-2", firstUpdateTurn.get(5), null, 6);
+        assertThat(secondUpdateTurn).hasSize(4);
+        assertThat(secondUpdateTurn).extracting(Assertion::getId).doesNotContainAnyElementsOf(
+                firstUpdateTurn.stream().map(Assertion::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testStreamBySalesforceId() {
+        Instant now = Instant.now();
+        List<Assertion> assertions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Assertion assertion = getOtherAssertion(20 + i);
+            assertion.setSalesforceId("export-member");
+            assertion.setModified(now.minusSeconds(60 * (5 - i)));
+            assertions.add(assertion);
+        }
+        assertionRepository.saveAll(assertions);
+
+        List<String> exported = new ArrayList<>();
+        try (CloseableIterator<Assertion> iterator = assertionRepositoryCustom.streamBySalesforceId("export-member", null)) {
+            iterator.forEachRemaining(a -> exported.add(a.getRoleTitle()));
+        }
+        assertThat(exported).containsExactly("other 20", "other 21", "other 22", "other 23", "other 24");
+
+        exported.clear();
+        try (CloseableIterator<Assertion> iterator = assertionRepositoryCustom.streamBySalesforceId("export-member", now.minusSeconds(120))) {
+            iterator.forEachRemaining(a -> exported.add(a.getRoleTitle()));
+        }
+        assertThat(exported).containsExactly("other 23", "other 24");
+    }
+
+    @Test
+    public void testSalesforceIdMigration() {
+        Assertion first = getOtherAssertion(10);
+        first.setSalesforceId("salesforce-id");
+        Assertion second = getOtherAssertion(11);
+        second.setSalesforceId("salesforce-id");
+        Assertion alreadyMoved = getOtherAssertion(12);
+        alreadyMoved.setSalesforceId("new-salesforce-id");
+        assertionRepository.saveAll(Arrays.asList(first, second, alreadyMoved));
+
+        assertThat(assertionRepositoryCustom.updateSalesforceId("salesforce-id", "new-salesforce-id", "migration-id")).isEqualTo(2);
+        // retrying the same migration changes nothing
+        assertThat(assertionRepositoryCustom.updateSalesforceId("salesforce-id", "new-salesforce-id", "migration-id")).isEqualTo(0);
+        assertThat(assertionRepository.findById("other 10").get().getSalesforceId()).isEqualTo("new-salesforce-id");
+        assertThat(assertionRepository.findById("other 10").get().getSalesforceMigrationId()).isEqualTo("migration-id");
+
+        // only assertions moved by the migration are moved back
+        assertThat(assertionRepositoryCustom.rollbackSalesforceIdMigration("salesforce-id", "new-salesforce-id", "migration-id")).isEqualTo(2);
+        assertThat(assertionRepository.findById("other 11").get().getSalesforceId()).isEqualTo("salesforce-id");
+        assertThat(assertionRepository.findById("other 11").get().getSalesforceMigrationId()).isNull();
+        assertThat(assertionRepository.findById("other 12").get().getSalesforceId()).isEqualTo("new-salesforce-id");
+    }
+
     private List<Assertion> getAssertionsToUpdateInOrcid() {
         List<Assertion> assertions = new ArrayList<Assertion>();
         for (int i = 0; i < 10; i++) {
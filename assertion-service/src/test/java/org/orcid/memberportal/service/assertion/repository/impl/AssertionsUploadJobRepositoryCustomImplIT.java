@@ -0,0 +1,113 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepository;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class AssertionsUploadJobRepositoryCustomImplIT {
+
+    @Autowired
+    private AssertionsUploadJobRepository assertionsUploadJobRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private AssertionsUploadJobRepositoryCustom assertionsUploadJobRepositoryCustom;
+
+    @BeforeEach
+    public void setUp() {
+        assertionsUploadJobRepositoryCustom = new AssertionsUploadJobRepositoryCustomImpl(mongoTemplate);
+        assertionsUploadJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testClaimNextJob() {
+        Instant now = Instant.now();
+        assertionsUploadJobRepository.save(getJob("newer", AssertionsUploadJob.PENDING_STATUS, now.minusSeconds(10), null));
+        assertionsUploadJobRepository.save(getJob("older", AssertionsUploadJob.PENDING_STATUS, now.minusSeconds(20), null));
+        assertionsUploadJobRepository.save(getJob("leased", AssertionsUploadJob.IN_PROGRESS_STATUS, now.minusSeconds(30), now.plusSeconds(60)));
+        assertionsUploadJobRepository.save(getJob("complete", AssertionsUploadJob.COMPLETE_STATUS, now.minusSeconds(40), null));
+
+        AssertionsUploadJob claimed = assertionsUploadJobRepositoryCustom.claimNextJob("worker-1", now, now.plusSeconds(600));
+        assertThat(claimed.getId()).isEqualTo("older");
+        assertThat(claimed.getStatus()).isEqualTo(AssertionsUploadJob.IN_PROGRESS_STATUS);
+        assertThat(claimed.getLeaseOwner()).isEqualTo("worker-1");
+        assertThat(claimed.getAttempts()).isEqualTo(1);
+
+        claimed = assertionsUploadJobRepositoryCustom.claimNextJob("worker-2", now, now.plusSeconds(600));
+        assertThat(claimed.getId()).isEqualTo("newer");
+
+        assertThat(assertionsUploadJobRepositoryCustom.claimNextJob("worker-3", now, now.plusSeconds(600))).isNull();
+    }
+
+    @Test
+    public void testClaimJobWithExpiredLease() {
+        Instant now = Instant.now();
+        AssertionsUploadJob expired = getJob("expired", AssertionsUploadJob.IN_PROGRESS_STATUS, now.minusSeconds(60), now.minusSeconds(1));
+        expired.setLeaseOwner("crashed-worker");
+        expired.setAttempts(1);
+        expired.setRowsProcessed(200);
+        assertionsUploadJobRepository.save(expired);
+
+        AssertionsUploadJob claimed = assertionsUploadJobRepositoryCustom.claimNextJob("worker-1", now, now.plusSeconds(600));
+        assertThat(claimed.getLeaseOwner()).isEqualTo("worker-1");
+        assertThat(claimed.getAttempts()).isEqualTo(2);
+        assertThat(claimed.getRowsProcessed()).isEqualTo(200);
+    }
+
+    @Test
+    public void testSaveProgressRequiresLease() {
+        Instant now = Instant.now();
+        assertionsUploadJobRepository.save(getJob("job", AssertionsUploadJob.PENDING_STATUS, now, null));
+        AssertionsUploadJob claimed = assertionsUploadJobRepositoryCustom.claimNextJob("worker-1", now, now.plusSeconds(600));
+
+        claimed.setRowsProcessed(100);
+        claimed.setNumAdded(90);
+        claimed.setNumFailed(10);
+        assertThat(assertionsUploadJobRepositoryCustom.saveProgress(claimed, "worker-1")).isTrue();
+        assertThat(assertionsUploadJobRepositoryCustom.saveProgress(claimed, "worker-2")).isFalse();
+
+        AssertionsUploadJob saved = assertionsUploadJobRepository.findById("job").get();
+        assertThat(saved.getRowsProcessed()).isEqualTo(100);
+        assertThat(saved.getNumAdded()).isEqualTo(90);
+        assertThat(saved.getNumFailed()).isEqualTo(10);
+    }
+
+    @Test
+    public void testRenewLeaseRequiresLease() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        assertionsUploadJobRepository.save(getJob("job", AssertionsUploadJob.PENDING_STATUS, now, null));
+        AssertionsUploadJob claimed = assertionsUploadJobRepositoryCustom.claimNextJob("worker-1", now, now.plusSeconds(600));
+        claimed.setRowsProcessed(100);
+
+        assertThat(assertionsUploadJobRepositoryCustom.renewLease("job", "worker-2", now.plusSeconds(1200))).isFalse();
+        assertThat(assertionsUploadJobRepositoryCustom.renewLease("job", "worker-1", now.plusSeconds(900))).isTrue();
+
+        AssertionsUploadJob saved = assertionsUploadJobRepository.findById("job").get();
+        assertThat(saved.getLeaseExpiry()).isEqualTo(now.plusSeconds(900));
+        assertThat(saved.getRowsProcessed()).isEqualTo(0);
+    }
+
+    private AssertionsUploadJob getJob(String id, String status, Instant dateCreated, Instant leaseExpiry) {
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        job.setId(id);
+        job.setStoredFileId("stored-file-" + id);
+        job.setStatus(status);
+        job.setDateCreated(dateCreated);
+        job.setLeaseExpiry(leaseExpiry);
+        return job;
+    }
+
+}
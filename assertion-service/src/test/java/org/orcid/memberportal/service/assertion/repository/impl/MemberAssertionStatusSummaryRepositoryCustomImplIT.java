@@ -0,0 +1,103 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.repository.MemberAssertionStatusSummaryRepository;
+import org.orcid.memberportal.service.assertion.repository.MemberAssertionStatusSummaryRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class MemberAssertionStatusSummaryRepositoryCustomImplIT {
+
+    @Autowired
+    private MemberAssertionStatusSummaryRepository memberAssertionStatusSummaryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private MemberAssertionStatusSummaryRepositoryCustom memberAssertionStatusSummaryRepositoryCustom;
+
+    @BeforeEach
+    public void setUp() {
+        memberAssertionStatusSummaryRepositoryCustom = new MemberAssertionStatusSummaryRepositoryCustomImpl(mongoTemplate);
+        memberAssertionStatusSummaryRepository.deleteAll();
+    }
+
+    @Test
+    public void testSaveIfUnchanged() {
+        memberAssertionStatusSummaryRepositoryCustom.incrementStatusCounts("member-1", Collections.singletonMap("PENDING", 2L));
+        MemberAssertionStatusSummary previous = memberAssertionStatusSummaryRepository.findById("member-1").get();
+        assertThat(previous.getVersion()).isEqualTo(1L);
+
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.saveIfUnchanged(getSummary("member-1", 3L), previous)).isTrue();
+        MemberAssertionStatusSummary saved = memberAssertionStatusSummaryRepository.findById("member-1").get();
+        assertThat(saved.getStatusCounts()).containsOnly(entry("PENDING", 3L));
+        assertThat(saved.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testSaveIfUnchangedKeepsConcurrentIncrements() {
+        memberAssertionStatusSummaryRepositoryCustom.incrementStatusCounts("member-1", Collections.singletonMap("PENDING", 2L));
+        MemberAssertionStatusSummary previous = memberAssertionStatusSummaryRepository.findById("member-1").get();
+
+        // counted while the recount was aggregating
+        memberAssertionStatusSummaryRepositoryCustom.incrementStatusCounts("member-1", Collections.singletonMap("PENDING", 1L));
+
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.saveIfUnchanged(getSummary("member-1", 2L), previous)).isFalse();
+        assertThat(memberAssertionStatusSummaryRepository.findById("member-1").get().getStatusCounts()).containsOnly(entry("PENDING", 3L));
+    }
+
+    @Test
+    public void testSaveIfUnchangedForNewMember() {
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.saveIfUnchanged(getSummary("member-1", 1L), null)).isTrue();
+        assertThat(memberAssertionStatusSummaryRepository.findById("member-1").get().getVersion()).isEqualTo(0L);
+
+        // first assertion counted while the recount was aggregating
+        memberAssertionStatusSummaryRepositoryCustom.incrementStatusCounts("member-2", Collections.singletonMap("PENDING", 1L));
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.saveIfUnchanged(getSummary("member-2", 0L), null)).isFalse();
+        assertThat(memberAssertionStatusSummaryRepository.findById("member-2").get().getStatusCounts()).containsOnly(entry("PENDING", 1L));
+    }
+
+    @Test
+    public void testSaveIfUnchangedForSummaryWithoutVersion() {
+        MemberAssertionStatusSummary unversioned = getSummary("member-1", 5L);
+        memberAssertionStatusSummaryRepository.save(unversioned);
+
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.saveIfUnchanged(getSummary("member-1", 4L), unversioned)).isTrue();
+        assertThat(memberAssertionStatusSummaryRepository.findById("member-1").get().getStatusCounts()).containsOnly(entry("PENDING", 4L));
+    }
+
+    @Test
+    public void testDeleteIfUnchanged() {
+        memberAssertionStatusSummaryRepositoryCustom.incrementStatusCounts("member-1", Collections.singletonMap("PENDING", 1L));
+        MemberAssertionStatusSummary previous = memberAssertionStatusSummaryRepository.findById("member-1").get();
+        memberAssertionStatusSummaryRepositoryCustom.incrementStatusCounts("member-1", Collections.singletonMap("PENDING", 1L));
+
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.deleteIfUnchanged(previous)).isFalse();
+        assertThat(memberAssertionStatusSummaryRepository.existsById("member-1")).isTrue();
+
+        previous = memberAssertionStatusSummaryRepository.findById("member-1").get();
+        assertThat(memberAssertionStatusSummaryRepositoryCustom.deleteIfUnchanged(previous)).isTrue();
+        assertThat(memberAssertionStatusSummaryRepository.existsById("member-1")).isFalse();
+    }
+
+    private MemberAssertionStatusSummary getSummary(String salesforceId, long pending) {
+        MemberAssertionStatusSummary summary = new MemberAssertionStatusSummary();
+        summary.setSalesforceId(salesforceId);
+        summary.getStatusCounts().put("PENDING", pending);
+        summary.setModified(Instant.now());
+        summary.setReconciled(Instant.now());
+        return summary;
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
+import org.orcid.memberportal.service.assertion.domain.OrcidToken;
+import org.orcid.memberportal.service.assertion.repository.OrcidRecordRepository;
+import org.orcid.memberportal.service.assertion.repository.OrcidRecordRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class OrcidRecordRepositoryCustomImplIT {
+
+    @Autowired
+    private OrcidRecordRepository orcidRecordRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private OrcidRecordRepositoryCustom orcidRecordRepositoryCustom;
+
+    @BeforeEach
+    public void setUp() {
+        orcidRecordRepositoryCustom = new OrcidRecordRepositoryCustomImpl(mongoTemplate);
+        orcidRecordRepository.deleteAll();
+
+        OrcidToken earlierMigration = new OrcidToken("member-2", "token-2");
+        earlierMigration.setSalesforceMigrationId("earlier-migration");
+        orcidRecordRepository.saveAll(Arrays.asList(getRecord("single", new OrcidToken("member-1", "token-1")),
+                getRecord("several", new OrcidToken("member-1", null), new OrcidToken("member-2", "token-2"), new OrcidToken("member-3", "token-3")),
+                getRecord("other", earlierMigration)));
+    }
+
+    @Test
+    public void testMigrateAndRollbackTokensSalesforceId() {
+        assertThat(orcidRecordRepositoryCustom.updateTokensSalesforceId("member-1", "member-new", "migration-1")).isEqualTo(2);
+
+        assertThat(getTokens("single")).extracting(OrcidToken::getSalesforceId, OrcidToken::getSalesforceMigrationId, OrcidToken::getTokenId)
+                .containsExactly(tuple("member-new", "migration-1", "token-1"));
+        assertThat(getTokens("several")).extracting(OrcidToken::getSalesforceId, OrcidToken::getSalesforceMigrationId).containsExactly(
+                tuple("member-new", "migration-1"), tuple("member-2", null), tuple("member-3", null));
+        assertThat(getTokens("other")).extracting(OrcidToken::getSalesforceId, OrcidToken::getSalesforceMigrationId)
+                .containsExactly(tuple("member-2", "earlier-migration"));
+
+        // running it again changes nothing
+        assertThat(orcidRecordRepositoryCustom.updateTokensSalesforceId("member-1", "member-new", "migration-1")).isEqualTo(0);
+
+        // tokens added for the new member since aren't part of the migration
+        OrcidRecord other = orcidRecordRepository.findOneByEmail("other@orcid.org").get();
+        other.getTokens().add(new OrcidToken("member-new", "token-new"));
+        orcidRecordRepository.save(other);
+
+        assertThat(orcidRecordRepositoryCustom.rollbackTokensSalesforceIdMigration("member-1", "member-new", "migration-1")).isEqualTo(2);
+
+        assertThat(getTokens("single")).extracting(OrcidToken::getSalesforceId, OrcidToken::getSalesforceMigrationId, OrcidToken::getTokenId)
+                .containsExactly(tuple("member-1", null, "token-1"));
+        assertThat(getTokens("several")).extracting(OrcidToken::getSalesforceId, OrcidToken::getSalesforceMigrationId).containsExactly(
+                tuple("member-1", null), tuple("member-2", null), tuple("member-3", null));
+        assertThat(getTokens("other")).extracting(OrcidToken::getSalesforceId, OrcidToken::getSalesforceMigrationId)
+                .containsExactly(tuple("member-2", "earlier-migration"), tuple("member-new", null));
+
+        // and rolling back another migration's tokens leaves these alone
+        assertThat(orcidRecordRepositoryCustom.rollbackTokensSalesforceIdMigration("member-1", "member-new", "migration-2")).isEqualTo(0);
+    }
+
+    private List<OrcidToken> getTokens(String name) {
+        return orcidRecordRepository.findOneByEmail(name + "@orcid.org").get().getTokens();
+    }
+
+    private OrcidRecord getRecord(String name, OrcidToken... tokens) {
+        OrcidRecord record = new OrcidRecord();
+        record.setEmail(name + "@orcid.org");
+        record.setTokens(new ArrayList<>(Arrays.asList(tokens)));
+        return record;
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.orcid.memberportal.service.assertion.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.domain.StoredFile;
+import org.orcid.memberportal.service.assertion.repository.StoredFileRepository;
+import org.orcid.memberportal.service.assertion.repository.StoredFileRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class StoredFileRepositoryCustomImplIT {
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private StoredFileRepositoryCustom storedFileRepositoryCustom;
+
+    @BeforeEach
+    public void setUp() {
+        storedFileRepositoryCustom = new StoredFileRepositoryCustomImpl(mongoTemplate);
+        storedFileRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindProcessedFilesToRemove() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        storedFileRepository.save(getStoredFile(now.minusSeconds(60), now.minus(1, ChronoUnit.DAYS)));
+        StoredFile earlier = storedFileRepository.save(getStoredFile(now.minusSeconds(120), now.minus(1, ChronoUnit.DAYS)));
+        storedFileRepository.save(getStoredFile(now.plusSeconds(60), now.minus(1, ChronoUnit.DAYS)));
+        storedFileRepository.save(getStoredFile(now.minusSeconds(60), null));
+
+        List<StoredFile> expired = storedFileRepositoryCustom.findProcessedFilesToRemove(null, now, 10);
+        assertThat(expired).hasSize(2);
+        assertThat(expired.get(0).getId()).isEqualTo(earlier.getId());
+    }
+
+    @Test
+    public void testFindProcessedFilesToRemoveWithSameRemovalDate() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant removalDate = now.minusSeconds(60);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(storedFileRepository.save(getStoredFile(removalDate, now.minus(1, ChronoUnit.DAYS))).getId());
+        }
+
+        // pages of two, every file read once
+        List<String> found = new ArrayList<>();
+        List<StoredFile> page = storedFileRepositoryCustom.findProcessedFilesToRemove(null, now, 2);
+        while (!page.isEmpty()) {
+            found.addAll(page.stream().map(StoredFile::getId).collect(Collectors.toList()));
+            page = storedFileRepositoryCustom.findProcessedFilesToRemove(page.get(page.size() - 1), now, 2);
+        }
+        assertThat(found).containsExactlyElementsOf(ids);
+    }
+
+    private StoredFile getStoredFile(Instant removalDate, Instant dateProcessed) {
+        StoredFile storedFile = new StoredFile();
+        storedFile.setFileLocation("location");
+        storedFile.setDateProcessed(dateProcessed);
+        storedFile.setRemovalDate(removalDate);
+        return storedFile;
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.orcid.memberportal.service.assertion.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link EncryptUtil}, which is called for every permission link
+ * generated, eg once per row of the permission links report. The input is the
+ * salesforce id and email pair that the links carry.
+ * <p>
+ * Run from the assertion-service directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.assertion.security.EncryptUtilBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-EncryptUtilBenchmark.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EncryptUtilBenchmark {
+
+    private static final String PLAIN_TEXT = "0011J00001Abcdefghij&&some.researcher@example.org";
+
+    private EncryptUtil encryptUtil;
+
+    private String encrypted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encryptUtil = new EncryptUtil();
+        encrypted = encryptUtil.encrypt(PLAIN_TEXT);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptUtil.encrypt(PLAIN_TEXT);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptUtil.decrypt(encrypted);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EncryptUtilBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + EncryptUtilBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+}
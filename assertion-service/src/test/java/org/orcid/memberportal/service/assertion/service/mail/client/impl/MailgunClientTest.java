@@ -2,8 +2,9 @@ package org.orcid.memberportal.service.assertion.service.mail.client.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -49,7 +50,8 @@ class MailgunClientTest {
     void testSendMailWithAttachment() throws MailException, ClientProtocolException, IOException {
         Mockito.when(client.execute(Mockito.any(HttpUriRequest.class))).thenReturn(getTestHttpResponse());
 
-        mailgunClient.sendMailWithAttachment("user@orcid.org", "test email with attachment", "<p>some html</p>", getAttachment());
+        mailgunClient.sendMailWithAttachment("user@orcid.org", "test email with attachment", "<p>some html</p>", getAttachment(),
+                "assertions-with-bad-email.csv");
 
         Mockito.verify(client).execute(postCaptor.capture());
         HttpPost capturedPost = postCaptor.getValue();
@@ -57,7 +59,10 @@ class MailgunClientTest {
         assertThat(capturedEntity.getContentType().getName()).isEqualTo("Content-Type");
         assertThat(capturedEntity.getContentType().getValue()).startsWith("multipart/form-data");
 
-        String data = new String(capturedEntity.getContent().readAllBytes(), "utf-8");
+        // the attachment is streamed, so the entity can only be written out
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        capturedEntity.writeTo(written);
+        String data = new String(written.toByteArray(), "utf-8");
         assertThat(data).contains("name=\"to\"");
         assertThat(data).contains("user@orcid.org");
         assertThat(data).contains("name=\"from\"");
@@ -102,8 +107,8 @@ class MailgunClientTest {
         return response;
     }
 
-    private File getAttachment() {
-        return new File(getClass().getResource("/assertions-with-bad-email.csv").getFile());
+    private InputStream getAttachment() {
+        return getClass().getResourceAsStream("/assertions-with-bad-email.csv");
     }
 
 }
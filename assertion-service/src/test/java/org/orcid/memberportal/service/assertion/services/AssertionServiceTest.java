@@ -10,13 +10,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.xml.bind.JAXBException;
@@ -28,19 +33,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.orcid.memberportal.service.assertion.client.OrcidAPIClient;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.csv.download.impl.AssertionsForEditCsvWriter;
 import org.orcid.memberportal.service.assertion.csv.download.impl.PermissionLinksCsvWriter;
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.AssertionsDeleteJob;
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
 import org.orcid.memberportal.service.assertion.domain.CsvReport;
-import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusCount;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
 import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
 import org.orcid.memberportal.service.assertion.domain.OrcidToken;
 import org.orcid.memberportal.service.assertion.domain.StoredFile;
@@ -48,17 +59,32 @@ import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSe
 import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
 import org.orcid.memberportal.service.assertion.domain.normalization.AssertionNormalizer;
 import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
+import org.orcid.memberportal.service.assertion.repository.AssertionsDeleteJobRepository;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepository;
+import org.orcid.memberportal.service.assertion.stats.MemberSyncBacklogMetrics;
+import org.orcid.memberportal.service.assertion.sync.AssertionsModifiedEvent;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUpload;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUploadSummary;
 import org.orcid.memberportal.service.assertion.upload.impl.AssertionsCsvReader;
+import org.orcid.memberportal.service.assertion.web.rest.errors.BadRequestAlertException;
 import org.orcid.memberportal.service.assertion.web.rest.errors.ORCIDAPIException;
 import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryDeleteFailureException;
+import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryThrottledException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class AssertionServiceTest {
 
     private static final String DEFAULT_JHI_USER_ID = "user-id";
@@ -103,6 +129,28 @@ class AssertionServiceTest {
     @Mock
     private MemberService memberService;
 
+    @Mock
+    private AssertionsUploadJobRepository assertionsUploadJobRepository;
+
+    @Mock
+    private AssertionsDeleteJobRepository assertionsDeleteJobRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Spy
+    private ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    @Mock
+    private MemberSyncBacklogMetrics memberSyncBacklogMetrics;
+
+    @Mock
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    private Map<String, StoredFile> storedFiles;
+
+    private Deque<AssertionsUploadJob> uploadJobQueue;
+
     @Captor
     private ArgumentCaptor<Assertion> assertionCaptor;
 
@@ -112,20 +160,23 @@ class AssertionServiceTest {
     @Captor
     private ArgumentCaptor<AssertionsUploadSummary> summaryCaptor;
 
-    @Captor
-    private ArgumentCaptor<Pageable> pageableCaptor;
-
     @Captor
     private ArgumentCaptor<StoredFile> storedFileCaptor;
 
     @Captor
     private ArgumentCaptor<String> filenameCaptor;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     @InjectMocks
     private AssertionService assertionService;
 
     @BeforeEach
-    public void setUp() throws JSONException {
+    public void setUp() throws JSONException, IOException {
         MockitoAnnotations.initMocks(this);
         when(assertionsUserService.getLoggedInUserSalesforceId()).thenReturn(DEFAULT_SALESFORCE_ID);
         when(assertionsUserService.getLoggedInUser()).thenReturn(getUser());
@@ -135,6 +186,33 @@ class AssertionServiceTest {
                 return invocation.getArgument(0);
             }
         });
+        setUpUploadJobQueue();
+    }
+
+    private void setUpUploadJobQueue() throws IOException {
+        storedFiles = new HashMap<>();
+        uploadJobQueue = new ArrayDeque<>();
+        when(storedFileService.getStoredFile(Mockito.anyString())).thenAnswer(invocation -> Optional.ofNullable(storedFiles.get(invocation.getArgument(0))));
+        when(storedFileService.openStoredFile(Mockito.any(StoredFile.class)))
+                .thenAnswer(invocation -> new FileInputStream(invocation.<StoredFile> getArgument(0).getFileLocation()));
+        when(assertionsUploadJobRepository.insert(Mockito.any(AssertionsUploadJob.class))).thenAnswer(invocation -> {
+            AssertionsUploadJob job = invocation.getArgument(0);
+            job.setId("job-" + uploadJobQueue.size());
+            uploadJobQueue.add(job);
+            return job;
+        });
+        when(assertionsUploadJobRepository.claimNextJob(Mockito.anyString(), Mockito.any(Instant.class), Mockito.any(Instant.class))).thenAnswer(invocation -> {
+            AssertionsUploadJob job = uploadJobQueue.poll();
+            if (job != null) {
+                job.setStatus(AssertionsUploadJob.IN_PROGRESS_STATUS);
+                job.setLeaseOwner(invocation.getArgument(0));
+                job.setLeaseExpiry(invocation.getArgument(2));
+                job.setAttempts(job.getAttempts() + 1);
+            }
+            return job;
+        });
+        when(assertionsUploadJobRepository.saveProgress(Mockito.any(AssertionsUploadJob.class), Mockito.anyString())).thenReturn(true);
+        when(assertionsUploadJobRepository.renewLease(Mockito.anyString(), Mockito.anyString(), Mockito.any(Instant.class))).thenReturn(true);
     }
 
     private AssertionServiceUser getUser() {
@@ -148,9 +226,11 @@ class AssertionServiceTest {
 
     @Test
     void testMarkPendingAssertionsAsNotificationRequested() {
-        Mockito.doNothing().when(assertionRepository).updateStatusPendingToNotificationRequested(Mockito.eq("salesforce"));
+        Mockito.when(assertionRepository.updateStatusPendingToNotificationRequested(Mockito.eq("salesforce"))).thenReturn(7L);
         assertionService.markPendingAssertionsAsNotificationRequested("salesforce");
         Mockito.verify(assertionRepository).updateStatusPendingToNotificationRequested(Mockito.eq("salesforce"));
+        Mockito.verify(memberAssertionStatsService).assertionsStatusChanged(Mockito.eq("salesforce"), Mockito.eq(AssertionStatus.PENDING.name()),
+                Mockito.eq(AssertionStatus.NOTIFICATION_REQUESTED.name()), Mockito.eq(7L));
     }
 
     @Test
@@ -177,6 +257,7 @@ class AssertionServiceTest {
         assertEquals("this one sould be saved", captured.getRoleTitle());
         assertNotNull(captured.getOrcidId());
         assertEquals("orcid", captured.getOrcidId());
+        Mockito.verify(applicationEventPublisher).publishEvent(Mockito.any(AssertionsModifiedEvent.class));
     }
 
     @Test
@@ -200,6 +281,22 @@ class AssertionServiceTest {
         verify(assertionRepository).existsById(Mockito.eq("doesn't exist"));
     }
 
+    @Test
+    void testFindAssertionsForEditValidation() {
+        Assertion existing = new Assertion();
+        existing.setId("exists");
+        existing.setEmail("email@orcid.org");
+        when(assertionRepository.findOwnershipFieldsByIdIn(Mockito.anyCollection())).thenReturn(Arrays.asList(existing));
+
+        Map<String, Assertion> found = assertionService.findAssertionsForEditValidation(Arrays.asList("exists", "doesn't exist"));
+        assertThat(found).containsOnlyKeys("exists");
+        assertThat(found.get("exists").getEmail()).isEqualTo("email@orcid.org");
+        verify(assertionRepository, Mockito.times(1)).findOwnershipFieldsByIdIn(Mockito.anyCollection());
+
+        assertThat(assertionService.findAssertionsForEditValidation(new ArrayList<>())).isEmpty();
+        verify(assertionRepository, Mockito.times(1)).findOwnershipFieldsByIdIn(Mockito.anyCollection());
+    }
+
     @Test
     void testCreateAssertion() {
         Assertion a = new Assertion();
@@ -226,6 +323,7 @@ class AssertionServiceTest {
 
         Assertion inserted = assertionCaptor.getValue();
         assertEquals("orcid", inserted.getOrcidId());
+        Mockito.verify(applicationEventPublisher).publishEvent(Mockito.any(AssertionsModifiedEvent.class));
     }
 
     @Test
@@ -308,6 +406,26 @@ class AssertionServiceTest {
         Mockito.verify(assertionNormalizer, Mockito.times(1)).normalize(Mockito.eq(a));
     }
 
+    @Test
+    void testUpdateAssertion_pendingDelete() {
+        Assertion a = new Assertion();
+        a.setId("1");
+        a.setEmail("email");
+        a.setSalesforceId(DEFAULT_SALESFORCE_ID);
+        a.setStatus(AssertionStatus.PENDING_DELETE.name());
+        Mockito.when(assertionRepository.findById("1")).thenReturn(Optional.of(a));
+
+        Assertion edit = new Assertion();
+        edit.setId("1");
+        edit.setEmail("email");
+        edit.setSalesforceId(DEFAULT_SALESFORCE_ID);
+        Assertions.assertThrows(BadRequestAlertException.class, () -> {
+            assertionService.updateAssertion(edit, getUser());
+        });
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        assertEquals(AssertionStatus.PENDING_DELETE.name(), a.getStatus());
+    }
+
     @Test
     void testUpdateAssertion_previouslyAddedToRegistry() {
         Assertion a = new Assertion();
@@ -370,6 +488,12 @@ class AssertionServiceTest {
         full.setStatus(AssertionStatus.ERROR_UPDATING_TO_ORCID.name());
         testUpdateStatus(skeleton, full, AssertionStatus.PENDING_RETRY.name(), getOptionalOrcidRecordWithIdToken());
 
+        full.setStatus(AssertionStatus.SYNC_FAILED.name());
+        full.setRetryCount(8);
+        testUpdateStatus(skeleton, full, AssertionStatus.PENDING_RETRY.name(), getOptionalOrcidRecordWithIdToken());
+        assertEquals(0, full.getRetryCount());
+        assertNull(full.getNextAttemptAt());
+
         full.setStatus(AssertionStatus.ERROR_DELETING_IN_ORCID.name());
         testUpdateStatus(skeleton, full, AssertionStatus.ERROR_DELETING_IN_ORCID.name(), getOptionalOrcidRecordWithIdToken());
 
@@ -450,11 +574,14 @@ class AssertionServiceTest {
 
     @Test
     void testPostAssertionsToOrcid() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
-        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.any(Pageable.class)))
-                .thenReturn(getAssertionsForCreatingInOrcid(1, AssertionService.REGISTRY_SYNC_BATCH_SIZE))
-                .thenReturn(getAssertionsForCreatingInOrcid(AssertionService.REGISTRY_SYNC_BATCH_SIZE + 1,
-                        AssertionService.REGISTRY_SYNC_BATCH_SIZE + (AssertionService.REGISTRY_SYNC_BATCH_SIZE / 2)))
-                .thenReturn(new ArrayList<>());
+        applicationProperties.getRegistrySync().setAssertionsPerMemberTurn(AssertionService.REGISTRY_SYNC_BATCH_SIZE);
+        List<Assertion> firstTurn = getAssertionsForCreatingInOrcid(1, AssertionService.REGISTRY_SYNC_BATCH_SIZE);
+        List<Assertion> secondTurn = getAssertionsForCreatingInOrcid(AssertionService.REGISTRY_SYNC_BATCH_SIZE + 1,
+                AssertionService.REGISTRY_SYNC_BATCH_SIZE + (AssertionService.REGISTRY_SYNC_BATCH_SIZE / 2));
+        List<MemberSyncBacklog> backlogs = Arrays.asList(new MemberSyncBacklog(DEFAULT_SALESFORCE_ID, firstTurn.size() + secondTurn.size(), Instant.now()));
+        Mockito.when(assertionRepository.getMemberBacklogsToCreateInOrcidRegistry()).thenReturn(backlogs);
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.any(), Mockito.any(), Mockito.eq(AssertionService.REGISTRY_SYNC_BATCH_SIZE)))
+                .thenReturn(firstTurn).thenReturn(secondTurn).thenReturn(new ArrayList<>());
 
         for (int i = 1; i <= 5; i++) {
             Mockito.when(orcidRecordService.findOneByEmail(i + "@email.com")).thenReturn(Optional.of(getOrcidRecord(Integer.toString(i))));
@@ -474,28 +601,91 @@ class AssertionServiceTest {
         Mockito.verify(orcidRecordService, Mockito.times(AssertionService.REGISTRY_SYNC_BATCH_SIZE + (AssertionService.REGISTRY_SYNC_BATCH_SIZE / 2)))
                 .findOneByEmail(Mockito.anyString());
         Mockito.verify(orcidAPIClient, Mockito.times(5)).postAffiliation(Mockito.anyString(), Mockito.anyString(), assertionCaptor.capture());
-        Mockito.verify(assertionRepository, Mockito.times(3)).findAllToCreateInOrcidRegistry(pageableCaptor.capture());
 
-        List<Pageable> pageables = pageableCaptor.getAllValues();
-        assertEquals(0, pageables.get(0).getPageNumber());
-        assertEquals(AssertionService.REGISTRY_SYNC_BATCH_SIZE, pageables.get(0).getPageSize());
-
-        assertEquals(1, pageables.get(1).getPageNumber());
-        assertEquals(AssertionService.REGISTRY_SYNC_BATCH_SIZE, pageables.get(0).getPageSize());
-
-        assertEquals(2, pageables.get(2).getPageNumber());
-        assertEquals(AssertionService.REGISTRY_SYNC_BATCH_SIZE, pageables.get(0).getPageSize());
+        // each turn carries on from the last assertion of the one before, then
+        // goes round again for anything modified since the sync started
+        ArgumentCaptor<Assertion> afterCaptor = ArgumentCaptor.forClass(Assertion.class);
+        ArgumentCaptor<Instant> modifiedSinceCaptor = ArgumentCaptor.forClass(Instant.class);
+        Mockito.verify(assertionRepository, Mockito.times(4)).findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), afterCaptor.capture(),
+                modifiedSinceCaptor.capture(), Mockito.eq(AssertionService.REGISTRY_SYNC_BATCH_SIZE));
+        List<Assertion> afters = afterCaptor.getAllValues();
+        assertNull(afters.get(0));
+        assertEquals(firstTurn.get(firstTurn.size() - 1), afters.get(1));
+        assertEquals(secondTurn.get(secondTurn.size() - 1), afters.get(2));
+        assertNull(afters.get(3));
+        assertNull(modifiedSinceCaptor.getAllValues().get(2));
+        assertNotNull(modifiedSinceCaptor.getAllValues().get(3));
+
+        // backlogs read again once the member's turns run out
+        Mockito.verify(assertionRepository, Mockito.times(2)).getMemberBacklogsToCreateInOrcidRegistry();
+        Mockito.verify(memberSyncBacklogMetrics, Mockito.times(2)).record(Mockito.eq("create"), Mockito.eq(backlogs));
 
         List<Assertion> posted = assertionCaptor.getAllValues();
         posted.forEach(a -> {
             assertNotNull(a.getLastSyncAttempt());
             assertEquals(a.getLastSyncAttempt(), a.getAddedToORCID());
         });
+
+        assertEquals(2, meterRegistry.timer(AssertionService.SYNC_PAGE_METRIC, "operation", "create").count());
+        assertEquals(5, meterRegistry.counter(AssertionService.SYNC_ASSERTIONS_METRIC, "operation", "create", "outcome", "success").count(), 0.0001);
+    }
+
+    @Test
+    void testPostAssertionsToOrcidTakesMembersInTurns() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        applicationProperties.getRegistrySync().setAssertionsPerMemberTurn(2);
+        Mockito.when(assertionRepository.getMemberBacklogsToCreateInOrcidRegistry())
+                .thenReturn(Arrays.asList(new MemberSyncBacklog("large-member", 6, Instant.now()), new MemberSyncBacklog("small-member", 1, Instant.now())))
+                .thenReturn(new ArrayList<>());
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq("large-member"), Mockito.any(), Mockito.any(), Mockito.eq(2)))
+                .thenReturn(getAssertionsForCreatingInOrcid(1, 2)).thenReturn(getAssertionsForCreatingInOrcid(3, 4))
+                .thenReturn(getAssertionsForCreatingInOrcid(5, 6)).thenReturn(new ArrayList<>());
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq("small-member"), Mockito.any(), Mockito.any(), Mockito.eq(2)))
+                .thenReturn(getAssertionsForCreatingInOrcid(7, 7));
+        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+
+        assertionService.postAssertionsToOrcid();
+
+        // the small member doesn't wait for the large member's whole backlog
+        InOrder inOrder = Mockito.inOrder(orcidRecordService);
+        for (String email : new String[] { "1@email.com", "2@email.com", "7@email.com", "3@email.com", "4@email.com", "5@email.com", "6@email.com" }) {
+            inOrder.verify(orcidRecordService).findOneByEmail(email);
+        }
+        Mockito.verify(assertionRepository, Mockito.times(1)).findAllToCreateInOrcidRegistry(Mockito.eq("small-member"), Mockito.any(), Mockito.any(), Mockito.eq(2));
+        Mockito.verify(assertionRepository, Mockito.times(5)).findAllToCreateInOrcidRegistry(Mockito.eq("large-member"), Mockito.any(), Mockito.any(), Mockito.eq(2));
+        assertEquals(7, meterRegistry.counter(AssertionService.SYNC_ASSERTIONS_METRIC, "operation", "create", "outcome", "skipped").count(), 0.0001);
+    }
+
+    @Test
+    void testPostAssertionsToOrcidGoesRoundAgainForChangesBehindTurns() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        applicationProperties.getRegistrySync().setAssertionsPerMemberTurn(3);
+        Mockito.when(assertionRepository.getMemberBacklogsToCreateInOrcidRegistry())
+                .thenReturn(Arrays.asList(new MemberSyncBacklog(DEFAULT_SALESFORCE_ID, 2, Instant.now())))
+                .thenReturn(Arrays.asList(new MemberSyncBacklog(DEFAULT_SALESFORCE_ID, 1, Instant.now()))).thenReturn(new ArrayList<>());
+        List<Assertion> editedBehindTurn = getAssertionsForCreatingInOrcid(1, 1);
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.isNull(), Mockito.isNull(), Mockito.eq(3)))
+                .thenReturn(getAssertionsForCreatingInOrcid(2, 3));
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.isNotNull(), Mockito.any(), Mockito.eq(3)))
+                .thenReturn(new ArrayList<>());
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.isNull(), Mockito.isNotNull(), Mockito.eq(3)))
+                .thenReturn(editedBehindTurn).thenReturn(new ArrayList<>());
+        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+
+        assertionService.postAssertionsToOrcid();
+
+        InOrder inOrder = Mockito.inOrder(orcidRecordService);
+        for (String email : new String[] { "2@email.com", "3@email.com", "1@email.com" }) {
+            inOrder.verify(orcidRecordService).findOneByEmail(email);
+        }
+        Mockito.verify(orcidRecordService, Mockito.times(3)).findOneByEmail(Mockito.anyString());
+        Mockito.verify(assertionRepository, Mockito.times(3)).getMemberBacklogsToCreateInOrcidRegistry();
     }
 
     @Test
     void testPostAssertionsToOrcidWithRevokedTokens() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
-        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.any(Pageable.class)))
+        applicationProperties.getRegistrySync().setAssertionsPerMemberTurn(AssertionService.REGISTRY_SYNC_BATCH_SIZE);
+        Mockito.when(assertionRepository.getMemberBacklogsToCreateInOrcidRegistry())
+                .thenReturn(Arrays.asList(new MemberSyncBacklog(DEFAULT_SALESFORCE_ID, AssertionService.REGISTRY_SYNC_BATCH_SIZE, Instant.now())));
+        Mockito.when(assertionRepository.findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.any(), Mockito.any(), Mockito.eq(AssertionService.REGISTRY_SYNC_BATCH_SIZE)))
                 .thenReturn(getAssertionsForCreatingInOrcid(1, AssertionService.REGISTRY_SYNC_BATCH_SIZE)).thenReturn(new ArrayList<>());
 
         OrcidRecord recordWithRevokedToken = getOrcidRecordWithRevokedToken();
@@ -505,7 +695,10 @@ class AssertionServiceTest {
 
         Mockito.verify(orcidRecordService, Mockito.times(AssertionService.REGISTRY_SYNC_BATCH_SIZE)).findOneByEmail(Mockito.anyString());
         Mockito.verify(orcidAPIClient, Mockito.never()).postAffiliation(Mockito.anyString(), Mockito.anyString(), assertionCaptor.capture());
-        Mockito.verify(assertionRepository, Mockito.times(2)).findAllToCreateInOrcidRegistry(pageableCaptor.capture());
+        Mockito.verify(assertionRepository, Mockito.times(4)).findAllToCreateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.any(), Mockito.any(),
+                Mockito.eq(AssertionService.REGISTRY_SYNC_BATCH_SIZE));
+        assertEquals(AssertionService.REGISTRY_SYNC_BATCH_SIZE,
+                meterRegistry.counter(AssertionService.SYNC_ASSERTIONS_METRIC, "operation", "create", "outcome", "denied").count(), 0.0001);
     }
 
     @Test
@@ -590,6 +783,143 @@ class AssertionServiceTest {
         assertNull(saved.getUpdatedInORCID());
     }
 
+    @Test
+    void testPostAssertionToOrcid_throttledLeavesStatusUnchanged() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+        assertion.setStatus(AssertionStatus.PENDING.name());
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.doThrow(new RegistryThrottledException(429, "too many requests")).when(orcidAPIClient).postAffiliation(Mockito.eq("orcid1234"),
+                Mockito.eq("accessToken1234"), Mockito.any(Assertion.class));
+
+        assertionService.postAssertionToOrcid(assertion);
+
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        assertEquals(AssertionStatus.PENDING.name(), assertion.getStatus());
+        assertNull(assertion.getOrcidError());
+        assertEquals(1, meterRegistry.counter(AssertionService.SYNC_ASSERTIONS_METRIC, "operation", "create", "outcome", "throttled").count(), 0.0001);
+    }
+
+    @Test
+    void testPostAssertionToOrcid_errorBacksOffByErrorClass() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.doThrow(new ORCIDAPIException(500, "server error")).doThrow(new ORCIDAPIException(500, "server error"))
+                .doThrow(new ORCIDAPIException(400, "invalid data")).when(orcidAPIClient)
+                .postAffiliation(Mockito.eq("orcid1234"), Mockito.eq("accessToken1234"), Mockito.any(Assertion.class));
+
+        Instant start = Instant.now();
+        assertionService.postAssertionToOrcid(assertion);
+        assertEquals(1, assertion.getRetryCount());
+        assertBackoff(start, assertion.getNextAttemptAt(), applicationProperties.getRegistryRetries().getTransientErrorBackoffInMs());
+
+        start = Instant.now();
+        assertionService.postAssertionToOrcid(assertion);
+        assertEquals(2, assertion.getRetryCount());
+        assertBackoff(start, assertion.getNextAttemptAt(), applicationProperties.getRegistryRetries().getTransientErrorBackoffInMs() * 2);
+
+        start = Instant.now();
+        assertionService.postAssertionToOrcid(assertion);
+        assertEquals(3, assertion.getRetryCount());
+        assertBackoff(start, assertion.getNextAttemptAt(), applicationProperties.getRegistryRetries().getPermanentErrorBackoffInMs() * 4);
+        assertEquals(AssertionStatus.ERROR_ADDING_TO_ORCID.name(), assertion.getStatus());
+    }
+
+    @Test
+    void testPostAssertionToOrcid_backoffCapped() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+        assertion.setRetryCount(6);
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.doThrow(new ORCIDAPIException(400, "invalid data")).when(orcidAPIClient).postAffiliation(Mockito.eq("orcid1234"), Mockito.eq("accessToken1234"),
+                Mockito.any(Assertion.class));
+
+        Instant start = Instant.now();
+        assertionService.postAssertionToOrcid(assertion);
+
+        assertEquals(7, assertion.getRetryCount());
+        assertBackoff(start, assertion.getNextAttemptAt(), applicationProperties.getRegistryRetries().getMaxBackoffInMs());
+    }
+
+    @Test
+    void testPostAssertionToOrcid_syncFailedAfterMaxAttempts() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+        assertion.setRetryCount(applicationProperties.getRegistryRetries().getMaxAttempts() - 1);
+        assertion.setNextAttemptAt(Instant.now());
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.doThrow(new ORCIDAPIException(500, "server error")).when(orcidAPIClient).postAffiliation(Mockito.eq("orcid1234"), Mockito.eq("accessToken1234"),
+                Mockito.any(Assertion.class));
+
+        assertionService.postAssertionToOrcid(assertion);
+
+        Mockito.verify(assertionRepository, Mockito.times(1)).save(assertionCaptor.capture());
+        Assertion saved = assertionCaptor.getValue();
+        assertEquals(AssertionStatus.SYNC_FAILED.name(), saved.getStatus());
+        assertEquals(applicationProperties.getRegistryRetries().getMaxAttempts(), saved.getRetryCount());
+        assertNull(saved.getNextAttemptAt());
+        assertNotNull(saved.getOrcidError());
+    }
+
+    @Test
+    void testPutAssertionToOrcid_syncFailedAfterRepeatedNotFound() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+        assertion.setPutCode("putCode1234");
+        assertion.setAddedToORCID(Instant.now().minusSeconds(3600));
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.doThrow(new ORCIDAPIException(404, "not found")).when(orcidAPIClient).putAffiliation(Mockito.eq("orcid1234"), Mockito.eq("accessToken1234"),
+                Mockito.any(Assertion.class));
+
+        // backs off while the record may come back
+        int maxAttempts = applicationProperties.getRegistryRetries().getMaxAttempts();
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            assertionService.putAssertionInOrcid(assertion);
+            assertEquals(AssertionStatus.USER_DELETED_FROM_ORCID.name(), assertion.getStatus());
+            assertNotNull(assertion.getNextAttemptAt());
+        }
+
+        // then stops syncing it
+        assertionService.putAssertionInOrcid(assertion);
+        assertEquals(AssertionStatus.SYNC_FAILED.name(), assertion.getStatus());
+        assertEquals(maxAttempts, assertion.getRetryCount());
+        assertNull(assertion.getNextAttemptAt());
+        Mockito.verify(orcidAPIClient, Mockito.times(maxAttempts)).putAffiliation(Mockito.eq("orcid1234"), Mockito.eq("accessToken1234"),
+                Mockito.any(Assertion.class));
+    }
+
+    @Test
+    void testPostAssertionToOrcid_successResetsRetries() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+        assertion.setStatus(AssertionStatus.ERROR_ADDING_TO_ORCID.name());
+        assertion.setRetryCount(3);
+        assertion.setNextAttemptAt(Instant.now().minusSeconds(1));
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.when(orcidAPIClient.postAffiliation(Mockito.eq("orcid1234"), Mockito.eq("accessToken1234"), Mockito.any(Assertion.class))).thenReturn("putCode1234");
+
+        assertionService.postAssertionToOrcid(assertion);
+
+        Mockito.verify(assertionRepository, Mockito.times(1)).save(assertionCaptor.capture());
+        Assertion saved = assertionCaptor.getValue();
+        assertEquals(AssertionStatus.IN_ORCID.name(), saved.getStatus());
+        assertEquals(0, saved.getRetryCount());
+        assertNull(saved.getNextAttemptAt());
+    }
+
     @Test
     void testPostAssertionToOrcid_statusPendingRetryToInOrcid() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
         OrcidRecord orcidRecord = getOrcidRecord("1234");
@@ -614,7 +944,10 @@ class AssertionServiceTest {
 
     @Test
     void testPutAssertionsToOrcid() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
-        Mockito.when(assertionRepository.findAllToUpdateInOrcidRegistry(Mockito.any(Pageable.class)))
+        applicationProperties.getRegistrySync().setAssertionsPerMemberTurn(AssertionService.REGISTRY_SYNC_BATCH_SIZE);
+        Mockito.when(assertionRepository.getMemberBacklogsToUpdateInOrcidRegistry())
+                .thenReturn(Arrays.asList(new MemberSyncBacklog(DEFAULT_SALESFORCE_ID, (long) (AssertionService.REGISTRY_SYNC_BATCH_SIZE * 1.5), Instant.now())));
+        Mockito.when(assertionRepository.findAllToUpdateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.any(), Mockito.any(), Mockito.eq(AssertionService.REGISTRY_SYNC_BATCH_SIZE)))
                 .thenReturn(getAssertionsForUpdateInOrcid(1, AssertionService.REGISTRY_SYNC_BATCH_SIZE))
                 .thenReturn(getAssertionsForUpdateInOrcid(AssertionService.REGISTRY_SYNC_BATCH_SIZE + 1, (int) (AssertionService.REGISTRY_SYNC_BATCH_SIZE * 1.5)))
                 .thenReturn(new ArrayList<>());
@@ -644,6 +977,10 @@ class AssertionServiceTest {
         Mockito.verify(orcidAPIClient, Mockito.times(5)).exchangeToken(Mockito.anyString());
         Mockito.verify(orcidAPIClient, Mockito.times(5)).putAffiliation(Mockito.anyString(), Mockito.anyString(), assertionCaptor.capture());
 
+        Mockito.verify(assertionRepository, Mockito.times(4)).findAllToUpdateInOrcidRegistry(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.any(), Mockito.any(),
+                Mockito.eq(AssertionService.REGISTRY_SYNC_BATCH_SIZE));
+        Mockito.verify(memberSyncBacklogMetrics, Mockito.times(2)).record(Mockito.eq("update"), Mockito.anyList());
+
         List<Assertion> posted = assertionCaptor.getAllValues();
         posted.forEach(a -> assertNotNull(a.getLastSyncAttempt()));
     }
@@ -767,6 +1104,28 @@ class AssertionServiceTest {
         assertEquals(AssertionStatus.ERROR_UPDATING_TO_ORCID.name(), saved.getStatus());
     }
 
+    @Test
+    void testPutAssertionInOrcid_throttledLeavesStatusUnchanged() throws org.json.JSONException, ClientProtocolException, IOException, JAXBException {
+        OrcidRecord orcidRecord = getOrcidRecord("1234");
+        Assertion assertion = getAssertionWithEmail("test@orcid.org");
+        assertion.setPutCode("something");
+        assertion.setAddedToORCID(Instant.now());
+        assertion.setModified(Instant.now());
+        assertion.setStatus(AssertionStatus.PENDING_UPDATE.name());
+
+        Mockito.when(orcidRecordService.findOneByEmail("test@orcid.org")).thenReturn(Optional.of(orcidRecord));
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.eq("idToken1234"))).thenReturn("accessToken1234");
+        Mockito.doThrow(new RegistryThrottledException(503, "service unavailable")).when(orcidAPIClient).putAffiliation(Mockito.eq("orcid1234"),
+                Mockito.eq("accessToken1234"), Mockito.any(Assertion.class));
+
+        assertionService.putAssertionInOrcid(assertion);
+
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        assertEquals(AssertionStatus.PENDING_UPDATE.name(), assertion.getStatus());
+        assertNull(assertion.getOrcidError());
+        assertEquals(1, meterRegistry.counter(AssertionService.SYNC_ASSERTIONS_METRIC, "operation", "update", "outcome", "throttled").count(), 0.0001);
+    }
+
     // @Test
     // void testDeleteAssertionFromOrcidRegistry_successfulDelete() throws
     // org.json.JSONException, ClientProtocolException, IOException {
@@ -915,7 +1274,7 @@ class AssertionServiceTest {
         Mockito.verify(orcidRecordService, Mockito.atLeastOnce()).findOneByEmail(Mockito.eq("test@orcid.org"));
         Mockito.verify(orcidAPIClient, Mockito.times(1)).exchangeToken(Mockito.anyString());
         Mockito.verify(orcidAPIClient, Mockito.times(1)).deleteAffiliation(Mockito.anyString(), Mockito.eq("exchange-token"), Mockito.any(Assertion.class));
-
+        Mockito.verify(memberAssertionStatsService).assertionsDeleted(Mockito.eq("salesforce-id"), Mockito.eq(assertion.getStatus()), Mockito.eq(1L));
     }
 
     @Test
@@ -1069,29 +1428,115 @@ class AssertionServiceTest {
     }
 
     @Test
-    void testDeleteAllBySalesforceId_orcidRecordsDeleted() {
-        Mockito.when(assertionRepository.findBySalesforceId(Mockito.eq("salesforce-id"), Mockito.any(Sort.class))).thenReturn(getAssertionsForUpdateInOrcid(1, 20));
-        Mockito.doNothing().when(assertionRepository).deleteById(Mockito.anyString());
-        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+    void testDeleteAllBySalesforceId_jobQueued() {
+        Mockito.when(assertionRepository.updateStatusToPendingDelete(Mockito.eq("salesforce-id"))).thenReturn(20l);
+        Mockito.when(assertionsDeleteJobRepository.findFirstBySalesforceIdAndStatusIn(Mockito.eq("salesforce-id"), Mockito.anyList())).thenReturn(Optional.empty());
+        Mockito.when(assertionsDeleteJobRepository.insert(Mockito.any(AssertionsDeleteJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        assertionService.deleteAllBySalesforceId("salesforce-id");
+        AssertionsDeleteJob job = assertionService.deleteAllBySalesforceId("salesforce-id");
 
-        Mockito.verify(assertionRepository, Mockito.times(1)).findBySalesforceId(Mockito.eq("salesforce-id"), Mockito.any(Sort.class));
-        Mockito.verify(assertionRepository, Mockito.times(20)).deleteById(Mockito.anyString());
-        Mockito.verify(orcidRecordService, Mockito.never()).deleteOrcidRecord(Mockito.any(OrcidRecord.class));
+        assertEquals("salesforce-id", job.getSalesforceId());
+        assertEquals(AssertionsDeleteJob.PENDING_STATUS, job.getStatus());
+        assertEquals(20l, job.getTotalAssertions());
+        assertNotNull(job.getDateCreated());
+        Mockito.verify(assertionRepository, Mockito.never()).deleteById(Mockito.anyString());
+        Mockito.verify(assertionRepository, Mockito.never()).deleteByIdIn(Mockito.anyCollection());
+        Mockito.verifyZeroInteractions(orcidAPIClient);
     }
 
     @Test
-    void testDeleteAllBySalesforceId_orcidRecordsNotDeleted() {
-        Mockito.when(assertionRepository.findBySalesforceId(Mockito.eq("salesforce-id"), Mockito.any(Sort.class))).thenReturn(getAssertionsForUpdateInOrcid(1, 20));
-        Mockito.doNothing().when(assertionRepository).deleteById(Mockito.anyString());
-        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(getOptionalOrcidRecordWithoutIdToken());
+    void testDeleteAllBySalesforceId_existingJobReused() {
+        AssertionsDeleteJob existing = getAssertionsDeleteJob();
+        existing.setTotalAssertions(20);
+        Mockito.when(assertionRepository.updateStatusToPendingDelete(Mockito.eq(DEFAULT_SALESFORCE_ID))).thenReturn(2l);
+        Mockito.when(assertionsDeleteJobRepository.findFirstBySalesforceIdAndStatusIn(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.anyList()))
+                .thenReturn(Optional.of(existing));
+        Mockito.when(assertionsDeleteJobRepository.save(Mockito.any(AssertionsDeleteJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        assertionService.deleteAllBySalesforceId("salesforce-id");
+        AssertionsDeleteJob job = assertionService.deleteAllBySalesforceId(DEFAULT_SALESFORCE_ID);
 
-        Mockito.verify(assertionRepository, Mockito.times(1)).findBySalesforceId(Mockito.eq("salesforce-id"), Mockito.any(Sort.class));
-        Mockito.verify(assertionRepository, Mockito.times(20)).deleteById(Mockito.anyString());
-        Mockito.verify(orcidRecordService, Mockito.times(20)).deleteOrcidRecordByEmail(Mockito.anyString());
+        assertEquals("job", job.getId());
+        assertEquals(22l, job.getTotalAssertions());
+        Mockito.verify(assertionsDeleteJobRepository, Mockito.never()).insert(Mockito.any(AssertionsDeleteJob.class));
+    }
+
+    @Test
+    void testProcessAssertionDeletes() throws org.json.JSONException, ClientProtocolException, IOException {
+        AssertionsDeleteJob job = getAssertionsDeleteJob();
+        List<Assertion> firstBatch = getAssertionsForUpdateInOrcid(1, 3);
+        firstBatch.get(2).setPutCode(null);
+        Mockito.when(assertionsDeleteJobRepository.findByStatusInOrderByDateCreatedAsc(Mockito.anyList())).thenReturn(Arrays.asList(job));
+        Mockito.when(assertionRepository.findBySalesforceIdAndStatus(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(AssertionStatus.PENDING_DELETE.name()),
+                Mockito.any(Pageable.class))).thenReturn(firstBatch).thenReturn(getAssertionsForUpdateInOrcid(4, 5)).thenReturn(new ArrayList<>());
+        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(getOptionalOrcidRecordWithIdToken());
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.anyString())).thenReturn("exchange-token");
+        Mockito.when(assertionRepository.countByEmailAndSalesforceId(Mockito.anyString(), Mockito.eq(DEFAULT_SALESFORCE_ID))).thenReturn(0l);
+        Mockito.when(assertionRepository.deleteByIdIn(Mockito.anyCollection())).thenReturn(3L).thenReturn(2L);
+
+        assertionService.processAssertionDeletes();
+
+        Mockito.verify(memberAssertionStatsService).assertionsDeleted(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(AssertionStatus.PENDING_DELETE.name()), Mockito.eq(3L));
+        Mockito.verify(memberAssertionStatsService).assertionsDeleted(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(AssertionStatus.PENDING_DELETE.name()), Mockito.eq(2L));
+        Mockito.verify(orcidAPIClient, Mockito.times(4)).deleteAffiliation(Mockito.eq("orcid"), Mockito.eq("exchange-token"), Mockito.any(Assertion.class));
+        Mockito.verify(assertionRepository).deleteByIdIn(Mockito.eq(Arrays.asList("id1", "id2", "id3")));
+        Mockito.verify(assertionRepository).deleteByIdIn(Mockito.eq(Arrays.asList("id4", "id5")));
+        Mockito.verify(assertionRepository, Mockito.never()).deleteById(Mockito.anyString());
+        Mockito.verify(orcidRecordService, Mockito.times(5)).deleteOrcidRecordTokenByEmailAndSalesforceId(Mockito.anyString(), Mockito.eq(DEFAULT_SALESFORCE_ID));
+        assertEquals(AssertionsDeleteJob.COMPLETE_STATUS, job.getStatus());
+        assertEquals(5, job.getNumDeleted());
+        assertNotNull(job.getDateCompleted());
+        assertTrue(job.getRegistryDeleteFailures().isEmpty());
+    }
+
+    @Test
+    void testProcessAssertionDeletes_registryFailureRecorded() throws org.json.JSONException, ClientProtocolException, IOException {
+        AssertionsDeleteJob job = getAssertionsDeleteJob();
+        Mockito.when(assertionsDeleteJobRepository.findByStatusInOrderByDateCreatedAsc(Mockito.anyList())).thenReturn(Arrays.asList(job));
+        Mockito.when(assertionRepository.findBySalesforceIdAndStatus(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(AssertionStatus.PENDING_DELETE.name()),
+                Mockito.any(Pageable.class))).thenReturn(getAssertionsForUpdateInOrcid(1, 2)).thenReturn(new ArrayList<>());
+        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(getOptionalOrcidRecordWithIdToken());
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.anyString())).thenReturn("exchange-token");
+        Mockito.doThrow(new ORCIDAPIException(500, "server error")).doNothing().when(orcidAPIClient).deleteAffiliation(Mockito.eq("orcid"),
+                Mockito.eq("exchange-token"), Mockito.any(Assertion.class));
+        Mockito.when(assertionRepository.deleteByIdIn(Mockito.anyList())).thenReturn(2L);
+
+        assertionService.processAssertionDeletes();
+
+        // the member's data goes even if the registry delete failed
+        Mockito.verify(assertionRepository).deleteByIdIn(Mockito.eq(Arrays.asList("id1", "id2")));
+        assertEquals(AssertionsDeleteJob.COMPLETE_STATUS, job.getStatus());
+        assertEquals(Arrays.asList("id1"), job.getRegistryDeleteFailures());
+        assertEquals(1, job.getNumRegistryDeleteFailures());
+
+        // still pending delete, so the removal is counted once
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        Mockito.verify(memberAssertionStatsService).assertionsDeleted(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(AssertionStatus.PENDING_DELETE.name()),
+                Mockito.eq(2L));
+    }
+
+    @Test
+    void testProcessAssertionDeletes_throttled() throws org.json.JSONException, ClientProtocolException, IOException {
+        AssertionsDeleteJob job = getAssertionsDeleteJob();
+        AssertionsDeleteJob nextJob = getAssertionsDeleteJob();
+        nextJob.setSalesforceId("next-salesforce-id");
+        Mockito.when(assertionsDeleteJobRepository.findByStatusInOrderByDateCreatedAsc(Mockito.anyList())).thenReturn(Arrays.asList(job, nextJob));
+        Mockito.when(assertionRepository.findBySalesforceIdAndStatus(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(AssertionStatus.PENDING_DELETE.name()),
+                Mockito.any(Pageable.class))).thenReturn(getAssertionsForUpdateInOrcid(1, 3));
+        Mockito.when(orcidRecordService.findOneByEmail(Mockito.anyString())).thenReturn(getOptionalOrcidRecordWithIdToken());
+        Mockito.when(orcidAPIClient.exchangeToken(Mockito.anyString())).thenReturn("exchange-token");
+        Mockito.when(assertionRepository.countByEmailAndSalesforceId(Mockito.anyString(), Mockito.eq(DEFAULT_SALESFORCE_ID))).thenReturn(0l);
+        Mockito.doNothing().doThrow(new RegistryThrottledException(429, "too many requests")).when(orcidAPIClient).deleteAffiliation(Mockito.eq("orcid"),
+                Mockito.eq("exchange-token"), Mockito.any(Assertion.class));
+
+        assertionService.processAssertionDeletes();
+
+        Mockito.verify(assertionRepository).deleteByIdIn(Mockito.eq(Arrays.asList("id1")));
+        Mockito.verify(assertionRepository, Mockito.never()).findBySalesforceIdAndStatus(Mockito.eq("next-salesforce-id"), Mockito.anyString(),
+                Mockito.any(Pageable.class));
+        Mockito.verify(assertionsDeleteJobRepository).save(Mockito.eq(job));
+        assertEquals(AssertionsDeleteJob.IN_PROGRESS_STATUS, job.getStatus());
+        assertEquals(1, job.getNumDeleted());
+        assertTrue(job.getRegistryDeleteFailures().isEmpty());
     }
 
     @Test
@@ -1114,6 +1559,31 @@ class AssertionServiceTest {
         assertEquals(AssertionStatus.PENDING.getValue(), page.getContent().get(0).getPrettyStatus());
     }
 
+    @Test
+    void testExportCurrentMemberAssertions() throws IOException {
+        Instant modifiedSince = Instant.parse("2026-01-01T00:00:00Z");
+        Assertion first = getAssertionWithEmail("first@orcid.org");
+        first.setModified(modifiedSince.plusSeconds(60));
+        Assertion second = getAssertionWithEmail("second@orcid.org");
+
+        @SuppressWarnings("unchecked")
+        CloseableIterator<Assertion> iterator = Mockito.mock(CloseableIterator.class);
+        Mockito.when(iterator.hasNext()).thenReturn(true, true, false);
+        Mockito.when(iterator.next()).thenReturn(first, second);
+        Mockito.when(assertionsUserService.getLoggedInUserSalesforceId()).thenReturn(DEFAULT_SALESFORCE_ID);
+        Mockito.when(assertionRepository.streamBySalesforceId(Mockito.eq(DEFAULT_SALESFORCE_ID), Mockito.eq(modifiedSince))).thenReturn(iterator);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertionService.exportCurrentMemberAssertions(modifiedSince, out);
+
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("first@orcid.org", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals("2026-01-01T00:01:00Z", objectMapper.readTree(lines[0]).get("modified").asText());
+        assertEquals("second@orcid.org", objectMapper.readTree(lines[1]).get("email").asText());
+        Mockito.verify(iterator).close();
+    }
+
     //
     // @Test
     // void testDeleteAssertionFromOrcidRegistry_wrongSalesforceId() throws
@@ -1348,11 +1818,305 @@ class AssertionServiceTest {
         MultipartFile file = Mockito.mock(MultipartFile.class);
         Mockito.when(file.getOriginalFilename()).thenReturn("some-file.csv");
         Mockito.when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
-        assertionService.uploadAssertions(file);
+        StoredFile storedFile = getDummyStoredFile();
+        Mockito.when(storedFileService.storeAssertionsCsvFile(Mockito.any(InputStream.class), Mockito.anyString(), Mockito.any(AssertionServiceUser.class)))
+                .thenReturn(storedFile);
+        AssertionsUploadJob job = assertionService.uploadAssertions(file);
         Mockito.verify(storedFileService).storeAssertionsCsvFile(Mockito.any(InputStream.class), filenameCaptor.capture(), Mockito.any(AssertionServiceUser.class));
 
         String filename = filenameCaptor.getValue();
         assertEquals("some-file.csv", filename);
+
+        assertEquals(storedFile.getId(), job.getStoredFileId());
+        assertEquals("owner", job.getOwnerId());
+        assertEquals(AssertionsUploadJob.PENDING_STATUS, job.getStatus());
+        Mockito.verify(assertionsUploadJobRepository).insert(Mockito.any(AssertionsUploadJob.class));
+    }
+
+    @Test
+    void testProcessAssertionUploadsCheckpointsEachChunk() throws IOException {
+        applicationProperties.getAssertionUploads().setChunkSize(2);
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(getDummyStoredFile()));
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+        AssertionsUpload upload = getUploadWithEmails(5);
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+
+        assertionService.processAssertionUploads();
+
+        ArgumentCaptor<AssertionsUploadJob> jobCaptor = ArgumentCaptor.forClass(AssertionsUploadJob.class);
+        // three chunks and completion
+        Mockito.verify(assertionsUploadJobRepository, Mockito.times(4)).saveProgress(jobCaptor.capture(), Mockito.anyString());
+        AssertionsUploadJob job = jobCaptor.getValue();
+        assertEquals(AssertionsUploadJob.COMPLETE_STATUS, job.getStatus());
+        assertEquals(5, job.getTotalRows());
+        assertEquals(5, job.getRowsProcessed());
+        assertEquals(5, job.getNumAdded());
+        assertNotNull(job.getDateCompleted());
+
+        Mockito.verify(assertionRepository, Mockito.times(5)).insert(Mockito.any(Assertion.class));
+        Mockito.verify(mailService).sendAssertionsUploadSummaryMail(summaryCaptor.capture(), Mockito.any(AssertionServiceUser.class));
+        assertEquals(5, summaryCaptor.getValue().getNumAdded());
+        Mockito.verify(storedFileService).markAsProcessed(Mockito.any(StoredFile.class));
+    }
+
+    @Test
+    void testProcessAssertionUploadsResumesFromCheckpoint() throws IOException {
+        applicationProperties.getAssertionUploads().setChunkSize(2);
+        StoredFile storedFile = getDummyStoredFile();
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        job.setId("interrupted-job");
+        job.setStoredFileId(storedFile.getId());
+        job.setStatus(AssertionsUploadJob.IN_PROGRESS_STATUS);
+        job.setAttempts(1);
+        job.setTotalRows(4);
+        job.setRowsProcessed(2);
+        job.setNumAdded(2);
+        uploadJobQueue.add(job);
+
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(storedFile));
+        Mockito.when(assertionsUploadJobRepository.existsByStoredFileId(Mockito.eq(storedFile.getId()))).thenReturn(true);
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+        AssertionsUpload upload = getUploadWithEmails(4);
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+
+        assertionService.processAssertionUploads();
+
+        Mockito.verify(assertionsUploadJobRepository, Mockito.never()).insert(Mockito.any(AssertionsUploadJob.class));
+        Mockito.verify(assertionRepository, Mockito.times(2)).insert(assertionCaptor.capture());
+        assertEquals("3@email.com", assertionCaptor.getAllValues().get(0).getEmail());
+        assertEquals("4@email.com", assertionCaptor.getAllValues().get(1).getEmail());
+
+        Mockito.verify(mailService).sendAssertionsUploadSummaryMail(summaryCaptor.capture(), Mockito.any(AssertionServiceUser.class));
+        assertEquals(4, summaryCaptor.getValue().getNumAdded());
+        assertEquals(AssertionsUploadJob.COMPLETE_STATUS, job.getStatus());
+    }
+
+    @Test
+    void testProcessAssertionUploadsResumesChunkWithDeleteRow() throws IOException {
+        applicationProperties.getAssertionUploads().setChunkSize(4);
+        StoredFile storedFile = getDummyStoredFile();
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        job.setId("interrupted-job");
+        job.setStoredFileId(storedFile.getId());
+        job.setStatus(AssertionsUploadJob.IN_PROGRESS_STATUS);
+        job.setDateCreated(Instant.now().minusSeconds(60));
+        job.setAttempts(1);
+        job.setTotalRows(5);
+        uploadJobQueue.add(job);
+
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(storedFile));
+        Mockito.when(assertionsUploadJobRepository.existsByStoredFileId(Mockito.eq(storedFile.getId()))).thenReturn(true);
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+
+        // the previous attempt created row 1 and deleted row 3 before stopping
+        AssertionsUpload upload = getUploadWithEmails(2);
+        Assertion createdByLostAttempt = getAssertionWithEmail("1@email.com");
+        createdByLostAttempt.setId("created-by-lost-attempt");
+        createdByLostAttempt.setOwnerId(DEFAULT_JHI_USER_ID);
+        createdByLostAttempt.setCreated(Instant.now().minusSeconds(30));
+        Mockito.when(assertionRepository.findByEmailAndSalesforceId(Mockito.eq("1@email.com"), Mockito.eq(DEFAULT_SALESFORCE_ID)))
+                .thenReturn(Arrays.asList(createdByLostAttempt));
+        Assertion deleteRow = new Assertion();
+        deleteRow.setId("deleted-by-lost-attempt");
+        upload.getAssertions().add(2, deleteRow);
+        Mockito.when(assertionRepository.findById(Mockito.eq("deleted-by-lost-attempt"))).thenReturn(Optional.empty());
+
+        // a duplicate that was there before the upload
+        Assertion preExisting = getAssertionWithEmail("5@email.com");
+        preExisting.setId("pre-existing");
+        preExisting.setOwnerId(DEFAULT_JHI_USER_ID);
+        preExisting.setCreated(Instant.now().minusSeconds(3600));
+        Mockito.when(assertionRepository.findByEmailAndSalesforceId(Mockito.eq("5@email.com"), Mockito.eq(DEFAULT_SALESFORCE_ID)))
+                .thenReturn(Arrays.asList(preExisting));
+        upload.addAssertion(getAssertionWithEmail("5@email.com"));
+
+        // a row updating an assertion deleted since the upload was read
+        Assertion updateRow = getAssertionWithEmail("6@email.com");
+        updateRow.setId("deleted-since-read");
+        upload.addAssertion(updateRow);
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+
+        assertionService.processAssertionUploads();
+
+        Mockito.verify(assertionRepository).insert(assertionCaptor.capture());
+        assertEquals("2@email.com", assertionCaptor.getValue().getEmail());
+        Mockito.verify(assertionRepository, Mockito.never()).deleteById(Mockito.anyString());
+
+        assertEquals(AssertionsUploadJob.COMPLETE_STATUS, job.getStatus());
+        Mockito.verify(mailService).sendAssertionsUploadSummaryMail(summaryCaptor.capture(), Mockito.any(AssertionServiceUser.class));
+        AssertionsUploadSummary summary = summaryCaptor.getValue();
+        assertEquals(2, summary.getNumAdded());
+        assertEquals(1, summary.getNumDeleted());
+        assertEquals(1, summary.getNumDuplicates());
+        assertEquals(1, summary.getNumFailed());
+        assertEquals(5, job.getFailures().get(0).getIndex());
+    }
+
+    @Test
+    void testProcessAssertionUploadsLeavesAssertionsBeingDeleted() throws IOException {
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(getDummyStoredFile()));
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+
+        // both rows refer to assertions of a member whose assertions are all being deleted
+        AssertionsUpload upload = new AssertionsUpload();
+        Assertion updateRow = getAssertionWithEmail("1@email.com");
+        updateRow.setId("update-row");
+        upload.addAssertion(updateRow);
+        Assertion deleteRow = new Assertion();
+        deleteRow.setId("delete-row");
+        upload.addAssertion(deleteRow);
+        for (String id : new String[] { "update-row", "delete-row" }) {
+            Assertion pendingDelete = getAssertionWithEmail("1@email.com");
+            pendingDelete.setId(id);
+            pendingDelete.setSalesforceId(DEFAULT_SALESFORCE_ID);
+            pendingDelete.setStatus(AssertionStatus.PENDING_DELETE.name());
+            Mockito.when(assertionRepository.findById(Mockito.eq(id))).thenReturn(Optional.of(pendingDelete));
+        }
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+
+        assertionService.processAssertionUploads();
+
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        Mockito.verify(assertionRepository, Mockito.never()).deleteById(Mockito.anyString());
+        Mockito.verify(mailService).sendAssertionsUploadSummaryMail(summaryCaptor.capture(), Mockito.any(AssertionServiceUser.class));
+        AssertionsUploadSummary summary = summaryCaptor.getValue();
+        assertEquals(0, summary.getNumUpdated());
+        assertEquals(1, summary.getNumDeleted());
+        assertEquals(1, summary.getNumFailed());
+    }
+
+    @Test
+    void testProcessAssertionUploadsStopsWhenLeaseLost() throws IOException {
+        applicationProperties.getAssertionUploads().setChunkSize(2);
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(getDummyStoredFile()));
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+        AssertionsUpload upload = getUploadWithEmails(5);
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+        Mockito.when(assertionsUploadJobRepository.saveProgress(Mockito.any(AssertionsUploadJob.class), Mockito.anyString())).thenReturn(false);
+
+        assertionService.processAssertionUploads();
+
+        Mockito.verify(assertionRepository, Mockito.times(2)).insert(Mockito.any(Assertion.class));
+        Mockito.verify(mailService, Mockito.never()).sendAssertionsUploadSummaryMail(Mockito.any(AssertionsUploadSummary.class), Mockito.any(AssertionServiceUser.class));
+        Mockito.verify(storedFileService, Mockito.never()).markAsProcessed(Mockito.any(StoredFile.class));
+    }
+
+    @Test
+    void testProcessAssertionUploadsRenewsLeaseWithinChunk() throws IOException {
+        applicationProperties.getAssertionUploads().setChunkSize(4);
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(getDummyStoredFile()));
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+        AssertionsUpload upload = getUploadWithEmails(3);
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+
+        // claimed long enough ago for half the lease to have gone
+        Mockito.when(assertionsUploadJobRepository.claimNextJob(Mockito.anyString(), Mockito.any(Instant.class), Mockito.any(Instant.class))).thenAnswer(invocation -> {
+            AssertionsUploadJob job = uploadJobQueue.poll();
+            if (job != null) {
+                job.setStatus(AssertionsUploadJob.IN_PROGRESS_STATUS);
+                job.setLeaseOwner(invocation.getArgument(0));
+                job.setLeaseExpiry(Instant.now().plusSeconds(applicationProperties.getAssertionUploads().getLeaseInSeconds() / 2 - 1));
+                job.setAttempts(job.getAttempts() + 1);
+            }
+            return job;
+        });
+
+        assertionService.processAssertionUploads();
+
+        // renewed once before the first row, then not due again
+        Mockito.verify(assertionsUploadJobRepository).renewLease(Mockito.eq("job-0"), Mockito.anyString(), Mockito.any(Instant.class));
+        Mockito.verify(assertionRepository, Mockito.times(3)).insert(Mockito.any(Assertion.class));
+        Mockito.verify(mailService).sendAssertionsUploadSummaryMail(Mockito.any(AssertionsUploadSummary.class), Mockito.any(AssertionServiceUser.class));
+    }
+
+    @Test
+    void testProcessAssertionUploadsStopsWithinChunkWhenLeaseLost() throws IOException {
+        applicationProperties.getAssertionUploads().setChunkSize(4);
+        applicationProperties.getAssertionUploads().setLeaseInSeconds(0);
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(getDummyStoredFile()));
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+        AssertionsUpload upload = getUploadWithEmails(3);
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+        Mockito.when(assertionsUploadJobRepository.renewLease(Mockito.anyString(), Mockito.anyString(), Mockito.any(Instant.class))).thenReturn(true)
+                .thenReturn(false);
+
+        assertionService.processAssertionUploads();
+
+        Mockito.verify(assertionRepository, Mockito.times(1)).insert(Mockito.any(Assertion.class));
+        Mockito.verify(assertionsUploadJobRepository, Mockito.never()).saveProgress(Mockito.any(AssertionsUploadJob.class), Mockito.anyString());
+        Mockito.verify(mailService, Mockito.never()).sendAssertionsUploadSummaryMail(Mockito.any(AssertionsUploadSummary.class), Mockito.any(AssertionServiceUser.class));
+        Mockito.verify(storedFileService, Mockito.never()).markAsProcessed(Mockito.any(StoredFile.class));
+    }
+
+    @Test
+    void testProcessAssertionUploadsCountsRowsOfOtherOrganizationsAsFailed() throws IOException {
+        Mockito.when(storedFileService.getUnprocessedStoredFilesByType(Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE)))
+                .thenReturn(Arrays.asList(getDummyStoredFile()));
+        Mockito.when(assertionsUserService.getUserById(Mockito.eq("owner"))).thenReturn(getUser());
+
+        AssertionsUpload upload = getUploadWithEmails(2);
+        Assertion otherOrganization = getAssertionWithEmail("other@email.com");
+        otherOrganization.setId("other-org-assertion");
+        upload.addAssertion(otherOrganization);
+        Assertion existing = getAssertionWithEmail("other@email.com");
+        existing.setId("other-org-assertion");
+        existing.setSalesforceId("other-salesforce-id");
+        Mockito.when(assertionRepository.findById(Mockito.eq("other-org-assertion"))).thenReturn(Optional.of(existing));
+        Mockito.when(assertionsCsvReader.readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class))).thenReturn(upload);
+
+        assertionService.processAssertionUploads();
+
+        Mockito.verify(assertionRepository, Mockito.times(2)).insert(Mockito.any(Assertion.class));
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        Mockito.verify(mailService).sendAssertionsUploadSummaryMail(summaryCaptor.capture(), Mockito.any(AssertionServiceUser.class));
+        AssertionsUploadSummary summary = summaryCaptor.getValue();
+        assertEquals(2, summary.getNumAdded());
+        assertEquals(1, summary.getNumFailed());
+        assertTrue(summary.getErrors().isEmpty());
+
+        ArgumentCaptor<AssertionsUploadJob> jobCaptor = ArgumentCaptor.forClass(AssertionsUploadJob.class);
+        Mockito.verify(assertionsUploadJobRepository, Mockito.atLeastOnce()).saveProgress(jobCaptor.capture(), Mockito.anyString());
+        AssertionsUploadJob job = jobCaptor.getValue();
+        assertEquals(1, job.getFailures().size());
+        assertEquals(3, job.getFailures().get(0).getIndex());
+    }
+
+    @Test
+    void testProcessAssertionUploadsGivesUpAfterMaxAttempts() throws IOException {
+        StoredFile storedFile = getDummyStoredFile();
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        job.setId("failing-job");
+        job.setStoredFileId(storedFile.getId());
+        job.setStatus(AssertionsUploadJob.IN_PROGRESS_STATUS);
+        job.setAttempts(applicationProperties.getAssertionUploads().getMaxAttempts());
+        uploadJobQueue.add(job);
+        Mockito.when(assertionsUploadJobRepository.existsByStoredFileId(Mockito.eq(storedFile.getId()))).thenReturn(true);
+
+        assertionService.processAssertionUploads();
+
+        assertEquals(AssertionsUploadJob.FAILED_STATUS, job.getStatus());
+        assertNotNull(job.getError());
+        Mockito.verify(assertionsCsvReader, Mockito.never()).readAssertionsUpload(Mockito.any(InputStream.class), Mockito.any(AssertionServiceUser.class));
+        Mockito.verify(storedFileService).markAsProcessed(storedFileCaptor.capture());
+        assertEquals(job.getError(), storedFileCaptor.getValue().getError());
+        Mockito.verify(mailService, Mockito.never()).sendAssertionsUploadSummaryMail(Mockito.any(AssertionsUploadSummary.class), Mockito.any(AssertionServiceUser.class));
+    }
+
+    private AssertionsUpload getUploadWithEmails(int count) {
+        AssertionsUpload upload = new AssertionsUpload();
+        for (int i = 1; i <= count; i++) {
+            upload.addAssertion(getAssertionWithEmail(i + "@email.com"));
+            Mockito.when(orcidRecordService.findOneByEmail(Mockito.eq(i + "@email.com"))).thenReturn(Optional.of(new OrcidRecord()));
+        }
+        Mockito.when(assertionRepository.insert(Mockito.any(Assertion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return upload;
     }
 
     @Test
@@ -1640,11 +2404,13 @@ class AssertionServiceTest {
 
     private StoredFile getDummyStoredFile() {
         StoredFile storedFile = new StoredFile();
+        storedFile.setId("stored-file-" + storedFiles.size());
         storedFile.setFileLocation(getClass().getResource("/assertions-with-bad-url.csv").getFile()); // doesn't
                                                                                                       // matter
         storedFile.setOriginalFilename("original-filename.csv");
         storedFile.setDateWritten(Instant.now());
         storedFile.setOwnerId("owner");
+        storedFiles.put(storedFile.getId(), storedFile);
         return storedFile;
     }
 
@@ -1681,11 +2447,12 @@ class AssertionServiceTest {
 
     @Test
     public void testGenerateAndSendMemberAssertionStats() throws IOException {
-        Mockito.when(assertionRepository.getMemberAssertionStatusCounts()).thenReturn(getDummyAssertionStatusCounts());
-        Mockito.when(storedFileService.storeMemberAssertionStatsFile(Mockito.anyString())).thenReturn(new File("something"));
-        Mockito.doNothing().when(mailService).sendMemberAssertionStatsMail(Mockito.any(File.class));
+        Mockito.when(memberAssertionStatsService.getStatusSummaries()).thenReturn(getDummyAssertionStatusSummaries());
+        Mockito.when(storedFileService.storeMemberAssertionStatsFile(Mockito.anyString())).thenReturn(new StoredFile());
+        Mockito.doNothing().when(mailService).sendMemberAssertionStatsMail(Mockito.any(StoredFile.class));
         Mockito.when(memberService.getMemberName(Mockito.eq("salesforceId1"))).thenReturn("member 1");
         Mockito.when(memberService.getMemberName(Mockito.eq("salesforceId2"))).thenReturn("member 2");
+        Mockito.when(memberService.getMemberName(Mockito.eq("salesforceId3"))).thenReturn("member 3");
 
         assertionService.generateAndSendMemberAssertionStats();
 
@@ -1696,63 +2463,81 @@ class AssertionServiceTest {
         assertThat(csv).contains("member 2");
         assertThat(csv).contains("PENDING");
         assertThat(csv).contains("IN_ORCID");
+        // members left with no assertions aren't reported
+        assertThat(csv).doesNotContain("member 3");
+        assertThat(csv).doesNotContain("DELETED_IN_ORCID");
 
-        Mockito.verify(mailService).sendMemberAssertionStatsMail(Mockito.any(File.class));
+        Mockito.verify(mailService).sendMemberAssertionStatsMail(Mockito.any(StoredFile.class));
     }
 
     @Test
     void testUpdateAssertionsSalesforceId() {
-        List<Assertion> firstPage = getAssertionsForSalesforceId("salesforce-id", 0, AssertionService.REGISTRY_SYNC_BATCH_SIZE);
-        List<Assertion> secondPage = getAssertionsForSalesforceId("salesforce-id", AssertionService.REGISTRY_SYNC_BATCH_SIZE,
-                AssertionService.REGISTRY_SYNC_BATCH_SIZE * 2);
-        List<Assertion> thirdPage = getAssertionsForSalesforceId("salesforce-id", AssertionService.REGISTRY_SYNC_BATCH_SIZE * 2,
-                (AssertionService.REGISTRY_SYNC_BATCH_SIZE * 3) - 10);
-        ;
-        Mockito.when(assertionRepository.findBySalesforceId(Mockito.eq("salesforce-id"), Mockito.any(Pageable.class))).thenReturn(new PageImpl<Assertion>(firstPage))
-                .thenReturn(new PageImpl<Assertion>(secondPage)).thenReturn(new PageImpl<Assertion>(thirdPage)).thenReturn(new PageImpl<Assertion>(new ArrayList<>()));
+        Mockito.when(assertionRepository.updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenReturn(250L);
+        boolean success = assertionService.updateAssertionsSalesforceId("salesforce-id", "new-salesforce-id", "migration-id");
+        assertThat(success).isTrue();
+
+        Mockito.verify(assertionRepository).updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
+        Mockito.verify(orcidRecordService).updateTokensSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
+        Mockito.verify(assertionRepository, Mockito.never()).rollbackSalesforceIdMigration(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(assertionRepository, Mockito.never()).save(Mockito.any(Assertion.class));
+        Mockito.verify(memberAssertionStatsService).recount(Mockito.eq("salesforce-id"));
+        Mockito.verify(memberAssertionStatsService).recount(Mockito.eq("new-salesforce-id"));
+    }
+
+    @Test
+    void testUpdateAssertionsSalesforceIdGeneratesMigrationId() {
         boolean success = assertionService.updateAssertionsSalesforceId("salesforce-id", "new-salesforce-id");
         assertThat(success).isTrue();
 
-        Mockito.verify(assertionRepository, Mockito.times((AssertionService.REGISTRY_SYNC_BATCH_SIZE * 3) - 10)).save(assertionCaptor.capture());
-        List<Assertion> saved = assertionCaptor.getAllValues();
-        saved.forEach(a -> assertThat(a.getSalesforceId()).isEqualTo("new-salesforce-id"));
+        ArgumentCaptor<String> migrationIdCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(assertionRepository).updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), migrationIdCaptor.capture());
+        Mockito.verify(orcidRecordService).updateTokensSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"),
+                Mockito.eq(migrationIdCaptor.getValue()));
     }
 
     @Test
     void testUpdateAssertionsSalesforceIdWithFailure() {
-        List<Assertion> firstPage = getAssertionsForSalesforceId("salesforce-id", 0, AssertionService.REGISTRY_SYNC_BATCH_SIZE);
-        Mockito.when(assertionRepository.findBySalesforceId(Mockito.eq("salesforce-id"), Mockito.any(Pageable.class))).thenReturn(new PageImpl<Assertion>(firstPage));
-        
-        // representing updated assertions that need to be rolled back
-        Mockito.when(assertionRepository.findBySalesforceId(Mockito.eq("new-salesforce-id"), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<Assertion>(Arrays.asList(new Assertion(), new Assertion(), new Assertion()))).thenReturn(new PageImpl<Assertion>(new ArrayList<>())); 
-
-        // 3 successful updates before error, followed by rollback
-        Mockito.when(assertionRepository.save(Mockito.any(Assertion.class))).thenReturn(new Assertion()).thenReturn(new Assertion()).thenReturn(new Assertion())
-                .thenThrow(new RuntimeException("some random problem")).thenReturn(new Assertion()).thenReturn(new Assertion()).thenReturn(new Assertion());
+        Mockito.when(orcidRecordService.updateTokensSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenThrow(new RuntimeException("some random problem"));
 
-        boolean success = assertionService.updateAssertionsSalesforceId("salesforce-id", "new-salesforce-id");
+        boolean success = assertionService.updateAssertionsSalesforceId("salesforce-id", "new-salesforce-id", "migration-id");
         assertThat(success).isFalse();
 
-        // 3 updates followed by 1 failure and 3 rollbacks 
-        Mockito.verify(assertionRepository, Mockito.times(7)).save(assertionCaptor.capture()); 
-        List<Assertion> saved = assertionCaptor.getAllValues();
-        assertThat(saved.get(0).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(1).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(2).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(3).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(4).getSalesforceId()).isEqualTo("salesforce-id");
-        assertThat(saved.get(5).getSalesforceId()).isEqualTo("salesforce-id");
-        assertThat(saved.get(6).getSalesforceId()).isEqualTo("salesforce-id");
+        // assertions already moved are moved back, along with any tokens
+        Mockito.verify(assertionRepository).updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
+        Mockito.verify(assertionRepository).rollbackSalesforceIdMigration(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
+        Mockito.verify(orcidRecordService).rollbackTokensSalesforceIdMigration(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"),
+                Mockito.eq("migration-id"));
+    }
+
+    @Test
+    void testRollbackAssertionsSalesforceId() {
+        assertThat(assertionService.rollbackAssertionsSalesforceId("salesforce-id", "new-salesforce-id", "migration-id")).isTrue();
+        Mockito.verify(assertionRepository).rollbackSalesforceIdMigration(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
+        Mockito.verify(orcidRecordService).rollbackTokensSalesforceIdMigration(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"),
+                Mockito.eq("migration-id"));
+
+        Mockito.when(assertionRepository.rollbackSalesforceIdMigration(Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new RuntimeException("some random problem"));
+        assertThat(assertionService.rollbackAssertionsSalesforceId("salesforce-id", "new-salesforce-id", "migration-id")).isFalse();
     }
     
-    private List<MemberAssertionStatusCount> getDummyAssertionStatusCounts() {
-        List<MemberAssertionStatusCount> counts = new ArrayList<>();
-        counts.add(new MemberAssertionStatusCount("salesforceId1", "PENDING", 4));
-        counts.add(new MemberAssertionStatusCount("salesforceId1", "IN_ORCID", 12));
-        counts.add(new MemberAssertionStatusCount("salesforceId2", "PENDING", 220));
-        counts.add(new MemberAssertionStatusCount("salesforceId2", "IN_ORCID", 1));
-        return counts;
+    private List<MemberAssertionStatusSummary> getDummyAssertionStatusSummaries() {
+        List<MemberAssertionStatusSummary> summaries = new ArrayList<>();
+        summaries.add(getStatusSummary("salesforceId1", "PENDING", 4L, "IN_ORCID", 12L, "DELETED_IN_ORCID", 0L));
+        summaries.add(getStatusSummary("salesforceId2", "PENDING", 220L, "IN_ORCID", 1L));
+        summaries.add(getStatusSummary("salesforceId3", "PENDING", 0L));
+        return summaries;
+    }
+
+    private MemberAssertionStatusSummary getStatusSummary(String salesforceId, Object... statusCounts) {
+        MemberAssertionStatusSummary summary = new MemberAssertionStatusSummary();
+        summary.setSalesforceId(salesforceId);
+        for (int i = 0; i < statusCounts.length; i += 2) {
+            summary.getStatusCounts().put((String) statusCounts[i], (Long) statusCounts[i + 1]);
+        }
+        return summary;
     }
 
     private Assertion getAssertionWithoutIdForEmail(String email) {
@@ -1840,20 +2625,19 @@ class AssertionServiceTest {
         return assertions;
     }
 
-    private List<Assertion> getAssertionsForUpdateInOrcid(int from, int to) {
-        List<Assertion> assertions = new ArrayList<>();
-        for (int i = from; i <= to; i++) {
-            Assertion assertion = getAssertionWithEmailAndPutCode(i + "@email.com", String.valueOf(i));
-            assertions.add(assertion);
-        }
-        return assertions;
+    private AssertionsDeleteJob getAssertionsDeleteJob() {
+        AssertionsDeleteJob job = new AssertionsDeleteJob();
+        job.setId("job");
+        job.setSalesforceId(DEFAULT_SALESFORCE_ID);
+        job.setStatus(AssertionsDeleteJob.PENDING_STATUS);
+        job.setDateCreated(Instant.now());
+        return job;
     }
 
-    private List<Assertion> getAssertionsForSalesforceId(String salesforceId, int from, int to) {
+    private List<Assertion> getAssertionsForUpdateInOrcid(int from, int to) {
         List<Assertion> assertions = new ArrayList<>();
-        for (int i = from; i < to; i++) {
+        for (int i = from; i <= to; i++) {
             Assertion assertion = getAssertionWithEmailAndPutCode(i + "@email.com", String.valueOf(i));
-            assertion.setSalesforceId(salesforceId);
             assertions.add(assertion);
         }
         return assertions;
@@ -1903,6 +2687,12 @@ class AssertionServiceTest {
         return Optional.of(record);
     }
 
+    private void assertBackoff(Instant start, Instant nextAttemptAt, long expectedBackoffInMs) {
+        assertNotNull(nextAttemptAt);
+        assertFalse(nextAttemptAt.isBefore(start.plusMillis(expectedBackoffInMs)));
+        assertTrue(nextAttemptAt.isBefore(Instant.now().plusMillis(expectedBackoffInMs + 1)));
+    }
+
     private void testUpdateStatus(Assertion skeleton, Assertion full, String expectedStatus, Optional<OrcidRecord> optionalRecord) {
         Mockito.when(assertionRepository.findById("1")).thenReturn(Optional.of(full));
         Mockito.when(assertionRepository.save(Mockito.any(Assertion.class))).thenReturn(full);
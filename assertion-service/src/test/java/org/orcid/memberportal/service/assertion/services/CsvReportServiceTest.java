@@ -2,7 +2,6 @@ package org.orcid.memberportal.service.assertion.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.Arrays;
@@ -17,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.orcid.memberportal.service.assertion.csv.download.impl.AssertionsForEditCsvWriter;
 import org.orcid.memberportal.service.assertion.csv.download.impl.AssertionsReportCsvWriter;
 import org.orcid.memberportal.service.assertion.csv.download.impl.PermissionLinksCsvWriter;
@@ -26,6 +26,9 @@ import org.orcid.memberportal.service.assertion.domain.StoredFile;
 import org.orcid.memberportal.service.assertion.repository.CsvReportRepository;
 import org.springframework.context.MessageSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class CsvReportServiceTest {
 
     @Mock
@@ -55,6 +58,9 @@ class CsvReportServiceTest {
     @Captor
     private ArgumentCaptor<CsvReport> csvReportCaptor;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CsvReportService csvReportService;
 
@@ -78,7 +84,7 @@ class CsvReportServiceTest {
         Mockito.when(messageSource.getMessage(Mockito.eq("email.csvReport.permissionLinks.content"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("links content");
         Mockito.when(messageSource.getMessage(Mockito.eq("email.csvReport.affiliationStatusReport.subject"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("report subject");
         Mockito.when(messageSource.getMessage(Mockito.eq("email.csvReport.affiliationStatusReport.content"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("report content");
-        Mockito.doNothing().when(mailService).sendCsvReportMail(Mockito.any(File.class), Mockito.any(AssertionServiceUser.class), Mockito.anyString(), Mockito.anyString());
+        Mockito.doNothing().when(mailService).sendCsvReportMail(Mockito.any(StoredFile.class), Mockito.any(AssertionServiceUser.class), Mockito.anyString(), Mockito.anyString());
         Mockito.doNothing().when(storedFileService).markAsProcessed(Mockito.any(StoredFile.class));
 
         csvReportService.processCsvReports();
@@ -86,10 +92,11 @@ class CsvReportServiceTest {
         Mockito.verify(assertionsReportCsvWriter).writeCsv(Mockito.eq("salesforce"));
         Mockito.verify(assertionsForEditCsvWriter).writeCsv(Mockito.eq("salesforce"));
         Mockito.verify(permissionLinksCsvWriter).writeCsv(Mockito.eq("salesforce"));
-        Mockito.verify(mailService).sendCsvReportMail(Mockito.any(File.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("edit subject"), Mockito.eq("edit content"));
-        Mockito.verify(mailService).sendCsvReportMail(Mockito.any(File.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("links subject"), Mockito.eq("links content"));
-        Mockito.verify(mailService).sendCsvReportMail(Mockito.any(File.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("report subject"), Mockito.eq("report content"));
+        Mockito.verify(mailService).sendCsvReportMail(Mockito.any(StoredFile.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("edit subject"), Mockito.eq("edit content"));
+        Mockito.verify(mailService).sendCsvReportMail(Mockito.any(StoredFile.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("links subject"), Mockito.eq("links content"));
+        Mockito.verify(mailService).sendCsvReportMail(Mockito.any(StoredFile.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("report subject"), Mockito.eq("report content"));
         Mockito.verify(storedFileService, Mockito.times(3)).markAsProcessed(Mockito.any(StoredFile.class));
+        assertThat(meterRegistry.timer(CsvReportService.GENERATION_METRIC, "type", CsvReport.PERMISSION_LINKS_TYPE, "outcome", "success").count()).isEqualTo(1);
     }
     
     @Test
@@ -101,7 +108,7 @@ class CsvReportServiceTest {
         csvReportService.processCsvReports();
 
         Mockito.verify(permissionLinksCsvWriter).writeCsv(Mockito.eq("salesforce"));
-        Mockito.verify(mailService, Mockito.never()).sendCsvReportMail(Mockito.any(File.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("links subject"), Mockito.eq("links content"));
+        Mockito.verify(mailService, Mockito.never()).sendCsvReportMail(Mockito.any(StoredFile.class), Mockito.any(AssertionServiceUser.class), Mockito.eq("links subject"), Mockito.eq("links content"));
         Mockito.verify(storedFileService, Mockito.never()).markAsProcessed(Mockito.any(StoredFile.class));
         Mockito.verify(csvReportRepository).save(csvReportCaptor.capture());
         
@@ -109,6 +116,7 @@ class CsvReportServiceTest {
         assertThat(updated.getError()).isNotNull();
         assertThat(updated.getError()).contains("IOException");
         assertThat(updated.getError()).contains("some error");
+        assertThat(meterRegistry.timer(CsvReportService.GENERATION_METRIC, "type", CsvReport.PERMISSION_LINKS_TYPE, "outcome", "failure").count()).isEqualTo(1);
     }
 
     @Test
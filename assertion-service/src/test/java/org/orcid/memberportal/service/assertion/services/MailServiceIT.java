@@ -2,7 +2,8 @@ package org.orcid.memberportal.service.assertion.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Locale;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,12 +16,14 @@ import org.mockito.MockitoAnnotations;
 import org.orcid.memberportal.service.assertion.AssertionServiceApp;
 import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.StoredFile;
 import org.orcid.memberportal.service.assertion.mail.MailException;
 import org.orcid.memberportal.service.assertion.mail.client.impl.MailgunClient;
 import org.orcid.memberportal.service.assertion.upload.AssertionsUploadSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
 @SpringBootTest(classes = AssertionServiceApp.class)
@@ -31,6 +34,9 @@ class MailServiceIT {
     
     @Mock
     private MailgunClient mailgunClient;
+
+    @Mock
+    private StoredFileService storedFileService;
     
     @Autowired
     private SpringTemplateEngine templateEngine;
@@ -44,12 +50,16 @@ class MailServiceIT {
     private ArgumentCaptor<String> subjectCaptor;
     
     @Captor
-    private ArgumentCaptor<File> fileCaptor;
+    private ArgumentCaptor<InputStream> attachmentCaptor;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
         MockitoAnnotations.initMocks(this);
         mailService = new MailService(getTestApplicationProperties(), messageSource, templateEngine, mailgunClient);
+        ReflectionTestUtils.setField(mailService, "storedFileService", storedFileService);
+        Mockito.when(storedFileService.openStoredFile(Mockito.any(StoredFile.class)))
+                .thenAnswer(invocation -> getClass().getResourceAsStream("/assertions-with-bad-email.csv"));
+        Mockito.when(storedFileService.getFilename(Mockito.any(StoredFile.class))).thenReturn("attachment.csv");
         Mockito.when(messageSource.getMessage(Mockito.eq("email.memberAssertionStats.title"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("member stats");
         Mockito.when(messageSource.getMessage(Mockito.eq("email.affiliationUploadSummary.title"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("summary");
         Mockito.when(messageSource.getMessage(Mockito.eq("email.notificationsSummary.title"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("notifications summary");
@@ -59,24 +69,26 @@ class MailServiceIT {
     @Test
     void testSendCsvReportMail() throws MailException {
         Mockito.doNothing().when(mailgunClient).sendMailWithAttachment(Mockito.eq("memberstats@orcid.org"), Mockito.eq("member stats"), Mockito.eq("something"),
-                Mockito.any(File.class));
+                Mockito.any(InputStream.class), Mockito.anyString());
         mailService.sendCsvReportMail(getAttachment(), getUser(), "subject", "content");
         
-        Mockito.verify(mailgunClient).sendMailWithAttachment(recipientCaptor.capture(), subjectCaptor.capture(), Mockito.anyString(), fileCaptor.capture());
+        Mockito.verify(mailgunClient).sendMailWithAttachment(recipientCaptor.capture(), subjectCaptor.capture(), Mockito.anyString(), attachmentCaptor.capture(),
+                Mockito.eq("attachment.csv"));
         assertThat(recipientCaptor.getValue()).isEqualTo("summary@orcid.org");
         assertThat(subjectCaptor.getValue()).isEqualTo("subject");
-        assertThat(fileCaptor.getValue()).isNotNull();
+        assertThat(attachmentCaptor.getValue()).isNotNull();
     }
 
     @Test
     void testSendMemberAssertionStatsMail() throws MailException {
         Mockito.doNothing().when(mailgunClient).sendMailWithAttachment(Mockito.eq("memberstats@orcid.org"), Mockito.eq("member stats"), Mockito.eq("something"),
-                Mockito.any(File.class));
+                Mockito.any(InputStream.class), Mockito.anyString());
         mailService.sendMemberAssertionStatsMail(getAttachment());
-        Mockito.verify(mailgunClient).sendMailWithAttachment(recipientCaptor.capture(), subjectCaptor.capture(), Mockito.anyString(), fileCaptor.capture());
+        Mockito.verify(mailgunClient).sendMailWithAttachment(recipientCaptor.capture(), subjectCaptor.capture(), Mockito.anyString(), attachmentCaptor.capture(),
+                Mockito.eq("attachment.csv"));
         assertThat(recipientCaptor.getValue()).isEqualTo("memberstats@orcid.org");
         assertThat(subjectCaptor.getValue()).isEqualTo("member stats");
-        assertThat(fileCaptor.getValue()).isNotNull();
+        assertThat(attachmentCaptor.getValue()).isNotNull();
     }
     
     @Test
@@ -129,8 +141,10 @@ class MailServiceIT {
         return properties;
     }
     
-    private File getAttachment() {
-        return new File(getClass().getResource("/assertions-with-bad-email.csv").getFile());
+    private StoredFile getAttachment() {
+        StoredFile storedFile = new StoredFile();
+        storedFile.setFileLocation("location");
+        return storedFile;
     }
 
 }
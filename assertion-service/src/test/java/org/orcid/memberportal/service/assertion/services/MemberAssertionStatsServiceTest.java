@@ -0,0 +1,179 @@
+package org.orcid.memberportal.service.assertion.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusCount;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
+import org.orcid.memberportal.service.assertion.repository.MemberAssertionStatusSummaryRepository;
+
+class MemberAssertionStatsServiceTest {
+
+    @Mock
+    private MemberAssertionStatusSummaryRepository memberAssertionStatusSummaryRepository;
+
+    @Mock
+    private AssertionRepository assertionRepository;
+
+    @InjectMocks
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Long>> incrementsCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    void testAssertionSaved() {
+        // new assertion
+        memberAssertionStatsService.assertionSaved(null, null, "member-1", "PENDING");
+        Mockito.verify(memberAssertionStatusSummaryRepository).incrementStatusCounts(Mockito.eq("member-1"), incrementsCaptor.capture());
+        assertThat(incrementsCaptor.getValue()).containsOnly(entry("PENDING", 1L));
+
+        // status change
+        Mockito.reset(memberAssertionStatusSummaryRepository);
+        memberAssertionStatsService.assertionSaved("member-1", "PENDING", "member-1", "IN_ORCID");
+        Mockito.verify(memberAssertionStatusSummaryRepository).incrementStatusCounts(Mockito.eq("member-1"), incrementsCaptor.capture());
+        assertThat(incrementsCaptor.getValue()).containsOnly(entry("PENDING", -1L), entry("IN_ORCID", 1L));
+
+        // moved to another member
+        Mockito.reset(memberAssertionStatusSummaryRepository);
+        memberAssertionStatsService.assertionSaved("member-1", "IN_ORCID", "member-2", "IN_ORCID");
+        Mockito.verify(memberAssertionStatusSummaryRepository).incrementStatusCounts(Mockito.eq("member-1"), incrementsCaptor.capture());
+        assertThat(incrementsCaptor.getValue()).containsOnly(entry("IN_ORCID", -1L));
+        Mockito.verify(memberAssertionStatusSummaryRepository).incrementStatusCounts(Mockito.eq("member-2"), incrementsCaptor.capture());
+        assertThat(incrementsCaptor.getValue()).containsOnly(entry("IN_ORCID", 1L));
+
+        // nothing counted changed
+        Mockito.reset(memberAssertionStatusSummaryRepository);
+        memberAssertionStatsService.assertionSaved("member-2", "IN_ORCID", "member-2", "IN_ORCID");
+        Mockito.verify(memberAssertionStatusSummaryRepository, Mockito.never()).incrementStatusCounts(Mockito.anyString(), Mockito.anyMap());
+    }
+
+    @Test
+    void testAssertionsDeleted() {
+        memberAssertionStatsService.assertionsDeleted("member-1", "PENDING_DELETE", 0);
+        Mockito.verify(memberAssertionStatusSummaryRepository, Mockito.never()).incrementStatusCounts(Mockito.anyString(), Mockito.anyMap());
+
+        memberAssertionStatsService.assertionsDeleted("member-1", "PENDING_DELETE", 25);
+        Mockito.verify(memberAssertionStatusSummaryRepository).incrementStatusCounts(Mockito.eq("member-1"), incrementsCaptor.capture());
+        assertThat(incrementsCaptor.getValue()).containsOnly(entry("PENDING_DELETE", -25L));
+    }
+
+    @Test
+    void testCountingFailureDoesNotFailChange() {
+        Mockito.doThrow(new RuntimeException("mongo unavailable")).when(memberAssertionStatusSummaryRepository).incrementStatusCounts(Mockito.anyString(),
+                Mockito.anyMap());
+        memberAssertionStatsService.assertionsStatusChanged("member-1", "PENDING", "NOTIFICATION_REQUESTED", 10);
+
+        Mockito.when(assertionRepository.getStatusCounts(Mockito.anyString())).thenThrow(new RuntimeException("mongo unavailable"));
+        memberAssertionStatsService.recount("member-1");
+    }
+
+    @Test
+    void testRecount() {
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("PENDING", 3L);
+        MemberAssertionStatusSummary previous = new MemberAssertionStatusSummary();
+        previous.setSalesforceId("member-1");
+        Mockito.when(memberAssertionStatusSummaryRepository.findById(Mockito.eq("member-1"))).thenReturn(Optional.of(previous));
+        Mockito.when(assertionRepository.getStatusCounts(Mockito.eq("member-1"))).thenReturn(counts);
+        Mockito.when(memberAssertionStatusSummaryRepository.saveIfUnchanged(Mockito.any(), Mockito.any())).thenReturn(true);
+
+        memberAssertionStatsService.recount("member-1");
+
+        ArgumentCaptor<MemberAssertionStatusSummary> captor = ArgumentCaptor.forClass(MemberAssertionStatusSummary.class);
+        Mockito.verify(memberAssertionStatusSummaryRepository).saveIfUnchanged(captor.capture(), Mockito.eq(previous));
+        assertThat(captor.getValue().getSalesforceId()).isEqualTo("member-1");
+        assertThat(captor.getValue().getStatusCounts()).containsOnly(entry("PENDING", 3L));
+        assertThat(captor.getValue().getReconciled()).isNotNull();
+    }
+
+    @Test
+    void testRecountRetriesCountsChangedMeanwhile() {
+        Mockito.when(memberAssertionStatusSummaryRepository.findById(Mockito.eq("member-1"))).thenReturn(Optional.empty());
+        Mockito.when(assertionRepository.getStatusCounts(Mockito.eq("member-1"))).thenReturn(new HashMap<>());
+        Mockito.when(memberAssertionStatusSummaryRepository.saveIfUnchanged(Mockito.any(), Mockito.any())).thenReturn(false).thenReturn(true);
+
+        memberAssertionStatsService.recount("member-1");
+        Mockito.verify(assertionRepository, Mockito.times(2)).getStatusCounts(Mockito.eq("member-1"));
+
+        // gives up, leaving it to reconciliation, if they keep changing
+        Mockito.reset(assertionRepository);
+        Mockito.when(memberAssertionStatusSummaryRepository.saveIfUnchanged(Mockito.any(), Mockito.any())).thenReturn(false);
+        memberAssertionStatsService.recount("member-1");
+        Mockito.verify(assertionRepository, Mockito.times(MemberAssertionStatsService.MAX_RECOUNT_ATTEMPTS)).getStatusCounts(Mockito.eq("member-1"));
+    }
+
+    @Test
+    void testReconcile() {
+        Mockito.when(assertionRepository.getMemberAssertionStatusCounts()).thenReturn(Arrays.asList(new MemberAssertionStatusCount("member-1", "PENDING", 4),
+                new MemberAssertionStatusCount("member-1", "IN_ORCID", 12), new MemberAssertionStatusCount("member-2", "PENDING", 1)));
+        MemberAssertionStatusSummary drifted = new MemberAssertionStatusSummary();
+        drifted.setSalesforceId("member-1");
+        drifted.getStatusCounts().put("PENDING", 5L);
+        MemberAssertionStatusSummary stale = new MemberAssertionStatusSummary();
+        stale.setSalesforceId("member-3");
+        Mockito.when(memberAssertionStatusSummaryRepository.findAll()).thenReturn(Arrays.asList(drifted, stale));
+        Mockito.when(memberAssertionStatusSummaryRepository.saveIfUnchanged(Mockito.any(), Mockito.any())).thenReturn(true);
+
+        memberAssertionStatsService.reconcile();
+
+        ArgumentCaptor<MemberAssertionStatusSummary> captor = ArgumentCaptor.forClass(MemberAssertionStatusSummary.class);
+        Mockito.verify(memberAssertionStatusSummaryRepository).saveIfUnchanged(captor.capture(), Mockito.eq(drifted));
+        assertThat(captor.getValue().getStatusCounts()).containsOnly(entry("PENDING", 4L), entry("IN_ORCID", 12L));
+        Mockito.verify(memberAssertionStatusSummaryRepository).saveIfUnchanged(captor.capture(), Mockito.isNull());
+        assertThat(captor.getValue().getSalesforceId()).isEqualTo("member-2");
+        assertThat(captor.getValue().getStatusCounts()).containsOnly(entry("PENDING", 1L));
+
+        Mockito.verify(memberAssertionStatusSummaryRepository).deleteIfUnchanged(Mockito.eq(stale));
+        Mockito.verify(memberAssertionStatusSummaryRepository, Mockito.times(1)).deleteIfUnchanged(Mockito.any());
+        Mockito.verify(memberAssertionStatusSummaryRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void testReconcileRecountsCountsChangedMeanwhile() {
+        Mockito.when(assertionRepository.getMemberAssertionStatusCounts()).thenReturn(Arrays.asList(new MemberAssertionStatusCount("member-1", "PENDING", 4)));
+        MemberAssertionStatusSummary counted = new MemberAssertionStatusSummary();
+        counted.setSalesforceId("member-1");
+        counted.setVersion(7L);
+        counted.getStatusCounts().put("PENDING", 4L);
+        Mockito.when(memberAssertionStatusSummaryRepository.findAll()).thenReturn(Arrays.asList(counted));
+
+        // an assertion was counted while aggregating, so the reconciled
+        // counts aren't written over it and the member is recounted
+        MemberAssertionStatusSummary recounted = new MemberAssertionStatusSummary();
+        recounted.setSalesforceId("member-1");
+        recounted.setVersion(8L);
+        Mockito.when(memberAssertionStatusSummaryRepository.saveIfUnchanged(Mockito.any(), Mockito.eq(counted))).thenReturn(false);
+        Mockito.when(memberAssertionStatusSummaryRepository.findById(Mockito.eq("member-1"))).thenReturn(Optional.of(recounted));
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("PENDING", 5L);
+        Mockito.when(assertionRepository.getStatusCounts(Mockito.eq("member-1"))).thenReturn(counts);
+        Mockito.when(memberAssertionStatusSummaryRepository.saveIfUnchanged(Mockito.any(), Mockito.eq(recounted))).thenReturn(true);
+
+        memberAssertionStatsService.reconcile();
+
+        ArgumentCaptor<MemberAssertionStatusSummary> captor = ArgumentCaptor.forClass(MemberAssertionStatusSummary.class);
+        Mockito.verify(memberAssertionStatusSummaryRepository).saveIfUnchanged(captor.capture(), Mockito.eq(recounted));
+        assertThat(captor.getValue().getStatusCounts()).containsOnly(entry("PENDING", 5L));
+    }
+
+}
@@ -20,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.orcid.jaxb.model.v3.release.notification.NotificationType;
 import org.orcid.jaxb.model.v3.release.notification.permission.Item;
 import org.orcid.jaxb.model.v3.release.notification.permission.ItemType;
@@ -34,11 +35,15 @@ import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStat
 import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
 import org.orcid.memberportal.service.assertion.repository.SendNotificationsRequestRepository;
 import org.orcid.memberportal.service.assertion.web.rest.errors.ORCIDAPIException;
+import org.orcid.memberportal.service.assertion.web.rest.errors.RegistryThrottledException;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class NotificationServiceTest {
     
     @Mock
@@ -65,6 +70,9 @@ class NotificationServiceTest {
     @Captor
     private ArgumentCaptor<NotificationPermission> notificationPermissionCaptor;
     
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private NotificationService notificationService;
     
@@ -292,6 +300,8 @@ class NotificationServiceTest {
         assertThat(a.getStatus()).isEqualTo(AssertionStatus.NOTIFICATION_FAILED.name());
         
         Mockito.verify(mailService).sendNotificationsSummary(Mockito.any(), Mockito.eq(0), Mockito.anyInt());
+        assertThat(meterRegistry.counter(NotificationService.NOTIFICATIONS_METRIC, "type", "notification", "outcome", "failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer(NotificationService.BATCH_METRIC, "type", "request").count()).isEqualTo(1);
     }
     
     @Test
@@ -358,6 +368,35 @@ class NotificationServiceTest {
         assertThat(a.getInvitationSent()).isNull();
     }
     
+    @Test
+    void testSendPermissionLinkNotifications_throttled() throws IOException, JAXBException {
+        Mockito.when(sendNotificationsRequestRepository.findActiveRequests()).thenReturn(getListOfOneRequest("salesforceId1"));
+        Mockito.when(assertionRepository.findDistinctEmailsWithNotificationRequested(Mockito.eq("salesforceId1"))).thenReturn(Arrays.asList("email1", "email2").iterator());
+        Mockito.when(assertionRepository.findByEmailAndSalesforceIdAndStatus(Mockito.eq("email1"), Mockito.eq("salesforceId1"), Mockito.eq(AssertionStatus.NOTIFICATION_REQUESTED.name()))).thenReturn(Arrays.asList(getAssertion()));
+        Mockito.when(assertionRepository.findByEmailAndSalesforceIdAndStatus(Mockito.eq("email2"), Mockito.eq("salesforceId1"), Mockito.eq(AssertionStatus.NOTIFICATION_REQUESTED.name()))).thenReturn(Arrays.asList(getAssertion()));
+        Mockito.when(orcidRecordService.generateLinkForEmailAndSalesforceId(Mockito.anyString(), Mockito.eq("salesforceId1"))).thenReturn("link");
+        Mockito.when(messageSource.getMessage(Mockito.eq("assertion.notifications.introduction"), Mockito.isNull(), Mockito.any(Locale.class))).thenReturn("intro");
+        Mockito.when(messageSource.getMessage(Mockito.eq("assertion.notifications.subject"), Mockito.isNotNull(), Mockito.any(Locale.class))).thenReturn("subject");
+        Mockito.when(orcidApiClient.getOrcidIdForEmail(Mockito.eq("email1"))).thenThrow(new RegistryThrottledException(429, "too many requests"));
+        Mockito.when(orcidApiClient.getOrcidIdForEmail(Mockito.eq("email2"))).thenReturn("orcid2");
+        Mockito.when(memberService.getMemberName(Mockito.eq("salesforceId1"))).thenReturn("Member 1");
+        Mockito.when(memberService.getMemberDefaultLanguage(Mockito.eq("salesforceId1"))).thenReturn("en");
+
+        notificationService.sendPermissionLinkNotifications();
+
+        // only the notification that got through is marked as sent
+        Mockito.verify(orcidApiClient).postNotification(Mockito.any(NotificationPermission.class), Mockito.eq("orcid2"));
+        Mockito.verify(assertionRepository, Mockito.times(1)).save(assertionCaptor.capture());
+        assertThat(assertionCaptor.getValue().getStatus()).isEqualTo(AssertionStatus.NOTIFICATION_SENT.name());
+
+        // and the request stays active for the throttled one
+        Mockito.verify(mailService, Mockito.never()).sendNotificationsSummary(Mockito.any(), Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(sendNotificationsRequestRepository).save(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().getDateCompleted()).isNull();
+        assertThat(requestCaptor.getValue().getNotificationsSent()).isEqualTo(1);
+        assertThat(meterRegistry.counter(NotificationService.NOTIFICATIONS_METRIC, "type", "orcid-id-lookup", "outcome", "throttled").count()).isEqualTo(1);
+    }
+    
     @Test
     void testSendPermissionLinkNotifications_invitationForAssertion_previouslySent() throws IOException, JAXBException {
         Assertion assertionForWhichInvitationPreviouslySent = getAssertion();
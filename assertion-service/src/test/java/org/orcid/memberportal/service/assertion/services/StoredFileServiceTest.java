@@ -6,9 +6,15 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +28,8 @@ import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
 import org.orcid.memberportal.service.assertion.domain.StoredFile;
 import org.orcid.memberportal.service.assertion.repository.StoredFileRepository;
+import org.orcid.memberportal.service.assertion.storage.StoredFileStorage;
+import org.orcid.memberportal.service.assertion.storage.impl.LocalFileStorage;
 import org.springframework.test.util.ReflectionTestUtils;
 
 class StoredFileServiceTest {
@@ -32,6 +40,9 @@ class StoredFileServiceTest {
     @Mock
     private StoredFileRepository storedFileRepository;
 
+    @Mock
+    private StoredFileStorage sharedStorage;
+
     @Captor
     private ArgumentCaptor<StoredFile> storedFileCaptor;
 
@@ -69,8 +80,11 @@ class StoredFileServiceTest {
         properties.setMemberAssertionStatsDirectory(memberAssertionStatsDir.getAbsolutePath());
         properties.setAssertionsCsvUploadDirectory(assertionUploadsDir.getAbsolutePath());
         properties.setStoredFileLifespan(7);
+        properties.setStoredFileStorage(LocalFileStorage.NAME);
         
         ReflectionTestUtils.setField(storedFileService, "applicationProperties", properties);
+        Mockito.when(sharedStorage.getName()).thenReturn("shared");
+        ReflectionTestUtils.setField(storedFileService, "storages", Arrays.asList(new LocalFileStorage(), sharedStorage));
     }
 
     @AfterEach
@@ -80,10 +94,11 @@ class StoredFileServiceTest {
 
     @Test
     void testStoreMemberAssertionStatsFile() throws IOException {
-        File file = storedFileService.storeMemberAssertionStatsFile("some content");
-        assertThat(file.getParent()).isEqualTo(memberAssertionStatsDir.getAbsolutePath());
+        storedFileService.storeMemberAssertionStatsFile("some content");
         Mockito.verify(storedFileRepository).save(storedFileCaptor.capture());
         StoredFile saved = storedFileCaptor.getValue();
+        assertThat(new File(saved.getFileLocation()).getParent()).isEqualTo(memberAssertionStatsDir.getAbsolutePath());
+        assertThat(saved.getStorage()).isEqualTo(LocalFileStorage.NAME);
         assertThat(saved.getFileLocation()).isNotNull();
         assertThat(saved.getFileLocation()).startsWith(memberAssertionStatsDir.getAbsolutePath());
         assertThat(saved.getFileLocation()).endsWith(".csv");
@@ -111,6 +126,47 @@ class StoredFileServiceTest {
         assertThat(saved.getOriginalFilename()).isEqualTo("filename");
     }
     
+    @Test
+    void testStoreInConfiguredStorage() throws IOException {
+        properties.setStoredFileStorage("shared");
+        Mockito.when(sharedStorage.store(Mockito.eq(assertionUploadsDir.getAbsolutePath()), Mockito.eq(StoredFileService.ASSERTIONS_CSV_FILE_TYPE),
+                Mockito.eq(".csv"), Mockito.any(InputStream.class))).thenReturn("shared-location");
+
+        InputStream inputStream = new ByteArrayInputStream("some content".getBytes());
+        storedFileService.storeAssertionsCsvFile(inputStream, "filename", getUser());
+
+        Mockito.verify(storedFileRepository).save(storedFileCaptor.capture());
+        StoredFile saved = storedFileCaptor.getValue();
+        assertThat(saved.getStorage()).isEqualTo("shared");
+        assertThat(saved.getFileLocation()).isEqualTo("shared-location");
+        assertThat(assertionUploadsDir.list()).isEmpty();
+    }
+
+    @Test
+    void testOpenStoredFile() throws IOException {
+        storedFileService.storeAssertionsCsvFile(new ByteArrayInputStream("some content".getBytes()), "filename", getUser());
+        Mockito.verify(storedFileRepository).save(storedFileCaptor.capture());
+        try (InputStream content = storedFileService.openStoredFile(storedFileCaptor.getValue())) {
+            assertThat(IOUtils.toString(content, StandardCharsets.UTF_8)).isEqualTo("some content");
+        }
+
+        StoredFile shared = getStoredFile("shared-file", new File("shared-location"), Instant.now());
+        shared.setStorage("shared");
+        Mockito.when(sharedStorage.open(Mockito.eq(shared.getFileLocation()))).thenReturn(new ByteArrayInputStream("shared content".getBytes()));
+        try (InputStream content = storedFileService.openStoredFile(shared)) {
+            assertThat(IOUtils.toString(content, StandardCharsets.UTF_8)).isEqualTo("shared content");
+        }
+    }
+
+    @Test
+    void testGetFilename() {
+        StoredFile storedFile = new StoredFile();
+        storedFile.setFileType(StoredFileService.MEMBER_ASSERTION_STATS_FILE_TYPE);
+        assertThat(storedFileService.getFilename(storedFile)).isEqualTo("assertion-stats.csv");
+        storedFile.setOriginalFilename("report.csv");
+        assertThat(storedFileService.getFilename(storedFile)).isEqualTo("report.csv");
+    }
+
     @Test
     void testGetUnprocessedStoredFilesByType() {
         storedFileService.getUnprocessedStoredFilesByType(StoredFileService.ASSERTIONS_CSV_FILE_TYPE);
@@ -126,6 +182,80 @@ class StoredFileServiceTest {
         assertThat(saved.getDateProcessed()).isNotNull();
     }
 
+    @Test
+    void testRemoveStoredFiles() throws IOException {
+        Instant removalDate = Instant.now().minus(1, ChronoUnit.DAYS);
+        StoredFile expired = getStoredFile("expired", File.createTempFile("expired", ".csv", storedFilesDir), removalDate);
+        StoredFile alreadyGone = getStoredFile("already-gone", new File(storedFilesDir, "already-gone.csv"), removalDate.plusMillis(1));
+        Mockito.when(storedFileRepository.findProcessedFilesToRemove(Mockito.isNull(), Mockito.any(Instant.class), Mockito.eq(StoredFileService.REMOVAL_BATCH_SIZE)))
+                .thenReturn(Arrays.asList(expired, alreadyGone));
+        Mockito.when(storedFileRepository.deleteByIdIn(Mockito.anyCollection())).thenReturn(2L);
+
+        storedFileService.removeStoredFiles();
+
+        assertThat(new File(expired.getFileLocation())).doesNotExist();
+        Mockito.verify(storedFileRepository).deleteByIdIn(Mockito.eq(Arrays.asList("expired", "already-gone")));
+        // a short batch is the last one
+        Mockito.verify(storedFileRepository, Mockito.times(1)).findProcessedFilesToRemove(Mockito.any(), Mockito.any(Instant.class),
+                Mockito.anyInt());
+    }
+
+    @Test
+    void testRemoveStoredFilesInBatches() throws IOException {
+        // processed in the same run, so expiring at the same time
+        Instant removalDate = Instant.now().minus(1, ChronoUnit.DAYS);
+        List<StoredFile> firstBatch = new ArrayList<>();
+        for (int i = 0; i < StoredFileService.REMOVAL_BATCH_SIZE; i++) {
+            firstBatch.add(getStoredFile("first-" + i, new File(storedFilesDir, "missing-" + i + ".csv"), removalDate));
+        }
+        StoredFile last = getStoredFile("last", File.createTempFile("last", ".csv", storedFilesDir), removalDate);
+        StoredFile endOfFirstBatch = firstBatch.get(firstBatch.size() - 1);
+        Mockito.when(storedFileRepository.findProcessedFilesToRemove(Mockito.isNull(), Mockito.any(Instant.class), Mockito.eq(StoredFileService.REMOVAL_BATCH_SIZE)))
+                .thenReturn(firstBatch);
+        Mockito.when(storedFileRepository.findProcessedFilesToRemove(Mockito.eq(endOfFirstBatch), Mockito.any(Instant.class),
+                Mockito.eq(StoredFileService.REMOVAL_BATCH_SIZE))).thenReturn(Arrays.asList(last));
+
+        storedFileService.removeStoredFiles();
+
+        Mockito.verify(storedFileRepository, Mockito.times(2)).findProcessedFilesToRemove(Mockito.any(), Mockito.any(Instant.class), Mockito.anyInt());
+        Mockito.verify(storedFileRepository, Mockito.times(2)).deleteByIdIn(Mockito.anyCollection());
+        Mockito.verify(storedFileRepository).deleteByIdIn(Mockito.eq(Arrays.asList("last")));
+        assertThat(new File(last.getFileLocation())).doesNotExist();
+    }
+
+    @Test
+    void testRemoveStoredFilesFromTheirStorage() {
+        StoredFile shared = getStoredFile("shared", new File("shared-location"), Instant.now().minus(1, ChronoUnit.DAYS));
+        shared.setStorage("shared");
+        StoredFile stuck = getStoredFile("stuck", new File("stuck-location"), Instant.now().minus(1, ChronoUnit.DAYS));
+        stuck.setStorage("shared");
+        Mockito.when(storedFileRepository.findProcessedFilesToRemove(Mockito.isNull(), Mockito.any(Instant.class), Mockito.eq(StoredFileService.REMOVAL_BATCH_SIZE)))
+                .thenReturn(Arrays.asList(shared, stuck));
+        Mockito.when(sharedStorage.delete(Mockito.eq(shared.getFileLocation()))).thenReturn(true);
+        Mockito.when(sharedStorage.delete(Mockito.eq(stuck.getFileLocation()))).thenReturn(false);
+
+        storedFileService.removeStoredFiles();
+
+        Mockito.verify(storedFileRepository).deleteByIdIn(Mockito.eq(Arrays.asList("shared")));
+    }
+
+    @Test
+    void testRemoveStoredFilesWithNothingExpired() {
+        Mockito.when(storedFileRepository.findProcessedFilesToRemove(Mockito.any(), Mockito.any(Instant.class), Mockito.anyInt()))
+                .thenReturn(new ArrayList<>());
+        storedFileService.removeStoredFiles();
+        Mockito.verify(storedFileRepository, Mockito.never()).deleteByIdIn(Mockito.anyCollection());
+    }
+
+    private StoredFile getStoredFile(String id, File file, Instant removalDate) {
+        StoredFile storedFile = new StoredFile();
+        storedFile.setId(id);
+        storedFile.setFileLocation(file.getAbsolutePath());
+        storedFile.setDateProcessed(removalDate.minus(7, ChronoUnit.DAYS));
+        storedFile.setRemovalDate(removalDate);
+        return storedFile;
+    }
+
     private AssertionServiceUser getUser() {
         AssertionServiceUser user = new AssertionServiceUser();
         user.setId("some id");
@@ -0,0 +1,79 @@
+package org.orcid.memberportal.service.assertion.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
+import org.orcid.memberportal.service.assertion.repository.AssertionsUploadJobRepository;
+import org.orcid.memberportal.service.assertion.services.MemberAssertionStatsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AssertionBacklogMetricsTest {
+
+    @Mock
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    @Mock
+    private AssertionsUploadJobRepository assertionsUploadJobRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AssertionBacklogMetrics assertionBacklogMetrics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    void testRefresh() {
+        MemberAssertionStatusSummary member1 = getSummary("member-1", 5L, 30L);
+        MemberAssertionStatusSummary member2 = getSummary("member-2", 7L, 10L);
+        Mockito.when(memberAssertionStatsService.getStatusSummaries()).thenReturn(Arrays.asList(member1, member2));
+        Mockito.when(assertionsUploadJobRepository.countByStatus(AssertionsUploadJob.PENDING_STATUS)).thenReturn(3L);
+        Mockito.when(assertionsUploadJobRepository.countByStatus(AssertionsUploadJob.IN_PROGRESS_STATUS)).thenReturn(1L);
+
+        assertionBacklogMetrics.refresh();
+
+        assertThat(getBacklog(AssertionBacklogMetrics.ASSERTIONS_METRIC, AssertionStatus.PENDING.name())).isEqualTo(12);
+        assertThat(getBacklog(AssertionBacklogMetrics.ASSERTIONS_METRIC, AssertionStatus.IN_ORCID.name())).isEqualTo(40);
+        assertThat(getBacklog(AssertionBacklogMetrics.ASSERTIONS_METRIC, AssertionStatus.ERROR_ADDING_TO_ORCID.name())).isEqualTo(0);
+        assertThat(getBacklog(AssertionBacklogMetrics.UPLOAD_JOBS_METRIC, AssertionsUploadJob.PENDING_STATUS)).isEqualTo(3);
+        assertThat(getBacklog(AssertionBacklogMetrics.UPLOAD_JOBS_METRIC, AssertionsUploadJob.IN_PROGRESS_STATUS)).isEqualTo(1);
+
+        // statuses no longer found drop back to zero
+        member1.getStatusCounts().remove(AssertionStatus.PENDING.name());
+        member2.getStatusCounts().remove(AssertionStatus.PENDING.name());
+        assertionBacklogMetrics.refresh();
+
+        assertThat(getBacklog(AssertionBacklogMetrics.ASSERTIONS_METRIC, AssertionStatus.PENDING.name())).isEqualTo(0);
+        assertThat(getBacklog(AssertionBacklogMetrics.ASSERTIONS_METRIC, AssertionStatus.IN_ORCID.name())).isEqualTo(40);
+    }
+
+    private MemberAssertionStatusSummary getSummary(String salesforceId, long pending, long inOrcid) {
+        MemberAssertionStatusSummary summary = new MemberAssertionStatusSummary();
+        summary.setSalesforceId(salesforceId);
+        summary.getStatusCounts().put(AssertionStatus.PENDING.name(), pending);
+        summary.getStatusCounts().put(AssertionStatus.IN_ORCID.name(), inOrcid);
+        return summary;
+    }
+
+    private double getBacklog(String name, String status) {
+        return meterRegistry.get(name).tag("status", status).gauge().value();
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.orcid.memberportal.service.assertion.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.services.MemberAssertionStatsService;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+class AssertionStatusCountListenerTest {
+
+    @Mock
+    private MemberAssertionStatsService memberAssertionStatsService;
+
+    @InjectMocks
+    private AssertionStatusCountListener assertionStatusCountListener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    void testNewAssertionSaved() {
+        Assertion assertion = getAssertion("member-1", "PENDING");
+        assertionStatusCountListener.onAfterSave(new AfterSaveEvent<>(assertion, new Document(), "assertion"));
+
+        Mockito.verify(memberAssertionStatsService).assertionSaved(Mockito.isNull(), Mockito.isNull(), Mockito.eq("member-1"), Mockito.eq("PENDING"));
+        assertThat(assertion.getPersistedSalesforceId()).isEqualTo("member-1");
+        assertThat(assertion.getPersistedStatus()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void testReadAssertionSaved() {
+        Assertion assertion = getAssertion("member-1", "PENDING");
+        assertionStatusCountListener.onAfterConvert(new AfterConvertEvent<>(new Document(), assertion, "assertion"));
+        assertion.setStatus("IN_ORCID");
+
+        assertionStatusCountListener.onAfterSave(new AfterSaveEvent<>(assertion, new Document(), "assertion"));
+        Mockito.verify(memberAssertionStatsService).assertionSaved(Mockito.eq("member-1"), Mockito.eq("PENDING"), Mockito.eq("member-1"), Mockito.eq("IN_ORCID"));
+
+        // saving the same instance again counts from the status last saved
+        assertion.setStatus("USER_DELETED_FROM_ORCID");
+        assertionStatusCountListener.onAfterSave(new AfterSaveEvent<>(assertion, new Document(), "assertion"));
+        Mockito.verify(memberAssertionStatsService).assertionSaved(Mockito.eq("member-1"), Mockito.eq("IN_ORCID"), Mockito.eq("member-1"),
+                Mockito.eq("USER_DELETED_FROM_ORCID"));
+    }
+
+    private Assertion getAssertion(String salesforceId, String status) {
+        Assertion assertion = new Assertion();
+        assertion.setSalesforceId(salesforceId);
+        assertion.setStatus(status);
+        return assertion;
+    }
+
+}
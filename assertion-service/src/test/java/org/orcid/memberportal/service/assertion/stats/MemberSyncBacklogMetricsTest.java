@@ -0,0 +1,57 @@
+package org.orcid.memberportal.service.assertion.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.orcid.memberportal.service.assertion.domain.MemberSyncBacklog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MemberSyncBacklogMetricsTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MemberSyncBacklogMetrics memberSyncBacklogMetrics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    void testRecord() {
+        memberSyncBacklogMetrics.record("create", Arrays.asList(new MemberSyncBacklog("member-1", 200000, Instant.now().minusSeconds(3600)),
+                new MemberSyncBacklog("member-2", 3, Instant.now().minusSeconds(60)), new MemberSyncBacklog(null, 1, Instant.now())));
+        memberSyncBacklogMetrics.record("update", Arrays.asList(new MemberSyncBacklog("member-2", 5, Instant.now().minusSeconds(120))));
+
+        assertThat(getGauge(MemberSyncBacklogMetrics.QUEUE_DEPTH_METRIC, "create", "member-1")).isEqualTo(200000);
+        assertThat(getGauge(MemberSyncBacklogMetrics.WAIT_METRIC, "create", "member-1")).isBetween(3600.0, 3610.0);
+        assertThat(getGauge(MemberSyncBacklogMetrics.QUEUE_DEPTH_METRIC, "create", "member-2")).isEqualTo(3);
+        assertThat(getGauge(MemberSyncBacklogMetrics.WAIT_METRIC, "create", "member-2")).isBetween(60.0, 70.0);
+        assertThat(getGauge(MemberSyncBacklogMetrics.QUEUE_DEPTH_METRIC, "update", "member-2")).isEqualTo(5);
+        assertThat(getGauge(MemberSyncBacklogMetrics.WAIT_METRIC, "update", "member-2")).isBetween(120.0, 130.0);
+
+        // members whose backlog has cleared drop back to zero
+        memberSyncBacklogMetrics.record("create", new ArrayList<>());
+
+        assertThat(getGauge(MemberSyncBacklogMetrics.QUEUE_DEPTH_METRIC, "create", "member-1")).isEqualTo(0);
+        assertThat(getGauge(MemberSyncBacklogMetrics.WAIT_METRIC, "create", "member-1")).isEqualTo(0);
+        assertThat(getGauge(MemberSyncBacklogMetrics.QUEUE_DEPTH_METRIC, "update", "member-2")).isEqualTo(5);
+    }
+
+    private double getGauge(String name, String operation, String salesforceId) {
+        return meterRegistry.get(name).tag("operation", operation).tag("salesforce_id", salesforceId).gauge().value();
+    }
+
+}
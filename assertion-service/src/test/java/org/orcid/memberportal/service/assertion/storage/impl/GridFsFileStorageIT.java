@@ -0,0 +1,38 @@
+package org.orcid.memberportal.service.assertion.storage.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class GridFsFileStorageIT {
+
+    @Autowired
+    private GridFsFileStorage gridFsFileStorage;
+
+    @Test
+    public void testStoreOpenAndDelete() throws IOException {
+        String location = gridFsFileStorage.store("files/uploads", "assertions-csv", ".csv",
+                new ByteArrayInputStream("some content".getBytes(StandardCharsets.UTF_8)));
+
+        // any node can read the content back by its location
+        try (InputStream content = gridFsFileStorage.open(location)) {
+            assertThat(IOUtils.toString(content, StandardCharsets.UTF_8)).isEqualTo("some content");
+        }
+
+        assertThat(gridFsFileStorage.delete(location)).isTrue();
+        assertThrows(FileNotFoundException.class, () -> gridFsFileStorage.open(location));
+    }
+
+}
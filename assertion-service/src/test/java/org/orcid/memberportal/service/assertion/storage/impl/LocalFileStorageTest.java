@@ -0,0 +1,54 @@
+package org.orcid.memberportal.service.assertion.storage.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LocalFileStorageTest {
+
+    private LocalFileStorage localFileStorage = new LocalFileStorage();
+
+    private File storageDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        storageDir = File.createTempFile("test-dir", "");
+        if (!storageDir.delete()) {
+            throw new RuntimeException("Test couldn't delete file " + storageDir.getAbsolutePath());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(storageDir);
+    }
+
+    @Test
+    void testStoreOpenAndDelete() throws IOException {
+        String location = localFileStorage.store(storageDir.getAbsolutePath(), "assertions-csv", ".csv",
+                new ByteArrayInputStream("some content".getBytes(StandardCharsets.UTF_8)));
+
+        File stored = new File(location);
+        assertThat(stored.getParentFile()).isEqualTo(storageDir);
+        assertThat(stored.getName()).startsWith("assertions-csv").endsWith(".csv");
+        try (InputStream content = localFileStorage.open(location)) {
+            assertThat(IOUtils.toString(content, StandardCharsets.UTF_8)).isEqualTo("some content");
+        }
+
+        assertThat(localFileStorage.delete(location)).isTrue();
+        assertThat(stored).doesNotExist();
+        // already gone
+        assertThat(localFileStorage.delete(location)).isTrue();
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.orcid.memberportal.service.assertion.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.assertion.AssertionServiceApp;
+import org.orcid.memberportal.service.assertion.domain.Assertion;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
+import org.orcid.memberportal.service.assertion.domain.enumeration.AssertionStatus;
+import org.orcid.memberportal.service.assertion.repository.AssertionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+
+@SpringBootTest(classes = { AssertionServiceApp.class })
+public class RegistrySyncTriggerIT {
+
+    @Autowired
+    private AssertionRepository assertionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private MongoCursor<ChangeStreamDocument<Document>> changes;
+
+    @BeforeEach
+    public void setUp() {
+        assertionRepository.deleteAll();
+        try {
+            changes = mongoTemplate.getCollection("assertion").watch(RegistrySyncTrigger.getUserChangesPipeline()).maxAwaitTime(1, TimeUnit.SECONDS)
+                    .iterator();
+        } catch (MongoException e) {
+            Assumptions.assumeTrue(false, "change streams need a replica set");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (changes != null) {
+            changes.close();
+        }
+    }
+
+    @Test
+    public void testCompletedSyncDoesNotTriggerAnotherSync() {
+        Assertion assertion = assertionRepository.insert(getAssertion());
+        assertThat(getMatchedChanges()).containsExactly("insert");
+
+        // a successful sync
+        assertion.setLastSyncAttempt(Instant.now());
+        assertion.setAddedToORCID(assertion.getLastSyncAttempt());
+        assertion.setPutCode("put-code");
+        assertion.setStatus(AssertionStatus.IN_ORCID.name());
+        assertion = assertionRepository.save(assertion);
+        assertThat(getMatchedChanges()).isEmpty();
+
+        // a user's edit, followed by a failed sync
+        assertion.setRoleTitle("updated role");
+        assertion.setModified(Instant.now());
+        assertion = assertionRepository.save(assertion);
+        assertion.setLastSyncAttempt(Instant.now());
+        assertion.setOrcidError("{\"statusCode\":500,\"error\":\"error\"}");
+        assertion.setRetryCount(1);
+        assertion.setNextAttemptAt(Instant.now().plusSeconds(60));
+        assertion.setStatus(AssertionStatus.ERROR_UPDATING_TO_ORCID.name());
+        assertionRepository.save(assertion);
+        assertThat(getMatchedChanges()).containsExactly("replace");
+
+        Query query = new Query(Criteria.where("id").is(assertion.getId()));
+        mongoTemplate.updateFirst(query, new Update().set("retryCount", 2).set("nextAttemptAt", Instant.now()), Assertion.class);
+        assertThat(getMatchedChanges()).isEmpty();
+
+        mongoTemplate.updateFirst(query, new Update().set("status", AssertionStatus.PENDING_DELETE.name()), Assertion.class);
+        assertThat(getMatchedChanges()).containsExactly("update");
+    }
+
+    private List<String> getMatchedChanges() {
+        List<String> matched = new ArrayList<>();
+        ChangeStreamDocument<Document> change = changes.tryNext();
+        while (change != null) {
+            matched.add(change.getOperationType().getValue());
+            change = changes.tryNext();
+        }
+        return matched;
+    }
+
+    private Assertion getAssertion() {
+        Assertion assertion = new Assertion();
+        assertion.setEmail("sync-trigger@orcid.org");
+        assertion.setAffiliationSection(AffiliationSection.EMPLOYMENT);
+        assertion.setOrgName("org");
+        assertion.setRoleTitle("role");
+        assertion.setSalesforceId("member-1");
+        assertion.setStatus(AssertionStatus.PENDING.name());
+        assertion.setCreated(Instant.now());
+        assertion.setModified(assertion.getCreated());
+        return assertion;
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.orcid.memberportal.service.assertion.sync;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.orcid.memberportal.service.assertion.config.ApplicationProperties;
+import org.orcid.memberportal.service.assertion.services.AssertionService;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+class RegistrySyncTriggerTest {
+
+    @Mock
+    private AssertionService assertionService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private SimpleLock lock;
+
+    @Spy
+    private ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    @InjectMocks
+    private RegistrySyncTrigger registrySyncTrigger;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        applicationProperties.getRegistrySync().setCoalesceDelayInMs(50);
+        Mockito.when(lockProvider.lock(Mockito.any(LockConfiguration.class))).thenReturn(Optional.of(lock));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registrySyncTrigger.stop();
+    }
+
+    @Test
+    void testPollingTrigger() throws Exception {
+        registrySyncTrigger.start();
+        registrySyncTrigger.onAssertionsModified(new AssertionsModifiedEvent("salesforce-id"));
+
+        registrySyncTrigger.poll();
+        registrySyncTrigger.poll();
+
+        Mockito.verify(assertionService, Mockito.times(2)).postAssertionsToOrcid();
+        Mockito.verify(assertionService, Mockito.times(2)).putAssertionsInOrcid();
+        Mockito.verify(lock, Mockito.times(2)).unlock();
+    }
+
+    @Test
+    void testEventsTriggerCoalescesBursts() throws Exception {
+        applicationProperties.getRegistrySync().setTrigger(RegistrySyncTrigger.EVENTS_TRIGGER);
+        registrySyncTrigger.start();
+
+        for (int i = 0; i < 20; i++) {
+            registrySyncTrigger.onAssertionsModified(new AssertionsModifiedEvent("salesforce-id"));
+        }
+
+        Mockito.verify(assertionService, Mockito.timeout(2000)).putAssertionsInOrcid();
+        Thread.sleep(200);
+        Mockito.verify(assertionService, Mockito.times(1)).postAssertionsToOrcid();
+        Mockito.verify(lock).unlock();
+    }
+
+    @Test
+    void testEventsTriggerSkipsPollUntilFullSyncDue() throws Exception {
+        applicationProperties.getRegistrySync().setTrigger(RegistrySyncTrigger.EVENTS_TRIGGER);
+        registrySyncTrigger.start();
+
+        registrySyncTrigger.onAssertionsModified(new AssertionsModifiedEvent("salesforce-id"));
+        Mockito.verify(assertionService, Mockito.timeout(2000)).putAssertionsInOrcid();
+        assertFalse(registrySyncTrigger.isPollingRequired());
+        registrySyncTrigger.poll();
+        Mockito.verify(assertionService, Mockito.times(1)).postAssertionsToOrcid();
+
+        applicationProperties.getRegistrySync().setFullSyncIntervalInMs(0);
+        assertTrue(registrySyncTrigger.isPollingRequired());
+        registrySyncTrigger.poll();
+        Mockito.verify(assertionService, Mockito.times(2)).postAssertionsToOrcid();
+    }
+
+    @Test
+    void testTriggeredSyncRetriedWhenLockedElsewhere() throws Exception {
+        applicationProperties.getRegistrySync().setTrigger(RegistrySyncTrigger.EVENTS_TRIGGER);
+        Mockito.when(lockProvider.lock(Mockito.any(LockConfiguration.class))).thenReturn(Optional.empty()).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(lock));
+        registrySyncTrigger.start();
+
+        registrySyncTrigger.requestSync();
+
+        Mockito.verify(assertionService, Mockito.timeout(2000)).putAssertionsInOrcid();
+        Mockito.verify(lockProvider, Mockito.times(3)).lock(Mockito.any(LockConfiguration.class));
+    }
+
+    @Test
+    void testTriggeredSyncSkippedWhenSyncStartedSinceRequest() throws Exception {
+        applicationProperties.getRegistrySync().setTrigger(RegistrySyncTrigger.EVENTS_TRIGGER);
+        registrySyncTrigger.start();
+
+        // another node took the lock after the request, having seen the same change
+        Mockito.when(mongoTemplate.findById(RegistrySyncTrigger.LOCK_NAME, Document.class, RegistrySyncTrigger.LOCK_COLLECTION))
+                .thenReturn(new Document("lockedAt", new Date(System.currentTimeMillis() + 60000)));
+        registrySyncTrigger.requestSync();
+        Mockito.verify(mongoTemplate, Mockito.timeout(2000)).findById(RegistrySyncTrigger.LOCK_NAME, Document.class, RegistrySyncTrigger.LOCK_COLLECTION);
+        Thread.sleep(200);
+        Mockito.verify(lockProvider, Mockito.never()).lock(Mockito.any(LockConfiguration.class));
+        Mockito.verify(assertionService, Mockito.never()).putAssertionsInOrcid();
+
+        Mockito.when(mongoTemplate.findById(RegistrySyncTrigger.LOCK_NAME, Document.class, RegistrySyncTrigger.LOCK_COLLECTION))
+                .thenReturn(new Document("lockedAt", new Date(System.currentTimeMillis() - 60000)));
+        registrySyncTrigger.requestSync();
+        Mockito.verify(assertionService, Mockito.timeout(2000)).putAssertionsInOrcid();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangeStreamTrigger() throws Exception {
+        applicationProperties.getRegistrySync().setTrigger(RegistrySyncTrigger.CHANGE_STREAM_TRIGGER);
+        applicationProperties.getRegistrySync().setCoalesceDelayInMs(0);
+        MongoCollection<Document> collection = Mockito.mock(MongoCollection.class);
+        ChangeStreamIterable<Document> changeStream = Mockito.mock(ChangeStreamIterable.class);
+        MongoCursor<ChangeStreamDocument<Document>> changes = Mockito.mock(MongoCursor.class);
+        Mockito.when(mongoTemplate.getCollection(Mockito.eq("assertion"))).thenReturn(collection);
+        Mockito.when(collection.watch(Mockito.any(List.class))).thenReturn(changeStream);
+        Mockito.when(changeStream.maxAwaitTime(Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenReturn(changeStream);
+        Mockito.when(changeStream.iterator()).thenReturn(changes);
+        Queue<ChangeStreamDocument<Document>> received = new ConcurrentLinkedQueue<>();
+        Mockito.when(changes.tryNext()).thenAnswer(invocation -> received.poll());
+
+        registrySyncTrigger.start();
+
+        // the initial catch up sync
+        Mockito.verify(assertionService, Mockito.timeout(2000)).putAssertionsInOrcid();
+        assertTrue(registrySyncTrigger.isChangeStreamActive());
+        assertFalse(registrySyncTrigger.isPollingRequired());
+
+        ChangeStreamDocument<Document> insert = new ChangeStreamDocument<>(new BsonDocument(), new MongoNamespace("assertionservice.assertion"), new Document(),
+                new BsonDocument(), OperationType.INSERT, null);
+        received.add(insert);
+        Mockito.verify(assertionService, Mockito.timeout(2000).times(2)).putAssertionsInOrcid();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangeStreamTriggerFallsBackToPolling() throws Exception {
+        applicationProperties.getRegistrySync().setTrigger(RegistrySyncTrigger.CHANGE_STREAM_TRIGGER);
+        MongoCollection<Document> collection = Mockito.mock(MongoCollection.class);
+        Mockito.when(mongoTemplate.getCollection(Mockito.eq("assertion"))).thenReturn(collection);
+        Mockito.when(collection.watch(Mockito.any(List.class))).thenThrow(new MongoException("The $changeStream stage is only supported on replica sets"));
+
+        registrySyncTrigger.start();
+
+        Mockito.verify(collection, Mockito.timeout(2000)).watch(Mockito.any(List.class));
+        assertFalse(registrySyncTrigger.isChangeStreamActive());
+        assertTrue(registrySyncTrigger.isPollingRequired());
+        registrySyncTrigger.poll();
+        Mockito.verify(assertionService).postAssertionsToOrcid();
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.orcid.memberportal.service.assertion.upload.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.validation.org.OrgValidator;
+import org.orcid.memberportal.service.assertion.domain.validation.org.impl.GridOrgValidator;
+import org.orcid.memberportal.service.assertion.domain.validation.org.impl.RinggoldOrgValidator;
+import org.orcid.memberportal.service.assertion.domain.validation.org.impl.RorOrgValidator;
+import org.orcid.memberportal.service.assertion.services.AssertionService;
+import org.orcid.memberportal.service.assertion.upload.AssertionsUpload;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures {@link AssertionsCsvReader#readAssertionsUpload} on synthetic
+ * uploads of new affiliations. Rows have no url, as urls are validated with a
+ * DNS lookup, which would make the benchmark depend on the network.
+ * <p>
+ * Run from the assertion-service directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.assertion.upload.impl.AssertionsCsvReaderBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-AssertionsCsvReaderBenchmark.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssertionsCsvReaderBenchmark {
+
+    private static final String HEADER = "email,affiliation-section,department-name,role-title,start-date,end-date,org-name,org-country,org-city,org-region,disambiguated-organization-identifier,disambiguation-source\n";
+
+    @Param({ "100", "10000" })
+    private int rows;
+
+    private byte[] csv;
+
+    private AssertionsCsvReader reader;
+
+    private AssertionServiceUser user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(HEADER);
+        for (int i = 0; i < rows; i++) {
+            builder.append("user").append(i).append("@example.org,employment,dept ").append(i).append(",role ").append(i)
+                    .append(",2015-0").append(1 + i % 9).append("-1").append(i % 9).append(",2020-12,Org ").append(i % 50)
+                    .append(",US,Bethesda,Region,grid.").append(1000 + i % 50).append(",grid\n");
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        reader = new AssertionsCsvReader();
+        ReflectionTestUtils.setField(reader, "assertionsService", Mockito.mock(AssertionService.class, Mockito.withSettings().stubOnly()));
+        ReflectionTestUtils.setField(reader, "messageSource", Mockito.mock(MessageSource.class, Mockito.withSettings().stubOnly()));
+        ReflectionTestUtils.setField(reader, "gridValidator", validator(GridOrgValidator.class));
+        ReflectionTestUtils.setField(reader, "ringgoldValidator", validator(RinggoldOrgValidator.class));
+        ReflectionTestUtils.setField(reader, "rorValidator", validator(RorOrgValidator.class));
+
+        user = new AssertionServiceUser();
+        user.setId("benchmark-user");
+        user.setLangKey("en");
+        user.setEmail("benchmark@orcid.org");
+        user.setSalesforceId("benchmark-salesforce-id");
+    }
+
+    @Benchmark
+    public AssertionsUpload readAssertionsUpload() throws IOException {
+        return reader.readAssertionsUpload(new ByteArrayInputStream(csv), user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AssertionsCsvReaderBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + AssertionsCsvReaderBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+    private static <T extends OrgValidator> T validator(Class<T> type) {
+        // stub only, so that calls aren't recorded for the length of the run
+        T validator = Mockito.mock(type, Mockito.withSettings().stubOnly());
+        Mockito.when(validator.validId(Mockito.anyString())).thenReturn(true);
+        return validator;
+    }
+
+}
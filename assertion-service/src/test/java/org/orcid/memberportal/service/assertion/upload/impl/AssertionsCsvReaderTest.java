@@ -4,9 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import org.codehaus.jettison.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
@@ -135,8 +139,7 @@ class AssertionsCsvReaderTest {
 
     @Test
     void testReadAssertionsUploadWithDbIds() throws IOException {
-        Mockito.when(mockAssertionService.assertionExists(Mockito.anyString())).thenReturn(true);
-        Mockito.when(mockAssertionService.findById(Mockito.anyString())).thenReturn(getDummyAssertionWithEmail());
+        mockExistingAssertions(getDummyAssertionWithEmail("a-database-id"), getDummyAssertionWithEmail("another-database-id"));
 
         InputStream inputStream = getClass().getResourceAsStream("/assertions-with-db-id-column.csv");
         AssertionsUpload upload = reader.readAssertionsUpload(inputStream, getUser("en"));
@@ -160,8 +163,7 @@ class AssertionsCsvReaderTest {
 
     @Test
     void testReadAssertionsUploadWithAddedWhitespace() throws IOException {
-        Mockito.when(mockAssertionService.assertionExists(Mockito.anyString())).thenReturn(true);
-        Mockito.when(mockAssertionService.findById(Mockito.anyString())).thenReturn(getDummyAssertionWithEmail());
+        mockExistingAssertions(getDummyAssertionWithEmail("a-database-id"), getDummyAssertionWithEmail("another-database-id"));
 
         InputStream inputStream = getClass().getResourceAsStream("/assertions-with-whitespace.csv");
         AssertionsUpload upload = reader.readAssertionsUpload(inputStream, getUser("en"));
@@ -185,9 +187,7 @@ class AssertionsCsvReaderTest {
 
     @Test
     void testReadAssertionsUploadWithError() throws IOException {
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("a-database-id"))).thenReturn(false);
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("another-database-id"))).thenReturn(true);
-        Mockito.when(mockAssertionService.findById(Mockito.anyString())).thenReturn(getDummyAssertionWithEmail());
+        mockExistingAssertions(getDummyAssertionWithEmail("another-database-id"));
 
         InputStream inputStream = getClass().getResourceAsStream("/assertions-with-db-id-column.csv");
         AssertionsUpload upload = reader.readAssertionsUpload(inputStream, getUser("en"));
@@ -212,10 +212,8 @@ class AssertionsCsvReaderTest {
 
     @Test
     void testReadAssertionsUploadWithDeleteRow() throws IOException {
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("a-database-id"))).thenReturn(true);
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("another-database-id"))).thenReturn(true);
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("id-to-delete"))).thenReturn(true);
-        Mockito.when(mockAssertionService.findById(Mockito.anyString())).thenReturn(getDummyAssertionWithEmail());
+        mockExistingAssertions(getDummyAssertionWithEmail("a-database-id"), getDummyAssertionWithEmail("another-database-id"),
+                getDummyAssertionWithEmail("id-to-delete"));
 
         InputStream inputStream = getClass().getResourceAsStream("/assertions-with-delete-row.csv");
         AssertionsUpload upload = reader.readAssertionsUpload(inputStream, getUser("en"));
@@ -237,15 +235,11 @@ class AssertionsCsvReaderTest {
     void testReadAssertionsUploadWithUpdatedEmail() throws IOException, JSONException {
         Mockito.when(messageSource.getMessage(Mockito.anyString(), Mockito.any(), Mockito.eq(Locale.ENGLISH))).thenReturn("some-value");
 
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("a-database-id"))).thenReturn(true);
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("another-database-id"))).thenReturn(true);
-
         Assertion existingAssertionWithDifferentEmail = new Assertion();
         existingAssertionWithDifferentEmail.setEmail("different@email.com");
         existingAssertionWithDifferentEmail.setId("another-database-id");
 
-        Mockito.when(mockAssertionService.findById(Mockito.eq("a-database-id"))).thenReturn(getDummyAssertionWithEmail());
-        Mockito.when(mockAssertionService.findById(Mockito.eq("another-database-id"))).thenReturn(existingAssertionWithDifferentEmail);
+        mockExistingAssertions(getDummyAssertionWithEmail("a-database-id"), existingAssertionWithDifferentEmail);
 
         InputStream inputStream = getClass().getResourceAsStream("/assertions-with-db-id-column.csv");
         AssertionsUpload upload = reader.readAssertionsUpload(inputStream, getUser("en"));
@@ -260,9 +254,7 @@ class AssertionsCsvReaderTest {
 
     @Test
     void testReadAssertionsWithInterestingDates() throws IOException {
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("a-database-id"))).thenReturn(true);
-        Mockito.when(mockAssertionService.assertionExists(Mockito.eq("another-database-id"))).thenReturn(true);
-        Mockito.when(mockAssertionService.findById(Mockito.anyString())).thenReturn(getDummyAssertionWithEmail());
+        mockExistingAssertions(getDummyAssertionWithEmail("a-database-id"), getDummyAssertionWithEmail("another-database-id"));
 
         InputStream inputStream = getClass().getResourceAsStream("/assertions-with-interesting-dates.csv");
         AssertionsUpload upload = reader.readAssertionsUpload(inputStream, getUser("en"));
@@ -292,12 +284,43 @@ class AssertionsCsvReaderTest {
         assertNull(upload.getAssertions().get(2).getEndDay());
     }
 
-    private Assertion getDummyAssertionWithEmail() {
+    @Test
+    void testReadAssertionsUploadLooksUpIdsInChunks() throws IOException {
+        int rows = AssertionsCsvReader.ID_PREFETCH_CHUNK_SIZE + 10;
+        StringBuilder csv = new StringBuilder(
+                "id,email,affiliation-section,department-name,role-title,start-date,end-date,org-name,org-country,org-city,org-region,disambiguated-organization-identifier,disambiguation-source\n");
+        Assertion[] existing = new Assertion[rows];
+        for (int i = 0; i < rows; i++) {
+            csv.append("id-").append(i).append(",email@orcid.org,employment,dept,role,2019,2020-05,ORCID,US,Bethesda,,grid.1,GRID\n");
+            existing[i] = getDummyAssertionWithEmail("id-" + i);
+        }
+        mockExistingAssertions(existing);
+
+        AssertionsUpload upload = reader.readAssertionsUpload(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), getUser("en"));
+        assertEquals(rows, upload.getAssertions().size());
+        assertEquals(0, upload.getErrors().size());
+
+        // one lookup per chunk rather than two per row
+        Mockito.verify(mockAssertionService, Mockito.times(2)).findAssertionsForEditValidation(Mockito.anyCollection());
+        Mockito.verify(mockAssertionService, Mockito.never()).assertionExists(Mockito.anyString());
+        Mockito.verify(mockAssertionService, Mockito.never()).findById(Mockito.anyString());
+    }
+
+    private Assertion getDummyAssertionWithEmail(String id) {
         Assertion dummy = new Assertion();
+        dummy.setId(id);
         dummy.setEmail("email@orcid.org");
         return dummy;
     }
 
+    private void mockExistingAssertions(Assertion... assertions) {
+        Map<String, Assertion> existing = new HashMap<>();
+        for (Assertion assertion : assertions) {
+            existing.put(assertion.getId(), assertion);
+        }
+        Mockito.when(mockAssertionService.findAssertionsForEditValidation(Mockito.anyCollection())).thenReturn(existing);
+    }
+
     private AssertionServiceUser getUser(String langKey) {
         AssertionServiceUser user = new AssertionServiceUser();
         user.setId("some-id");
@@ -0,0 +1,130 @@
+package org.orcid.memberportal.service.assertion.upload.impl;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link AssertionsUploadDateParser} with the formatter based
+ * validation it replaced, which tried each accepted pattern in turn and
+ * caught the exception from each failed attempt, then parsed start and end
+ * dates a second time to compare them.
+ * <p>
+ * Each mix is a batch of start and end date pairs: {@code partial} is mostly
+ * 'yyyy' and 'yyyy-MM' dates, {@code full} is mostly 'yyyy-MM-dd' dates, and
+ * both include a few invalid dates.
+ * <p>
+ * Run from the assertion-service directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.assertion.upload.impl.AssertionsUploadDateParserBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-AssertionsUploadDateParserBenchmark.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssertionsUploadDateParserBenchmark {
+
+    private static final int PAIRS = 1000;
+
+    private static final DateTimeFormatter[] FORMATTERS = {
+            new DateTimeFormatterBuilder().appendPattern("yyyy").parseDefaulting(ChronoField.MONTH_OF_YEAR, 1).parseDefaulting(ChronoField.DAY_OF_MONTH, 1).toFormatter(),
+            new DateTimeFormatterBuilder().appendPattern("yyyy-MM").parseDefaulting(ChronoField.DAY_OF_MONTH, 1).toFormatter(),
+            new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd").parseStrict().toFormatter() };
+
+    @Param({ "partial", "full" })
+    private String mix;
+
+    private String[] startDates;
+
+    private String[] endDates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // yyyy, yyyy-MM, yyyy-MM-dd and invalid, in percent
+        int[] weights = "partial".equals(mix) ? new int[] { 50, 35, 10, 5 } : new int[] { 10, 10, 75, 5 };
+        Random random = new Random(42);
+        startDates = new String[PAIRS];
+        endDates = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            startDates[i] = date(random, weights, 1990 + random.nextInt(20));
+            endDates[i] = date(random, weights, 2010 + random.nextInt(15));
+        }
+    }
+
+    @Benchmark
+    public void formatters(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            LocalDate start = parseWithFormatters(startDates[i]);
+            LocalDate end = parseWithFormatters(endDates[i]);
+            if (start != null && end != null) {
+                // the dates were parsed again for the comparison
+                blackhole.consume(parseWithFormatters(startDates[i]).isAfter(parseWithFormatters(endDates[i])));
+            }
+        }
+    }
+
+    @Benchmark
+    public void parser(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            int start = AssertionsUploadDateParser.parse(startDates[i]);
+            int end = AssertionsUploadDateParser.parse(endDates[i]);
+            if (AssertionsUploadDateParser.isValid(start) && AssertionsUploadDateParser.isValid(end)) {
+                blackhole.consume(start > end);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AssertionsUploadDateParserBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + AssertionsUploadDateParserBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+    private static LocalDate parseWithFormatters(String date) {
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            try {
+                return LocalDate.parse(date, formatter);
+            } catch (DateTimeParseException e) {
+            }
+        }
+        return null;
+    }
+
+    private static String date(Random random, int[] weights, int year) {
+        int roll = random.nextInt(100);
+        String month = String.format("%02d", 1 + random.nextInt(12));
+        if (roll < weights[0]) {
+            return String.valueOf(year);
+        } else if (roll < weights[0] + weights[1]) {
+            return year + "-" + month;
+        } else if (roll < weights[0] + weights[1] + weights[2]) {
+            return year + "-" + month + "-" + String.format("%02d", 1 + random.nextInt(28));
+        } else {
+            return year + "/" + month;
+        }
+    }
+
+}
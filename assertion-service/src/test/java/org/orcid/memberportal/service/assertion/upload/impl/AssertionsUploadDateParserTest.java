@@ -0,0 +1,44 @@
+package org.orcid.memberportal.service.assertion.upload.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AssertionsUploadDateParserTest {
+
+    @Test
+    void testParseAcceptedFormats() {
+        assertEquals(20190101, AssertionsUploadDateParser.parse("2019"));
+        assertEquals(20190501, AssertionsUploadDateParser.parse("2019-05"));
+        assertEquals(20190517, AssertionsUploadDateParser.parse("2019-05-17"));
+        assertEquals(20200229, AssertionsUploadDateParser.parse("2020-02-29"));
+    }
+
+    @Test
+    void testParsedDatesCompareInDateOrder() {
+        assertTrue(AssertionsUploadDateParser.parse("2019-12-31") < AssertionsUploadDateParser.parse("2020"));
+        assertTrue(AssertionsUploadDateParser.parse("2020") < AssertionsUploadDateParser.parse("2020-01-02"));
+        assertTrue(AssertionsUploadDateParser.parse("2020-02") > AssertionsUploadDateParser.parse("2020-01-31"));
+        assertEquals(AssertionsUploadDateParser.parse("2020"), AssertionsUploadDateParser.parse("2020-01-01"));
+    }
+
+    @Test
+    void testParseInvalidFormats() {
+        for (String date : new String[] { "", "19", "20190", "2019-5", "2019-05-1", "2019/05/17", "2019 05 17", "201a", "2019-13", "2019-00", "2019-05-32",
+                "2019-05-00", "0000", "2019-05-17T00:00", "+2019", "2019--5" }) {
+            assertEquals(AssertionsUploadDateParser.INVALID_FORMAT, AssertionsUploadDateParser.parse(date), date);
+            assertFalse(AssertionsUploadDateParser.isValid(AssertionsUploadDateParser.parse(date)), date);
+        }
+    }
+
+    @Test
+    void testParseInvalidDates() {
+        assertEquals(AssertionsUploadDateParser.INVALID_DATE, AssertionsUploadDateParser.parse("2021-02-29"));
+        assertEquals(AssertionsUploadDateParser.INVALID_DATE, AssertionsUploadDateParser.parse("2021-02-30"));
+        assertEquals(AssertionsUploadDateParser.INVALID_DATE, AssertionsUploadDateParser.parse("2021-04-31"));
+        assertFalse(AssertionsUploadDateParser.isValid(AssertionsUploadDateParser.INVALID_DATE));
+    }
+
+}
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -29,6 +30,8 @@ import org.mockito.MockitoAnnotations;
 import org.orcid.memberportal.service.assertion.config.Constants;
 import org.orcid.memberportal.service.assertion.domain.Assertion;
 import org.orcid.memberportal.service.assertion.domain.AssertionServiceUser;
+import org.orcid.memberportal.service.assertion.domain.AssertionsUploadJob;
+import org.orcid.memberportal.service.assertion.domain.MemberAssertionStatusSummary;
 import org.orcid.memberportal.service.assertion.domain.OrcidRecord;
 import org.orcid.memberportal.service.assertion.domain.OrcidToken;
 import org.orcid.memberportal.service.assertion.domain.enumeration.AffiliationSection;
@@ -53,6 +56,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -116,6 +120,42 @@ class AssertionResourceTest {
         Mockito.when(assertionsUserService.getLoggedInUserSalesforceId()).thenReturn(DEFAULT_SALESFORCE_ID);
     }
     
+    @Test
+    void testGetUploadProgress() {
+        AssertionsUploadJob job = new AssertionsUploadJob();
+        job.setStatus(AssertionsUploadJob.IN_PROGRESS_STATUS);
+        job.setTotalRows(10);
+        job.setRowsProcessed(4);
+        Mockito.when(assertionService.getAssertionsUploadJobs()).thenReturn(Arrays.asList(job));
+
+        ResponseEntity<List<AssertionsUploadJob>> response = assertionResource.getUploadProgress();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        assertEquals(4, response.getBody().get(0).getRowsProcessed());
+    }
+
+    @Test
+    void testExportAssertions() throws IOException {
+        Instant modifiedSince = Instant.now();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertionResource.exportAssertions(modifiedSince, response);
+
+        assertEquals("application/x-ndjson", response.getContentType());
+        Mockito.verify(assertionService).exportCurrentMemberAssertions(Mockito.eq(modifiedSince), Mockito.eq(response.getOutputStream()));
+    }
+
+    @Test
+    void testGetAssertionStatusSummary() {
+        MemberAssertionStatusSummary summary = new MemberAssertionStatusSummary();
+        summary.setSalesforceId(DEFAULT_SALESFORCE_ID);
+        summary.getStatusCounts().put(AssertionStatus.PENDING.name(), 3L);
+        Mockito.when(assertionService.getMemberAssertionStatusSummary()).thenReturn(summary);
+
+        ResponseEntity<MemberAssertionStatusSummary> response = assertionResource.getAssertionStatusSummary();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Long.valueOf(3), response.getBody().getStatusCounts().get(AssertionStatus.PENDING.name()));
+    }
+
     @Test
     void testGetAssertionOfPendingStatus() {
         Assertion pendingAssertion = new Assertion();
@@ -352,7 +392,7 @@ class AssertionResourceTest {
     @Test
     void testUploadAssertions() throws IOException {
         MultipartFile file = Mockito.mock(MultipartFile.class);
-        Mockito.doNothing().when(assertionService).uploadAssertions(Mockito.any());
+        Mockito.when(assertionService.uploadAssertions(Mockito.any())).thenReturn(new AssertionsUploadJob());
         ResponseEntity<Boolean> success = assertionResource.uploadAssertions(file);
         assertEquals(Boolean.TRUE, success.getBody());
         Mockito.verify(assertionService, Mockito.times(1)).uploadAssertions(Mockito.any());
@@ -394,17 +434,31 @@ class AssertionResourceTest {
     @Test
     void testUpdateSalesforceId() {
         Mockito.when(assertionService.updateAssertionsSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"))).thenReturn(true);
-        ResponseEntity<Void> response = assertionResource.updateSalesforceId("salesforce-id", "new-salesforce-id");
+        ResponseEntity<Void> response = assertionResource.updateSalesforceId("salesforce-id", "new-salesforce-id", null);
         assertTrue(response.getStatusCode().is2xxSuccessful());
+
+        Mockito.when(assertionService.updateAssertionsSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenReturn(true);
+        response = assertionResource.updateSalesforceId("salesforce-id", "new-salesforce-id", "migration-id");
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        Mockito.verify(assertionService).updateAssertionsSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
     }
     
     @Test
     void testUpdateSalesforceIdWithError() {
         Mockito.when(assertionService.updateAssertionsSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"))).thenReturn(false);
-        ResponseEntity<Void> response = assertionResource.updateSalesforceId("salesforce-id", "new-salesforce-id");
+        ResponseEntity<Void> response = assertionResource.updateSalesforceId("salesforce-id", "new-salesforce-id", null);
         assertTrue(response.getStatusCode().is5xxServerError());
     }
 
+    @Test
+    void testRollbackSalesforceId() {
+        Mockito.when(assertionService.rollbackAssertionsSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenReturn(true).thenReturn(false);
+        assertTrue(assertionResource.rollbackSalesforceId("salesforce-id", "new-salesforce-id", "migration-id").getStatusCode().is2xxSuccessful());
+        assertTrue(assertionResource.rollbackSalesforceId("salesforce-id", "new-salesforce-id", "migration-id").getStatusCode().is5xxServerError());
+    }
+
     private Page<Assertion> getMockPage() {
         Assertion assertion1 = getAssertion("some-email@orcid.org");
         assertion1.setStatus(AssertionStatus.PENDING.name());
@@ -6,25 +6,38 @@ import com.netflix.eureka.EurekaServerContextHolder;
 import io.github.jhipster.registry.service.dto.ZuulRouteDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
 import org.springframework.cloud.netflix.zuul.RoutesRefreshedEvent;
 import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
 import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Updates Zuul proxies depending on available application instances.
  *
  * This uses directly the Eureka server, so it only works with the Eureka option.
+ *
+ * Instances registering, cancelling or renewing with a new status mark the
+ * routes as dirty, and the registry is only read again once they are. A full
+ * reconciliation still runs every {@link #FULL_RECONCILE_INTERVAL_MS}, to
+ * catch any change that didn't come with an event.
  */
 @Service
 public class ZuulUpdaterService {
 
+    private static final long FULL_RECONCILE_INTERVAL_MS = 60_000;
+
     private final Logger log = LoggerFactory.getLogger(ZuulUpdaterService.class);
 
     private final RouteLocator routeLocator;
@@ -33,6 +46,16 @@ public class ZuulUpdaterService {
 
     private final ApplicationEventPublisher publisher;
 
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    /**
+     * Status of every registered instance as of the last update, by instance
+     * id.
+     */
+    private volatile Map<String, String> instanceStatuses = Collections.emptyMap();
+
+    private long lastUpdate;
+
     public ZuulUpdaterService(RouteLocator routeLocator, ZuulProperties zuulProperties,
                               ApplicationEventPublisher publisher) {
         this.routeLocator = routeLocator;
@@ -40,61 +63,89 @@ public class ZuulUpdaterService {
         this.publisher = publisher;
     }
 
-    @Scheduled(fixedDelay = 5_000)
-    public void updateZuulRoutes() {
-        boolean isDirty = false;
+    @EventListener
+    public void onInstanceRegistered(EurekaInstanceRegisteredEvent event) {
+        dirty.set(true);
+    }
 
-        List<Application> applications = EurekaServerContextHolder
-            .getInstance().getServerContext().getRegistry().getApplications().getRegisteredApplications();
+    @EventListener
+    public void onInstanceCanceled(EurekaInstanceCanceledEvent event) {
+        dirty.set(true);
+    }
 
-        for (Application application : applications) {
+    /**
+     * Renewals happen on every heartbeat, so only mark the routes as dirty if
+     * the instance is new to us or its status has changed.
+     */
+    @EventListener
+    public void onInstanceRenewed(EurekaInstanceRenewedEvent event) {
+        InstanceInfo instanceInfo = event.getInstanceInfo();
+        if (instanceInfo == null || !instanceInfo.getStatus().toString().equals(instanceStatuses.get(instanceInfo.getId()))) {
+            dirty.set(true);
+        }
+    }
 
+    @Scheduled(fixedDelay = 1_000)
+    public void updateZuulRoutes() {
+        long now = System.currentTimeMillis();
+        if (!dirty.getAndSet(false) && now - lastUpdate < FULL_RECONCILE_INTERVAL_MS) {
+            return;
+        }
+        lastUpdate = now;
+
+        // one pass over the registry, keyed by instance id
+        Map<String, String> statuses = new HashMap<>();
+        Map<String, ZuulRouteDTO> routableInstances = new HashMap<>();
+        for (Application application : getRegisteredApplications()) {
             for (InstanceInfo instanceInfos : application.getInstances()) {
-                if(!instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.UP) &&
-                    !instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.STARTING)) continue;
                 String instanceId = instanceInfos.getId();
-                String url = instanceInfos.getHomePageUrl();
-                log.debug("Checking instance {} - {} ", instanceId, url);
+                statuses.put(instanceId, instanceInfos.getStatus().toString());
+                if (!instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.UP) &&
+                    !instanceInfos.getStatus().equals(InstanceInfo.InstanceStatus.STARTING)) continue;
 
-                ZuulRouteDTO route = new ZuulRouteDTO(instanceId, "/" +
+                String url = instanceInfos.getHomePageUrl();
+                routableInstances.put(instanceId, new ZuulRouteDTO(instanceId, "/" +
                     application.getName().toLowerCase() + "/" + instanceId + "/**",
                     null, url, zuulProperties.isStripPrefix(), zuulProperties.getRetryable(), Collections.emptySet(),
-                    instanceInfos.getStatus().toString());
-
-                if (zuulProperties.getRoutes().containsKey(instanceId)) {
-                    log.debug("Instance '{}' already registered", instanceId);
-                    if (!zuulProperties.getRoutes().get(instanceId).getUrl().equals(url) ||
-                        !((ZuulRouteDTO) zuulProperties.getRoutes().get(instanceId)).getStatus().equals(instanceInfos.getStatus().toString())) {
-
-                        log.debug("Updating instance '{}' with new URL: {}", instanceId, url);
-                        zuulProperties.getRoutes().put(instanceId, route);
-                        isDirty = true;
-                    }
-                } else {
-                    log.debug("Adding instance '{}' with URL: {}", instanceId, url);
-                    zuulProperties.getRoutes().put(instanceId, route);
-                    isDirty = true;
-                }
+                    instanceInfos.getStatus().toString()));
             }
         }
-        List<String> zuulRoutesToRemove = new ArrayList<>();
-        for (String key : zuulProperties.getRoutes().keySet()) {
-            if (applications.stream()
-                .flatMap(application -> application.getInstances().stream())
-                .filter(instanceInfo -> instanceInfo.getId().equals(key))
-                .count() == 0) {
-
-                log.debug("Removing instance '{}'", key);
-                zuulRoutesToRemove.add(key);
+        instanceStatuses = statuses;
+
+        Map<String, ZuulProperties.ZuulRoute> routes = zuulProperties.getRoutes();
+        boolean isDirty = false;
+        for (ZuulRouteDTO route : routableInstances.values()) {
+            ZuulProperties.ZuulRoute existing = routes.get(route.getId());
+            if (existing == null) {
+                log.debug("Adding instance '{}' with URL: {}", route.getId(), route.getUrl());
+                routes.put(route.getId(), route);
+                isDirty = true;
+            } else if (!route.getUrl().equals(existing.getUrl()) || !(existing instanceof ZuulRouteDTO) ||
+                !route.getStatus().equals(((ZuulRouteDTO) existing).getStatus())) {
+                log.debug("Updating instance '{}' with new URL: {}", route.getId(), route.getUrl());
+                routes.put(route.getId(), route);
                 isDirty = true;
             }
         }
-        for (String key : zuulRoutesToRemove) {
-            zuulProperties.getRoutes().remove(key);
+        // routes are kept until their instance leaves the registry
+        if (routes.keySet().removeIf(key -> {
+            if (statuses.containsKey(key)) {
+                return false;
+            }
+            log.debug("Removing instance '{}'", key);
+            return true;
+        })) {
+            isDirty = true;
         }
+
         if (isDirty) {
             log.info("Zuul routes have changed - refreshing the configuration");
             this.publisher.publishEvent(new RoutesRefreshedEvent(routeLocator));
         }
     }
+
+    List<Application> getRegisteredApplications() {
+        return EurekaServerContextHolder
+            .getInstance().getServerContext().getRegistry().getApplications().getRegisteredApplications();
+    }
 }
@@ -0,0 +1,149 @@
+package io.github.jhipster.registry.service;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import io.github.jhipster.registry.service.dto.ZuulRouteDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
+import org.springframework.cloud.netflix.zuul.RoutesRefreshedEvent;
+import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ZuulUpdaterServiceTest {
+
+    @Mock
+    private RouteLocator routeLocator;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    private ZuulProperties zuulProperties;
+
+    private List<Application> applications;
+
+    private ZuulUpdaterService zuulUpdaterService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        zuulProperties = new ZuulProperties();
+        applications = new ArrayList<>();
+        zuulUpdaterService = Mockito.spy(new ZuulUpdaterService(routeLocator, zuulProperties, publisher));
+        Mockito.doAnswer(invocation -> applications).when(zuulUpdaterService).getRegisteredApplications();
+    }
+
+    @Test
+    public void testRoutesAddedForRoutableInstances() {
+        Application application = new Application("USERSERVICE");
+        application.addInstance(instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP));
+        application.addInstance(instance("USERSERVICE", "userservice-2", InstanceInfo.InstanceStatus.DOWN));
+        applications.add(application);
+
+        zuulUpdaterService.updateZuulRoutes();
+
+        assertThat(zuulProperties.getRoutes()).containsOnlyKeys("userservice-1");
+        ZuulRouteDTO route = (ZuulRouteDTO) zuulProperties.getRoutes().get("userservice-1");
+        assertThat(route.getPath()).isEqualTo("/userservice/userservice-1/**");
+        assertThat(route.getUrl()).isEqualTo("http://userservice-1:8080/");
+        assertThat(route.getStatus()).isEqualTo("UP");
+        Mockito.verify(publisher).publishEvent(Mockito.any(RoutesRefreshedEvent.class));
+    }
+
+    @Test
+    public void testRegistryOnlyReadWhenDirty() {
+        Application application = new Application("USERSERVICE");
+        application.addInstance(instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP));
+        applications.add(application);
+
+        zuulUpdaterService.updateZuulRoutes();
+        zuulUpdaterService.updateZuulRoutes();
+        Mockito.verify(zuulUpdaterService, Mockito.times(1)).getRegisteredApplications();
+
+        // a heartbeat with an unchanged status isn't a change
+        zuulUpdaterService.onInstanceRenewed(new EurekaInstanceRenewedEvent(this, "USERSERVICE", "userservice-1",
+            instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP), false));
+        zuulUpdaterService.updateZuulRoutes();
+        Mockito.verify(zuulUpdaterService, Mockito.times(1)).getRegisteredApplications();
+
+        InstanceInfo registered = instance("USERSERVICE", "userservice-2", InstanceInfo.InstanceStatus.UP);
+        application.addInstance(registered);
+        zuulUpdaterService.onInstanceRegistered(new EurekaInstanceRegisteredEvent(this, registered, 90, false));
+        zuulUpdaterService.updateZuulRoutes();
+
+        Mockito.verify(zuulUpdaterService, Mockito.times(2)).getRegisteredApplications();
+        assertThat(zuulProperties.getRoutes()).containsOnlyKeys("userservice-1", "userservice-2");
+        Mockito.verify(publisher, Mockito.times(2)).publishEvent(Mockito.any(RoutesRefreshedEvent.class));
+    }
+
+    @Test
+    public void testStatusChangeUpdatesRoute() {
+        Application application = new Application("USERSERVICE");
+        application.addInstance(instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.STARTING));
+        applications.add(application);
+        zuulUpdaterService.updateZuulRoutes();
+
+        InstanceInfo up = instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP);
+        application.addInstance(up);
+        zuulUpdaterService.onInstanceRenewed(new EurekaInstanceRenewedEvent(this, "USERSERVICE", "userservice-1", up, false));
+        zuulUpdaterService.updateZuulRoutes();
+
+        assertThat(((ZuulRouteDTO) zuulProperties.getRoutes().get("userservice-1")).getStatus()).isEqualTo("UP");
+        Mockito.verify(publisher, Mockito.times(2)).publishEvent(Mockito.any(RoutesRefreshedEvent.class));
+    }
+
+    @Test
+    public void testRouteRemovedWhenInstanceCanceled() {
+        Application application = new Application("USERSERVICE");
+        InstanceInfo instance = instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP);
+        application.addInstance(instance);
+        application.addInstance(instance("USERSERVICE", "userservice-2", InstanceInfo.InstanceStatus.UP));
+        applications.add(application);
+        zuulUpdaterService.updateZuulRoutes();
+        ZuulProperties.ZuulRoute untouched = zuulProperties.getRoutes().get("userservice-2");
+
+        application.removeInstance(instance);
+        zuulUpdaterService.onInstanceCanceled(new EurekaInstanceCanceledEvent(this, "USERSERVICE", "userservice-1", false));
+        zuulUpdaterService.updateZuulRoutes();
+
+        assertThat(zuulProperties.getRoutes()).containsOnlyKeys("userservice-2");
+        assertThat(zuulProperties.getRoutes().get("userservice-2")).isSameAs(untouched);
+        Mockito.verify(publisher, Mockito.times(2)).publishEvent(Mockito.any(RoutesRefreshedEvent.class));
+    }
+
+    @Test
+    public void testNoRefreshWhenNothingChanged() {
+        Application application = new Application("USERSERVICE");
+        application.addInstance(instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP));
+        applications.add(application);
+        zuulUpdaterService.updateZuulRoutes();
+
+        zuulUpdaterService.onInstanceRegistered(new EurekaInstanceRegisteredEvent(this,
+            instance("USERSERVICE", "userservice-1", InstanceInfo.InstanceStatus.UP), 90, true));
+        zuulUpdaterService.updateZuulRoutes();
+
+        Mockito.verify(zuulUpdaterService, Mockito.times(2)).getRegisteredApplications();
+        Mockito.verify(publisher, Mockito.times(1)).publishEvent(Mockito.any(RoutesRefreshedEvent.class));
+    }
+
+    private InstanceInfo instance(String appName, String instanceId, InstanceInfo.InstanceStatus status) {
+        return InstanceInfo.Builder.newBuilder()
+            .setAppName(appName)
+            .setInstanceId(instanceId)
+            .setHostName(instanceId)
+            .setHomePageUrl(null, "http://" + instanceId + ":8080/")
+            .setStatus(status)
+            .build();
+    }
+}
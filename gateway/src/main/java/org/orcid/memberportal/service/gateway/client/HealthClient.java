@@ -3,15 +3,21 @@ package org.orcid.memberportal.service.gateway.client;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
 import org.orcid.memberportal.service.gateway.service.dto.SimpleHealthDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,14 +27,39 @@ public class HealthClient {
 
     private final Logger LOG = LoggerFactory.getLogger(HealthClient.class);
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     private CloseableHttpClient httpClient;
 
-    public HealthClient() {
-        this.httpClient = HttpClients.createDefault();
+    /**
+     * Every health check goes to the gateway's own host, so the pool allows
+     * as many connections to one route as there can be concurrent checks.
+     */
+    @PostConstruct
+    public void init() {
+        int maxConnections = applicationProperties.getHealth().getMaxConcurrentChecks();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        this.httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
     }
 
-    public SimpleHealthDTO getHealth(String url) throws IOException {
+    /**
+     * Gets a service's health, giving up after timeoutInMs to get a pooled
+     * connection, to connect or to read, so that checks abandoned by the
+     * health service as too slow free up their thread at about the same time.
+     */
+    public SimpleHealthDTO getHealth(String url, int timeoutInMs) throws IOException {
         HttpGet httpGet = new HttpGet(url);
+        httpGet.setConfig(RequestConfig.custom().setConnectTimeout(timeoutInMs).setConnectionRequestTimeout(timeoutInMs).setSocketTimeout(timeoutInMs).build());
         CloseableHttpResponse response = null;
 
         try {
@@ -1,5 +1,8 @@
 package org.orcid.memberportal.service.gateway.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -11,4 +14,148 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final RateLimiting rateLimiting = new RateLimiting();
+
+    private final Health health = new Health();
+
+    public RateLimiting getRateLimiting() {
+        return rateLimiting;
+    }
+
+    public Health getHealth() {
+        return health;
+    }
+
+    /**
+     * Settings for the local tier of the rate limiting filter. The default
+     * limit itself is still configured under
+     * {@code jhipster.gateway.rate-limiting}.
+     */
+    public static class RateLimiting {
+
+        private long reconcileIntervalInMs = 5000;
+
+        private long idleTimeoutInSeconds = 600;
+
+        private List<Profile> profiles = new ArrayList<>();
+
+        public long getReconcileIntervalInMs() {
+            return reconcileIntervalInMs;
+        }
+
+        public void setReconcileIntervalInMs(long reconcileIntervalInMs) {
+            this.reconcileIntervalInMs = reconcileIntervalInMs;
+        }
+
+        public long getIdleTimeoutInSeconds() {
+            return idleTimeoutInSeconds;
+        }
+
+        public void setIdleTimeoutInSeconds(long idleTimeoutInSeconds) {
+            this.idleTimeoutInSeconds = idleTimeoutInSeconds;
+        }
+
+        public List<Profile> getProfiles() {
+            return profiles;
+        }
+
+        public void setProfiles(List<Profile> profiles) {
+            this.profiles = profiles;
+        }
+    }
+
+    /**
+     * A limit applied to requests for any of the given routes, made by users
+     * with the given authority. Either criterion may be left empty to match
+     * everything. The first matching profile wins.
+     */
+    public static class Profile {
+
+        private String name;
+
+        private List<String> routes = new ArrayList<>();
+
+        private String authority;
+
+        private long limit;
+
+        private long durationInSeconds;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<String> routes) {
+            this.routes = routes;
+        }
+
+        public String getAuthority() {
+            return authority;
+        }
+
+        public void setAuthority(String authority) {
+            this.authority = authority;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        public void setLimit(long limit) {
+            this.limit = limit;
+        }
+
+        public long getDurationInSeconds() {
+            return durationInSeconds;
+        }
+
+        public void setDurationInSeconds(long durationInSeconds) {
+            this.durationInSeconds = durationInSeconds;
+        }
+    }
+
+    /**
+     * Settings for the global health check of all services.
+     */
+    public static class Health {
+
+        private long timeoutInMs = 3000;
+
+        private long cacheTtlInMs = 5000;
+
+        private int maxConcurrentChecks = 8;
+
+        public long getTimeoutInMs() {
+            return timeoutInMs;
+        }
+
+        public void setTimeoutInMs(long timeoutInMs) {
+            this.timeoutInMs = timeoutInMs;
+        }
+
+        public long getCacheTtlInMs() {
+            return cacheTtlInMs;
+        }
+
+        public void setCacheTtlInMs(long cacheTtlInMs) {
+            this.cacheTtlInMs = cacheTtlInMs;
+        }
+
+        public int getMaxConcurrentChecks() {
+            return maxConcurrentChecks;
+        }
+
+        public void setMaxConcurrentChecks(int maxConcurrentChecks) {
+            this.maxConcurrentChecks = maxConcurrentChecks;
+        }
+    }
+
 }
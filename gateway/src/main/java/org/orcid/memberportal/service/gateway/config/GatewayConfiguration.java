@@ -43,13 +43,16 @@ public class GatewayConfiguration {
 
         private final JHipsterProperties jHipsterProperties;
 
-        public RateLimitingConfiguration(JHipsterProperties jHipsterProperties) {
+        private final ApplicationProperties applicationProperties;
+
+        public RateLimitingConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
             this.jHipsterProperties = jHipsterProperties;
+            this.applicationProperties = applicationProperties;
         }
 
         @Bean
         public RateLimitingFilter rateLimitingFilter() {
-            return new RateLimitingFilter(jHipsterProperties);
+            return new RateLimitingFilter(jHipsterProperties, applicationProperties);
         }
     }
 }
@@ -8,17 +8,24 @@ import org.springframework.security.oauth2.common.exceptions.InvalidTokenExcepti
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Improved {@link JwtAccessTokenConverter} that can handle lazy fetching of
  * public verifier keys.
+ * <p>
+ * The token store decodes the access token several times per request, from
+ * the refresh token filter and the resource server, so verified claims are
+ * kept in a {@link VerifiedTokenCache} until the token expires or the public
+ * key changes.
  */
 public class OAuth2JwtAccessTokenConverter extends JwtAccessTokenConverter {
     private final Logger log = LoggerFactory.getLogger(OAuth2JwtAccessTokenConverter.class);
 
     private final OAuth2Properties oAuth2Properties;
     private final OAuth2SignatureVerifierClient signatureVerifierClient;
+    private final VerifiedTokenCache verifiedTokenCache;
     /**
      * When did we last fetch the public key?
      */
@@ -27,6 +34,7 @@ public class OAuth2JwtAccessTokenConverter extends JwtAccessTokenConverter {
     public OAuth2JwtAccessTokenConverter(OAuth2Properties oAuth2Properties, OAuth2SignatureVerifierClient signatureVerifierClient) {
         this.oAuth2Properties = oAuth2Properties;
         this.signatureVerifierClient = signatureVerifierClient;
+        this.verifiedTokenCache = new VerifiedTokenCache(oAuth2Properties.getSignatureVerification().getTokenCacheMaxEntries());
         tryCreateSignatureVerifier();
     }
 
@@ -49,15 +57,29 @@ public class OAuth2JwtAccessTokenConverter extends JwtAccessTokenConverter {
             if (ttl > 0 && System.currentTimeMillis() - lastKeyFetchTimestamp > ttl) {
                 throw new InvalidTokenException("public key expired");
             }
-            return super.decode(token);
+            return verifiedDecode(token);
         } catch (InvalidTokenException ex) {
             if (tryCreateSignatureVerifier()) {
-                return super.decode(token);
+                return verifiedDecode(token);
             }
             throw ex;
         }
     }
 
+    /**
+     * Decode the token, verifying its signature unless it has already been
+     * verified with the current public key.
+     */
+    private Map<String, Object> verifiedDecode(String token) {
+        Map<String, Object> claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            claims = super.decode(token);
+            verifiedTokenCache.put(token, claims);
+        }
+        // callers may modify the claims
+        return new HashMap<>(claims);
+    }
+
     /**
      * Fetch a new public key from the AuthorizationServer.
      *
@@ -72,6 +94,8 @@ public class OAuth2JwtAccessTokenConverter extends JwtAccessTokenConverter {
             SignatureVerifier verifier = signatureVerifierClient.getSignatureVerifier();
             if (verifier != null) {
                 setVerifier(verifier);
+                // tokens verified with the previous key must be verified again
+                verifiedTokenCache.clear();
                 lastKeyFetchTimestamp = t;
                 log.debug("Public key retrieved from OAuth2 server to create SignatureVerifier");
                 return true;
@@ -92,6 +92,12 @@ public class OAuth2Properties {
          * signatures.
          */
         private String publicKeyEndpointUri = "http://uaa/oauth/token_key";
+        /**
+         * Maximum number of verified tokens to keep, so the same token isn't
+         * parsed and signature checked again on every request. Set to 0 to
+         * disable the cache.
+         */
+        private int tokenCacheMaxEntries = 10000;
 
         public long getPublicKeyRefreshRateLimit() {
             return publicKeyRefreshRateLimit;
@@ -116,5 +122,13 @@ public class OAuth2Properties {
         public void setPublicKeyEndpointUri(String publicKeyEndpointUri) {
             this.publicKeyEndpointUri = publicKeyEndpointUri;
         }
+
+        public int getTokenCacheMaxEntries() {
+            return tokenCacheMaxEntries;
+        }
+
+        public void setTokenCacheMaxEntries(int tokenCacheMaxEntries) {
+            this.tokenCacheMaxEntries = tokenCacheMaxEntries;
+        }
     }
 }
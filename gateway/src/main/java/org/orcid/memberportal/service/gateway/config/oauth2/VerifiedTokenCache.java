@@ -0,0 +1,119 @@
+package org.orcid.memberportal.service.gateway.config.oauth2;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+
+/**
+ * Bounded cache of the claims of JWT tokens whose signature has already been
+ * verified, keyed by a digest of the token. Entries are only served until the
+ * token's {@code exp} claim, and tokens without one are never cached.
+ * <p>
+ * The cache must be cleared whenever the verifier key changes.
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the verified claims of the given token, or null if the token
+     * isn't cached or has expired.
+     */
+    public Map<String, Object> get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.millis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    public void put(String token, Map<String, Object> claims) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        Object exp = claims.get(AccessTokenConverter.EXP);
+        if (!(exp instanceof Number)) {
+            return;
+        }
+        long expiresAtMillis = ((Number) exp).longValue() * 1000L;
+        if (expiresAtMillis <= clock.millis()) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest(token), new Entry(Collections.unmodifiableMap(new HashMap<>(claims)), expiresAtMillis));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = clock.millis();
+        entries.values().removeIf(e -> e.expiresAtMillis <= now);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private static class Entry {
+
+        private final Map<String, Object> claims;
+
+        private final long expiresAtMillis;
+
+        private Entry(Map<String, Object> claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
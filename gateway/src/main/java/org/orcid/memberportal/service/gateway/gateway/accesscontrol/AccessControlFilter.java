@@ -16,6 +16,12 @@ import com.netflix.zuul.context.RequestContext;
 
 /**
  * Zuul filter for restricting access to backend micro-services endpoints.
+ * <p>
+ * The routes and their authorized endpoints are indexed in a
+ * {@link RouteAuthorizationIndex}, which is rebuilt whenever the route
+ * locator's routes differ from the ones indexed. Zuul refreshes its routes
+ * from the registry without publishing an event, so the routes are compared
+ * on each request.
  */
 public class AccessControlFilter extends ZuulFilter {
 
@@ -25,6 +31,8 @@ public class AccessControlFilter extends ZuulFilter {
 
     private final JHipsterProperties jHipsterProperties;
 
+    private volatile IndexedRoutes indexedRoutes;
+
     public AccessControlFilter(RouteLocator routeLocator, JHipsterProperties jHipsterProperties) {
         this.routeLocator = routeLocator;
         this.jHipsterProperties = jHipsterProperties;
@@ -51,44 +59,32 @@ public class AccessControlFilter extends ZuulFilter {
 
         // If the request Uri does not start with the path of the authorized
         // endpoints, we block the request
-        for (Route route : routeLocator.getRoutes()) {
-            String serviceUrl = contextPath + route.getFullPath();
-            String serviceName = route.getId();
-
-            // If this route correspond to the current request URI
-            // We do a substring to remove the "**" at the end of the route URL
-            if (requestUri.startsWith(serviceUrl.substring(0, serviceUrl.length() - 2))) {
-                return !isAuthorizedRequest(serviceUrl, serviceName, requestUri);
-            }
+        if (!requestUri.startsWith(contextPath)) {
+            return true;
         }
-        return true;
+        boolean authorized = getIndex().isAuthorized(requestUri.substring(contextPath.length()));
+        if (authorized) {
+            log.debug("Access Control: allowing access for {}", requestUri);
+        }
+        return !authorized;
     }
 
-    private boolean isAuthorizedRequest(String serviceUrl, String serviceName, String requestUri) {
-        Map<String, List<String>> authorizedMicroservicesEndpoints = jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints();
-
-        // If the authorized endpoints list was left empty for this route, all
-        // access are allowed
-        if (authorizedMicroservicesEndpoints.get(serviceName) == null) {
-            log.debug("Access Control: allowing access for {}, as no access control policy has been set up for " + "service: {}", requestUri, serviceName);
-            return true;
-        } else {
-            List<String> authorizedEndpoints = authorizedMicroservicesEndpoints.get(serviceName);
-
-            // Go over the authorized endpoints to control that the request URI
-            // matches it
-            for (String endpoint : authorizedEndpoints) {
-                // We do a substring to remove the "**/" at the end of the route
-                // URL
-                String gatewayEndpoint = serviceUrl.substring(0, serviceUrl.length() - 3) + endpoint;
-                if (requestUri.startsWith(gatewayEndpoint)) {
-                    log.debug("Access Control: allowing access for {}, as it matches the following authorized " + "microservice endpoint: {}", requestUri,
-                            gatewayEndpoint);
-                    return true;
-                }
-            }
+    private RouteAuthorizationIndex getIndex() {
+        List<Route> routes = routeLocator.getRoutes();
+        IndexedRoutes current = indexedRoutes;
+        if (current == null || !current.routes.equals(routes)) {
+            // requests in flight keep using the index they started with
+            current = new IndexedRoutes(routes, buildIndex(routes));
+            indexedRoutes = current;
         }
-        return false;
+        return current.index;
+    }
+
+    private RouteAuthorizationIndex buildIndex(List<Route> routes) {
+        Map<String, List<String>> authorizedMicroservicesEndpoints = jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints();
+        RouteAuthorizationIndex routeAuthorizationIndex = RouteAuthorizationIndex.build(routes, authorizedMicroservicesEndpoints);
+        log.debug("Access Control: indexed {} routes", routeAuthorizationIndex.getRouteCount());
+        return routeAuthorizationIndex;
     }
 
     @Override
@@ -99,4 +95,16 @@ public class AccessControlFilter extends ZuulFilter {
         log.debug("Access Control: filtered unauthorized access on endpoint {}", ctx.getRequest().getRequestURI());
         return null;
     }
+
+    private static class IndexedRoutes {
+
+        private final List<Route> routes;
+
+        private final RouteAuthorizationIndex index;
+
+        private IndexedRoutes(List<Route> routes, RouteAuthorizationIndex index) {
+            this.routes = routes;
+            this.index = index;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package org.orcid.memberportal.service.gateway.gateway.accesscontrol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.cloud.netflix.zuul.filters.Route;
+
+/**
+ * Immutable prefix trie of the zuul routes and their authorized endpoints.
+ * <p>
+ * Whether a request is authorized only depends on which route and endpoint
+ * prefixes it starts with, so the decision is worked out for every node when
+ * the trie is built. Looking up a request path is then a single walk down the
+ * trie, proportional to the length of the path and independent of the number
+ * of routes and endpoints.
+ * <p>
+ * As in the original linear scan, the first route (in route locator order)
+ * whose path prefixes the request decides which endpoint policy applies.
+ */
+class RouteAuthorizationIndex {
+
+    private final Node root;
+
+    private final int routeCount;
+
+    private RouteAuthorizationIndex(Node root, int routeCount) {
+        this.root = root;
+        this.routeCount = routeCount;
+    }
+
+    /**
+     * Builds an index of the given routes, where routes with an entry in
+     * {@code authorizedEndpoints} only allow their listed endpoints and routes
+     * without one allow everything.
+     */
+    static RouteAuthorizationIndex build(List<Route> routes, Map<String, List<String>> authorizedEndpoints) {
+        BuildNode root = new BuildNode();
+        for (int ordinal = 0; ordinal < routes.size(); ordinal++) {
+            Route route = routes.get(ordinal);
+            String fullPath = route.getFullPath();
+
+            // We do a substring to remove the "**" at the end of the route URL
+            BuildNode routeNode = root.add(fullPath.substring(0, fullPath.length() - 2));
+            if (routeNode.routeOrdinal < 0) {
+                routeNode.routeOrdinal = ordinal;
+            }
+
+            List<String> endpoints = authorizedEndpoints.get(route.getId());
+            if (endpoints == null) {
+                routeNode.unrestrictedRoutes.add(ordinal);
+            } else {
+                for (String endpoint : endpoints) {
+                    // We do a substring to remove the "**/" at the end of the
+                    // route URL
+                    root.add(fullPath.substring(0, fullPath.length() - 3) + endpoint).endpointRoutes.add(ordinal);
+                }
+            }
+        }
+        return new RouteAuthorizationIndex(root.freeze(-1, new ArrayList<>()), routes.size());
+    }
+
+    /**
+     * Whether the request path, relative to the gateway context path, is
+     * authorized.
+     */
+    boolean isAuthorized(String path) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            Node child = node.child(path.charAt(i));
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+        return node.authorized;
+    }
+
+    int getRouteCount() {
+        return routeCount;
+    }
+
+    private static class Node {
+
+        private final char[] keys;
+
+        private final Node[] children;
+
+        private final boolean authorized;
+
+        private Node(char[] keys, Node[] children, boolean authorized) {
+            this.keys = keys;
+            this.children = children;
+            this.authorized = authorized;
+        }
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    private static class BuildNode {
+
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+
+        private int routeOrdinal = -1;
+
+        private final List<Integer> unrestrictedRoutes = new ArrayList<>();
+
+        private final List<Integer> endpointRoutes = new ArrayList<>();
+
+        private BuildNode add(String prefix) {
+            BuildNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new BuildNode());
+            }
+            return node;
+        }
+
+        /**
+         * Converts this subtree into lookup nodes, given the first matching
+         * route and the endpoint matches seen on the way down from the root.
+         */
+        private Node freeze(int matchedRoute, List<Integer> authorizedRoutes) {
+            if (routeOrdinal >= 0 && (matchedRoute < 0 || routeOrdinal < matchedRoute)) {
+                matchedRoute = routeOrdinal;
+            }
+            List<Integer> authorizedHere = authorizedRoutes;
+            if (!unrestrictedRoutes.isEmpty() || !endpointRoutes.isEmpty()) {
+                authorizedHere = new ArrayList<>(authorizedRoutes);
+                authorizedHere.addAll(unrestrictedRoutes);
+                authorizedHere.addAll(endpointRoutes);
+            }
+
+            char[] keys = new char[children.size()];
+            Node[] frozenChildren = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                frozenChildren[i] = child.getValue().freeze(matchedRoute, authorizedHere);
+                i++;
+            }
+            return new Node(keys, frozenChildren, matchedRoute >= 0 && authorizedHere.contains(matchedRoute));
+        }
+    }
+}
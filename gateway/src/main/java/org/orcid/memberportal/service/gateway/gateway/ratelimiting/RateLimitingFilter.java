@@ -1,6 +1,15 @@
 package org.orcid.memberportal.service.gateway.gateway.ratelimiting;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
@@ -9,10 +18,17 @@ import javax.cache.configuration.MutableConfiguration;
 import javax.cache.spi.CachingProvider;
 import javax.servlet.http.HttpServletRequest;
 
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
 import org.orcid.memberportal.service.gateway.security.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
@@ -25,6 +41,16 @@ import io.github.jhipster.config.JHipsterProperties;
 
 /**
  * Zuul filter for limiting the number of HTTP calls per client.
+ * <p>
+ * Requests are counted against in-process, lock-free buckets. The tokens each
+ * local bucket consumes are periodically reconciled with the shared JCache
+ * buckets, which also bring the local buckets down to the tokens left across
+ * all gateway instances. Local buckets that have been idle for longer than the
+ * configured timeout are dropped.
+ * <p>
+ * The limit applied to a request comes from the first configured profile
+ * matching its route and the authorities of the current user, falling back to
+ * the {@code jhipster.gateway.rate-limiting} limit.
  *
  * See the Bucket4j documentation at
  * https://github.com/vladimir-bukhtoyarov/bucket4j
@@ -37,20 +63,34 @@ public class RateLimitingFilter extends ZuulFilter {
 
     public final static String GATEWAY_RATE_LIMITING_CACHE_NAME = "gateway-rate-limiting";
 
-    private final JHipsterProperties jHipsterProperties;
+    private final LimitProfile defaultProfile;
+
+    private final List<LimitProfile> profiles = new ArrayList<>();
+
+    private final long idleTimeoutNanos;
+
+    private final ConcurrentMap<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
 
     private javax.cache.Cache<String, GridBucketState> cache;
 
     private ProxyManager<String> buckets;
 
-    public RateLimitingFilter(JHipsterProperties jHipsterProperties) {
-        this.jHipsterProperties = jHipsterProperties;
+    public RateLimitingFilter(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        JHipsterProperties.Gateway.RateLimiting rateLimitingProperties = jHipsterProperties.getGateway().getRateLimiting();
+        this.defaultProfile = new LimitProfile(null, null, null, rateLimitingProperties.getLimit(), rateLimitingProperties.getDurationInSeconds());
+        for (ApplicationProperties.Profile profile : applicationProperties.getRateLimiting().getProfiles()) {
+            profiles.add(new LimitProfile(profile.getName(), profile.getRoutes(), profile.getAuthority(), profile.getLimit(), profile.getDurationInSeconds()));
+        }
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(applicationProperties.getRateLimiting().getIdleTimeoutInSeconds());
 
         CachingProvider cachingProvider = Caching.getCachingProvider();
         CacheManager cacheManager = cachingProvider.getCacheManager();
-        CompleteConfiguration<String, GridBucketState> config = new MutableConfiguration<String, GridBucketState>().setTypes(String.class, GridBucketState.class);
-
-        this.cache = cacheManager.createCache(GATEWAY_RATE_LIMITING_CACHE_NAME, config);
+        this.cache = cacheManager.getCache(GATEWAY_RATE_LIMITING_CACHE_NAME, String.class, GridBucketState.class);
+        if (this.cache == null) {
+            CompleteConfiguration<String, GridBucketState> config = new MutableConfiguration<String, GridBucketState>().setTypes(String.class,
+                    GridBucketState.class);
+            this.cache = cacheManager.createCache(GATEWAY_RATE_LIMITING_CACHE_NAME, config);
+        }
         this.buckets = Bucket4j.extension(JCache.class).proxyManagerForCache(cache);
     }
 
@@ -75,9 +115,11 @@ public class RateLimitingFilter extends ZuulFilter {
 
     @Override
     public Object run() {
-        String bucketId = getId(RequestContext.getCurrentContext().getRequest());
-        Bucket bucket = buckets.getProxy(bucketId, getConfigSupplier());
-        if (bucket.tryConsume(1)) {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        LimitProfile profile = getProfile((String) ctx.get(FilterConstants.PROXY_KEY));
+        String bucketId = profile.keyPrefix + getId(ctx.getRequest());
+        LocalBucket bucket = getLocalBucket(bucketId, profile);
+        if (bucket.tryConsume()) {
             // the limit is not exceeded
             log.debug("API rate limit OK for {}", bucketId);
         } else {
@@ -88,13 +130,75 @@ public class RateLimitingFilter extends ZuulFilter {
         return null;
     }
 
-    private Supplier<BucketConfiguration> getConfigSupplier() {
-        return () -> {
-            JHipsterProperties.Gateway.RateLimiting rateLimitingProperties = jHipsterProperties.getGateway().getRateLimiting();
+    /**
+     * Pushes the tokens consumed locally since the last run to the shared
+     * buckets, and takes away any local tokens that other gateway instances
+     * have already used up. Idle local buckets are dropped.
+     */
+    @Scheduled(fixedDelayString = "${application.rate-limiting.reconcile-interval-in-ms:5000}")
+    public void reconcile() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, LocalBucket> entry : localBuckets.entrySet()) {
+            LocalBucket bucket = entry.getValue();
+            if (bucket.unreconciled.get() == 0 && now - bucket.lastAccessNanos >= idleTimeoutNanos) {
+                localBuckets.remove(entry.getKey(), bucket);
+            }
+            // reconcile removed buckets too, in case a request raced with
+            // the removal
+            reconcile(entry.getKey(), bucket);
+        }
+    }
+
+    private void reconcile(String bucketId, LocalBucket bucket) {
+        long consumed = bucket.unreconciled.getAndSet(0);
+        if (consumed == 0) {
+            return;
+        }
+
+        try {
+            Bucket shared = buckets.getProxy(bucketId, bucket.profile.configuration);
+            shared.tryConsumeAsMuchAsPossible(consumed);
+            bucket.limitTo(shared.getAvailableTokens());
+        } catch (RuntimeException e) {
+            bucket.unreconciled.addAndGet(consumed);
+            log.warn("Failed to reconcile API rate limit for {}", bucketId, e);
+        }
+    }
+
+    private LocalBucket getLocalBucket(String bucketId, LimitProfile profile) {
+        LocalBucket bucket = localBuckets.get(bucketId);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        LocalBucket created = new LocalBucket(profile);
+        bucket = localBuckets.putIfAbsent(bucketId, created);
+        if (bucket != null) {
+            return bucket;
+        }
 
-            return Bucket4j.configurationBuilder()
-                    .addLimit(Bandwidth.simple(rateLimitingProperties.getLimit(), Duration.ofSeconds(rateLimitingProperties.getDurationInSeconds()))).build();
-        };
+        // start from what is left in the shared bucket, so clients can't
+        // reset their limit by waiting for their local bucket to expire
+        try {
+            created.limitTo(buckets.getProxy(bucketId, profile.configuration).getAvailableTokens());
+        } catch (RuntimeException e) {
+            log.warn("Failed to read shared API rate limit for {}", bucketId, e);
+        }
+        return created;
+    }
+
+    private LimitProfile getProfile(String routeId) {
+        if (profiles.isEmpty()) {
+            return defaultProfile;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        for (LimitProfile profile : profiles) {
+            if (profile.matches(routeId, authentication)) {
+                return profile;
+            }
+        }
+        return defaultProfile;
     }
 
     /**
@@ -116,4 +220,82 @@ public class RateLimitingFilter extends ZuulFilter {
     private String getId(HttpServletRequest httpServletRequest) {
         return SecurityUtils.getCurrentUserLogin().orElse(httpServletRequest.getRemoteAddr());
     }
+
+    int getLocalBucketCount() {
+        return localBuckets.size();
+    }
+
+    private static class LimitProfile {
+
+        private final String keyPrefix;
+
+        private final Set<String> routes;
+
+        private final String authority;
+
+        private final Bandwidth bandwidth;
+
+        private final Supplier<BucketConfiguration> configuration;
+
+        private LimitProfile(String name, List<String> routes, String authority, long limit, long durationInSeconds) {
+            // the default profile keeps the unprefixed shared bucket ids
+            this.keyPrefix = name != null ? name + ":" : "";
+            this.routes = routes != null ? new HashSet<>(routes) : new HashSet<>();
+            this.authority = StringUtils.hasText(authority) ? authority : null;
+            this.bandwidth = Bandwidth.simple(limit, Duration.ofSeconds(durationInSeconds));
+
+            BucketConfiguration bucketConfiguration = Bucket4j.configurationBuilder().addLimit(bandwidth).build();
+            this.configuration = () -> bucketConfiguration;
+        }
+
+        private boolean matches(String routeId, Authentication authentication) {
+            if (!routes.isEmpty() && (routeId == null || !routes.contains(routeId))) {
+                return false;
+            }
+            if (authority != null) {
+                if (authentication == null) {
+                    return false;
+                }
+                for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+                    if (authority.equals(grantedAuthority.getAuthority())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static class LocalBucket {
+
+        private final LimitProfile profile;
+
+        private final Bucket bucket;
+
+        private final AtomicLong unreconciled = new AtomicLong();
+
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        private LocalBucket(LimitProfile profile) {
+            this.profile = profile;
+            this.bucket = Bucket4j.builder().addLimit(profile.bandwidth).build();
+        }
+
+        private boolean tryConsume() {
+            lastAccessNanos = System.nanoTime();
+            if (bucket.tryConsume(1)) {
+                unreconciled.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        private void limitTo(long availableTokens) {
+            long excess = bucket.getAvailableTokens() - availableTokens;
+            if (excess > 0) {
+                bucket.tryConsumeAsMuchAsPossible(excess);
+            }
+        }
+    }
 }
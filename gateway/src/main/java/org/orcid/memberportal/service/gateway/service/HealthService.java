@@ -2,11 +2,23 @@ package org.orcid.memberportal.service.gateway.service;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 
 import org.orcid.memberportal.service.gateway.client.HealthClient;
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
 import org.orcid.memberportal.service.gateway.service.dto.CompositeHealthDTO;
 import org.orcid.memberportal.service.gateway.service.dto.SimpleHealthDTO;
 import org.slf4j.Logger;
@@ -16,61 +28,147 @@ import org.springframework.boot.actuate.health.Status;
 import org.springframework.cloud.netflix.zuul.filters.Route;
 import org.springframework.stereotype.Service;
 
+/**
+ * Checks the health of all services concurrently, giving each one
+ * {@code application.health.timeout-in-ms} to respond before reporting it as
+ * {@link #DEGRADED}. The composite result is reused for
+ * {@code application.health.cache-ttl-in-ms}, so frequent probes share a single
+ * real check.
+ */
 @Service
 public class HealthService {
 
     private static final Logger LOG = LoggerFactory.getLogger(HealthService.class);
 
+    public static final Status DEGRADED = new Status("DEGRADED", "Service did not respond in time");
+
     private static final String[] REQUIRED_SERVICES = new String[] { "assertionservice", "gateway", "userservice", "memberservice" };
 
     @Autowired
     private HealthClient healthClient;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private ExecutorService executor;
+
+    private CompositeHealthDTO cachedHealth;
+
+    private long cachedHealthTimestamp;
+
     public CompositeHealthDTO checkGlobalHealth(List<Route> routes, HttpServletRequest request) throws IOException {
+        // concurrent probes wait for the check in progress rather than
+        // starting their own
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (cachedHealth != null && now - cachedHealthTimestamp < applicationProperties.getHealth().getCacheTtlInMs()) {
+                return cachedHealth;
+            }
+
+            cachedHealth = checkAll(routes, request);
+            cachedHealthTimestamp = System.currentTimeMillis();
+            return cachedHealth;
+        }
+    }
+
+    private CompositeHealthDTO checkAll(List<Route> routes, HttpServletRequest request) throws IOException {
+        Map<String, CompletableFuture<Status>> checks = new LinkedHashMap<>();
+        for (Route route : routes) {
+            checks.put(route.getId(), check(route.getId(), getHealthCheckUrl(request, route.getPrefix() + "/management/health")));
+        }
+        checks.put("gateway", check("gateway", getHealthCheckUrl(request, "/management/health")));
+
         final CompositeHealthDTO globalHealth = new CompositeHealthDTO();
-        globalHealth.setStatus(Status.UP);
-        routes.forEach(r -> {
-            addHealth(globalHealth, r.getId(), r.getPrefix() + "/management/health", request);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(applicationProperties.getHealth().getTimeoutInMs());
+        checks.forEach((serviceName, check) -> {
+            globalHealth.getComponents().put(serviceName, await(serviceName, check, deadline));
         });
-        addHealth(globalHealth, "gateway", "/management/health", request);
-        
-        if (!requiredServicesAllUp(globalHealth)) {
-            globalHealth.setStatus(Status.DOWN);
-        }
-        
+
+        globalHealth.setStatus(getOverallStatus(globalHealth));
         return globalHealth;
     }
 
-    private void addHealth(CompositeHealthDTO globalHealth, String serviceName, String endpoint, HttpServletRequest request) {
-        try {
-            SimpleHealthDTO health = getHealth(request, endpoint);
-            globalHealth.getComponents().put(serviceName, health.getStatus());
-            if (!Status.UP.equals(health.getStatus())) {
-                globalHealth.setStatus(Status.DOWN);
+    private CompletableFuture<Status> check(String serviceName, String healthCheckUrl) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                LOG.debug("Hitting health check endpoint {}", healthCheckUrl);
+                SimpleHealthDTO health = healthClient.getHealth(healthCheckUrl, getRequestTimeoutInMs());
+                LOG.debug("Found health for {} - status is {}", healthCheckUrl, health.getStatus());
+                return health.getStatus();
+            } catch (IOException e) {
+                LOG.warn("Error finding health for {}", serviceName, e);
+                return Status.DOWN;
             }
-        } catch (IOException e) {
-            LOG.warn("Error finding health for {}", serviceName, e);
-            globalHealth.getComponents().put(serviceName, Status.DOWN);
-            globalHealth.setStatus(Status.DOWN);
-        }
+        }, getExecutor());
     }
 
-    private SimpleHealthDTO getHealth(HttpServletRequest request, String healthEndpoint) throws IOException {
-        URL healthCheckUrl = new URL(request.getScheme(), request.getServerName(), request.getServerPort(), request.getContextPath().concat(healthEndpoint));
+    private Status await(String serviceName, CompletableFuture<Status> check, long deadline) {
+        try {
+            return check.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("Timed out finding health for {}", serviceName);
+            check.cancel(true);
+            return DEGRADED;
+        } catch (ExecutionException e) {
+            LOG.warn("Error finding health for {}", serviceName, e.getCause());
+            return Status.DOWN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Status.DOWN;
+        }
+    }
 
-        LOG.debug("Hitting health check endpoint {}", healthCheckUrl.toString());
-        SimpleHealthDTO health = healthClient.getHealth(healthCheckUrl.toString());
-        LOG.debug("Found health for {} - status is {}", healthCheckUrl.toString(), health.getStatus());
+    /**
+     * Health requests time out along with the check, as cancelling a check
+     * doesn't interrupt a request in progress.
+     */
+    private int getRequestTimeoutInMs() {
+        return (int) Math.min(applicationProperties.getHealth().getTimeoutInMs(), Integer.MAX_VALUE);
+    }
 
-        return health;
+    private String getHealthCheckUrl(HttpServletRequest request, String healthEndpoint) throws IOException {
+        return new URL(request.getScheme(), request.getServerName(), request.getServerPort(), request.getContextPath().concat(healthEndpoint)).toString();
     }
 
-    private boolean requiredServicesAllUp(CompositeHealthDTO globalHealth) {
+    /**
+     * Any service that is down, or a required service that is missing, makes
+     * the global status {@link Status#DOWN}. Otherwise services that are slow
+     * to respond make it {@link #DEGRADED}.
+     */
+    private Status getOverallStatus(CompositeHealthDTO globalHealth) {
+        boolean degraded = false;
+        for (Object status : globalHealth.getComponents().values()) {
+            if (DEGRADED.equals(status)) {
+                degraded = true;
+            } else if (!Status.UP.equals(status)) {
+                return Status.DOWN;
+            }
+        }
         for (String requiredService : REQUIRED_SERVICES) {
-            if (!globalHealth.getComponents().containsKey(requiredService) || !Status.UP.equals(globalHealth.getComponents().get(requiredService))) {
-                return false;
+            if (!globalHealth.getComponents().containsKey(requiredService)) {
+                return Status.DOWN;
             }
         }
-        return true;
+        return degraded ? DEGRADED : Status.UP;
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "health-check-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = Executors.newFixedThreadPool(applicationProperties.getHealth().getMaxConcurrentChecks(), threadFactory);
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
     }
 }
@@ -43,7 +43,8 @@ public class HealthResource {
     public ResponseEntity<CompositeHealthDTO> healthCheck(HttpServletRequest request) throws IOException {
         LOG.debug("Global health check request");
         CompositeHealthDTO globalHealth = healthService.checkGlobalHealth(routeLocator.getRoutes(), request);
-        if (Status.UP.equals(globalHealth.getStatus())) {
+        // slow services don't take the gateway out of service
+        if (Status.UP.equals(globalHealth.getStatus()) || HealthService.DEGRADED.equals(globalHealth.getStatus())) {
             return ResponseEntity.ok(globalHealth);
         }
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(globalHealth);
@@ -25,6 +25,7 @@ export class AssertionComponent implements OnInit, OnDestroy {
   errorAddingToOrcid: string = ASSERTION_STATUS.ERROR_ADDING_TO_ORCID;
   errorUpdatingInOrcid: string = ASSERTION_STATUS.ERROR_UPDATING_TO_ORCID;
   errorDeletingInOrcid: string = ASSERTION_STATUS.ERROR_DELETING_IN_ORCID;
+  syncFailed: string = ASSERTION_STATUS.SYNC_FAILED;
   currentAccount: any;
   assertions: IAssertion[];
   error: any;
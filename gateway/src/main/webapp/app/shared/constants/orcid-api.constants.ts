@@ -10,7 +10,8 @@ export const ASSERTION_STATUS = {
   USER_REVOKED_ACCESS: 'User revoked access',
   ERROR_ADDING_TO_ORCID: 'Error adding to ORCID',
   ERROR_UPDATING_TO_ORCID: 'Error updating in ORCID',
-  ERROR_DELETING_IN_ORCID: 'Error deleting in ORCID'
+  ERROR_DELETING_IN_ORCID: 'Error deleting in ORCID',
+  SYNC_FAILED: 'Failed to sync with ORCID'
 };
 
 export const COUNTRIES = {
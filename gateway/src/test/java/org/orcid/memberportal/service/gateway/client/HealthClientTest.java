@@ -14,21 +14,27 @@ import org.apache.http.HttpEntity;
 import org.apache.http.ProtocolVersion;
 import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicStatusLine;
 import org.apache.http.params.HttpParams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
 import org.orcid.memberportal.service.gateway.service.dto.SimpleHealthDTO;
 import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
 
 public class HealthClientTest {
 
@@ -52,7 +58,7 @@ public class HealthClientTest {
         response.setEntity(orcidIdEntity);
         Mockito.when(httpClient.execute(Mockito.any(HttpUriRequest.class))).thenReturn(response);
         
-        SimpleHealthDTO health = client.getHealth("some-url");
+        SimpleHealthDTO health = client.getHealth("some-url", 1000);
         assertThat(health).isNotNull();
         assertThat(health.getStatus()).isEqualTo(Status.UP);
     }
@@ -63,11 +69,43 @@ public class HealthClientTest {
         response.setStatusLine(new BasicStatusLine(new ProtocolVersion("HTTP", 2, 0), 500, "Internal Server Error"));
         Mockito.when(httpClient.execute(Mockito.any(HttpUriRequest.class))).thenReturn(response);
         
-        SimpleHealthDTO health = client.getHealth("some-url");
+        SimpleHealthDTO health = client.getHealth("some-url", 1000);
         assertThat(health).isNotNull();
         assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
     }
+
+    @Test
+    void testGetHealthTimesOut() throws JAXBException, ClientProtocolException, IOException {
+        OrcidCloseableHttpResponse response = new OrcidCloseableHttpResponse();
+        response.setStatusLine(new BasicStatusLine(new ProtocolVersion("HTTP", 2, 0), 500, "Internal Server Error"));
+        Mockito.when(httpClient.execute(Mockito.any(HttpUriRequest.class))).thenReturn(response);
+
+        client.getHealth("some-url", 1500);
+
+        ArgumentCaptor<HttpGet> requestCaptor = ArgumentCaptor.forClass(HttpGet.class);
+        Mockito.verify(httpClient).execute(requestCaptor.capture());
+        RequestConfig config = requestCaptor.getValue().getConfig();
+        assertThat(config.getConnectTimeout()).isEqualTo(1500);
+        assertThat(config.getConnectionRequestTimeout()).isEqualTo(1500);
+        assertThat(config.getSocketTimeout()).isEqualTo(1500);
+    }
     
+    @Test
+    void testConnectionPoolAllowsConcurrentChecks() throws IOException {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getHealth().setMaxConcurrentChecks(8);
+        HealthClient pooledClient = new HealthClient();
+        ReflectionTestUtils.setField(pooledClient, "applicationProperties", applicationProperties);
+        pooledClient.init();
+
+        // all checks go to the gateway's own host
+        Object httpClient = ReflectionTestUtils.getField(pooledClient, "httpClient");
+        PoolingHttpClientConnectionManager connectionManager = (PoolingHttpClientConnectionManager) ReflectionTestUtils.getField(httpClient, "connManager");
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(8);
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(8);
+        pooledClient.close();
+    }
+
     private class OrcidCloseableHttpResponse implements CloseableHttpResponse {
         
         private HttpEntity entity;
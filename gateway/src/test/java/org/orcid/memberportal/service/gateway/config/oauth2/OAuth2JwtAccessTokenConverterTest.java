@@ -0,0 +1,131 @@
+package org.orcid.memberportal.service.gateway.config.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.gateway.security.oauth2.OAuth2SignatureVerifierClient;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.MacSigner;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+/**
+ * Tests {@link OAuth2JwtAccessTokenConverter} class.
+ */
+public class OAuth2JwtAccessTokenConverterTest {
+
+    private static final String SIGNING_KEY = "signing-key";
+
+    @Mock
+    private OAuth2SignatureVerifierClient signatureVerifierClient;
+
+    private OAuth2Properties oAuth2Properties;
+
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        oAuth2Properties = new OAuth2Properties();
+        oAuth2Properties.getSignatureVerification().setPublicKeyRefreshRateLimit(0);
+        verifications = new AtomicInteger();
+        Mockito.when(signatureVerifierClient.getSignatureVerifier()).thenAnswer(invocation -> countingVerifier(SIGNING_KEY));
+    }
+
+    @Test
+    public void testTokenVerifiedOncePerTokenStoreRead() {
+        JwtTokenStore tokenStore = new JwtTokenStore(new OAuth2JwtAccessTokenConverter(oAuth2Properties, signatureVerifierClient));
+        String token = token("user", futureExp(), SIGNING_KEY);
+
+        // as done by the refresh token filter and the resource server
+        OAuth2AccessToken accessToken = tokenStore.readAccessToken(token);
+        tokenStore.readAccessToken(token);
+        tokenStore.readAuthentication(token);
+
+        assertEquals(1, verifications.get());
+        assertEquals("user", tokenStore.readAuthentication(accessToken).getName());
+    }
+
+    @Test
+    public void testCachedClaimsCanBeModified() {
+        OAuth2JwtAccessTokenConverter converter = new OAuth2JwtAccessTokenConverter(oAuth2Properties, signatureVerifierClient);
+        String token = token("user", futureExp(), SIGNING_KEY);
+
+        converter.decode(token).remove("user_name");
+        assertEquals("user", converter.decode(token).get("user_name"));
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    public void testCacheClearedWhenKeyRotates() throws Exception {
+        OAuth2JwtAccessTokenConverter converter = new OAuth2JwtAccessTokenConverter(oAuth2Properties, signatureVerifierClient);
+        String token = token("user", futureExp(), SIGNING_KEY);
+        converter.decode(token);
+
+        // the key changes, so a token signed with the new key fails with the
+        // current verifier and triggers a key refresh
+        Mockito.when(signatureVerifierClient.getSignatureVerifier()).thenAnswer(invocation -> countingVerifier("rotated-key"));
+        String rotatedToken = token("user", futureExp(), "rotated-key");
+        assertEquals("user", converter.decode(rotatedToken).get("user_name"));
+
+        // tokens verified with the old key are no longer served from the cache
+        assertThrows(InvalidTokenException.class, () -> converter.decode(token));
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        oAuth2Properties.getSignatureVerification().setTokenCacheMaxEntries(0);
+        OAuth2JwtAccessTokenConverter converter = new OAuth2JwtAccessTokenConverter(oAuth2Properties, signatureVerifierClient);
+        String token = token("user", futureExp(), SIGNING_KEY);
+
+        converter.decode(token);
+        converter.decode(token);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testExpiredTokensNotCached() {
+        OAuth2JwtAccessTokenConverter converter = new OAuth2JwtAccessTokenConverter(oAuth2Properties, signatureVerifierClient);
+        String token = token("user", System.currentTimeMillis() / 1000 - 60, SIGNING_KEY);
+
+        converter.decode(token);
+        converter.decode(token);
+        assertEquals(2, verifications.get());
+    }
+
+    private long futureExp() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    private String token(String user, long exp, String key) {
+        String claims = "{\"user_name\":\"" + user + "\",\"client_id\":\"web_app\",\"scope\":[\"openid\"],\"authorities\":[\"ROLE_USER\"],\"exp\":" + exp + "}";
+        return JwtHelper.encode(claims, new MacSigner(key)).getEncoded();
+    }
+
+    private SignatureVerifier countingVerifier(String key) {
+        MacSigner signer = new MacSigner(key);
+        return new SignatureVerifier() {
+
+            @Override
+            public String algorithm() {
+                return signer.algorithm();
+            }
+
+            @Override
+            public void verify(byte[] content, byte[] signature) {
+                verifications.incrementAndGet();
+                signer.verify(content, signature);
+            }
+        };
+    }
+
+}
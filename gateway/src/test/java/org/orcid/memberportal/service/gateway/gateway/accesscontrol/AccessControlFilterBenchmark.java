@@ -0,0 +1,119 @@
+package org.orcid.memberportal.service.gateway.gateway.accesscontrol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.netflix.zuul.filters.Route;
+import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.netflix.zuul.context.RequestContext;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures {@link AccessControlFilter#shouldFilter()} as the number of routes
+ * grows. Requests target the last route, which is the worst case for a linear
+ * scan of the routes.
+ * <p>
+ * Run from the gateway directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.gateway.gateway.accesscontrol.AccessControlFilterBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-AccessControlFilterBenchmark.json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessControlFilterBenchmark {
+
+    @Param({ "5", "50", "500" })
+    private int routes;
+
+    private AccessControlFilter filter;
+
+    private MockHttpServletRequest allowedRequest;
+
+    private MockHttpServletRequest blockedRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Route> routeList = new ArrayList<>();
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        for (int i = 0; i < routes; i++) {
+            String serviceName = "service" + i;
+            routeList.add(new Route(serviceName, "/" + serviceName + "/**", serviceName, "/services", false, null));
+            jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints().put(serviceName, Arrays.asList("/api", "/v2/api-docs", "/public"));
+        }
+
+        filter = new AccessControlFilter(new FixedRouteLocator(routeList), jHipsterProperties);
+
+        String lastService = "/services/service" + (routes - 1);
+        allowedRequest = new MockHttpServletRequest("GET", lastService + "/api/assertions/5f5a6b6c7d8e9f0a1b2c3d4e");
+        blockedRequest = new MockHttpServletRequest("GET", lastService + "/management/env");
+    }
+
+    @Benchmark
+    public boolean allowed() {
+        RequestContext.getCurrentContext().setRequest(allowedRequest);
+        return filter.shouldFilter();
+    }
+
+    @Benchmark
+    public boolean blocked() {
+        RequestContext.getCurrentContext().setRequest(blockedRequest);
+        return filter.shouldFilter();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AccessControlFilterBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + AccessControlFilterBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+    private static class FixedRouteLocator implements RouteLocator {
+
+        private final List<Route> routes;
+
+        private FixedRouteLocator(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        @Override
+        public Collection<String> getIgnoredPaths() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Route> getRoutes() {
+            // zuul's locators build a new list on every call
+            return new ArrayList<>(routes);
+        }
+
+        @Override
+        public Route getMatchingRoute(String path) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.orcid.memberportal.service.gateway.gateway.accesscontrol;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cloud.netflix.zuul.filters.Route;
+import org.springframework.cloud.netflix.zuul.filters.RouteLocator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.netflix.zuul.context.RequestContext;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+/**
+ * Tests {@link AccessControlFilter} class.
+ */
+public class AccessControlFilterTest {
+
+    @Mock
+    private RouteLocator routeLocator;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private List<Route> routes;
+
+    private AccessControlFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        routes = new ArrayList<>();
+        routes.add(route("assertionservice"));
+        routes.add(route("userservice"));
+        Mockito.when(routeLocator.getRoutes()).thenAnswer(invocation -> new ArrayList<>(routes));
+
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getGateway().getAuthorizedMicroservicesEndpoints().put("assertionservice", Arrays.asList("/api", "/v2/api-docs"));
+
+        filter = new AccessControlFilter(routeLocator, jHipsterProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
+
+    @Test
+    public void testAuthorizedEndpointsAllowed() {
+        assertFalse(shouldFilter("", "/services/assertionservice/api/assertions"));
+        assertFalse(shouldFilter("", "/services/assertionservice/v2/api-docs"));
+    }
+
+    @Test
+    public void testOtherEndpointsOfRestrictedRouteBlocked() {
+        assertTrue(shouldFilter("", "/services/assertionservice/management/env"));
+        assertTrue(shouldFilter("", "/services/assertionservice/"));
+    }
+
+    @Test
+    public void testRouteWithoutPolicyAllowed() {
+        assertFalse(shouldFilter("", "/services/userservice/management/env"));
+    }
+
+    @Test
+    public void testUnknownRouteBlocked() {
+        assertTrue(shouldFilter("", "/services/unknownservice/api/assertions"));
+        assertTrue(shouldFilter("", "/services/assertion"));
+        assertTrue(shouldFilter("", "/"));
+    }
+
+    @Test
+    public void testContextPath() {
+        assertFalse(shouldFilter("/gateway", "/gateway/services/assertionservice/api/assertions"));
+        assertTrue(shouldFilter("/gateway", "/gateway/services/assertionservice/management/env"));
+        assertTrue(shouldFilter("/gateway", "/services/assertionservice/api/assertions"));
+    }
+
+    @Test
+    public void testFirstMatchingRouteDecides() {
+        // an unrestricted route nested under a restricted one is still
+        // governed by the restricted route, which comes first
+        routes.add(new Route("assertionservice-management", "/assertionservice/management/**", "assertionservice-management", "/services", false, null));
+
+        assertTrue(shouldFilter("", "/services/assertionservice/management/env"));
+        assertFalse(shouldFilter("", "/services/assertionservice/api/assertions"));
+    }
+
+    @Test
+    public void testIndexRebuiltWhenRoutesChange() {
+        assertTrue(shouldFilter("", "/services/memberservice/api/members"));
+
+        // registered with the registry after the first request, with no
+        // refresh event published
+        routes.add(route("memberservice"));
+        assertFalse(shouldFilter("", "/services/memberservice/api/members"));
+
+        routes.remove(0);
+        assertTrue(shouldFilter("", "/services/assertionservice/api/assertions"));
+    }
+
+    @Test
+    public void testIndexReusedWhileRoutesUnchanged() {
+        assertFalse(shouldFilter("", "/services/assertionservice/api/assertions"));
+        Object indexed = ReflectionTestUtils.getField(filter, "indexedRoutes");
+
+        assertFalse(shouldFilter("", "/services/userservice/api/users"));
+        assertSame(indexed, ReflectionTestUtils.getField(filter, "indexedRoutes"));
+    }
+
+    private boolean shouldFilter(String contextPath, String requestUri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+        request.setContextPath(contextPath);
+        RequestContext.getCurrentContext().setRequest(request);
+        return filter.shouldFilter();
+    }
+
+    private Route route(String serviceName) {
+        return new Route(serviceName, "/" + serviceName + "/**", serviceName, "/services", false, null);
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.orcid.memberportal.service.gateway.gateway.ratelimiting;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.netflix.zuul.context.RequestContext;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures the per request overhead of {@link RateLimitingFilter} for clients
+ * well below their limit, which is the common case on the gateway.
+ * <p>
+ * Run from the gateway directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.gateway.gateway.ratelimiting.RateLimitingFilterBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-RateLimitingFilterBenchmark.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimitingFilterBenchmark {
+
+    @Param({ "1", "1000" })
+    private int clients;
+
+    private RateLimitingFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getGateway().getRateLimiting().setLimit(1_000_000_000_000L);
+        jHipsterProperties.getGateway().getRateLimiting().setDurationInSeconds(3600);
+        filter = new RateLimitingFilter(jHipsterProperties, new ApplicationProperties());
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        private MockHttpServletRequest[] requests;
+
+        @Setup(Level.Trial)
+        public void setUp(RateLimitingFilterBenchmark benchmark) {
+            requests = new MockHttpServletRequest[benchmark.clients];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = new MockHttpServletRequest("GET", "/services/assertionservice/api/assertions");
+                requests[i].setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+            }
+        }
+
+        private MockHttpServletRequest next() {
+            return requests[ThreadLocalRandom.current().nextInt(requests.length)];
+        }
+    }
+
+    @Benchmark
+    public Object run(Request request) {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        ctx.setRequest(request.next());
+        return filter.run();
+    }
+
+    @Benchmark
+    public void runWithReconcile(Request request) {
+        run(request);
+        // simulate the scheduled reconciliation at a very high request rate
+        if (ThreadLocalRandom.current().nextInt(100_000) == 0) {
+            filter.reconcile();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitingFilterBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + RateLimitingFilterBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+}
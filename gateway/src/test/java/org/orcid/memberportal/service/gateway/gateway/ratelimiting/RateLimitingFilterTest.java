@@ -0,0 +1,156 @@
+package org.orcid.memberportal.service.gateway.gateway.ratelimiting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import javax.cache.Caching;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.netflix.zuul.context.RequestContext;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+/**
+ * Tests {@link RateLimitingFilter} class.
+ */
+public class RateLimitingFilterTest {
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setUp() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getGateway().getRateLimiting().setLimit(10);
+        jHipsterProperties.getGateway().getRateLimiting().setDurationInSeconds(3600);
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContext.getCurrentContext().unset();
+        Caching.getCachingProvider().getCacheManager().getCache(RateLimitingFilter.GATEWAY_RATE_LIMITING_CACHE_NAME).clear();
+    }
+
+    @Test
+    public void testLimitEnforcedLocally() {
+        RateLimitingFilter filter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(allowed(filter, "user", null));
+        }
+        assertFalse(allowed(filter, "user", null));
+        assertEquals("API rate limit exceeded", RequestContext.getCurrentContext().getResponseBody());
+
+        // other clients have their own buckets
+        assertTrue(allowed(filter, "another-user", null));
+    }
+
+    @Test
+    public void testReconcileSharesLimitAcrossInstances() {
+        RateLimitingFilter filter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+        RateLimitingFilter otherFilter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+
+        assertTrue(allowed(otherFilter, "user", null));
+        for (int i = 0; i < 8; i++) {
+            assertTrue(allowed(filter, "user", null));
+        }
+        filter.reconcile();
+        otherFilter.reconcile();
+
+        // one token left across both instances
+        assertTrue(allowed(otherFilter, "user", null));
+        assertFalse(allowed(otherFilter, "user", null));
+    }
+
+    @Test
+    public void testNewLocalBucketStartsFromSharedState() {
+        RateLimitingFilter filter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+        for (int i = 0; i < 9; i++) {
+            assertTrue(allowed(filter, "user", null));
+        }
+        filter.reconcile();
+
+        RateLimitingFilter otherFilter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+        assertTrue(allowed(otherFilter, "user", null));
+        assertFalse(allowed(otherFilter, "user", null));
+    }
+
+    @Test
+    public void testIdleBucketsExpire() {
+        applicationProperties.getRateLimiting().setIdleTimeoutInSeconds(0);
+        RateLimitingFilter filter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+        assertTrue(allowed(filter, "user", null));
+        assertEquals(1, filter.getLocalBucketCount());
+
+        // the first run only flushes consumed tokens to the shared bucket
+        filter.reconcile();
+        assertEquals(1, filter.getLocalBucketCount());
+        filter.reconcile();
+        assertEquals(0, filter.getLocalBucketCount());
+
+        // and the shared bucket still remembers the consumed token
+        for (int i = 0; i < 9; i++) {
+            assertTrue(allowed(filter, "user", null));
+        }
+        assertFalse(allowed(filter, "user", null));
+    }
+
+    @Test
+    public void testProfileMatchedByRouteAndAuthority() {
+        ApplicationProperties.Profile profile = new ApplicationProperties.Profile();
+        profile.setName("admin-assertions");
+        profile.setRoutes(Collections.singletonList("assertionservice"));
+        profile.setAuthority("ROLE_ADMIN");
+        profile.setLimit(2);
+        profile.setDurationInSeconds(60);
+        applicationProperties.getRateLimiting().getProfiles().add(profile);
+        RateLimitingFilter filter = new RateLimitingFilter(jHipsterProperties, applicationProperties);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin", "password", Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        assertTrue(allowed(filter, null, "assertionservice"));
+        assertTrue(allowed(filter, null, "assertionservice"));
+        assertFalse(allowed(filter, null, "assertionservice"));
+
+        // other routes fall back to the default limit, in a separate bucket
+        assertTrue(allowed(filter, null, "memberservice"));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", "password", Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertTrue(allowed(filter, null, "assertionservice"));
+        assertTrue(allowed(filter, null, "assertionservice"));
+        assertTrue(allowed(filter, null, "assertionservice"));
+    }
+
+    private boolean allowed(RateLimitingFilter filter, String remoteAddress, String routeId) {
+        RequestContext.getCurrentContext().unset();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/services/assertionservice/api/assertions");
+        if (remoteAddress != null) {
+            request.setRemoteAddr(remoteAddress);
+        }
+        RequestContext ctx = RequestContext.getCurrentContext();
+        ctx.setRequest(request);
+        ctx.setResponse(new MockHttpServletResponse());
+        if (routeId != null) {
+            ctx.set(FilterConstants.PROXY_KEY, routeId);
+        }
+        filter.run();
+        return ctx.sendZuulResponse();
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.orcid.memberportal.service.gateway.gateway.responserewriting;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.netflix.zuul.context.RequestContext;
+
+import springfox.documentation.swagger2.web.Swagger2Controller;
+
+/**
+ * Measures {@link SwaggerBasePathRewritingFilter#run()} on a synthetic api
+ * docs response with the given number of paths, plain and gzipped.
+ * <p>
+ * Run from the gateway directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.orcid.memberportal.service.gateway.gateway.responserewriting.SwaggerBasePathRewritingFilterBenchmark}
+ * or from the IDE. Results are written to {@code target/jmh-SwaggerBasePathRewritingFilterBenchmark.json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwaggerBasePathRewritingFilterBenchmark {
+
+    @Param({ "10", "200" })
+    private int paths;
+
+    @Param({ "false", "true" })
+    private boolean gzipped;
+
+    private SwaggerBasePathRewritingFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private byte[] responseData;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        filter = new SwaggerBasePathRewritingFilter();
+        request = new MockHttpServletRequest("GET", "/services/assertionservice" + Swagger2Controller.DEFAULT_URL);
+
+        StringBuilder docs = new StringBuilder("{\"swagger\":\"2.0\",\"basePath\":\"/\",\"paths\":{");
+        for (int i = 0; i < paths; i++) {
+            if (i > 0) {
+                docs.append(',');
+            }
+            docs.append("\"/api/resource").append(i).append("/{id}\":{\"get\":{\"tags\":[\"resource-").append(i)
+                    .append("\"],\"operationId\":\"getResource").append(i)
+                    .append("\",\"parameters\":[{\"name\":\"id\",\"in\":\"path\",\"required\":true,\"type\":\"string\"}],")
+                    .append("\"responses\":{\"200\":{\"description\":\"OK\"},\"404\":{\"description\":\"Not Found\"}}}}");
+        }
+        docs.append("}}");
+        responseData = gzipped ? SwaggerBasePathRewritingFilter.gzipData(docs.toString()) : docs.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object run() {
+        RequestContext context = RequestContext.getCurrentContext();
+        context.setRequest(request);
+        context.setResponse(new MockHttpServletResponse());
+        context.setResponseGZipped(gzipped);
+        context.setResponseDataStream(new ByteArrayInputStream(responseData));
+        filter.run();
+        return gzipped ? context.getResponseDataStream() : context.getResponseBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SwaggerBasePathRewritingFilterBenchmark.class.getSimpleName()).resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + SwaggerBasePathRewritingFilterBenchmark.class.getSimpleName() + ".json").build()).run();
+    }
+
+}
@@ -9,13 +9,16 @@ import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.xml.bind.JAXBException;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.orcid.memberportal.service.gateway.client.HealthClient;
+import org.orcid.memberportal.service.gateway.config.ApplicationProperties;
 import org.orcid.memberportal.service.gateway.service.dto.CompositeHealthDTO;
 import org.orcid.memberportal.service.gateway.service.dto.SimpleHealthDTO;
 import org.springframework.boot.actuate.health.Status;
@@ -26,66 +29,129 @@ public class HealthServiceTest {
     @Mock
     private HealthClient healthClient;
 
+    @Spy
+    private ApplicationProperties applicationProperties = new ApplicationProperties();
+
     @InjectMocks
     private HealthService healthService;
 
     @BeforeEach
     public void setUp() throws JAXBException {
         MockitoAnnotations.initMocks(this);
+        applicationProperties.getHealth().setTimeoutInMs(500);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        healthService.shutdown();
     }
 
     @Test
     void testCheckGlobalHealth_notAllHealthy() throws IOException {
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/userservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/assertionservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/memberservice/management/health"))).thenReturn(unhealthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/management/health"))).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/userservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/assertionservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/memberservice/management/health"), Mockito.anyInt())).thenReturn(unhealthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/management/health"), Mockito.anyInt())).thenReturn(healthy());
         
         CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
         assertThat(checkedHealth).isNotNull();
         assertThat(checkedHealth.getStatus()).isEqualTo(Status.DOWN);
         
-        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString()); // includes call to get gateway health
+        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString(), Mockito.anyInt()); // includes call to get gateway health
     }
     
     @Test
     void testCheckGlobalHealth_allHealthy() throws IOException {
-        Mockito.when(healthClient.getHealth(Mockito.anyString())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.anyString(), Mockito.anyInt())).thenReturn(healthy());
         
         CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
         assertThat(checkedHealth).isNotNull();
         assertThat(checkedHealth.getStatus()).isEqualTo(Status.UP);
         
-        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString()); // includes call to get gateway health
+        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString(), Mockito.anyInt()); // includes call to get gateway health
     }
     
     @Test
     void testCheckGlobalHealth_WithError() throws IOException {
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/userservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/assertionservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/memberservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/management/health"))).thenThrow(new IOException("overall status should be DOWN"));
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/userservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/assertionservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/memberservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/management/health"), Mockito.anyInt())).thenThrow(new IOException("overall status should be DOWN"));
         
         CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
         assertThat(checkedHealth).isNotNull();
         assertThat(checkedHealth.getStatus()).isEqualTo(Status.DOWN);
         
-        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString()); // includes call to get gateway health
+        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString(), Mockito.anyInt()); // includes call to get gateway health
     }
     
     @Test
     void testCheckGlobalHealth_OneMissing() throws IOException {
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/userservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/assertionservice/management/health"))).thenReturn(healthy());
-        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/management/health"))).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/userservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/assertionservice/management/health"), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/management/health"), Mockito.anyInt())).thenReturn(healthy());
         
         CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutesWithoutMemberService(), getMockHttpServletRequest());
         assertThat(checkedHealth).isNotNull();
         assertThat(checkedHealth.getStatus()).isEqualTo(Status.DOWN);
         
-        Mockito.verify(healthClient, Mockito.times(3)).getHealth(Mockito.anyString()); // includes call to get gateway health
+        Mockito.verify(healthClient, Mockito.times(3)).getHealth(Mockito.anyString(), Mockito.anyInt()); // includes call to get gateway health
     }
     
+    @Test
+    void testCheckGlobalHealth_cached() throws IOException {
+        Mockito.when(healthClient.getHealth(Mockito.anyString(), Mockito.anyInt())).thenReturn(healthy());
+
+        CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
+        CompositeHealthDTO cachedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
+        assertThat(cachedHealth).isSameAs(checkedHealth);
+
+        Mockito.verify(healthClient, Mockito.times(4)).getHealth(Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @Test
+    void testCheckGlobalHealth_cacheExpires() throws IOException {
+        applicationProperties.getHealth().setCacheTtlInMs(0);
+        Mockito.when(healthClient.getHealth(Mockito.anyString(), Mockito.anyInt())).thenReturn(healthy());
+
+        healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
+        healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
+
+        Mockito.verify(healthClient, Mockito.times(8)).getHealth(Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @Test
+    void testCheckGlobalHealth_slowServiceDegraded() throws IOException {
+        Mockito.when(healthClient.getHealth(Mockito.anyString(), Mockito.anyInt())).thenReturn(healthy());
+        Mockito.when(healthClient.getHealth(Mockito.eq("http://localhost:8080/services/memberservice/management/health"), Mockito.anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return healthy();
+        });
+
+        long start = System.currentTimeMillis();
+        CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
+        assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+        assertThat(checkedHealth.getStatus()).isEqualTo(HealthService.DEGRADED);
+        assertThat(checkedHealth.getComponents().get("memberservice")).isEqualTo(HealthService.DEGRADED);
+        assertThat(checkedHealth.getComponents().get("userservice")).isEqualTo(Status.UP);
+
+        // the abandoned request gives up along with the check
+        Mockito.verify(healthClient).getHealth(Mockito.eq("http://localhost:8080/services/memberservice/management/health"), Mockito.eq(500));
+    }
+
+    @Test
+    void testCheckGlobalHealth_checkedConcurrently() throws IOException {
+        Mockito.when(healthClient.getHealth(Mockito.anyString(), Mockito.anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return healthy();
+        });
+
+        long start = System.currentTimeMillis();
+        CompositeHealthDTO checkedHealth = healthService.checkGlobalHealth(getRoutes(), getMockHttpServletRequest());
+        assertThat(System.currentTimeMillis() - start).isLessThan(1000);
+        assertThat(checkedHealth.getStatus()).isEqualTo(Status.UP);
+    }
+
     private List<Route> getRoutes() {
         Route userService = new Route("userservice", null, null, "/services/userservice", false, null);
         Route memberService = new Route("memberservice", null, null, "/services/memberservice", false, null);
@@ -59,6 +59,30 @@ public class HealthResourceTest {
         Mockito.verify(healthService).checkGlobalHealth(Mockito.anyList(), Mockito.any(HttpServletRequest.class));
     }
 
+    @Test
+    @WithMockUser(username = "test", roles = "ADMIN")
+    public void testHealthCheckDegraded() throws Exception {
+        CompositeHealthDTO degraded = getHealth();
+        degraded.setStatus(HealthService.DEGRADED);
+        degraded.getComponents().put("service-2", HealthService.DEGRADED);
+        Mockito.when(healthService.checkGlobalHealth(Mockito.anyList(), Mockito.any(HttpServletRequest.class))).thenReturn(degraded);
+
+        ResponseEntity<CompositeHealthDTO> health = healthResource.healthCheck(Mockito.mock(HttpServletRequest.class));
+        assertThat(health.getStatusCodeValue()).isEqualTo(200);
+        assertThat(health.getBody().getStatus()).isEqualTo(HealthService.DEGRADED);
+    }
+
+    @Test
+    @WithMockUser(username = "test", roles = "ADMIN")
+    public void testHealthCheckDown() throws Exception {
+        CompositeHealthDTO down = getHealth();
+        down.setStatus(Status.DOWN);
+        Mockito.when(healthService.checkGlobalHealth(Mockito.anyList(), Mockito.any(HttpServletRequest.class))).thenReturn(down);
+
+        ResponseEntity<CompositeHealthDTO> health = healthResource.healthCheck(Mockito.mock(HttpServletRequest.class));
+        assertThat(health.getStatusCodeValue()).isEqualTo(503);
+    }
+
     private List<Route> getRoutes() {
         return new ArrayList<>();
     }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
 
@@ -22,6 +23,12 @@ public interface AssertionServiceClient {
 
     @RequestMapping(method = RequestMethod.PUT, value = "/api/assertion/update/{salesforceId}/{newSalesforceId}", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
     @HystrixProperty(name = "hystrix.command.default.execution.isolation.thread.timeoutInMilliseconds", value = "50000")
-    ResponseEntity<String> updateAssertionsSalesforceId(@PathVariable("salesforceId") String salesforceId, @PathVariable("newSalesforceId") String newSalesforceId);
+    ResponseEntity<String> updateAssertionsSalesforceId(@PathVariable("salesforceId") String salesforceId, @PathVariable("newSalesforceId") String newSalesforceId,
+            @RequestParam("migrationId") String migrationId);
+
+    @RequestMapping(method = RequestMethod.PUT, value = "/api/assertion/update/{salesforceId}/{newSalesforceId}/rollback", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    @HystrixProperty(name = "hystrix.command.default.execution.isolation.thread.timeoutInMilliseconds", value = "50000")
+    ResponseEntity<String> rollbackAssertionsSalesforceId(@PathVariable("salesforceId") String salesforceId, @PathVariable("newSalesforceId") String newSalesforceId,
+            @RequestParam("migrationId") String migrationId);
 
 }
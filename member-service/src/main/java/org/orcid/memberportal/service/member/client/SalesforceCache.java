@@ -0,0 +1,216 @@
+package org.orcid.memberportal.service.member.client;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.orcid.memberportal.service.member.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through cache of salesforce data, keyed by data type and salesforce id.
+ * <p>
+ * Entries younger than their type's ttl are served as is. Entries past the
+ * ttl but within the configured max staleness are still served, while a
+ * single background refresh per entry reloads them from salesforce. Older
+ * entries, and misses, are loaded synchronously. Writes to salesforce should
+ * {@link #evict(DataType, String)} the data they change.
+ */
+@Component
+public class SalesforceCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesforceCache.class);
+
+    public static final String COUNTRIES_KEY = "countries";
+
+    public enum DataType {
+        MEMBER_DETAILS, CONSORTIUM_LEAD_DETAILS, MEMBER_CONTACTS, MEMBER_ORG_IDS, COUNTRIES
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private final ApplicationProperties.SalesforceCache properties;
+
+    private final Executor refreshExecutor;
+
+    private final Map<DataType, Map<String, CacheEntry>> caches = new EnumMap<>(DataType.class);
+
+    private final Map<DataType, Map<String, Counter>> counters = new EnumMap<>(DataType.class);
+
+    private Clock clock = Clock.systemUTC();
+
+    @Autowired
+    public SalesforceCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, @Qualifier("taskExecutor") Executor refreshExecutor) {
+        this(applicationProperties.getSalesforceCache(), meterRegistry, refreshExecutor);
+    }
+
+    public SalesforceCache(ApplicationProperties.SalesforceCache properties, MeterRegistry meterRegistry, Executor refreshExecutor) {
+        this.properties = properties;
+        this.refreshExecutor = refreshExecutor;
+        for (DataType type : DataType.values()) {
+            Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+            caches.put(type, cache);
+
+            String typeTag = type.name().toLowerCase();
+            Map<String, Counter> typeCounters = new ConcurrentHashMap<>();
+            for (String result : new String[] { "hit", "miss", "stale", "refresh_failure" }) {
+                typeCounters.put(result, Counter.builder("salesforce.cache.requests").tag("type", typeTag).tag("result", result).register(meterRegistry));
+            }
+            counters.put(type, typeCounters);
+            Gauge.builder("salesforce.cache.size", cache, Map::size).tag("type", typeTag).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the cached value for the given type and salesforce id, loading
+     * it with the given loader if it is missing or too stale to serve. Null
+     * values are never cached.
+     */
+    public <T> T get(DataType type, String salesforceId, Loader<T> loader) throws IOException {
+        Map<String, CacheEntry> cache = caches.get(type);
+        CacheEntry entry = cache.get(salesforceId);
+        Instant now = clock.instant();
+
+        if (entry != null) {
+            Duration age = Duration.between(entry.loaded, now);
+            Duration ttl = getTtl(type);
+            if (age.compareTo(ttl) <= 0) {
+                count(type, "hit");
+                return cast(entry.value);
+            }
+            if (age.compareTo(ttl.plus(properties.getMaxStaleness())) <= 0) {
+                count(type, "stale");
+                refreshInBackground(type, salesforceId, entry, loader);
+                return cast(entry.value);
+            }
+        }
+
+        count(type, "miss");
+        T value = loader.load();
+        put(type, salesforceId, value);
+        return value;
+    }
+
+    public void evict(DataType type, String salesforceId) {
+        caches.get(type).remove(salesforceId);
+    }
+
+    public void evictAll(String salesforceId) {
+        for (DataType type : DataType.values()) {
+            evict(type, salesforceId);
+        }
+    }
+
+    private void refreshInBackground(DataType type, String salesforceId, CacheEntry entry, Loader<?> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = loader.load();
+                    // only replace the entry we refreshed, an eviction or newer
+                    // load in the meantime wins
+                    if (value != null) {
+                        caches.get(type).replace(salesforceId, entry, new CacheEntry(value, clock.instant()));
+                    }
+                } catch (Exception e) {
+                    count(type, "refresh_failure");
+                    LOG.warn("Failed to refresh cached salesforce {} for {}", type, salesforceId, e);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+            LOG.warn("Unable to schedule refresh of cached salesforce {} for {}", type, salesforceId);
+        }
+    }
+
+    private void put(DataType type, String salesforceId, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        Map<String, CacheEntry> cache = caches.get(type);
+        if (cache.size() >= properties.getMaxEntries() && !cache.containsKey(salesforceId)) {
+            makeRoom(type, cache);
+        }
+        cache.put(salesforceId, new CacheEntry(value, clock.instant()));
+    }
+
+    private void makeRoom(DataType type, Map<String, CacheEntry> cache) {
+        Instant unservableBefore = clock.instant().minus(getTtl(type)).minus(properties.getMaxStaleness());
+        cache.values().removeIf(e -> e.loaded.isBefore(unservableBefore));
+
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() >= properties.getMaxEntries() && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private Duration getTtl(DataType type) {
+        switch (type) {
+        case MEMBER_DETAILS:
+        case CONSORTIUM_LEAD_DETAILS:
+            return properties.getMemberDetailsTtl();
+        case MEMBER_CONTACTS:
+            return properties.getMemberContactsTtl();
+        case MEMBER_ORG_IDS:
+            return properties.getMemberOrgIdsTtl();
+        case COUNTRIES:
+            return properties.getCountriesTtl();
+        default:
+            throw new IllegalArgumentException("Unknown data type " + type);
+        }
+    }
+
+    private void count(DataType type, String result) {
+        counters.get(type).get(result).increment();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private static class CacheEntry {
+
+        private final Object value;
+
+        private final Instant loaded;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private CacheEntry(Object value, Instant loaded) {
+            this.value = value;
+            this.loaded = loaded;
+        }
+    }
+
+}
@@ -4,14 +4,14 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.config.RequestConfig;
@@ -49,12 +49,33 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 @Component
 public class SalesforceClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(SalesforceClient.class);
 
+    private static final long IDLE_CONNECTION_TIMEOUT_SECONDS = 60;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final ObjectReader MEMBER_DETAILS_READER = OBJECT_MAPPER.readerFor(MemberDetails.class);
+
+    private static final ObjectReader MEMBER_CONTACTS_READER = OBJECT_MAPPER.readerFor(MemberContacts.class);
+
+    private static final ObjectReader MEMBER_ORG_IDS_READER = OBJECT_MAPPER.readerFor(MemberOrgIds.class);
+
+    private static final ObjectReader CONSORTIUM_LEAD_DETAILS_READER = OBJECT_MAPPER.readerFor(ConsortiumLeadDetails.class);
+
+    private static final ObjectReader CONSORTIUM_MEMBERS_READER = OBJECT_MAPPER.readerFor(new TypeReference<List<ConsortiumMember>>() {
+    });
+
+    private static final ObjectReader COUNTRIES_READER = OBJECT_MAPPER.readerFor(new TypeReference<List<Country>>() {
+    });
+
+    private static final ObjectWriter MEMBER_UPDATE_DATA_WRITER = OBJECT_MAPPER.writerFor(MemberUpdateData.class);
+
     private CloseableHttpClient defaultHttpClient;
 
     private String accessToken;
@@ -87,24 +108,17 @@ public class SalesforceClient {
     }
 
     private List<Country> getSFCountryData() {
-        try (CloseableHttpClient httpClient = getHttpClient()) {
-            HttpGet httpGet = getGetRequest("countries");
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
-                    LOG.warn("Received non-200 response from salesforce client for country data");
-                    logErrorBody(response);
-                    EntityUtils.consume(response.getEntity());
-                } else {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                    return objectMapper.readValue(response.getEntity().getContent(), new TypeReference<List<Country>>() {});
-                }
-            } catch (IOException e) {
-                LOG.error("Error getting country data from salesforce", e);
-                throw new RuntimeException(e);
+        HttpGet httpGet = getGetRequest("countries");
+        try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
+                LOG.warn("Received non-200 response from salesforce client for country data");
+                logErrorBody(response);
+                EntityUtils.consume(response.getEntity());
+            } else {
+                return COUNTRIES_READER.readValue(response.getEntity().getContent());
             }
         } catch (IOException e) {
-            LOG.error("HttpClient error", e);
+            LOG.error("Error getting country data from salesforce", e);
             throw new RuntimeException(e);
         }
         return null;
@@ -112,18 +126,16 @@ public class SalesforceClient {
 
     private Boolean updateSFPublicMemberDetails(MemberUpdateData memberUpdateData) {
         LOG.info("Updating public details for salesforce id {}", memberUpdateData.getSalesforceId());
-        try (CloseableHttpClient httpClient = getHttpClient()) {
+        try {
             HttpPut httpPut = getPutRequest("member/" + memberUpdateData.getSalesforceId() + "/member-data", memberUpdateData);
-            try (CloseableHttpResponse response = httpClient.execute(httpPut)) {
+            try (CloseableHttpResponse response = getHttpClient().execute(httpPut)) {
                 if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
                     LOG.warn("Received non-200 response from salesforce client for salesforce id {}", memberUpdateData.getSalesforceId());
                     logErrorBody(response);
                     EntityUtils.consume(response.getEntity());
                 } else {
                     LOG.info("Public details for salesforce id {} updated", memberUpdateData.getSalesforceId());
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                    JsonNode root = objectMapper.readTree(response.getEntity().getContent());
+                    JsonNode root = OBJECT_MAPPER.readTree(response.getEntity().getContent());
                     Boolean success = root.get("success").asBoolean();
                     return success;
                 }
@@ -136,104 +148,73 @@ public class SalesforceClient {
     }
 
     private MemberDetails getSFMemberDetails(String salesforceId) {
-        try (CloseableHttpClient httpClient = getHttpClient()) {
-            HttpGet httpGet = getGetRequest("member/" + salesforceId + "/details");
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
-                    LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
-                    logErrorBody(response);
-                    EntityUtils.consume(response.getEntity());
-                } else {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                    JsonNode root = objectMapper.readTree(response.getEntity().getContent());
-                    return objectMapper.treeToValue(root.at("/member"), MemberDetails.class);
-                }
-            } catch (IOException e) {
-                LOG.error("Error getting member details from salesforce", e);
-                throw new RuntimeException(e);
+        HttpGet httpGet = getGetRequest("member/" + salesforceId + "/details");
+        try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
+                LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
+                logErrorBody(response);
+                EntityUtils.consume(response.getEntity());
+            } else {
+                JsonNode root = OBJECT_MAPPER.readTree(response.getEntity().getContent());
+                return MEMBER_DETAILS_READER.readValue(root.at("/member"));
             }
         } catch (IOException e) {
-            LOG.error("HttpClient error", e);
+            LOG.error("Error getting member details from salesforce", e);
             throw new RuntimeException(e);
         }
         return null;
     }
 
     private MemberContacts getSFMemberContacts(String salesforceId) {
-        try (CloseableHttpClient httpClient = getHttpClient()) {
-            HttpGet httpGet = getGetRequest("member/" + salesforceId + "/contacts");
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
-                    LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
-                    logErrorBody(response);
-                    EntityUtils.consume(response.getEntity());
-                } else {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                    return objectMapper.readValue(response.getEntity().getContent(), MemberContacts.class);
-                }
-            } catch (IOException e) {
-                LOG.error("Error getting member contacts from salesforce", e);
-                throw new RuntimeException(e);
+        HttpGet httpGet = getGetRequest("member/" + salesforceId + "/contacts");
+        try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
+                LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
+                logErrorBody(response);
+                EntityUtils.consume(response.getEntity());
+            } else {
+                return MEMBER_CONTACTS_READER.readValue(response.getEntity().getContent());
             }
         } catch (IOException e) {
-            LOG.error("HttpClient error", e);
+            LOG.error("Error getting member contacts from salesforce", e);
             throw new RuntimeException(e);
         }
         return null;
     }
 
     private MemberOrgIds getSFMemberOrgIds(String salesforceId) {
-        try (CloseableHttpClient httpClient = getHttpClient()) {
-            HttpGet httpGet = getGetRequest("member/" + salesforceId + "/org-ids");
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
-                    LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
-                    logErrorBody(response);
-                    EntityUtils.consume(response.getEntity());
-                } else {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                    return objectMapper.readValue(response.getEntity().getContent(), MemberOrgIds.class);
-                }
-            } catch (IOException e) {
-                LOG.error("Error getting member org ids from salesforce", e);
-                throw new RuntimeException(e);
+        HttpGet httpGet = getGetRequest("member/" + salesforceId + "/org-ids");
+        try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
+                LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
+                logErrorBody(response);
+                EntityUtils.consume(response.getEntity());
+            } else {
+                return MEMBER_ORG_IDS_READER.readValue(response.getEntity().getContent());
             }
         } catch (IOException e) {
-            LOG.error("HttpClient error", e);
+            LOG.error("Error getting member org ids from salesforce", e);
             throw new RuntimeException(e);
         }
         return null;
     }
 
     private ConsortiumLeadDetails getSFConsortiumLeadDetails(String salesforceId) {
-        try (CloseableHttpClient httpClient = getHttpClient()) {
-            HttpGet httpGet = getGetRequest("member/" + salesforceId + "/details");
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
-                    LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
-                    logErrorBody(response);
-                    EntityUtils.consume(response.getEntity());
-                } else {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-                    JsonNode root = objectMapper.readTree(response.getEntity().getContent());
-                    ConsortiumLeadDetails consortiumLeadDetails = objectMapper.treeToValue(root.at("/member"), ConsortiumLeadDetails.class);
-
-                    ObjectReader reader = objectMapper.readerFor(new TypeReference<List<ConsortiumMember>>() {
-                    });
-                    List<ConsortiumMember> consortiumMembers = reader.readValue(root.at("/consortiumOpportunities"));
-                    consortiumLeadDetails.setConsortiumMembers(consortiumMembers);
-                    return consortiumLeadDetails;
-                }
-            } catch (IOException e) {
-                LOG.error("Error getting consortium member details from salesforce", e);
-                throw new RuntimeException(e);
+        HttpGet httpGet = getGetRequest("member/" + salesforceId + "/details");
+        try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            if (response.getStatusLine().getStatusCode() != Status.OK.getStatusCode()) {
+                LOG.warn("Received non-200 response from salesforce client for salesforce id {}", salesforceId);
+                logErrorBody(response);
+                EntityUtils.consume(response.getEntity());
+            } else {
+                JsonNode root = OBJECT_MAPPER.readTree(response.getEntity().getContent());
+                ConsortiumLeadDetails consortiumLeadDetails = CONSORTIUM_LEAD_DETAILS_READER.readValue(root.at("/member"));
+                List<ConsortiumMember> consortiumMembers = CONSORTIUM_MEMBERS_READER.readValue(root.at("/consortiumOpportunities"));
+                consortiumLeadDetails.setConsortiumMembers(consortiumMembers);
+                return consortiumLeadDetails;
             }
         } catch (IOException e) {
-            LOG.error("HttpClient error", e);
+            LOG.error("Error getting consortium member details from salesforce", e);
             throw new RuntimeException(e);
         }
         return null;
@@ -255,21 +236,41 @@ public class SalesforceClient {
     }
 
     private HttpEntity getHttpEntity(MemberUpdateData memberUpdateData) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        String json = objectMapper.writeValueAsString(memberUpdateData);
+        String json = MEMBER_UPDATE_DATA_WRITER.writeValueAsString(memberUpdateData);
         return new StringEntity(json, ContentType.APPLICATION_JSON);
     }
 
-    private CloseableHttpClient getHttpClient() {
+    /**
+     * Returns the client shared by all salesforce requests, creating it on
+     * first use. The client pools connections so that keep-alive connections
+     * (and their TLS sessions) are reused across requests, and must therefore
+     * never be closed by callers.
+     * 
+     * @return the shared http client
+     */
+    private synchronized CloseableHttpClient getHttpClient() {
         if (defaultHttpClient != null) {
             return defaultHttpClient;
         }
 
         Integer timeout = Integer.parseInt(applicationProperties.getSalesforceRequestTimeout());
+        int maxConnections = applicationProperties.getSalesforceMaxConnections();
         PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
         connectionManager.setValidateAfterInactivity(10000);
         RequestConfig config = RequestConfig.custom().setConnectTimeout(timeout).setConnectionRequestTimeout(timeout).setSocketTimeout(timeout).build();
-        return HttpClients.custom().setDefaultRequestConfig(config).setConnectionManager(connectionManager).build();
+        defaultHttpClient = HttpClients.custom().setDefaultRequestConfig(config).setConnectionManager(connectionManager).evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS).build();
+        return defaultHttpClient;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (defaultHttpClient != null) {
+            defaultHttpClient.close();
+            defaultHttpClient = null;
+        }
     }
 
     private <T> T request(Supplier<T> function) {
@@ -309,8 +310,7 @@ public class SalesforceClient {
         params.add(new BasicNameValuePair("grant_type", "client_credentials"));
         httpPost.setEntity(new UrlEncodedFormEntity(params));
 
-        try (CloseableHttpClient httpClient = getHttpClient()) {
-            HttpResponse response = httpClient.execute(httpPost);
+        try (CloseableHttpResponse response = getHttpClient().execute(httpPost)) {
             Integer statusCode = response.getStatusLine().getStatusCode();
 
             if (statusCode != Status.OK.getStatusCode()) {
@@ -35,7 +35,13 @@ public interface UserServiceClient {
 
     @RequestMapping(method = RequestMethod.PUT, value = "/api/users/{salesforceId}/{newSalesforceId}", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
     @HystrixProperty(name = "hystrix.command.default.execution.isolation.thread.timeoutInMilliseconds", value = "50000")
-    ResponseEntity<String> updateUsersSalesforceId(@PathVariable("salesforceId") String salesforceId, @PathVariable("newSalesforceId") String newSalesforceId);
+    ResponseEntity<String> updateUsersSalesforceId(@PathVariable("salesforceId") String salesforceId, @PathVariable("newSalesforceId") String newSalesforceId,
+            @RequestParam("migrationId") String migrationId);
+
+    @RequestMapping(method = RequestMethod.PUT, value = "/api/users/{salesforceId}/{newSalesforceId}/rollback", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    @HystrixProperty(name = "hystrix.command.default.execution.isolation.thread.timeoutInMilliseconds", value = "50000")
+    ResponseEntity<String> rollbackUsersSalesforceId(@PathVariable("salesforceId") String salesforceId, @PathVariable("newSalesforceId") String newSalesforceId,
+            @RequestParam("migrationId") String migrationId);
 
     @RequestMapping(method = RequestMethod.DELETE, value = "/api/users/{loginOrId}", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
     @HystrixProperty(name = "hystrix.command.default.execution.isolation.thread.timeoutInMilliseconds", value = "5000")
@@ -1,5 +1,7 @@
 package org.orcid.memberportal.service.member.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -47,6 +49,10 @@ public class ApplicationProperties {
 
     private String salesforceRequestTimeout;
 
+    private int salesforceMaxConnections = 20;
+
+    private final SalesforceCache salesforceCache = new SalesforceCache();
+
     private String contactUpdateRecipient;
 
     private boolean mailTestMode;
@@ -181,6 +187,18 @@ public class ApplicationProperties {
         this.salesforceRequestTimeout = salesforceRequestTimeout;
     }
 
+    public SalesforceCache getSalesforceCache() {
+        return salesforceCache;
+    }
+
+    public int getSalesforceMaxConnections() {
+        return salesforceMaxConnections;
+    }
+
+    public void setSalesforceMaxConnections(int salesforceMaxConnections) {
+        this.salesforceMaxConnections = salesforceMaxConnections;
+    }
+
     public String getHolisticsConsortiaMemberAffiliationsDashboardUrl() {
         return holisticsConsortiaMemberAffiliationsDashboardUrl;
     }
@@ -252,4 +270,72 @@ public class ApplicationProperties {
     public void setMailDomain(String mailDomain) {
         this.mailDomain = mailDomain;
     }
+    /**
+     * Time to live of cached salesforce data per data type. Entries older than
+     * their ttl are still served for up to maxStaleness while they are
+     * refreshed in the background.
+     */
+    public static class SalesforceCache {
+
+        private Duration memberDetailsTtl = Duration.ofMinutes(5);
+
+        private Duration memberContactsTtl = Duration.ofMinutes(5);
+
+        private Duration memberOrgIdsTtl = Duration.ofMinutes(5);
+
+        private Duration countriesTtl = Duration.ofHours(24);
+
+        private Duration maxStaleness = Duration.ofHours(1);
+
+        private int maxEntries = 5000;
+
+        public Duration getMemberDetailsTtl() {
+            return memberDetailsTtl;
+        }
+
+        public void setMemberDetailsTtl(Duration memberDetailsTtl) {
+            this.memberDetailsTtl = memberDetailsTtl;
+        }
+
+        public Duration getMemberContactsTtl() {
+            return memberContactsTtl;
+        }
+
+        public void setMemberContactsTtl(Duration memberContactsTtl) {
+            this.memberContactsTtl = memberContactsTtl;
+        }
+
+        public Duration getMemberOrgIdsTtl() {
+            return memberOrgIdsTtl;
+        }
+
+        public void setMemberOrgIdsTtl(Duration memberOrgIdsTtl) {
+            this.memberOrgIdsTtl = memberOrgIdsTtl;
+        }
+
+        public Duration getCountriesTtl() {
+            return countriesTtl;
+        }
+
+        public void setCountriesTtl(Duration countriesTtl) {
+            this.countriesTtl = countriesTtl;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
 }
@@ -37,8 +37,8 @@ public class AssertionService {
         }
     }
 
-    public void updateAssertionsSalesforceId(String salesforceId, String newSalesforceId) {
-        ResponseEntity<String> response = assertionServiceClient.updateAssertionsSalesforceId(salesforceId, newSalesforceId);
+    public void updateAssertionsSalesforceId(String salesforceId, String newSalesforceId, String migrationId) {
+        ResponseEntity<String> response = assertionServiceClient.updateAssertionsSalesforceId(salesforceId, newSalesforceId, migrationId);
         if (!response.getStatusCode().is2xxSuccessful()) {
             LOG.warn("Error updating assertions for  salesforceId {} to the new salesforceId {}, response code {}", salesforceId, newSalesforceId,
                     response.getStatusCodeValue());
@@ -46,4 +46,13 @@ public class AssertionService {
         }
     }
 
+    public void rollbackAssertionsSalesforceId(String salesforceId, String newSalesforceId, String migrationId) {
+        ResponseEntity<String> response = assertionServiceClient.rollbackAssertionsSalesforceId(salesforceId, newSalesforceId, migrationId);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            LOG.warn("Error rolling back assertions from salesforceId {} to salesforceId {} for migration {}, response code {}", newSalesforceId, salesforceId,
+                    migrationId, response.getStatusCodeValue());
+            throw new RuntimeException("Error rolling back assertions' salesforce ids");
+        }
+    }
+
 }
@@ -6,7 +6,10 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
+import org.orcid.memberportal.service.member.client.SalesforceCache;
+import org.orcid.memberportal.service.member.client.SalesforceCache.DataType;
 import org.orcid.memberportal.service.member.client.SalesforceClient;
 import org.orcid.memberportal.service.member.client.model.*;
 import org.orcid.memberportal.service.member.domain.Member;
@@ -61,6 +64,9 @@ public class MemberService {
     @Autowired
     private SalesforceClient salesforceClient;
 
+    @Autowired
+    private SalesforceCache salesforceCache;
+
     @Autowired
     private MailService mailService;
 
@@ -133,6 +139,7 @@ public class MemberService {
         }
 
         Member existingMember = optional.get();
+        salesforceCache.evictAll(existingMember.getSalesforceId());
         existingMember.setClientId(member.getClientId());
         existingMember.setClientName(member.getClientName());
         existingMember.setParentSalesforceId(member.getParentSalesforceId());
@@ -159,21 +166,25 @@ public class MemberService {
             String oldSalesforceId = existingMember.getSalesforceId();
             String newSalesforceId = member.getSalesforceId();
 
+            // tags everything moved, so that retries are safe and rollbacks
+            // only undo this migration
+            String migrationId = UUID.randomUUID().toString();
+
             try {
                 // update affiliations and users associated with the member
-                assertionService.updateAssertionsSalesforceId(oldSalesforceId, newSalesforceId);
+                assertionService.updateAssertionsSalesforceId(oldSalesforceId, newSalesforceId, migrationId);
             } catch (Exception e) {
                 LOG.error("Error updating assertion salesforce ids", e);
                 throw new RuntimeException(e);
             }
 
             try {
-                userService.updateUsersSalesforceId(oldSalesforceId, newSalesforceId);
+                userService.updateUsersSalesforceId(oldSalesforceId, newSalesforceId, migrationId);
             } catch (Exception e) {
                 LOG.error("Error updating users's salesforce id", e);
                 LOG.error("Error updating users' salesforce id from {} to {}", oldSalesforceId, newSalesforceId);
                 LOG.info("Attempting to perform salesforce id rollback on affiliations");
-                assertionService.updateAssertionsSalesforceId(newSalesforceId, oldSalesforceId);
+                assertionService.rollbackAssertionsSalesforceId(oldSalesforceId, newSalesforceId, migrationId);
                 LOG.info("Affiliation salesforce id rollback successfull");
                 throw new RuntimeException(e);
             }
@@ -185,11 +196,11 @@ public class MemberService {
                 LOG.error("Error updating member", e);
                 LOG.error("Error updating member's salesforce id from {} to {}", oldSalesforceId, newSalesforceId);
                 LOG.info("Attempting to perform salesforce id rollback on affiliations");
-                assertionService.updateAssertionsSalesforceId(newSalesforceId, oldSalesforceId);
+                assertionService.rollbackAssertionsSalesforceId(oldSalesforceId, newSalesforceId, migrationId);
                 LOG.info("Affiliation salesforce id rollback successfull");
 
                 LOG.info("Attempting to perform salesforce id rollback on users");
-                userService.updateUsersSalesforceId(newSalesforceId, oldSalesforceId);
+                userService.rollbackUsersSalesforceId(oldSalesforceId, newSalesforceId, migrationId);
                 LOG.info("User salesforce id rollback successfull");
                 throw new RuntimeException(e);
             }
@@ -273,9 +284,9 @@ public class MemberService {
         Member member = memberRepository.findBySalesforceId(salesforceId).orElseThrow();
         try {
             if (Boolean.TRUE.equals(member.getIsConsortiumLead())) {
-                return salesforceClient.getConsortiumLeadDetails(salesforceId);
+                return salesforceCache.get(DataType.CONSORTIUM_LEAD_DETAILS, salesforceId, () -> salesforceClient.getConsortiumLeadDetails(salesforceId));
             } else {
-                return salesforceClient.getMemberDetails(salesforceId);
+                return salesforceCache.get(DataType.MEMBER_DETAILS, salesforceId, () -> salesforceClient.getMemberDetails(salesforceId));
             }
         } catch (IOException e) {
             LOG.error("Error fetching member details from salesforce client", e);
@@ -291,13 +302,16 @@ public class MemberService {
         } catch (IOException e) {
             LOG.error("Error updating member contacts", e);
             throw new RuntimeException(e);
+        } finally {
+            salesforceCache.evict(DataType.MEMBER_DETAILS, salesforceId);
+            salesforceCache.evict(DataType.CONSORTIUM_LEAD_DETAILS, salesforceId);
         }
     }
 
     public MemberContacts getCurrentMemberContacts(String salesforceId) throws UnauthorizedMemberAccessException {
         validateUserAccess(salesforceId);
         try {
-            return salesforceClient.getMemberContacts(salesforceId);
+            return salesforceCache.get(DataType.MEMBER_CONTACTS, salesforceId, () -> salesforceClient.getMemberContacts(salesforceId));
         } catch (IOException e) {
             LOG.error("Error fetching member contacts from salesforce client", e);
             throw new RuntimeException(e);
@@ -307,7 +321,7 @@ public class MemberService {
     public MemberOrgIds getCurrentMemberOrgIds(String salesforceId) throws UnauthorizedMemberAccessException {
         validateUserAccess(salesforceId);
         try {
-            return salesforceClient.getMemberOrgIds(salesforceId);
+            return salesforceCache.get(DataType.MEMBER_ORG_IDS, salesforceId, () -> salesforceClient.getMemberOrgIds(salesforceId));
         } catch (IOException e) {
             LOG.error("Error fetching member org ids from salesforce client", e);
             throw new RuntimeException(e);
@@ -344,6 +358,7 @@ public class MemberService {
         } else {
             mailService.sendUpdateContactEmail(memberContactUpdate);
         }
+        salesforceCache.evict(DataType.MEMBER_CONTACTS, salesforceId);
     }
 
     public void requestNewConsortiumMember(AddConsortiumMember addConsortiumMember) {
@@ -380,7 +395,12 @@ public class MemberService {
     }
 
     public List<Country> getSalesforceCountries() {
-        return salesforceClient.getSalesforceCountries();
+        try {
+            return salesforceCache.get(DataType.COUNTRIES, SalesforceCache.COUNTRIES_KEY, () -> salesforceClient.getSalesforceCountries());
+        } catch (IOException e) {
+            LOG.error("Error fetching countries from salesforce client", e);
+            throw new RuntimeException(e);
+        }
     }
 
     /**
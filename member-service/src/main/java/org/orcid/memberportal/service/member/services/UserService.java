@@ -64,14 +64,22 @@ public class UserService {
         }
     }
 
-    public void updateUsersSalesforceId(String salesforceId, String newSalesforceId) {
-        ResponseEntity<String> response = userServiceClient.updateUsersSalesforceId(salesforceId, newSalesforceId);
+    public void updateUsersSalesforceId(String salesforceId, String newSalesforceId, String migrationId) {
+        ResponseEntity<String> response = userServiceClient.updateUsersSalesforceId(salesforceId, newSalesforceId, migrationId);
         if (!response.getStatusCode().is2xxSuccessful()) {
             LOG.warn("Error updating users {}, response code {}", salesforceId, response.getStatusCodeValue());
             throw new RuntimeException("Failed to update users' salesforce id");
         }
     }
 
+    public void rollbackUsersSalesforceId(String salesforceId, String newSalesforceId, String migrationId) {
+        ResponseEntity<String> response = userServiceClient.rollbackUsersSalesforceId(salesforceId, newSalesforceId, migrationId);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            LOG.warn("Error rolling back users {} for migration {}, response code {}", salesforceId, migrationId, response.getStatusCodeValue());
+            throw new RuntimeException("Failed to roll back users' salesforce id");
+        }
+    }
+
     public String getSalesforceIdForUser(String userId) {
         ResponseEntity<MemberServiceUser> response = userServiceClient.getUser(userId);
         if (response.getStatusCode().is2xxSuccessful()) {
@@ -0,0 +1,152 @@
+package org.orcid.memberportal.service.member.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.member.client.SalesforceCache.DataType;
+import org.orcid.memberportal.service.member.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SalesforceCacheTest {
+
+    private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+
+    private ApplicationProperties.SalesforceCache properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private List<Runnable> refreshes;
+
+    private SalesforceCache cache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ApplicationProperties.SalesforceCache();
+        properties.setMemberDetailsTtl(Duration.ofMinutes(5));
+        properties.setMaxStaleness(Duration.ofMinutes(10));
+        properties.setMaxEntries(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        refreshes = new ArrayList<>();
+        cache = new SalesforceCache(properties, meterRegistry, refreshes::add);
+        cache.setClock(Clock.fixed(START, ZoneOffset.UTC));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testHitWithinTtl() throws IOException {
+        assertEquals("value-1", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        advance(Duration.ofMinutes(4));
+        assertEquals("value-1", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count(DataType.MEMBER_DETAILS, "miss"));
+        assertEquals(1.0, count(DataType.MEMBER_DETAILS, "hit"));
+    }
+
+    @Test
+    void testStaleValueServedWhileRefreshing() throws IOException {
+        cache.get(DataType.MEMBER_DETAILS, "sfid", this::load);
+        advance(Duration.ofMinutes(6));
+
+        assertEquals("value-1", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals("value-1", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+
+        // only one refresh is scheduled per entry
+        assertEquals(1, refreshes.size());
+        refreshes.get(0).run();
+
+        assertEquals("value-2", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals(2, loads.get());
+        assertEquals(2.0, count(DataType.MEMBER_DETAILS, "stale"));
+        assertEquals(1.0, count(DataType.MEMBER_DETAILS, "hit"));
+    }
+
+    @Test
+    void testFailedRefreshKeepsStaleValue() throws IOException {
+        cache.get(DataType.MEMBER_DETAILS, "sfid", this::load);
+        advance(Duration.ofMinutes(6));
+
+        cache.get(DataType.MEMBER_DETAILS, "sfid", () -> {
+            throw new IOException("salesforce unavailable");
+        });
+        refreshes.get(0).run();
+
+        assertEquals("value-1", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals(1.0, count(DataType.MEMBER_DETAILS, "refresh_failure"));
+
+        // the failed refresh released the entry for another attempt
+        assertEquals(2, refreshes.size());
+    }
+
+    @Test
+    void testTooStaleValueLoadedSynchronously() throws IOException {
+        cache.get(DataType.MEMBER_DETAILS, "sfid", this::load);
+        advance(Duration.ofMinutes(16));
+
+        assertEquals("value-2", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals(0, refreshes.size());
+        assertEquals(2.0, count(DataType.MEMBER_DETAILS, "miss"));
+    }
+
+    @Test
+    void testEvict() throws IOException {
+        cache.get(DataType.MEMBER_DETAILS, "sfid", this::load);
+        cache.get(DataType.MEMBER_CONTACTS, "sfid", this::load);
+
+        cache.evict(DataType.MEMBER_DETAILS, "sfid");
+        assertEquals("value-3", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals("value-2", cache.get(DataType.MEMBER_CONTACTS, "sfid", this::load));
+
+        cache.evictAll("sfid");
+        assertEquals("value-4", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals("value-5", cache.get(DataType.MEMBER_CONTACTS, "sfid", this::load));
+    }
+
+    @Test
+    void testNullAndFailedLoadsNotCached() throws IOException {
+        cache.get(DataType.MEMBER_DETAILS, "sfid", () -> null);
+        assertThrows(IOException.class, () -> cache.get(DataType.MEMBER_DETAILS, "sfid", () -> {
+            throw new IOException("salesforce unavailable");
+        }));
+
+        assertEquals("value-1", cache.get(DataType.MEMBER_DETAILS, "sfid", this::load));
+        assertEquals(3.0, count(DataType.MEMBER_DETAILS, "miss"));
+    }
+
+    @Test
+    void testSizeBounded() throws IOException {
+        cache.get(DataType.MEMBER_DETAILS, "sfid-1", this::load);
+        cache.get(DataType.MEMBER_DETAILS, "sfid-2", this::load);
+        cache.get(DataType.MEMBER_DETAILS, "sfid-3", this::load);
+
+        assertEquals(2.0, meterRegistry.get("salesforce.cache.size").tag("type", "member_details").gauge().value());
+    }
+
+    private String load() {
+        return "value-" + loads.incrementAndGet();
+    }
+
+    private void advance(Duration duration) {
+        cache.setClock(Clock.fixed(START.plus(duration), ZoneOffset.UTC));
+    }
+
+    private double count(DataType type, String result) {
+        return meterRegistry.get("salesforce.cache.requests").tag("type", type.name().toLowerCase()).tag("result", result).counter().count();
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.orcid.memberportal.service.member.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.member.client.model.Country;
+import org.orcid.memberportal.service.member.client.model.MemberContacts;
+import org.orcid.memberportal.service.member.client.model.MemberDetails;
+import org.orcid.memberportal.service.member.client.model.MemberOrgIds;
+import org.orcid.memberportal.service.member.config.ApplicationProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the salesforce client against a local stub server to check that the
+ * pooled http client keeps connections alive between calls.
+ */
+public class SalesforceClientConnectionReuseTest {
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    private SalesforceClient client;
+
+    private HttpServer server;
+
+    private Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private AtomicInteger requestCount = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/oauth/token", exchange -> respond(exchange, "{\"access_token\":\"access-token\",\"token_type\":\"bearer\"}"));
+        server.createContext("/member/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/details")) {
+                respond(exchange, "{\"member\":{\"Name\":\"stub member\"},\"consortiumOpportunities\":[]}");
+            } else {
+                respond(exchange, "{\"totalSize\":0,\"records\":[]}");
+            }
+        });
+        server.createContext("/countries", exchange -> respond(exchange, "[{\"code\":\"DK\",\"name\":\"Denmark\"}]"));
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        Mockito.when(applicationProperties.getOrcidApiTokenEndpoint()).thenReturn(baseUrl + "oauth/token");
+        Mockito.when(applicationProperties.getSalesforceClientEndpoint()).thenReturn(baseUrl);
+        Mockito.when(applicationProperties.getSalesforceRequestTimeout()).thenReturn("5000");
+        Mockito.when(applicationProperties.getSalesforceMaxConnections()).thenReturn(5);
+
+        client = new SalesforceClient();
+        ReflectionTestUtils.setField(client, "applicationProperties", applicationProperties);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testConnectionsReusedAcrossCalls() throws IOException {
+        MemberDetails memberDetails = client.getMemberDetails("salesforce-id");
+        MemberContacts memberContacts = client.getMemberContacts("salesforce-id");
+        MemberOrgIds memberOrgIds = client.getMemberOrgIds("salesforce-id");
+        List<Country> countries = client.getSalesforceCountries();
+        client.getMemberDetails("another-salesforce-id");
+
+        assertThat(memberDetails.getName()).isEqualTo("stub member");
+        assertThat(memberContacts.getTotalSize()).isEqualTo(0);
+        assertThat(memberOrgIds.getTotalSize()).isEqualTo(0);
+        assertThat(countries).hasSize(1);
+
+        // token request plus five salesforce requests, all over one connection
+        assertThat(requestCount.get()).isEqualTo(6);
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requestCount.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().readAllBytes();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
@@ -22,8 +22,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.orcid.memberportal.service.member.client.SalesforceCache;
 import org.orcid.memberportal.service.member.client.SalesforceClient;
 import org.orcid.memberportal.service.member.client.model.ConsortiumLeadDetails;
 import org.orcid.memberportal.service.member.client.model.ConsortiumMember;
@@ -35,6 +37,7 @@ import org.orcid.memberportal.service.member.client.model.MemberOrgId;
 import org.orcid.memberportal.service.member.client.model.MemberOrgIds;
 import org.orcid.memberportal.service.member.client.model.MemberUpdateData;
 import org.orcid.memberportal.service.member.client.model.State;
+import org.orcid.memberportal.service.member.config.ApplicationProperties;
 import org.orcid.memberportal.service.member.domain.Member;
 import org.orcid.memberportal.service.member.repository.MemberRepository;
 import org.orcid.memberportal.service.member.security.EncryptUtil;
@@ -54,6 +57,8 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class MemberServiceTest {
 
     @Mock
@@ -74,6 +79,9 @@ class MemberServiceTest {
     @Mock
     private SalesforceClient salesforceClient;
 
+    @Spy
+    private SalesforceCache salesforceCache = new SalesforceCache(new ApplicationProperties.SalesforceCache(), new SimpleMeterRegistry(), Runnable::run);
+
     @InjectMocks
     private MemberService memberService;
 
@@ -166,7 +174,7 @@ class MemberServiceTest {
                 return (Member) invocation.getArgument(0);
             }
         });
-        Mockito.doThrow(new RuntimeException()).when(assertionService).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
+        Mockito.doThrow(new RuntimeException()).when(assertionService).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"), Mockito.anyString());
 
         Member member = getMember();
         member.setId("id");
@@ -177,7 +185,7 @@ class MemberServiceTest {
         });
 
         Mockito.verify(memberRepository, Mockito.never()).save(Mockito.any(Member.class));
-        Mockito.verify(userService, Mockito.never()).updateUsersSalesforceId(Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(userService, Mockito.never()).updateUsersSalesforceId(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
     }
 
     @Test
@@ -191,7 +199,7 @@ class MemberServiceTest {
             }
         });
 
-        Mockito.doThrow(new RuntimeException()).when(userService).updateUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
+        Mockito.doThrow(new RuntimeException()).when(userService).updateUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"), Mockito.anyString());
 
         Member member = getMember();
         member.setId("id");
@@ -204,8 +212,10 @@ class MemberServiceTest {
         Mockito.verify(memberRepository, Mockito.never()).save(Mockito.any(Member.class));
 
         // check assertion changes rolled back
-        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
-        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("three"), Mockito.eq("two"));
+        ArgumentCaptor<String> migrationIdCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"), migrationIdCaptor.capture());
+        Mockito.verify(assertionService, Mockito.times(1)).rollbackAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"),
+                Mockito.eq(migrationIdCaptor.getValue()));
         Mockito.verify(memberRepository, Mockito.never()).save(Mockito.any(Member.class));
     }
 
@@ -231,10 +241,12 @@ class MemberServiceTest {
         });
 
         // check assertion and user changes rolled back
-        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
-        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("three"), Mockito.eq("two"));
-        Mockito.verify(userService, Mockito.times(1)).updateUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
-        Mockito.verify(userService, Mockito.times(1)).updateUsersSalesforceId(Mockito.eq("three"), Mockito.eq("two"));
+        ArgumentCaptor<String> migrationIdCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"), migrationIdCaptor.capture());
+        String migrationId = migrationIdCaptor.getValue();
+        Mockito.verify(assertionService, Mockito.times(1)).rollbackAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"), Mockito.eq(migrationId));
+        Mockito.verify(userService, Mockito.times(1)).updateUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"), Mockito.eq(migrationId));
+        Mockito.verify(userService, Mockito.times(1)).rollbackUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"), Mockito.eq(migrationId));
     }
 
     @Test
@@ -253,8 +265,11 @@ class MemberServiceTest {
         memberService.updateMember(member);
 
         // check assertion and user changes rolled back
-        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
-        Mockito.verify(userService, Mockito.times(1)).updateUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"));
+        ArgumentCaptor<String> migrationIdCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(assertionService, Mockito.times(1)).updateAssertionsSalesforceId(Mockito.eq("two"), Mockito.eq("three"), migrationIdCaptor.capture());
+        Mockito.verify(userService, Mockito.times(1)).updateUsersSalesforceId(Mockito.eq("two"), Mockito.eq("three"), Mockito.eq(migrationIdCaptor.getValue()));
+        Mockito.verify(assertionService, Mockito.never()).rollbackAssertionsSalesforceId(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(userService, Mockito.never()).rollbackUsersSalesforceId(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
         Mockito.verify(memberRepository, Mockito.times(1)).save(memberCaptor.capture());
 
         Member saved = memberCaptor.getValue();
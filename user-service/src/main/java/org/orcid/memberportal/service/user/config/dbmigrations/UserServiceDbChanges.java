@@ -2,10 +2,17 @@ package org.orcid.memberportal.service.user.config.dbmigrations;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.orcid.memberportal.service.user.domain.User;
 import org.orcid.memberportal.service.user.security.AuthoritiesConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -16,6 +23,8 @@ import com.github.mongobee.changeset.ChangeSet;
 @ChangeLog(order = "002")
 public class UserServiceDbChanges {
 
+    private static final Logger LOG = LoggerFactory.getLogger(UserServiceDbChanges.class);
+
     @ChangeSet(order = "01", author = "George Nash", id = "01-changeAdminEmail")
     public void addAuthorities(MongoTemplate mongoTemplate) {
         Query query = new Query();
@@ -59,4 +68,42 @@ public class UserServiceDbChanges {
         mongoTemplate.dropCollection("jhi_authority");
     }
 
+    /**
+     * Backfills email_lower and adds its unique index. Users whose emails only
+     * differ by case can't all have the same email_lower, so they are reported
+     * and left without one until they are merged, rather than failing the
+     * index creation.
+     */
+    @ChangeSet(order = "06", author = "George Nash", id = "06-populateEmailLowerField")
+    public void populateEmailLowerField(MongoTemplate mongoTemplate) {
+        Query query = new Query();
+        query.addCriteria(Criteria.where("email").exists(true));
+        query.fields().include("email").include("email_lower");
+        Map<String, List<User>> usersByEmail = mongoTemplate.find(query, User.class, "jhi_user").stream()
+                .collect(Collectors.groupingBy(u -> User.normalizeEmail(u.getEmail())));
+
+        int populated = 0;
+        for (Map.Entry<String, List<User>> users : usersByEmail.entrySet()) {
+            if (users.getValue().size() > 1) {
+                LOG.error("Users {} have the same email {} ignoring case, leaving email_lower unset for those without it until they are merged",
+                        users.getValue().stream().map(User::getId).collect(Collectors.toList()), users.getKey());
+                continue;
+            }
+            User user = users.getValue().get(0);
+            if (user.getEmailLower() != null) {
+                continue;
+            }
+            Update update = new Update();
+            update.set("email_lower", users.getKey());
+            try {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())), update, "jhi_user");
+                populated++;
+            } catch (DuplicateKeyException e) {
+                LOG.error("Could not populate email_lower for user {}, another user exists with the same email", user.getId());
+            }
+        }
+        LOG.info("Populated email_lower for {} users", populated);
+        mongoTemplate.indexOps("jhi_user").ensureIndex(new Index("email_lower", Direction.ASC).unique().sparse().named("email_lower_unique_idx"));
+    }
+
 }
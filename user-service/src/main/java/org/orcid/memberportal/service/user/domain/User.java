@@ -48,6 +48,11 @@ public class User extends AbstractAuditingEntity implements Serializable {
     @Indexed
     private String email;
 
+    @JsonIgnore
+    @Field("email_lower")
+    @Indexed(name = "email_lower_unique_idx", unique = true, sparse = true)
+    private String emailLower;
+
     private boolean activated = false;
 
     @Size(min = 2, max = 10)
@@ -80,6 +85,10 @@ public class User extends AbstractAuditingEntity implements Serializable {
     @Field("salesforce_id")
     private String salesforceId;
 
+    @JsonIgnore
+    @Field("salesforce_migration_id")
+    private String salesforceMigrationId;
+
     @Field("member_name")
     private String memberName;
 
@@ -150,6 +159,23 @@ public class User extends AbstractAuditingEntity implements Serializable {
 
     public void setEmail(String email) {
         this.email = StringUtils.lowerCase(email, Locale.ENGLISH);
+        this.emailLower = normalizeEmail(email);
+    }
+
+    public String getEmailLower() {
+        return emailLower;
+    }
+
+    /**
+     * Normalizes an email address to the form stored in the indexed
+     * email_lower field, so lookups can be exact matches rather than case
+     * insensitive regexes.
+     *
+     * @param email
+     * @return the normalized email
+     */
+    public static String normalizeEmail(String email) {
+        return StringUtils.lowerCase(StringUtils.trim(email), Locale.ENGLISH);
     }
 
     public String getImageUrl() {
@@ -224,6 +250,14 @@ public class User extends AbstractAuditingEntity implements Serializable {
         this.salesforceId = salesforceId;
     }
 
+    public String getSalesforceMigrationId() {
+        return salesforceMigrationId;
+    }
+
+    public void setSalesforceMigrationId(String salesforceMigrationId) {
+        this.salesforceMigrationId = salesforceMigrationId;
+    }
+
     public Boolean getMainContact() {
         return mainContact;
     }
@@ -14,7 +14,7 @@ import org.springframework.stereotype.Repository;
  * Spring Data MongoDB repository for the {@link User} entity.
  */
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
     Optional<User> findOneByActivationKey(String activationKey);
 
@@ -22,14 +22,23 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     Optional<User> findOneByResetKey(String resetKey);
 
-    Optional<User> findOneByEmailIgnoreCase(String email);
+    Optional<User> findOneByEmailLower(String emailLower);
+
+    /**
+     * Case insensitive lookup by email, resolved as an exact match against the
+     * indexed email_lower field.
+     *
+     * @param email
+     * @return the matching user, if any
+     */
+    default Optional<User> findOneByEmailIgnoreCase(String email) {
+        return findOneByEmailLower(User.normalizeEmail(email));
+    }
 
     Optional<User> findOneById(String id);
 
     Page<User> findAllByEmailNot(Pageable pageable, String email);
 
-    List<User> findAllByEmailIgnoreCase(String email);
-
     List<User> findBySalesforceIdAndDeletedIsFalse(String salesforceId);
 
     Page<User> findBySalesforceIdAndDeletedIsFalse(Pageable pageable, String salesforceId);
@@ -0,0 +1,22 @@
+package org.orcid.memberportal.service.user.repository;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Moves a member's users to a new salesforce id in a single update,
+     * tagging them with the id of the migration so that it can be rolled
+     * back. Running the same migration again changes nothing.
+     * 
+     * @return the number of users moved
+     */
+    long updateSalesforceId(String from, String to, String migrationId);
+
+    /**
+     * Moves the users moved by the given migration back to their old
+     * salesforce id, in a single update.
+     * 
+     * @return the number of users moved back
+     */
+    long rollbackSalesforceIdMigration(String from, String to, String migrationId);
+
+}
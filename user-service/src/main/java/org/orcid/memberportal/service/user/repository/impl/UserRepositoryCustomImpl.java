@@ -0,0 +1,38 @@
+package org.orcid.memberportal.service.user.repository.impl;
+
+import java.time.Instant;
+
+import org.orcid.memberportal.service.user.domain.User;
+import org.orcid.memberportal.service.user.repository.UserRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long updateSalesforceId(String from, String to, String migrationId) {
+        Query query = new Query(Criteria.where("salesforceId").is(from).and("deleted").is(false));
+        Update update = new Update().set("salesforceId", to).set("salesforceMigrationId", migrationId).set("lastModifiedDate", Instant.now());
+        return mongoTemplate.updateMulti(query, update, User.class).getModifiedCount();
+    }
+
+    @Override
+    public long rollbackSalesforceIdMigration(String from, String to, String migrationId) {
+        Query query = new Query(Criteria.where("salesforceId").is(to).and("salesforceMigrationId").is(migrationId));
+        Update update = new Update().set("salesforceId", from).unset("salesforceMigrationId").set("lastModifiedDate", Instant.now());
+        return mongoTemplate.updateMulti(query, update, User.class).getModifiedCount();
+    }
+
+}
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,8 +46,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -75,8 +74,6 @@ public class UserService {
      */
     private static final int[] ACTIVATION_REMINDER_DAYS = new int[] { 7, 30 };
 
-    public static final int BATCH_SIZE = 100;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -99,42 +96,47 @@ public class UserService {
     private EncryptUtil encryptUtil;
 
     public boolean updateUsersSalesforceId(String from, String to) {
-        return updateUsersSalesforceId(from, to, true);
+        return updateUsersSalesforceId(from, to, UUID.randomUUID().toString());
     }
 
-    private boolean updateUsersSalesforceId(String from, String to, boolean rollback) {
+    /**
+     * Moves a member's users to a new salesforce id in a single update. The
+     * migration id makes retrying the same migration safe, and lets it be
+     * rolled back without touching users that already had either id.
+     */
+    public boolean updateUsersSalesforceId(String from, String to, String migrationId) {
         try {
-            Pageable pageable = PageRequest.of(0, BATCH_SIZE, new Sort(Direction.ASC, "created"));
-            Page<User> page = userRepository.findBySalesforceIdAndDeletedIsFalse(pageable, from);
-            while (!page.isEmpty()) {
-                page.forEach(u -> {
-                    u.setSalesforceId(to);
-                    u.setLastModifiedDate(Instant.now());
-                    userRepository.save(u);
-                });
-
-                // repeat until no more left in db with old sf id
-                page = userRepository.findBySalesforceIdAndDeletedIsFalse(pageable, from);
-            }
+            long updated = userRepository.updateSalesforceId(from, to, migrationId);
+            LOG.info("Moved {} users from salesforce id '{}' to '{}' in migration {}", updated, from, to, migrationId);
         } catch (Exception e) {
             LOG.error("Error bulk updating users from salesforce '" + from + "' to salesforce '" + to + "'", e);
-            if (rollback) {
-                LOG.info("Attempting to RESET user salesforce ids from '{}' to '{}'", new Object[] { to, from });
-                boolean success = updateUsersSalesforceId(to, from, false);
-                if (success) {
-                    LOG.info("Succeeded in RESETTING user salesforce ids from '{}' to '{}'", new Object[] { to, from });
-                    return false;
-                } else {
-                    LOG.error("Failed to reset users from '{}' to '{}'", new Object[] { to, from });
-                    LOG.error("Operation to update users salesforce ids from '{}' to '{}' has failed but there may be users with new sf id of '{}' in the database!",
-                            new Object[] { from, to, to });
-                    return false;
-                }
+            LOG.info("Attempting to RESET user salesforce ids from '{}' to '{}'", to, from);
+            if (rollbackUsersSalesforceId(from, to, migrationId)) {
+                LOG.info("Succeeded in RESETTING user salesforce ids from '{}' to '{}'", to, from);
+            } else {
+                LOG.error("Operation to update users salesforce ids from '{}' to '{}' has failed but there may be users with new sf id of '{}' in the database!",
+                        from, to, to);
             }
+            return false;
         }
         return true;
     }
 
+    /**
+     * Moves the users moved by the given migration back to their old
+     * salesforce id.
+     */
+    public boolean rollbackUsersSalesforceId(String from, String to, String migrationId) {
+        try {
+            long reset = userRepository.rollbackSalesforceIdMigration(from, to, migrationId);
+            LOG.info("Moved {} users back from salesforce id '{}' to '{}' for migration {}", reset, to, from, migrationId);
+            return true;
+        } catch (Exception e) {
+            LOG.error("Failed to reset users from '" + to + "' to '" + from + "' for migration " + migrationId, e);
+            return false;
+        }
+    }
+
     public void completePasswordReset(String newPassword, String key) throws ExpiredKeyException, InvalidKeyException {
         LOG.debug("Reset user password for reset key {}", key);
         if (!validResetKey(key)) {
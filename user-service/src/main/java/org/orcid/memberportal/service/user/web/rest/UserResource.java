@@ -410,13 +410,39 @@ public class UserResource {
      *
      * @param salesforceId    the salesforceId to the find the users to update.
      * @param newSalesforceId the new salesforceId to update.
+     * @param migrationId     the id of the migration, which makes retries
+     *                        safe and lets the migration be rolled back.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
      */
     @PutMapping("/users/{salesforceId}/{newSalesforceId}")
     @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Void> updateUsersSalesforceId(@PathVariable String salesforceId, @PathVariable String newSalesforceId) {
+    public ResponseEntity<Void> updateUsersSalesforceId(@PathVariable String salesforceId, @PathVariable String newSalesforceId,
+            @RequestParam(required = false) String migrationId) {
         LOG.debug("REST request to update users' salesforce id from {} to {}", salesforceId, newSalesforceId);
-        boolean success = userService.updateUsersSalesforceId(salesforceId, newSalesforceId);
+        boolean success = migrationId != null ? userService.updateUsersSalesforceId(salesforceId, newSalesforceId, migrationId)
+                : userService.updateUsersSalesforceId(salesforceId, newSalesforceId);
+        if (success) {
+            return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, "user", salesforceId)).build();
+        } else {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * {@code PUT /users/:salesforceId/:newSalesforceId/rollback} : Moves the
+     * users moved by a salesforce id migration back to their old salesforceId.
+     *
+     * @param salesforceId    the salesforceId the users were moved from.
+     * @param newSalesforceId the salesforceId the users were moved to.
+     * @param migrationId     the id of the migration to roll back.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
+     */
+    @PutMapping("/users/{salesforceId}/{newSalesforceId}/rollback")
+    @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rollbackUsersSalesforceId(@PathVariable String salesforceId, @PathVariable String newSalesforceId,
+            @RequestParam String migrationId) {
+        LOG.debug("REST request to roll back users' salesforce id migration {} from {} to {}", migrationId, salesforceId, newSalesforceId);
+        boolean success = userService.rollbackUsersSalesforceId(salesforceId, newSalesforceId, migrationId);
         if (success) {
             return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, "user", salesforceId)).build();
         } else {
@@ -0,0 +1,71 @@
+package org.orcid.memberportal.service.user.config.dbmigrations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.orcid.memberportal.service.user.domain.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class UserServiceDbChangesTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(mongoTemplate.indexOps(Mockito.eq("jhi_user"))).thenReturn(indexOperations);
+    }
+
+    @Test
+    void testPopulateEmailLowerField() {
+        User legacy = getUser("legacy", "Mixed.Case@Orcid.org", false);
+        User populated = getUser("populated", "populated@orcid.org", true);
+        User duplicate = getUser("duplicate", "Duplicate@orcid.org", false);
+        User duplicateVariant = getUser("duplicate-variant", "duplicate@ORCID.org", true);
+        Mockito.when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(User.class), Mockito.eq("jhi_user")))
+                .thenReturn(Arrays.asList(legacy, populated, duplicate, duplicateVariant));
+
+        new UserServiceDbChanges().populateEmailLowerField(mongoTemplate);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        Mockito.verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(), Mockito.eq("jhi_user"));
+        assertEquals("legacy", queryCaptor.getValue().getQueryObject().get("_id"));
+        assertEquals("mixed.case@orcid.org", ((Document) updateCaptor.getValue().getUpdateObject().get("$set")).get("email_lower"));
+
+        // the index is added once the case variants are left out
+        ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+        Mockito.verify(indexOperations).ensureIndex(indexCaptor.capture());
+        assertEquals("email_lower_unique_idx", indexCaptor.getValue().getIndexOptions().get("name"));
+        assertEquals(true, indexCaptor.getValue().getIndexOptions().get("unique"));
+    }
+
+    private User getUser(String id, String email, boolean emailLowerPopulated) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        if (!emailLowerPopulated) {
+            // as read from a document written before email_lower existed
+            ReflectionTestUtils.setField(user, "emailLower", null);
+        }
+        return user;
+    }
+
+}
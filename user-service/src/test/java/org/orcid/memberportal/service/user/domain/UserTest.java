@@ -0,0 +1,31 @@
+package org.orcid.memberportal.service.user.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class UserTest {
+
+    @Test
+    void testSetEmailKeepsEmailLowerInSync() {
+        User user = new User();
+        user.setEmail("Some.User@ORCID.org");
+        assertEquals("some.user@orcid.org", user.getEmail());
+        assertEquals("some.user@orcid.org", user.getEmailLower());
+
+        user.setEmail(" Other.User@orcid.org ");
+        assertEquals("other.user@orcid.org", user.getEmailLower());
+
+        user.setEmail(null);
+        assertNull(user.getEmail());
+        assertNull(user.getEmailLower());
+    }
+
+    @Test
+    void testNormalizeEmail() {
+        assertEquals("some.user@orcid.org", User.normalizeEmail("  SOME.user@Orcid.Org"));
+        assertNull(User.normalizeEmail(null));
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.orcid.memberportal.service.user.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.user.UserServiceApp;
+import org.orcid.memberportal.service.user.config.dbmigrations.UserServiceDbChanges;
+import org.orcid.memberportal.service.user.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = UserServiceApp.class)
+public class UserRepositoryIT {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindOneByEmailIgnoreCase() {
+        User user = new User();
+        user.setEmail("Saved.User@ORCID.org");
+        userRepository.save(user);
+
+        assertThat(userRepository.findOneByEmailIgnoreCase("saved.user@orcid.org")).isPresent();
+        assertThat(userRepository.findOneByEmailIgnoreCase(" SAVED.User@orcid.ORG")).isPresent();
+        assertThat(userRepository.findOneByEmailIgnoreCase("other.user@orcid.org")).isNotPresent();
+    }
+
+    @Test
+    public void testFindOneByEmailIgnoreCaseAfterBackfill() {
+        // written with a mixed case email, before email_lower existed
+        mongoTemplate.insert(new Document("_id", "legacy").append("email", "Legacy.User@Orcid.org"), "jhi_user");
+        mongoTemplate.insert(Arrays.asList(new Document("_id", "duplicate").append("email", "Duplicate@orcid.org"),
+                new Document("_id", "duplicate-variant").append("email", "duplicate@ORCID.org")), "jhi_user");
+
+        new UserServiceDbChanges().populateEmailLowerField(mongoTemplate);
+
+        assertThat(userRepository.findOneByEmailIgnoreCase("LEGACY.user@orcid.org")).map(User::getId).hasValue("legacy");
+        assertThat(mongoTemplate.getCollection("jhi_user").find(new Document("_id", "duplicate")).first()).doesNotContainKey("email_lower");
+        assertThat(mongoTemplate.getCollection("jhi_user").find(new Document("_id", "duplicate-variant")).first()).doesNotContainKey("email_lower");
+        assertThat(mongoTemplate.indexOps("jhi_user").getIndexInfo()).anyMatch(i -> i.getName().equals("email_lower_unique_idx") && i.isUnique());
+    }
+
+}
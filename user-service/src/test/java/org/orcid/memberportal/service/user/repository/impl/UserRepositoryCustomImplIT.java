@@ -0,0 +1,67 @@
+package org.orcid.memberportal.service.user.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orcid.memberportal.service.user.UserServiceApp;
+import org.orcid.memberportal.service.user.domain.User;
+import org.orcid.memberportal.service.user.repository.UserRepository;
+import org.orcid.memberportal.service.user.repository.UserRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@SpringBootTest(classes = UserServiceApp.class)
+public class UserRepositoryCustomImplIT {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private UserRepositoryCustom userRepositoryCustom;
+
+    @BeforeEach
+    public void setUp() {
+        userRepositoryCustom = new UserRepositoryCustomImpl(mongoTemplate);
+        userRepository.deleteAll();
+        userRepository.saveAll(Arrays.asList(getUser("first", "member-1", false), getUser("second", "member-1", false), getUser("deleted", "member-1", true),
+                getUser("other", "member-2", false)));
+    }
+
+    @Test
+    public void testMigrateAndRollbackSalesforceId() {
+        assertThat(userRepositoryCustom.updateSalesforceId("member-1", "member-new", "migration-1")).isEqualTo(2);
+
+        assertThat(userRepository.findAll()).extracting(User::getEmail, User::getSalesforceId, User::getSalesforceMigrationId).containsExactlyInAnyOrder(
+                tuple("first@orcid.org", "member-new", "migration-1"), tuple("second@orcid.org", "member-new", "migration-1"),
+                tuple("deleted@orcid.org", "member-1", null), tuple("other@orcid.org", "member-2", null));
+
+        // running it again changes nothing
+        assertThat(userRepositoryCustom.updateSalesforceId("member-1", "member-new", "migration-1")).isEqualTo(0);
+
+        // users added to the new member since aren't part of the migration
+        userRepository.save(getUser("new", "member-new", false));
+
+        assertThat(userRepositoryCustom.rollbackSalesforceIdMigration("member-1", "member-new", "migration-2")).isEqualTo(0);
+        assertThat(userRepositoryCustom.rollbackSalesforceIdMigration("member-1", "member-new", "migration-1")).isEqualTo(2);
+
+        assertThat(userRepository.findAll()).extracting(User::getEmail, User::getSalesforceId, User::getSalesforceMigrationId).containsExactlyInAnyOrder(
+                tuple("first@orcid.org", "member-1", null), tuple("second@orcid.org", "member-1", null), tuple("deleted@orcid.org", "member-1", null),
+                tuple("other@orcid.org", "member-2", null), tuple("new@orcid.org", "member-new", null));
+    }
+
+    private User getUser(String name, String salesforceId, boolean deleted) {
+        User user = new User();
+        user.setEmail(name + "@orcid.org");
+        user.setSalesforceId(salesforceId);
+        user.setDeleted(deleted);
+        return user;
+    }
+
+}
@@ -598,58 +598,42 @@ class UserServiceTest {
 
     @Test
     void testUpdateUsersSalesforceId() {
-        List<User> firstPage = getUsersForSalesforceId("salesforce-id", 0, UserService.BATCH_SIZE);
-        List<User> secondPage = getUsersForSalesforceId("salesforce-id", UserService.BATCH_SIZE, UserService.BATCH_SIZE * 2);
-        List<User> thirdPage = getUsersForSalesforceId("salesforce-id", UserService.BATCH_SIZE * 2, (UserService.BATCH_SIZE * 3) - 10);
-        ;
-        Mockito.when(userRepository.findBySalesforceIdAndDeletedIsFalse(Mockito.any(Pageable.class), Mockito.eq("salesforce-id")))
-                .thenReturn(new PageImpl<User>(firstPage)).thenReturn(new PageImpl<User>(secondPage)).thenReturn(new PageImpl<User>(thirdPage))
-                .thenReturn(new PageImpl<User>(new ArrayList<>()));
-        boolean success = userService.updateUsersSalesforceId("salesforce-id", "new-salesforce-id");
+        Mockito.when(userRepository.updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenReturn(250L);
+        boolean success = userService.updateUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id");
         assertThat(success).isTrue();
 
-        Mockito.verify(userRepository, Mockito.times((UserService.BATCH_SIZE * 3) - 10)).save(userCaptor.capture());
-        List<User> saved = userCaptor.getAllValues();
-        saved.forEach(u -> assertThat(u.getSalesforceId()).isEqualTo("new-salesforce-id"));
+        Mockito.verify(userRepository).updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
+        Mockito.verify(userRepository, Mockito.never()).rollbackSalesforceIdMigration(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any(User.class));
     }
 
     @Test
-    void testUpdateUsersSalesforceIdWithFailure() {
-        List<User> firstPage = getUsersForSalesforceId("salesforce-id", 0, UserService.BATCH_SIZE);
-        Mockito.when(userRepository.findBySalesforceIdAndDeletedIsFalse(Mockito.any(Pageable.class), Mockito.eq("salesforce-id")))
-                .thenReturn(new PageImpl<User>(firstPage));
-
-        // representing updated assertions that need to be rolled back
-        Mockito.when(userRepository.findBySalesforceIdAndDeletedIsFalse(Mockito.any(Pageable.class), Mockito.eq("new-salesforce-id")))
-                .thenReturn(new PageImpl<User>(Arrays.asList(new User(), new User(), new User()))).thenReturn(new PageImpl<User>(new ArrayList<>()));
+    void testUpdateUsersSalesforceIdGeneratesMigrationId() {
+        boolean success = userService.updateUsersSalesforceId("salesforce-id", "new-salesforce-id");
+        assertThat(success).isTrue();
+        Mockito.verify(userRepository).updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.anyString());
+    }
 
-        // 3 successful updates before error, followed by rollback
-        Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(new User()).thenReturn(new User()).thenReturn(new User())
-                .thenThrow(new RuntimeException("some random problem")).thenReturn(new User()).thenReturn(new User()).thenReturn(new User());
+    @Test
+    void testUpdateUsersSalesforceIdWithFailure() {
+        Mockito.when(userRepository.updateSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenThrow(new RuntimeException("some random problem"));
 
-        boolean success = userService.updateUsersSalesforceId("salesforce-id", "new-salesforce-id");
+        boolean success = userService.updateUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id");
         assertThat(success).isFalse();
 
-        // 3 updates followed by 1 failure and 3 rollbacks
-        Mockito.verify(userRepository, Mockito.times(7)).save(userCaptor.capture());
-        List<User> saved = userCaptor.getAllValues();
-        assertThat(saved.get(0).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(1).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(2).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(3).getSalesforceId()).isEqualTo("new-salesforce-id");
-        assertThat(saved.get(4).getSalesforceId()).isEqualTo("salesforce-id");
-        assertThat(saved.get(5).getSalesforceId()).isEqualTo("salesforce-id");
-        assertThat(saved.get(6).getSalesforceId()).isEqualTo("salesforce-id");
+        // only users moved by this migration are moved back
+        Mockito.verify(userRepository).rollbackSalesforceIdMigration(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
     }
 
-    private List<User> getUsersForSalesforceId(String salesforceId, int from, int to) {
-        List<User> users = new ArrayList<>();
-        for (int i = from; i < to; i++) {
-            User user = new User();
-            user.setSalesforceId(salesforceId);
-            users.add(user);
-        }
-        return users;
+    @Test
+    void testRollbackUsersSalesforceId() {
+        assertThat(userService.rollbackUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id")).isTrue();
+
+        Mockito.when(userRepository.rollbackSalesforceIdMigration(Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new RuntimeException("some random problem"));
+        assertThat(userService.rollbackUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id")).isFalse();
     }
 
     private User getUserUsingMfa() {
@@ -76,17 +76,31 @@ class UserResourceTest {
     @Test
     void testUpdateSalesforceId() {
         Mockito.when(userService.updateUsersSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"))).thenReturn(true);
-        ResponseEntity<Void> response = userResource.updateUsersSalesforceId("salesforce-id", "new-salesforce-id");
+        ResponseEntity<Void> response = userResource.updateUsersSalesforceId("salesforce-id", "new-salesforce-id", null);
         assertTrue(response.getStatusCode().is2xxSuccessful());
+
+        Mockito.when(userService.updateUsersSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenReturn(true);
+        response = userResource.updateUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id");
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        Mockito.verify(userService).updateUsersSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id"));
     }
 
     @Test
     void testUpdateSalesforceIdWithError() {
         Mockito.when(userService.updateUsersSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"))).thenReturn(false);
-        ResponseEntity<Void> response = userResource.updateUsersSalesforceId("salesforce-id", "new-salesforce-id");
+        ResponseEntity<Void> response = userResource.updateUsersSalesforceId("salesforce-id", "new-salesforce-id", null);
         assertTrue(response.getStatusCode().is5xxServerError());
     }
 
+    @Test
+    void testRollbackSalesforceId() {
+        Mockito.when(userService.rollbackUsersSalesforceId(Mockito.eq("salesforce-id"), Mockito.eq("new-salesforce-id"), Mockito.eq("migration-id")))
+                .thenReturn(true).thenReturn(false);
+        assertTrue(userResource.rollbackUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id").getStatusCode().is2xxSuccessful());
+        assertTrue(userResource.rollbackUsersSalesforceId("salesforce-id", "new-salesforce-id", "migration-id").getStatusCode().is5xxServerError());
+    }
+
     @Test
     public void testResendActivation() {
         Mockito.doNothing().when(userService).resendActivationEmail(Mockito.anyString());